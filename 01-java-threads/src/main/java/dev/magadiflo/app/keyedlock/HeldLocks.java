@@ -0,0 +1,52 @@
+package dev.magadiflo.app.keyedlock;
+
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Locks adquiridos juntos por {@code lockAll}: {@link #close()} los libera en orden inverso, así que se usa con
+ * try-with-resources.
+ * <pre>{@code
+ * try (HeldLocks held = accounts.lockAll(List.of(from, to))) {
+ *     // ... transferencia ...
+ * }
+ * }</pre>
+ * No es thread-safe: lo cierra el mismo hilo que lo obtuvo.
+ */
+public final class HeldLocks implements AutoCloseable {
+
+    private final Lock[] locks;
+    private int held;
+
+    private HeldLocks(Lock[] locks) {
+        this.locks = locks;
+    }
+
+    /**
+     * Adquiere {@code locks} en el orden del arreglo; {@code stripes[i]} es la franja de métricas de {@code locks[i]}.
+     * El orden lo fija quien llama, y tiene que ser el mismo para todos los hilos.
+     */
+    static HeldLocks acquire(StripeStats stats, int[] stripes, Lock[] locks) {
+        HeldLocks held = new HeldLocks(locks);
+        try {
+            for (int i = 0; i < locks.length; i++) {
+                stats.acquire(stripes[i], locks[i]);
+                held.held++;
+            }
+        } catch (RuntimeException | Error e) {
+            held.close();
+            throw e;
+        }
+        return held;
+    }
+
+    public int size() {
+        return this.locks.length;
+    }
+
+    @Override
+    public void close() {
+        while (this.held > 0) {
+            this.locks[--this.held].unlock();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package dev.magadiflo.app.keyedlock;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Transferencias entre {@value #ACCOUNTS} cuentas con {@value #THREADS} hilos, protegiendo los saldos con:
+ * <ul>
+ *     <li>un único {@link ReentrantLock}, como {@code LockCashBox};</li>
+ *     <li>un {@link StripedReentrantLock} con 64 y con 4096 franjas;</li>
+ *     <li>un {@link WeakKeyedLock}, un lock por cuenta que se recoge al dejar de usarse;</li>
+ *     <li>un {@code ConcurrentHashMap<Integer, ReentrantLock>} con {@code computeIfAbsent}, un lock por cuenta que no
+ *     se borra nunca.</li>
+ * </ul>
+ * La mitad de las transferencias tocan una de las {@value #HOT_ACCOUNTS} cuentas "calientes", para que se vea en las
+ * métricas de franjas. Cada transferencia va en los dos sentidos al azar, así que sin la adquisición ordenada de
+ * {@code lockAll} habría deadlocks. Al final de cada escenario se comprueba que la suma de saldos no cambió.
+ * <p>
+ * Después, un escenario de consultas de saldo (95 % lecturas) compara lecturas con lock exclusivo, con
+ * {@link StripedReadWriteLock} y con las lecturas optimistas de {@link StripedStampedLock}.
+ */
+@Slf4j
+public class KeyedLockBenchmark {
+
+    private static final int ACCOUNTS = 1_000_000;
+    private static final int HOT_ACCOUNTS = 16;
+    private static final long INITIAL_BALANCE = 1_000;
+    private static final int THREADS = 8;
+    private static final double READ_RATIO = 0.95;
+    private static final Duration WARM_UP = Duration.ofMillis(300);
+    private static final Duration DURATION = Duration.ofSeconds(1);
+
+    private static final long[] balances = new long[ACCOUNTS];
+
+    @FunctionalInterface
+    private interface Operation {
+        void execute(ThreadLocalRandom random);
+    }
+
+    // Los locks de cada transferencia no se usan en el cuerpo: solo importa que el try los libere
+    @SuppressWarnings("try")
+    public static void main(String[] args) throws InterruptedException {
+        log.info("Núcleos disponibles: {}, hilos: {}", Runtime.getRuntime().availableProcessors(), THREADS);
+
+        ReentrantLock global = new ReentrantLock();
+        measure("Lock único", random -> {
+            int from = account(random);
+            int to = otherAccount(random, from);
+            global.lock();
+            try {
+                transfer(from, to);
+            } finally {
+                global.unlock();
+            }
+        });
+
+        StripedReentrantLock striped64 = Striped.reentrant(64);
+        measure("Striped (64 franjas)", random -> {
+            int from = account(random);
+            int to = otherAccount(random, from);
+            try (HeldLocks ignored = striped64.lockAll(List.of(from, to))) {
+                transfer(from, to);
+            }
+        });
+
+        StripedReentrantLock striped4096 = Striped.reentrant(4096);
+        measure("Striped (4096 franjas)", random -> {
+            int from = account(random);
+            int to = otherAccount(random, from);
+            try (HeldLocks ignored = striped4096.lockAll(List.of(from, to))) {
+                transfer(from, to);
+            }
+        });
+
+        WeakKeyedLock<Integer> weak = WeakKeyedLock.create();
+        measure("WeakKeyedLock", random -> {
+            int from = account(random);
+            int to = otherAccount(random, from);
+            try (HeldLocks ignored = weak.lockAll(List.of(from, to))) {
+                transfer(from, to);
+            }
+        });
+        collectGarbage();
+        log.info("    WeakKeyedLock: {} locks en el mapa tras un GC", String.format("%,d", weak.size()));
+
+        ConcurrentHashMap<Integer, ReentrantLock> perKey = new ConcurrentHashMap<>();
+        measure("ConcurrentHashMap por clave", random -> {
+            int from = account(random);
+            int to = otherAccount(random, from);
+            Lock first = perKey.computeIfAbsent(Math.min(from, to), key -> new ReentrantLock());
+            Lock second = perKey.computeIfAbsent(Math.max(from, to), key -> new ReentrantLock());
+            first.lock();
+            try {
+                second.lock();
+                try {
+                    transfer(from, to);
+                } finally {
+                    second.unlock();
+                }
+            } finally {
+                first.unlock();
+            }
+        });
+        collectGarbage();
+        log.info("    ConcurrentHashMap: {} locks en el mapa tras un GC", String.format("%,d", perKey.size()));
+
+        log.info("Métricas de Striped (64 franjas):");
+        striped64.stats().logReport(5);
+
+        log.info("Consultas de saldo ({}% lecturas, 4096 franjas):", Math.round(100 * READ_RATIO));
+        StripedReentrantLock exclusive = Striped.reentrant(4096);
+        measure("ReentrantLock", random -> {
+            if (random.nextDouble() < READ_RATIO) {
+                int account = account(random);
+                exclusive.withLock(account, () -> balances[account]);
+            } else {
+                int from = account(random);
+                int to = otherAccount(random, from);
+                try (HeldLocks ignored = exclusive.lockAll(List.of(from, to))) {
+                    transfer(from, to);
+                }
+            }
+        });
+        StripedReadWriteLock readWrite = Striped.readWrite(4096);
+        measure("ReadWriteLock", random -> {
+            if (random.nextDouble() < READ_RATIO) {
+                int account = account(random);
+                readWrite.withReadLock(account, () -> balances[account]);
+            } else {
+                int from = account(random);
+                int to = otherAccount(random, from);
+                try (HeldLocks ignored = readWrite.writeLockAll(List.of(from, to))) {
+                    transfer(from, to);
+                }
+            }
+        });
+        StripedStampedLock stamped = Striped.stamped(4096);
+        measure("StampedLock optimista", random -> {
+            if (random.nextDouble() < READ_RATIO) {
+                int account = account(random);
+                stamped.optimisticRead(account, () -> balances[account]);
+            } else {
+                int from = account(random);
+                int to = otherAccount(random, from);
+                try (HeldLocks ignored = stamped.writeLockAll(List.of(from, to))) {
+                    transfer(from, to);
+                }
+            }
+        });
+        log.info("Métricas de StampedLock (solo escrituras y lecturas optimistas invalidadas):");
+        stamped.stats().logReport(3);
+    }
+
+    private static void measure(String name, Operation operation) throws InterruptedException {
+        Arrays.fill(balances, INITIAL_BALANCE);
+        run(operation, WARM_UP);
+        long operations = run(operation, DURATION);
+        long total = 0;
+        for (long balance : balances) {
+            total += balance;
+        }
+        log.info("{}: {} Mops/s, saldo total {}", String.format("%-28s", name),
+                String.format("%6.2f", operations / (DURATION.toNanos() / 1e9) / 1e6),
+                total == INITIAL_BALANCE * ACCOUNTS ? "correcto" : "INCORRECTO (" + total + ")");
+    }
+
+    private static long run(Operation operation, Duration duration) throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                // Se consulta el reloj cada 256 operaciones para no medir System.nanoTime()
+                while ((count & 255) != 0 || System.nanoTime() < deadline) {
+                    operation.execute(random);
+                    count++;
+                }
+                operations.add(count);
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return operations.sum();
+    }
+
+    /**
+     * Un GC completo y una pausa: el hilo {@code Reference Handler} encola las referencias débiles después del GC.
+     */
+    private static void collectGarbage() throws InterruptedException {
+        System.gc();
+        Thread.sleep(200);
+    }
+
+    private static int account(ThreadLocalRandom random) {
+        return random.nextBoolean() ? random.nextInt(HOT_ACCOUNTS) : random.nextInt(ACCOUNTS);
+    }
+
+    private static int otherAccount(ThreadLocalRandom random, int from) {
+        int to = account(random);
+        return to == from ? (to + 1) % ACCOUNTS : to;
+    }
+
+    private static void transfer(int from, int to) {
+        balances[from]--;
+        balances[to]++;
+    }
+}
@@ -0,0 +1,143 @@
+package dev.magadiflo.app.keyedlock;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Métricas de contención por franja (stripe) de un {@link Striped} o de un {@link WeakKeyedLock}: cuántas veces se
+ * adquirió cada lock, cuántas de ellas estaba ocupado y cuánto tiempo se esperó en total.
+ * <p>
+ * Medir cuesta poco: primero se intenta {@code tryLock()}, y solo si falla se toma el tiempo y se bloquea. Así el
+ * camino sin contención no llama a {@link System#nanoTime()}. Los contadores de cada franja ocupan su propio bloque de
+ * {@value #STRIDE} {@code long} (128 bytes), para que los hilos que trabajan con franjas distintas no se invaliden la
+ * línea de caché unos a otros al actualizar las métricas, que es justo lo que el striping intenta evitar.
+ */
+@Slf4j
+public final class StripeStats {
+
+    static final int STRIDE = 16;
+    private static final int ACQUISITIONS = 0;
+    private static final int CONTENDED = 1;
+    private static final int WAIT_NANOS = 2;
+    private static final VarHandle COUNTERS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /**
+     * Métricas de una franja. {@code contended} cuenta las adquisiciones que encontraron el lock ocupado (o, en un
+     * {@link StripedStampedLock}, las lecturas optimistas invalidadas). Las lecturas optimistas que validan no cuentan
+     * como adquisiciones.
+     */
+    public record Stripe(int index, long acquisitions, long contended, Duration waited) {
+
+        public double contentionRatio() {
+            return this.acquisitions == 0 ? 0 : (double) this.contended / this.acquisitions;
+        }
+
+        public Duration averageWait() {
+            return this.waited.dividedBy(Math.max(1, this.contended));
+        }
+    }
+
+    private final long[] counters;
+    private final int stripes;
+
+    StripeStats(int stripes) {
+        this.stripes = stripes;
+        this.counters = new long[(stripes + 2) * STRIDE];
+    }
+
+    /**
+     * Adquiere {@code lock} registrando la espera en la franja {@code stripe}.
+     */
+    Lock acquire(int stripe, Lock lock) {
+        if (!lock.tryLock()) {
+            long start = System.nanoTime();
+            lock.lock();
+            this.recordWait(stripe, System.nanoTime() - start);
+        }
+        this.recordAcquisition(stripe);
+        return lock;
+    }
+
+    void recordAcquisition(int stripe) {
+        COUNTERS.getAndAdd(this.counters, this.offset(stripe) + ACQUISITIONS, 1L);
+    }
+
+    void recordWait(int stripe, long nanos) {
+        int offset = this.offset(stripe);
+        COUNTERS.getAndAdd(this.counters, offset + CONTENDED, 1L);
+        COUNTERS.getAndAdd(this.counters, offset + WAIT_NANOS, nanos);
+    }
+
+    private int offset(int stripe) {
+        return (stripe + 1) * STRIDE;
+    }
+
+    public Stripe get(int stripe) {
+        if (stripe < 0 || stripe >= this.stripes) {
+            throw new IndexOutOfBoundsException("Franja " + stripe + " fuera de [0, " + this.stripes + ")");
+        }
+        int offset = this.offset(stripe);
+        return new Stripe(stripe, (long) COUNTERS.getOpaque(this.counters, offset + ACQUISITIONS),
+                (long) COUNTERS.getOpaque(this.counters, offset + CONTENDED),
+                Duration.ofNanos((long) COUNTERS.getOpaque(this.counters, offset + WAIT_NANOS)));
+    }
+
+    public List<Stripe> snapshot() {
+        List<Stripe> snapshot = new ArrayList<>(this.stripes);
+        for (int i = 0; i < this.stripes; i++) {
+            snapshot.add(this.get(i));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Suma de todas las franjas, con índice {@code -1}.
+     */
+    public Stripe total() {
+        long acquisitions = 0;
+        long contended = 0;
+        long waitNanos = 0;
+        for (int i = 0; i < this.stripes; i++) {
+            int offset = this.offset(i);
+            acquisitions += (long) COUNTERS.getOpaque(this.counters, offset + ACQUISITIONS);
+            contended += (long) COUNTERS.getOpaque(this.counters, offset + CONTENDED);
+            waitNanos += (long) COUNTERS.getOpaque(this.counters, offset + WAIT_NANOS);
+        }
+        return new Stripe(-1, acquisitions, contended, Duration.ofNanos(waitNanos));
+    }
+
+    /**
+     * Las {@code limit} franjas con más tiempo de espera acumulado.
+     */
+    public List<Stripe> hottest(int limit) {
+        return this.snapshot().stream()
+                .filter(stripe -> stripe.contended() > 0)
+                .sorted(Comparator.comparing(Stripe::waited).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void logReport(int limit) {
+        Stripe total = this.total();
+        log.info("{} franjas: {} adquisiciones, {}% con contención, espera total {} ms", this.stripes,
+                String.format("%,d", total.acquisitions()), String.format("%.2f", 100 * total.contentionRatio()),
+                total.waited().toMillis());
+        for (Stripe stripe : this.hottest(limit)) {
+            log.info("    franja {}: {} adquisiciones, {}% con contención, espera total {} ms, promedio {} µs",
+                    String.format("%4d", stripe.index()), String.format("%,9d", stripe.acquisitions()),
+                    String.format("%5.2f", 100 * stripe.contentionRatio()), stripe.waited().toMillis(),
+                    stripe.averageWait().toNanos() / 1_000);
+        }
+    }
+
+    public int stripes() {
+        return this.stripes;
+    }
+}
@@ -0,0 +1,136 @@
+package dev.magadiflo.app.keyedlock;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Exclusión mutua por entidad (cuenta, SKU) sin crear un lock por clave: un arreglo fijo de locks, y cada clave usa el
+ * de la franja (stripe) que le toca según su hash.
+ * <p>
+ * Con un único lock, como en {@code CashBox} o {@code LockCashBox}, dos hilos que trabajan con cuentas distintas se
+ * esperan igual. Con un lock por clave no se esperan nunca, pero con millones de claves hay millones de locks. Con
+ * {@code N} franjas la memoria es fija, y dos claves distintas solo se estorban si caen en la misma franja
+ * (probabilidad {@code 1/N}). Dos operaciones sobre la misma clave siempre usan el mismo lock, que es lo que garantiza
+ * la exclusión mutua.
+ * <p>
+ * {@code lockAll} toma los locks de varias claves en orden ascendente de franja, y sin repetir franjas: si un hilo
+ * transfiere de A a B y otro de B a A, los dos empiezan por la misma franja y no pueden quedar esperándose el uno al
+ * otro (deadlock). Cada variante registra la contención de cada franja en {@link #stats()}.
+ *
+ * @param <L> tipo de lock de cada franja
+ * @see StripedReentrantLock
+ * @see StripedReadWriteLock
+ * @see StripedStampedLock
+ * @see WeakKeyedLock
+ */
+public abstract class Striped<L> {
+
+    private static final int MAX_STRIPES = 1 << 20;
+
+    private final Object[] locks;
+    private final int mask;
+    final StripeStats stats;
+
+    Striped(int stripes, Supplier<L> factory) {
+        if (stripes < 1 || stripes > MAX_STRIPES) {
+            throw new IllegalArgumentException("La cantidad de franjas debe estar entre 1 y " + MAX_STRIPES + ": " +
+                    stripes);
+        }
+        // Potencia de 2 para elegir la franja con una máscara en lugar de un módulo
+        int size = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.locks = new Object[size];
+        for (int i = 0; i < size; i++) {
+            this.locks[i] = factory.get();
+        }
+        this.mask = size - 1;
+        this.stats = new StripeStats(size);
+    }
+
+    /**
+     * Franjas con {@code ReentrantLock}. {@code stripes} se redondea a potencia de 2.
+     */
+    public static StripedReentrantLock reentrant(int stripes) {
+        return new StripedReentrantLock(stripes);
+    }
+
+    /**
+     * Franjas con {@code ReentrantReadWriteLock}, para claves mucho más leídas que escritas.
+     */
+    public static StripedReadWriteLock readWrite(int stripes) {
+        return new StripedReadWriteLock(stripes);
+    }
+
+    /**
+     * Franjas con {@code StampedLock}, con lecturas optimistas que no escriben en el lock.
+     */
+    public static StripedStampedLock stamped(int stripes) {
+        return new StripedStampedLock(stripes);
+    }
+
+    public int indexOf(Object key) {
+        return spread(Objects.requireNonNull(key, "key").hashCode()) & this.mask;
+    }
+
+    /**
+     * Mezcla los bits del hash: con una máscara solo cuentan los bits bajos, y hay {@code hashCode()} (como el de
+     * {@code Long} con IDs múltiplos de 1024) que los dejan siempre iguales.
+     */
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+
+    /**
+     * El lock de la franja de {@code key}, sin adquirirlo ni registrar métricas.
+     */
+    public L get(Object key) {
+        return this.getAt(this.indexOf(key));
+    }
+
+    @SuppressWarnings("unchecked")
+    public L getAt(int stripe) {
+        return (L) this.locks[stripe];
+    }
+
+    public int size() {
+        return this.locks.length;
+    }
+
+    public StripeStats stats() {
+        return this.stats;
+    }
+
+    /**
+     * Franjas de {@code keys}, ordenadas y sin repetir.
+     */
+    int[] orderedStripes(Collection<?> keys) {
+        int[] stripes = new int[keys.size()];
+        int count = 0;
+        for (Object key : keys) {
+            stripes[count++] = this.indexOf(key);
+        }
+        Arrays.sort(stripes);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || stripes[distinct - 1] != stripes[i]) {
+                stripes[distinct++] = stripes[i];
+            }
+        }
+        return Arrays.copyOf(stripes, distinct);
+    }
+
+    HeldLocks lockAll(Collection<?> keys, IntFunction<Lock> lockAt) {
+        int[] stripes = this.orderedStripes(keys);
+        Lock[] locks = new Lock[stripes.length];
+        for (int i = 0; i < stripes.length; i++) {
+            locks[i] = lockAt.apply(stripes[i]);
+        }
+        return HeldLocks.acquire(this.stats, stripes, locks);
+    }
+}
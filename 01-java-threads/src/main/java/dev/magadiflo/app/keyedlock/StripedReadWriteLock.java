@@ -0,0 +1,66 @@
+package dev.magadiflo.app.keyedlock;
+
+import java.util.Collection;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * {@link Striped} con un {@link ReentrantReadWriteLock} por franja: varias lecturas de claves de la misma franja pueden
+ * ir a la vez, y una escritura espera a que terminen.
+ * <p>
+ * Ojo: cada lectura sigue escribiendo el contador de lectores del lock con un CAS, así que con muchos núcleos leyendo
+ * la misma franja la línea de caché del lock se disputa igual. Para lecturas muy cortas y muy frecuentes conviene
+ * {@link StripedStampedLock}.
+ */
+public final class StripedReadWriteLock extends Striped<ReadWriteLock> {
+
+    StripedReadWriteLock(int stripes) {
+        super(stripes, ReentrantReadWriteLock::new);
+    }
+
+    public Lock readLock(Object key) {
+        int stripe = this.indexOf(key);
+        return this.stats.acquire(stripe, this.getAt(stripe).readLock());
+    }
+
+    public Lock writeLock(Object key) {
+        int stripe = this.indexOf(key);
+        return this.stats.acquire(stripe, this.getAt(stripe).writeLock());
+    }
+
+    public <T> T withReadLock(Object key, Supplier<T> action) {
+        Lock lock = this.readLock(key);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public <T> T withWriteLock(Object key, Supplier<T> action) {
+        Lock lock = this.writeLock(key);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Locks de lectura de todas las {@code keys}, en orden de franja.
+     */
+    public HeldLocks readLockAll(Collection<?> keys) {
+        return this.lockAll(keys, stripe -> this.getAt(stripe).readLock());
+    }
+
+    /**
+     * Locks de escritura de todas las {@code keys}, en orden de franja. Un hilo no debe mezclar en la misma operación
+     * {@code readLockAll} y {@code writeLockAll} sobre claves que compartan franja: un {@code ReentrantReadWriteLock}
+     * no permite pasar de lectura a escritura.
+     */
+    public HeldLocks writeLockAll(Collection<?> keys) {
+        return this.lockAll(keys, stripe -> this.getAt(stripe).writeLock());
+    }
+}
@@ -0,0 +1,57 @@
+package dev.magadiflo.app.keyedlock;
+
+import java.util.Collection;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * {@link Striped} con un {@link ReentrantLock} por franja: la versión por clave de {@code LockCashBox}.
+ * <pre>{@code
+ * Lock lock = accounts.lock(accountId);
+ * try {
+ *     balances[accountId] += amount;
+ * } finally {
+ *     lock.unlock();
+ * }
+ * }</pre>
+ */
+public final class StripedReentrantLock extends Striped<ReentrantLock> {
+
+    StripedReentrantLock(int stripes) {
+        super(stripes, ReentrantLock::new);
+    }
+
+    /**
+     * Adquiere el lock de {@code key} y lo devuelve para liberarlo en un {@code finally}.
+     */
+    public Lock lock(Object key) {
+        int stripe = this.indexOf(key);
+        return this.stats.acquire(stripe, this.getAt(stripe));
+    }
+
+    public <T> T withLock(Object key, Supplier<T> action) {
+        Lock lock = this.lock(key);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adquiere los locks de todas las {@code keys} en orden de franja, sin riesgo de deadlock con otros
+     * {@code lockAll} sobre el mismo {@code StripedReentrantLock}.
+     */
+    public HeldLocks lockAll(Collection<?> keys) {
+        return this.lockAll(keys, this::getAt);
+    }
+
+    // Los locks no se usan en el cuerpo: solo importa que el try los libere
+    @SuppressWarnings("try")
+    public <T> T withLocks(Collection<?> keys, Supplier<T> action) {
+        try (HeldLocks ignored = this.lockAll(keys)) {
+            return action.get();
+        }
+    }
+}
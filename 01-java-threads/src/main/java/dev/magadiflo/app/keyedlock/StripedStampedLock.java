@@ -0,0 +1,103 @@
+package dev.magadiflo.app.keyedlock;
+
+import java.util.Collection;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * {@link Striped} con un {@link StampedLock} por franja. {@link #optimisticRead} lee sin escribir en el lock: toma un
+ * sello, lee y comprueba que ninguna escritura de la franja se haya cruzado. Solo si se cruzó vuelve a leer con el lock
+ * de lectura, y esa lectura invalidada cuenta como adquisición con contención en {@link #stats()}. Las lecturas
+ * optimistas que validan no se cuentan: contarlas escribiría en los contadores de la franja en cada lectura, justo la
+ * escritura compartida que la lectura optimista evita.
+ * <p>
+ * {@code StampedLock} no es reentrante: un hilo que ya tiene el lock de escritura de una franja se bloquea para siempre
+ * si vuelve a pedirlo, también a través de otra clave de la misma franja. Por eso las operaciones con varias claves
+ * van siempre por {@link #writeLockAll}, que no repite franjas.
+ */
+public final class StripedStampedLock extends Striped<StampedLock> {
+
+    StripedStampedLock(int stripes) {
+        super(stripes, StampedLock::new);
+    }
+
+    /**
+     * Ejecuta {@code reader} sin bloquear; si una escritura se cruzó, lo repite con el lock de lectura. {@code reader}
+     * puede ver datos a medio escribir en el primer intento, así que solo debe leer campos y no fallar por valores
+     * inconsistentes (nada de recorrer estructuras que otro hilo está modificando).
+     */
+    public <T> T optimisticRead(Object key, Supplier<T> reader) {
+        int stripe = this.indexOf(key);
+        StampedLock lock = this.getAt(stripe);
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            T value = reader.get();
+            if (lock.validate(stamp)) {
+                return value;
+            }
+        }
+        long start = System.nanoTime();
+        stamp = lock.readLock();
+        this.stats.recordWait(stripe, System.nanoTime() - start);
+        this.stats.recordAcquisition(stripe);
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Adquiere el lock de escritura de {@code key}; se libera con {@link #unlockWrite}.
+     *
+     * @return el sello de la escritura
+     */
+    public long writeLock(Object key) {
+        int stripe = this.indexOf(key);
+        StampedLock lock = this.getAt(stripe);
+        long stamp = lock.tryWriteLock();
+        if (stamp == 0) {
+            long start = System.nanoTime();
+            stamp = lock.writeLock();
+            this.stats.recordWait(stripe, System.nanoTime() - start);
+        }
+        this.stats.recordAcquisition(stripe);
+        return stamp;
+    }
+
+    public void unlockWrite(Object key, long stamp) {
+        this.get(key).unlockWrite(stamp);
+    }
+
+    public <T> T withWriteLock(Object key, Supplier<T> action) {
+        long stamp = this.writeLock(key);
+        try {
+            return action.get();
+        } finally {
+            this.unlockWrite(key, stamp);
+        }
+    }
+
+    /**
+     * Locks de escritura de todas las {@code keys}, en orden de franja, a través de {@link StampedLock#asWriteLock()}.
+     */
+    public HeldLocks writeLockAll(Collection<?> keys) {
+        return this.lockAll(keys, stripe -> this.getAt(stripe).asWriteLock());
+    }
+
+    /**
+     * Locks de lectura de todas las {@code keys}, en orden de franja, a través de {@link StampedLock#asReadLock()}.
+     */
+    public HeldLocks readLockAll(Collection<?> keys) {
+        return this.lockAll(keys, stripe -> this.getAt(stripe).asReadLock());
+    }
+
+    /**
+     * Vista {@link Lock} de lectura de la franja de {@code key}, ya adquirida.
+     */
+    public Lock readLock(Object key) {
+        int stripe = this.indexOf(key);
+        return this.stats.acquire(stripe, this.getAt(stripe).asReadLock());
+    }
+}
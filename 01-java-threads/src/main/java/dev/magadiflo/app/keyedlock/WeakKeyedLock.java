@@ -0,0 +1,143 @@
+package dev.magadiflo.app.keyedlock;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Un {@link ReentrantLock} propio por clave, creado la primera vez que se pide y referenciado débilmente: mientras
+ * algún hilo lo tiene (o lo espera) sigue vivo, y cuando nadie lo usa el GC lo recoge y la entrada del mapa se borra.
+ * <p>
+ * A diferencia de {@link Striped}, dos claves distintas nunca comparten lock, y la memoria depende de las claves en uso
+ * en cada momento, no de todas las que se vieron (un {@code ConcurrentHashMap<K, ReentrantLock>} con
+ * {@code computeIfAbsent} crecería sin límite). A cambio, cada adquisición hace una búsqueda en el mapa y, si el lock
+ * ya se recogió, una asignación.
+ * <p>
+ * La referencia devuelta por {@link #lock} es la que mantiene vivo el lock: hay que liberar con ella, no pidiendo otra
+ * vez el lock de la clave, que podría ser uno nuevo. {@link #lockAll} ordena las claves con el {@code Comparator} del
+ * constructor, que tiene que ser coherente con {@code equals}.
+ *
+ * @param <K> tipo de clave, con {@code equals} y {@code hashCode} coherentes
+ */
+public final class WeakKeyedLock<K> {
+
+    private final ConcurrentHashMap<K, LockReference<K>> locks = new ConcurrentHashMap<>();
+    private final ReferenceQueue<ReentrantLock> collected = new ReferenceQueue<>();
+    private final Comparator<? super K> order;
+    // Las claves no tienen franja fija: todas las métricas van a la franja 0
+    private final StripeStats stats = new StripeStats(1);
+
+    public WeakKeyedLock(Comparator<? super K> order) {
+        this.order = Objects.requireNonNull(order, "order");
+    }
+
+    /**
+     * Para claves {@link Comparable}, que {@link #lockAll} ordena por su orden natural.
+     */
+    public static <K extends Comparable<? super K>> WeakKeyedLock<K> create() {
+        return new WeakKeyedLock<>(Comparator.naturalOrder());
+    }
+
+    private static final class LockReference<K> extends WeakReference<ReentrantLock> {
+        private final K key;
+
+        private LockReference(K key, ReentrantLock lock, ReferenceQueue<ReentrantLock> queue) {
+            super(lock, queue);
+            this.key = key;
+        }
+    }
+
+    /**
+     * El lock de {@code key}, creándolo si no existe o si el anterior ya se recogió. No lo adquiere.
+     */
+    public ReentrantLock get(K key) {
+        Objects.requireNonNull(key, "key");
+        this.expunge();
+        while (true) {
+            LockReference<K> current = this.locks.get(key);
+            ReentrantLock lock = current == null ? null : current.get();
+            if (lock != null) {
+                return lock;
+            }
+            lock = new ReentrantLock();
+            LockReference<K> created = new LockReference<>(key, lock, this.collected);
+            boolean installed = current == null
+                    ? this.locks.putIfAbsent(key, created) == null
+                    : this.locks.replace(key, current, created);
+            if (installed) {
+                return lock;
+            }
+            // Otro hilo instaló su lock antes: se reintenta para usar ese
+        }
+    }
+
+    /**
+     * Adquiere el lock de {@code key} y lo devuelve para liberarlo en un {@code finally}.
+     */
+    public Lock lock(K key) {
+        return this.stats.acquire(0, this.get(key));
+    }
+
+    public <T> T withLock(K key, Supplier<T> action) {
+        Lock lock = this.lock(key);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adquiere los locks de todas las {@code keys} en el orden del {@code Comparator}, una sola vez por clave.
+     */
+    public HeldLocks lockAll(Collection<? extends K> keys) {
+        @SuppressWarnings("unchecked")
+        K[] sorted = (K[]) keys.toArray();
+        Arrays.sort(sorted, this.order);
+        Lock[] ordered = new Lock[sorted.length];
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || this.order.compare(sorted[i - 1], sorted[i]) != 0) {
+                ordered[distinct++] = this.get(sorted[i]);
+            }
+        }
+        return HeldLocks.acquire(this.stats, new int[distinct], Arrays.copyOf(ordered, distinct));
+    }
+
+    // Los locks no se usan en el cuerpo: solo importa que el try los libere
+    @SuppressWarnings("try")
+    public <T> T withLocks(Collection<? extends K> keys, Supplier<T> action) {
+        try (HeldLocks ignored = this.lockAll(keys)) {
+            return action.get();
+        }
+    }
+
+    /**
+     * Borra del mapa las entradas cuyos locks ya recogió el GC. Se llama en cada {@link #get}.
+     */
+    private void expunge() {
+        LockReference<?> reference;
+        while ((reference = (LockReference<?>) this.collected.poll()) != null) {
+            this.locks.remove(reference.key, reference);
+        }
+    }
+
+    /**
+     * Entradas en el mapa, incluidas las de locks recogidos que aún no se borraron.
+     */
+    public int size() {
+        this.expunge();
+        return this.locks.size();
+    }
+
+    public StripeStats stats() {
+        return this.stats;
+    }
+}
@@ -0,0 +1,50 @@
+package dev.magadiflo.app.lifecycle;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Mismo escenario que {@link BlockedState}, pero con {@link ReentrantLock}. El segundo hilo no queda en estado
+ * {@code BLOCKED} (reservado a monitores), sino en {@code WAITING}: está aparcado con {@code LockSupport.park()},
+ * que es justamente lo que permite a un hilo virtual liberar su carrier mientras espera.
+ */
+@Slf4j
+public class LockBlockedState {
+
+    private static final ReentrantLock lock = new ReentrantLock();
+
+    public static void main(String[] args) throws InterruptedException {
+        Runnable task1 = () -> {
+            lock.lock();
+            try {
+                Thread.sleep(5000); // Mantener el lock
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        };
+
+        Runnable task2 = () -> {
+            lock.lock(); // Intentará adquirir el lock
+            try {
+                log.info("Thread 2 obtuvo el lock");
+            } finally {
+                lock.unlock();
+            }
+        };
+
+        Thread thread1 = new Thread(task1);
+        Thread thread2 = new Thread(task2);
+
+        thread1.start();
+        Thread.sleep(100); // Asegurar que el thread1 tome el lock
+
+        thread2.start();
+        Thread.sleep(100); // Dar tiempo para que thread2 intente el lock
+
+        log.info("Estado thread2: {}", thread2.getState()); // WAITING
+        thread1.interrupt();
+    }
+}
@@ -0,0 +1,147 @@
+package dev.magadiflo.app.pinning;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import dev.magadiflo.app.synchronizd.Counter;
+import dev.magadiflo.app.synchronizd.LockCounter;
+import dev.magadiflo.app.threadcoordination.LockSharedResource;
+import dev.magadiflo.app.threadcoordination.SharedResource;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Compara en hilos virtuales las clases basadas en {@code synchronized} con sus variantes con {@link ReentrantLock},
+ * mientras un {@link PinningMonitor} registra los eventos de pinning.
+ * <ul>
+ *     <li><b>Bloqueo dentro de la sección crítica</b>: cada tarea duerme 10 ms con su propio lock tomado (el patrón de
+ *     {@code BlockedState}). Con {@code synchronized} cada hilo dormido retiene su carrier.</li>
+ *     <li><b>Productor/consumidor</b>: {@link SharedResource} ({@code wait/notify}) vs {@link LockSharedResource}
+ *     ({@code Condition}).</li>
+ *     <li><b>Contador</b>: {@link Counter} vs {@link LockCounter}. No hay bloqueo dentro de la sección crítica, así
+ *     que no debería haber pinning ni grandes diferencias.</li>
+ * </ul>
+ */
+@Slf4j
+public class PinningBenchmark {
+
+    private static final int SLEEPING_TASKS = 1_000;
+    private static final Duration SLEEP = Duration.ofMillis(10);
+    private static final int PAIRS = 100;
+    private static final int ITEMS_PER_PAIR = 50;
+    private static final int COUNTER_THREADS = 1_000;
+    private static final int INCREMENTS = 10_000;
+
+    public static void main(String[] args) {
+        // Los recursos compartidos registran cada operación; los silenciamos para no medir el logging
+        mute(SharedResource.class);
+        mute(LockSharedResource.class);
+
+        PinningMonitor monitor = PinningMonitor.start(Duration.ofMillis(1));
+        try {
+            measure("sleep dentro de synchronized", PinningBenchmark::sleepInsideSynchronized);
+            measure("sleep dentro de ReentrantLock", PinningBenchmark::sleepInsideReentrantLock);
+
+            measure("SharedResource (wait/notify)", () -> producerConsumer(() -> {
+                SharedResource resource = new SharedResource();
+                return new Runnable[]{() -> produceAll(resource::produce), () -> produceAll(resource::consume)};
+            }));
+            measure("LockSharedResource (Condition)", () -> producerConsumer(() -> {
+                LockSharedResource resource = new LockSharedResource();
+                return new Runnable[]{() -> produceAll(resource::produce), () -> produceAll(resource::consume)};
+            }));
+
+            Counter counter = new Counter();
+            measure("Counter (synchronized)", () -> incrementConcurrently(counter::increment));
+            LockCounter lockCounter = new LockCounter();
+            measure("LockCounter (ReentrantLock)", () -> incrementConcurrently(lockCounter::increment));
+            log.info("Valores finales: Counter={}, LockCounter={}", counter.getValue(), lockCounter.getValue());
+        } finally {
+            // Cerrar antes del reporte vacía los eventos de pinning que el stream aún no entregó
+            monitor.close();
+        }
+        monitor.logReport(5);
+    }
+
+    private static void sleepInsideSynchronized() {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < SLEEPING_TASKS; i++) {
+                Object lock = new Object();
+                executor.submit(() -> {
+                    synchronized (lock) {
+                        sleep();
+                    }
+                });
+            }
+        }
+    }
+
+    private static void sleepInsideReentrantLock() {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < SLEEPING_TASKS; i++) {
+                ReentrantLock lock = new ReentrantLock();
+                executor.submit(() -> {
+                    lock.lock();
+                    try {
+                        sleep();
+                    } finally {
+                        lock.unlock();
+                    }
+                });
+            }
+        }
+    }
+
+    private static void producerConsumer(Supplier<Runnable[]> pairFactory) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < PAIRS; i++) {
+                for (Runnable task : pairFactory.get()) {
+                    executor.submit(task);
+                }
+            }
+        }
+    }
+
+    private static void produceAll(IntConsumer operation) {
+        for (int item = 0; item < ITEMS_PER_PAIR; item++) {
+            operation.accept(item);
+        }
+    }
+
+    private static void incrementConcurrently(Runnable increment) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < COUNTER_THREADS; i++) {
+                executor.submit(() -> {
+                    for (int j = 0; j < INCREMENTS; j++) {
+                        increment.run();
+                    }
+                });
+            }
+        }
+    }
+
+    private static void measure(String name, Runnable scenario) {
+        long start = System.nanoTime();
+        scenario.run();
+        long elapsed = System.nanoTime() - start;
+        log.info("{}: {} ms", String.format("%-32s", name), String.format("%,d", elapsed / 1_000_000));
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(SLEEP);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void mute(Class<?> type) {
+        ((Logger) LoggerFactory.getLogger(type)).setLevel(Level.WARN);
+    }
+}
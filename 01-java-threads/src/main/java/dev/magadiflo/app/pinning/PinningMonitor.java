@@ -0,0 +1,124 @@
+package dev.magadiflo.app.pinning;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Detecta dentro del propio proceso los hilos virtuales que quedan fijados (pinned) a su carrier.
+ * <p>
+ * Se suscribe con JFR event streaming al evento {@code jdk.VirtualThreadPinned}, que la JVM emite cuando un hilo
+ * virtual se bloquea sin poder desmontarse (por ejemplo, un {@code Thread.sleep()} o un {@code wait()} dentro de un
+ * bloque {@code synchronized}). Los eventos se agrupan por stack trace y {@link #report()} devuelve los puntos
+ * calientes ordenados por tiempo total fijado.
+ */
+@Slf4j
+public class PinningMonitor implements AutoCloseable {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int STACK_DEPTH = 12;
+
+    public record Hotspot(String stackTrace, long count, Duration total, Duration max) {
+        public Duration average() {
+            return this.total.dividedBy(Math.max(1, this.count));
+        }
+    }
+
+    private static final class Stats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private void record(long nanos) {
+            this.count.increment();
+            this.totalNanos.add(nanos);
+            this.maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    private final Map<String, Stats> byStackTrace = new ConcurrentHashMap<>();
+    private final RecordingStream stream;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    private PinningMonitor(Duration threshold) {
+        this.stream = new RecordingStream();
+        this.stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        this.stream.onEvent(PINNED_EVENT, this::onPinned);
+        this.stream.startAsync();
+    }
+
+    /**
+     * Empieza a escuchar los eventos de pinning que duren al menos {@code threshold}.
+     */
+    public static PinningMonitor start(Duration threshold) {
+        return new PinningMonitor(threshold);
+    }
+
+    public List<Hotspot> report() {
+        return this.byStackTrace.entrySet().stream()
+                .map(entry -> new Hotspot(entry.getKey(), entry.getValue().count.sum(),
+                        Duration.ofNanos(entry.getValue().totalNanos.sum()),
+                        Duration.ofNanos(entry.getValue().maxNanos.get())))
+                .sorted(Comparator.comparing(Hotspot::total).reversed())
+                .toList();
+    }
+
+    public void logReport(int limit) {
+        List<Hotspot> hotspots = this.report();
+        if (hotspots.isEmpty()) {
+            log.info("No se detectaron hilos virtuales fijados (pinned)");
+            return;
+        }
+        int rank = 1;
+        for (Hotspot hotspot : hotspots.subList(0, Math.min(limit, hotspots.size()))) {
+            log.info("#{} pinning: {} eventos, total {} ms, máximo {} ms, promedio {} ms\n{}", rank++,
+                    hotspot.count(), hotspot.total().toMillis(), hotspot.max().toMillis(),
+                    hotspot.average().toMillis(), hotspot.stackTrace());
+        }
+    }
+
+    /**
+     * Detiene la grabación procesando antes los eventos que aún estén en el buffer de JFR. Se puede llamar varias
+     * veces, por ejemplo para leer el reporte final dentro de un try-with-resources.
+     */
+    @Override
+    public void close() {
+        if (!this.closed.compareAndSet(false, true)) {
+            return;
+        }
+        this.stream.stop();
+        this.stream.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        this.byStackTrace.computeIfAbsent(format(event.getStackTrace()), key -> new Stats())
+                .record(event.getDuration().toNanos());
+    }
+
+    private static String format(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\t<sin stack trace>";
+        }
+        return stackTrace.getFrames().stream()
+                .limit(STACK_DEPTH)
+                .map(PinningMonitor::format)
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String format(RecordedFrame frame) {
+        return "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : "");
+    }
+}
@@ -0,0 +1,54 @@
+package dev.magadiflo.app.synchronizd;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Variante de {@link CashBox} con {@link ReentrantLock} en lugar de {@code synchronized (lock)}.
+ */
+@Slf4j
+public class LockCashBox {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private int money = 0;
+
+    public void deposit(int amount) {
+        log.info("Procesando depósito...");
+
+        // Región crítica protegida
+        this.lock.lock();
+        try {
+            this.money += amount;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public int getMoney() {
+        this.lock.lock();
+        try {
+            return this.money;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LockCashBox cashBox = new LockCashBox();
+
+        Runnable task = () -> {
+            for (int i = 0; i < 5000; i++) {
+                cashBox.deposit(1);
+            }
+        };
+
+        Thread thread1 = Thread.ofVirtual().name("hilo-1").start(task);
+        Thread thread2 = Thread.ofVirtual().name("hilo-2").start(task);
+
+        thread1.join();
+        thread2.join();
+
+        log.info("Valor final: {}", cashBox.getMoney()); // Siempre 10000
+    }
+}
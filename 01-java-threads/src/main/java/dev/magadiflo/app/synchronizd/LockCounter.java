@@ -0,0 +1,53 @@
+package dev.magadiflo.app.synchronizd;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Variante de {@link Counter} con {@link ReentrantLock} en lugar de un método {@code synchronized}.
+ * A diferencia de un monitor, un {@code ReentrantLock} no fija (pin) un hilo virtual a su carrier si el hilo se
+ * bloquea mientras lo tiene tomado.
+ */
+@Slf4j
+public class LockCounter {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private int value = 0;
+
+    public void increment() {
+        this.lock.lock();
+        try {
+            this.value++;
+        } finally {
+            this.lock.unlock(); // Siempre en un finally: si no, una excepción dejaría el lock tomado
+        }
+    }
+
+    public int getValue() {
+        this.lock.lock();
+        try {
+            return this.value;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LockCounter counter = new LockCounter();
+
+        Runnable task = () -> {
+            for (int i = 0; i < 1000; i++) {
+                counter.increment();
+            }
+        };
+
+        Thread thread1 = Thread.ofVirtual().start(task);
+        Thread thread2 = Thread.ofVirtual().start(task);
+
+        thread1.join();
+        thread2.join();
+
+        log.info("Valor final: {}", counter.getValue());
+    }
+}
@@ -0,0 +1,80 @@
+package dev.magadiflo.app.threadcoordination;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Variante de {@link SharedResource} con {@link ReentrantLock} y {@link Condition}.
+ * <p>
+ * En Java 21, un hilo virtual que llama a {@code wait()} dentro de un bloque {@code synchronized} queda fijado
+ * (pinned) a su carrier mientras espera. Con {@code Condition.await()} el hilo virtual se desmonta y libera el carrier.
+ * Cada condición equivale a un {@code wait()/notify()} con un propósito concreto.
+ */
+@Slf4j
+public class LockSharedResource {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition consumed = this.lock.newCondition();
+    private final Condition produced = this.lock.newCondition();
+    private boolean available = false;
+
+    public void produce(int count) {
+        this.lock.lock();
+        try {
+            while (this.available) {
+                try {
+                    log.info("produce - await #{}", count);
+                    this.consumed.await(); // Espera hasta que el recurso sea consumido
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            log.info("Produciendo recurso #{}", count);
+            this.available = true;
+            this.produced.signal(); // Despierta al consumidor
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public void consume(int count) {
+        this.lock.lock();
+        try {
+            while (!this.available) {
+                try {
+                    log.info("consume - await #{}", count);
+                    this.produced.await(); // Espera hasta que haya un recurso disponible
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            log.info("Consumiendo recurso #{}", count);
+            this.available = false;
+            this.consumed.signal(); // Despierta al productor
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LockSharedResource resource = new LockSharedResource();
+
+        Thread producer = Thread.ofVirtual().start(() -> {
+            for (int i = 0; i < 5; i++) {
+                resource.produce(i);
+            }
+        });
+
+        Thread consumer = Thread.ofVirtual().start(() -> {
+            for (int i = 0; i < 5; i++) {
+                resource.consume(i);
+            }
+        });
+
+        producer.join();
+        consumer.join();
+    }
+}
@@ -0,0 +1,174 @@
+package dev.magadiflo.app.atomicclasses;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Encapsula el bucle "leer, calcular el valor nuevo, {@code compareAndSet}, reintentar" sobre un
+ * {@link AtomicReference} o un campo accedido con {@link VarHandle}, añadiendo:
+ * <ul>
+ *     <li>una estrategia de espera entre reintentos ({@link Backoff});</li>
+ *     <li>métricas: actualizaciones, CAS fallidos (cada uno es un objeto calculado y descartado), reintentos máximos y
+ *     un histograma de reintentos por actualización;</li>
+ *     <li>opcionalmente, tras {@code lockAfterFailures} fallos seguidos, el hilo deja de competir libremente y toma un
+ *     {@link ReentrantLock}. Solo los hilos más desafortunados hacen cola en el lock, y entre ellos ya no chocan. Los
+ *     demás siguen por el camino rápido, así que el CAS se mantiene (el lock no excluye a todos).</li>
+ * </ul>
+ * La función de actualización debe ser pura y rápida: se puede ejecutar varias veces por actualización.
+ */
+@Slf4j
+public final class AtomicUpdater<T> {
+
+    // Histograma: 0, 1, 2-3, 4-7, 8-15, 16-31, 32+ reintentos
+    private static final int BUCKETS = 7;
+
+    private interface Reference<T> {
+        T get();
+
+        boolean compareAndSet(T expected, T updated);
+    }
+
+    public record Stats(long updates, long casFailures, long lockFallbacks, long maxRetries, long[] retryHistogram) {
+
+        public double retriesPerUpdate() {
+            return this.updates == 0 ? 0 : this.casFailures / (double) this.updates;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("updates=%,d, casFallidos=%,d (%.2f por actualización), fallbackAlLock=%,d, " +
+                            "maxReintentos=%d, histograma[0|1|2-3|4-7|8-15|16-31|32+]=%s", this.updates,
+                    this.casFailures, this.retriesPerUpdate(), this.lockFallbacks, this.maxRetries,
+                    Arrays.toString(this.retryHistogram));
+        }
+    }
+
+    private final Reference<T> reference;
+    private final Backoff backoff;
+    private final int lockAfterFailures;
+    private final ReentrantLock fallbackLock = new ReentrantLock();
+
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder casFailures = new LongAdder();
+    private final LongAdder lockFallbacks = new LongAdder();
+    private final LongAccumulator maxRetries = new LongAccumulator(Math::max, 0);
+    // LongAdder por cubeta: las métricas no deben añadir su propia línea de caché en disputa
+    private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+    private AtomicUpdater(Reference<T> reference, Backoff backoff, int lockAfterFailures) {
+        this.reference = reference;
+        this.backoff = backoff;
+        this.lockAfterFailures = lockAfterFailures;
+        Arrays.setAll(this.histogram, i -> new LongAdder());
+    }
+
+    /**
+     * @param lockAfterFailures fallos seguidos antes de pasar al lock; 0 para no usarlo nunca
+     */
+    public static <T> AtomicUpdater<T> of(AtomicReference<T> reference, Backoff backoff, int lockAfterFailures) {
+        return new AtomicUpdater<>(new Reference<>() {
+            @Override
+            public T get() {
+                return reference.get();
+            }
+
+            @Override
+            public boolean compareAndSet(T expected, T updated) {
+                return reference.compareAndSet(expected, updated);
+            }
+        }, backoff, lockAfterFailures);
+    }
+
+    public static <T> AtomicUpdater<T> of(AtomicReference<T> reference, Backoff backoff) {
+        return of(reference, backoff, 0);
+    }
+
+    /**
+     * Variante sobre un campo {@code volatile} de {@code holder}, para no pagar el objeto {@link AtomicReference}
+     * adicional cuando hay muchos. {@code handle} debe ser un {@link VarHandle} de ese campo.
+     */
+    public static <T> AtomicUpdater<T> of(Object holder, VarHandle handle, Backoff backoff, int lockAfterFailures) {
+        return new AtomicUpdater<>(new Reference<>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public T get() {
+                return (T) handle.getVolatile(holder);
+            }
+
+            @Override
+            public boolean compareAndSet(T expected, T updated) {
+                return handle.compareAndSet(holder, expected, updated);
+            }
+        }, backoff, lockAfterFailures);
+    }
+
+    public T get() {
+        return this.reference.get();
+    }
+
+    /**
+     * Aplica la función al valor actual hasta que el {@code compareAndSet} tenga éxito y devuelve el valor nuevo.
+     */
+    public T updateAndGet(UnaryOperator<T> function) {
+        int failures = 0;
+        while (true) {
+            T current = this.reference.get();
+            T updated = function.apply(current);
+            if (this.reference.compareAndSet(current, updated)) {
+                this.record(failures);
+                return updated;
+            }
+            failures++;
+            if (this.lockAfterFailures > 0 && failures >= this.lockAfterFailures) {
+                return this.updateUnderLock(function, failures);
+            }
+            this.backoff.pause(failures);
+        }
+    }
+
+    private T updateUnderLock(UnaryOperator<T> function, int failures) {
+        this.lockFallbacks.increment();
+        this.fallbackLock.lock();
+        try {
+            while (true) {
+                T current = this.reference.get();
+                T updated = function.apply(current);
+                if (this.reference.compareAndSet(current, updated)) {
+                    this.record(failures);
+                    return updated;
+                }
+                failures++;
+                Thread.onSpinWait();
+            }
+        } finally {
+            this.fallbackLock.unlock();
+        }
+    }
+
+    private void record(int failures) {
+        this.updates.increment();
+        if (failures > 0) {
+            this.casFailures.add(failures);
+            this.maxRetries.accumulate(failures);
+        }
+        int bucket = failures == 0 ? 0 : Math.min(BUCKETS - 1, 32 - Integer.numberOfLeadingZeros(failures));
+        this.histogram[bucket].increment();
+    }
+
+    public Stats stats() {
+        long[] buckets = Arrays.stream(this.histogram).mapToLong(LongAdder::sum).toArray();
+        return new Stats(this.updates.sum(), this.casFailures.sum(), this.lockFallbacks.sum(), this.maxRetries.get(),
+                buckets);
+    }
+
+    public void logStats(String name) {
+        log.info("{}: {}", name, this.stats());
+    }
+}
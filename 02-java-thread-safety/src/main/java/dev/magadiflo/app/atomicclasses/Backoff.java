@@ -0,0 +1,53 @@
+package dev.magadiflo.app.atomicclasses;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Qué hacer después de un {@code compareAndSet} fallido, antes de reintentar.
+ * <p>
+ * Reintentar de inmediato es lo más rápido con poca contención, pero con muchos hilos escribiendo solo consigue que
+ * todos vuelvan a chocar, y cada intento fallido deja un objeto descartado. Esperar un poco, y cada vez más, reparte
+ * los reintentos en el tiempo.
+ */
+@FunctionalInterface
+public interface Backoff {
+
+    /**
+     * @param failures intentos fallidos seguidos hasta ahora (empieza en 1)
+     */
+    void pause(int failures);
+
+    /**
+     * Reintenta de inmediato: el bucle {@code do { ... } while (!compareAndSet(...))} de siempre.
+     */
+    static Backoff none() {
+        return failures -> {
+        };
+    }
+
+    /**
+     * Espera activa exponencial: 2, 4, 8... iteraciones de {@link Thread#onSpinWait()} (la instrucción {@code PAUSE}
+     * en x86), hasta {@code maxSpins}. No cede la CPU, así que conviene cuando las secciones en disputa son muy cortas.
+     */
+    static Backoff exponentialSpin(int maxSpins) {
+        return failures -> {
+            int spins = failures >= 31 ? maxSpins : Math.min(maxSpins, 1 << failures);
+            for (int i = 0; i < spins; i++) {
+                Thread.onSpinWait();
+            }
+        };
+    }
+
+    /**
+     * Aparca el hilo un tiempo aleatorio entre {@code minNanos} y un tope que se duplica con cada fallo (hasta
+     * {@code maxNanos}). El azar evita que los hilos que chocaron vuelvan a intentarlo todos a la vez, y aparcar
+     * libera la CPU para el hilo que sí puede avanzar.
+     */
+    static Backoff randomizedPark(long minNanos, long maxNanos) {
+        return failures -> {
+            long ceiling = failures >= 31 ? maxNanos : Math.min(maxNanos, minNanos << failures);
+            LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(minNanos, Math.max(minNanos + 1, ceiling)));
+        };
+    }
+}
@@ -0,0 +1,129 @@
+package dev.magadiflo.app.atomicclasses;
+
+import dev.magadiflo.app.benchmark.ContentionHarness;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Todos los hilos actualizan el mismo objeto inmutable (como {@code Person} en {@link PersonAtomicReference}) y se
+ * compara el throughput y los reintentos por actualización de cada estrategia de {@link AtomicUpdater} frente a
+ * proteger el estado con un {@link ReentrantLock}.
+ * <p>
+ * Parámetros opcionales ({@code clave=valor}): {@code threads} (por defecto {@code 1,2,4,8,16,32}) y {@code millis}
+ * por medición (por defecto 1000). Al final de cada medición se verifica que no se haya perdido ninguna actualización.
+ */
+@Slf4j
+public class CasBackoffBenchmark {
+
+    record Account(String owner, long balance, long version) {
+        Account deposit(long amount) {
+            return new Account(this.owner, this.balance + amount, this.version + 1);
+        }
+    }
+
+    interface Strategy {
+        void deposit();
+
+        Account get();
+
+        default String stats() {
+            return "";
+        }
+    }
+
+    private static Strategy updater(Backoff backoff, int lockAfterFailures) {
+        AtomicUpdater<Account> updater = AtomicUpdater.of(new AtomicReference<>(new Account("Lesly", 0, 0)), backoff,
+                lockAfterFailures);
+        return new Strategy() {
+            @Override
+            public void deposit() {
+                updater.updateAndGet(account -> account.deposit(1));
+            }
+
+            @Override
+            public Account get() {
+                return updater.get();
+            }
+
+            @Override
+            public String stats() {
+                AtomicUpdater.Stats stats = updater.stats();
+                return String.format("CAS fallidos %,d de %,d actualizaciones, máx %d seguidos, al lock %,d",
+                        stats.casFailures(), stats.updates(), stats.maxRetries(), stats.lockFallbacks());
+            }
+        };
+    }
+
+    private static Strategy locked() {
+        ReentrantLock lock = new ReentrantLock();
+        Account[] state = {new Account("Lesly", 0, 0)};
+        return new Strategy() {
+            @Override
+            public void deposit() {
+                lock.lock();
+                try {
+                    state[0] = state[0].deposit(1);
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            @Override
+            public Account get() {
+                lock.lock();
+                try {
+                    return state[0];
+                } finally {
+                    lock.unlock();
+                }
+            }
+        };
+    }
+
+    private static ContentionHarness.Operation depositInto(Strategy strategy) {
+        return (thread, iteration) -> {
+            strategy.deposit();
+            return 0;
+        };
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = ContentionHarness.parse(args);
+        int[] threadCounts = ContentionHarness.parseInts(options.getOrDefault("threads", "1,2,4,8,16,32"));
+        Duration duration = Duration.ofMillis(Long.parseLong(options.getOrDefault("millis", "1000")));
+
+        Map<String, Supplier<Strategy>> strategies = new LinkedHashMap<>();
+        strategies.put("sin backoff", () -> updater(Backoff.none(), 0));
+        strategies.put("spin exponencial", () -> updater(Backoff.exponentialSpin(256), 0));
+        strategies.put("park aleatorio", () -> updater(Backoff.randomizedPark(1_000, 100_000), 0));
+        strategies.put("spin + lock tras 8", () -> updater(Backoff.exponentialSpin(256), 8));
+        strategies.put("ReentrantLock", CasBackoffBenchmark::locked);
+
+        log.info("Núcleos disponibles: {}", Runtime.getRuntime().availableProcessors());
+        for (int threads : threadCounts) {
+            for (Map.Entry<String, Supplier<Strategy>> entry : strategies.entrySet()) {
+                // El calentamiento usa su propia instancia: el saldo de la medida debe coincidir con sus operaciones
+                Strategy warmUp = entry.getValue().get();
+                ContentionHarness.run(threads, Duration.ZERO, Duration.ofMillis(300), depositInto(warmUp));
+                Strategy strategy = entry.getValue().get();
+                ContentionHarness.Result result = ContentionHarness.run(threads, Duration.ZERO, duration,
+                        depositInto(strategy));
+                // El arnés cuenta cada iteración y cada una deposita 1: cualquier diferencia es una pérdida
+                Account account = strategy.get();
+                if (account.balance() != result.operations()) {
+                    log.warn("{} perdió actualizaciones: saldo {} tras {} depósitos", entry.getKey(),
+                            account.balance(), result.operations());
+                }
+                log.info("{} hilos  {}: {} Mops/s  {}", String.format("%2d", threads),
+                        String.format("%-20s", entry.getKey()),
+                        String.format("%6.2f", result.millionOpsPerSecond()), strategy.stats());
+            }
+        }
+    }
+}
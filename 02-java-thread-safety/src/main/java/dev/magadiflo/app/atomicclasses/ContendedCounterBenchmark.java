@@ -0,0 +1,207 @@
+package dev.magadiflo.app.atomicclasses;
+
+import dev.magadiflo.app.benchmark.ContentionHarness;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Compara cinco contadores compartidos con 1 a 64 hilos, con dos mezclas de operaciones:
+ * <ul>
+ *     <li><b>INCREMENT_HEAVY</b>: 9 de cada 10 operaciones incrementan y 1 lee.</li>
+ *     <li><b>READ_HEAVY</b>: 1 de cada 10 operaciones incrementa y 9 leen.</li>
+ * </ul>
+ * Contadores: {@code synchronized} (como el {@code Counter} del módulo 01), {@link AtomicInteger} (como
+ * {@link CounterAtomicInteger}), {@link LongAdder}, {@code getAndAdd} con un {@link VarHandle} y
+ * {@link StripedCounter}.
+ * <p>
+ * Parámetros opcionales ({@code clave=valor}): {@code threads} (por defecto {@code 1,2,4,8,16,32,64}),
+ * {@code millis} por medición (por defecto 1000) y {@code warmUpMillis} (por defecto 300). Al final de cada medición
+ * se comprueba que el contador tenga exactamente la cantidad de incrementos realizados.
+ */
+@Slf4j
+public class ContendedCounterBenchmark {
+
+    enum Mix {
+        INCREMENT_HEAVY(9), READ_HEAVY(1);
+
+        private final int incrementsPerTen;
+
+        Mix(int incrementsPerTen) {
+            this.incrementsPerTen = incrementsPerTen;
+        }
+
+        boolean isIncrement(long iteration) {
+            return iteration % 10 < this.incrementsPerTen;
+        }
+
+        long incrementsIn(long iterations) {
+            return iterations / 10 * this.incrementsPerTen + Math.min(iterations % 10, this.incrementsPerTen);
+        }
+    }
+
+    interface SharedCounter {
+        void increment();
+
+        long get();
+    }
+
+    static final class SynchronizedCounter implements SharedCounter {
+        private long value;
+
+        @Override
+        public synchronized void increment() {
+            this.value++;
+        }
+
+        @Override
+        public synchronized long get() {
+            return this.value;
+        }
+    }
+
+    static final class AtomicIntegerCounter implements SharedCounter {
+        private final AtomicInteger value = new AtomicInteger();
+
+        @Override
+        public void increment() {
+            this.value.incrementAndGet();
+        }
+
+        @Override
+        public long get() {
+            // Con mediciones largas el int se desborda; se compara módulo 2^32
+            return Integer.toUnsignedLong(this.value.get());
+        }
+    }
+
+    static final class LongAdderCounter implements SharedCounter {
+        private final LongAdder value = new LongAdder();
+
+        @Override
+        public void increment() {
+            this.value.increment();
+        }
+
+        @Override
+        public long get() {
+            return this.value.sum();
+        }
+    }
+
+    static final class VarHandleCounter implements SharedCounter {
+        private static final VarHandle VALUE;
+
+        static {
+            try {
+                VALUE = MethodHandles.lookup().findVarHandle(VarHandleCounter.class, "value", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private volatile long value;
+
+        @Override
+        public void increment() {
+            VALUE.getAndAdd(this, 1L);
+        }
+
+        @Override
+        public long get() {
+            return this.value;
+        }
+    }
+
+    static final class StripedSharedCounter implements SharedCounter {
+        private final StripedCounter value = new StripedCounter();
+
+        @Override
+        public void increment() {
+            this.value.increment();
+        }
+
+        @Override
+        public long get() {
+            return this.value.sum();
+        }
+    }
+
+    private static final Map<String, Supplier<SharedCounter>> COUNTERS = new LinkedHashMap<>();
+
+    static {
+        COUNTERS.put("synchronized", SynchronizedCounter::new);
+        COUNTERS.put("AtomicInteger", AtomicIntegerCounter::new);
+        COUNTERS.put("LongAdder", LongAdderCounter::new);
+        COUNTERS.put("VarHandle", VarHandleCounter::new);
+        COUNTERS.put("StripedCounter", StripedSharedCounter::new);
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = ContentionHarness.parse(args);
+        int[] threadCounts = ContentionHarness.parseInts(options.getOrDefault("threads", "1,2,4,8,16,32,64"));
+        Duration duration = Duration.ofMillis(Long.parseLong(options.getOrDefault("millis", "1000")));
+        Duration warmUp = Duration.ofMillis(Long.parseLong(options.getOrDefault("warmUpMillis", "300")));
+        log.info("Núcleos disponibles: {}", Runtime.getRuntime().availableProcessors());
+
+        for (Mix mix : Mix.values()) {
+            List<String> rows = new ArrayList<>();
+            for (Map.Entry<String, Supplier<SharedCounter>> entry : COUNTERS.entrySet()) {
+                StringBuilder row = new StringBuilder(String.format("%-15s", entry.getKey()));
+                for (int threads : threadCounts) {
+                    double mops = measure(entry.getKey(), entry.getValue(), mix, threads, warmUp, duration);
+                    row.append(String.format("%9.1f", mops));
+                }
+                rows.add(row.toString());
+            }
+            StringBuilder header = new StringBuilder(String.format("%-15s", "Mops/s \\ hilos"));
+            for (int threads : threadCounts) {
+                header.append(String.format("%9d", threads));
+            }
+            log.info("{}\n{}\n{}", mix, header, String.join("\n", rows));
+        }
+    }
+
+    private static double measure(String name, Supplier<SharedCounter> factory, Mix mix, int threads,
+                                  Duration warmUp, Duration duration) {
+        // Un contador nuevo para el calentamiento y otro para la medición, para poder verificar el total
+        SharedCounter warmUpCounter = factory.get();
+        ContentionHarness.run(threads, Duration.ZERO, warmUp, operation(warmUpCounter, mix));
+
+        SharedCounter counter = factory.get();
+        ContentionHarness.Result result = ContentionHarness.run(threads, Duration.ZERO, duration,
+                operation(counter, mix));
+
+        long expected = 0;
+        for (long iterations : result.perThread()) {
+            expected += mix.incrementsIn(iterations);
+        }
+        long actual = counter.get();
+        boolean consistent = counter instanceof AtomicIntegerCounter
+                ? actual == Integer.toUnsignedLong((int) expected)
+                : actual == expected;
+        if (!consistent) {
+            log.warn("{} con {} hilos perdió incrementos: esperado {}, obtenido {}", name, threads, expected, actual);
+        }
+        return result.millionOpsPerSecond();
+    }
+
+    private static ContentionHarness.Operation operation(SharedCounter counter, Mix mix) {
+        return (thread, iteration) -> {
+            if (mix.isIncrement(iteration)) {
+                counter.increment();
+                return 0;
+            }
+            return counter.get();
+        };
+    }
+}
@@ -0,0 +1,208 @@
+package dev.magadiflo.app.atomicclasses;
+
+import dev.magadiflo.app.benchmark.ContentionHarness;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntFunction;
+
+/**
+ * Cada hilo escribe solo sus propias estadísticas, sin compartir datos con los demás, y aun así puede escalar mal si
+ * esas estadísticas caen en la misma línea de caché. Se comparan estas disposiciones con 1 a 32 hilos:
+ * <ul>
+ *     <li><b>AtomicLongArray</b>: un contador por hilo en posiciones contiguas, con {@code incrementAndGet}.</li>
+ *     <li><b>PaddedAtomicLongArray</b>: lo mismo, con cada posición en su propia línea.</li>
+ *     <li><b>long[] contiguo</b>: dos métricas por hilo (operaciones y bytes) en un {@code long[]} compartido, escritas
+ *     solo por su hilo, sin CAS.</li>
+ *     <li><b>PerThreadStats</b>: las mismas dos métricas en un bloque con relleno por hilo, buscando el bloque en cada
+ *     registro o guardando un {@link PerThreadStats.Recorder} por hilo.</li>
+ * </ul>
+ * Parámetros opcionales ({@code clave=valor}): {@code threads} (por defecto {@code 1,2,4,8,16,32}), {@code millis}
+ * por medición (por defecto 1000) y {@code warmUpMillis} (por defecto 300). Al final de cada medición se comprueba que
+ * el total de operaciones registradas coincida con el ejecutado.
+ */
+@Slf4j
+public class FalseSharingBenchmark {
+
+    enum Metric {
+        OPERATIONS, BYTES
+    }
+
+    interface ThreadSlots {
+        void record(int thread, long bytes);
+
+        long operations();
+    }
+
+    static final class UnpaddedAtomicSlots implements ThreadSlots {
+        private final AtomicLongArray counters;
+
+        UnpaddedAtomicSlots(int threads) {
+            this.counters = new AtomicLongArray(threads);
+        }
+
+        @Override
+        public void record(int thread, long bytes) {
+            this.counters.incrementAndGet(thread);
+        }
+
+        @Override
+        public long operations() {
+            long sum = 0;
+            for (int i = 0; i < this.counters.length(); i++) {
+                sum += this.counters.get(i);
+            }
+            return sum;
+        }
+    }
+
+    static final class PaddedAtomicSlots implements ThreadSlots {
+        private final PaddedAtomicLongArray counters;
+
+        PaddedAtomicSlots(int threads) {
+            this.counters = new PaddedAtomicLongArray(threads);
+        }
+
+        @Override
+        public void record(int thread, long bytes) {
+            this.counters.incrementAndGet(thread);
+        }
+
+        @Override
+        public long operations() {
+            return this.counters.sum();
+        }
+    }
+
+    /**
+     * Las estadísticas "de siempre": un arreglo con las métricas de cada hilo una detrás de otra.
+     */
+    static final class ContiguousStats implements ThreadSlots {
+        private static final VarHandle ELEMENTS = MethodHandles.arrayElementVarHandle(long[].class);
+        private static final int METRICS = Metric.values().length;
+
+        private final long[] stats;
+
+        ContiguousStats(int threads) {
+            this.stats = new long[threads * METRICS];
+        }
+
+        @Override
+        public void record(int thread, long bytes) {
+            int operations = thread * METRICS + Metric.OPERATIONS.ordinal();
+            int transferred = thread * METRICS + Metric.BYTES.ordinal();
+            ELEMENTS.setOpaque(this.stats, operations, this.stats[operations] + 1);
+            ELEMENTS.setOpaque(this.stats, transferred, this.stats[transferred] + bytes);
+        }
+
+        @Override
+        public long operations() {
+            long sum = 0;
+            for (int i = Metric.OPERATIONS.ordinal(); i < this.stats.length; i += METRICS) {
+                sum += (long) ELEMENTS.getOpaque(this.stats, i);
+            }
+            return sum;
+        }
+    }
+
+    static final class PaddedStats implements ThreadSlots {
+        private final PerThreadStats<Metric> stats = new PerThreadStats<>(Metric.class);
+
+        @Override
+        public void record(int thread, long bytes) {
+            this.stats.increment(Metric.OPERATIONS);
+            this.stats.add(Metric.BYTES, bytes);
+        }
+
+        @Override
+        public long operations() {
+            return this.stats.sum(Metric.OPERATIONS);
+        }
+    }
+
+    static final class PaddedStatsRecorder implements ThreadSlots {
+        private final PerThreadStats<Metric> stats = new PerThreadStats<>(Metric.class);
+        // Cada hilo crea y usa solo su posición
+        private final PerThreadStats.Recorder<Metric>[] recorders;
+
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        PaddedStatsRecorder(int threads) {
+            this.recorders = new PerThreadStats.Recorder[threads];
+        }
+
+        @Override
+        public void record(int thread, long bytes) {
+            PerThreadStats.Recorder<Metric> recorder = this.recorders[thread];
+            if (recorder == null) {
+                recorder = this.recorders[thread] = this.stats.recorder();
+            }
+            recorder.increment(Metric.OPERATIONS);
+            recorder.add(Metric.BYTES, bytes);
+        }
+
+        @Override
+        public long operations() {
+            return this.stats.sum(Metric.OPERATIONS);
+        }
+    }
+
+    private static final Map<String, IntFunction<ThreadSlots>> LAYOUTS = new LinkedHashMap<>();
+
+    static {
+        LAYOUTS.put("AtomicLongArray", UnpaddedAtomicSlots::new);
+        LAYOUTS.put("PaddedAtomicLongArray", PaddedAtomicSlots::new);
+        LAYOUTS.put("long[] contiguo", ContiguousStats::new);
+        LAYOUTS.put("PerThreadStats", threads -> new PaddedStats());
+        LAYOUTS.put("PerThreadStats.Recorder", PaddedStatsRecorder::new);
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = ContentionHarness.parse(args);
+        int[] threadCounts = ContentionHarness.parseInts(options.getOrDefault("threads", "1,2,4,8,16,32"));
+        Duration duration = Duration.ofMillis(Long.parseLong(options.getOrDefault("millis", "1000")));
+        Duration warmUp = Duration.ofMillis(Long.parseLong(options.getOrDefault("warmUpMillis", "300")));
+        log.info("Núcleos disponibles: {}", Runtime.getRuntime().availableProcessors());
+
+        List<String> rows = new ArrayList<>();
+        for (Map.Entry<String, IntFunction<ThreadSlots>> entry : LAYOUTS.entrySet()) {
+            StringBuilder row = new StringBuilder(String.format("%-24s", entry.getKey()));
+            for (int threads : threadCounts) {
+                row.append(String.format("%9.1f", measure(entry.getKey(), entry.getValue(), threads, warmUp,
+                        duration)));
+            }
+            rows.add(row.toString());
+        }
+        StringBuilder header = new StringBuilder(String.format("%-24s", "Mops/s \\ hilos"));
+        for (int threads : threadCounts) {
+            header.append(String.format("%9d", threads));
+        }
+        log.info("\n{}\n{}", header, String.join("\n", rows));
+    }
+
+    private static double measure(String name, IntFunction<ThreadSlots> factory, int threads, Duration warmUp,
+                                  Duration duration) {
+        ContentionHarness.run(threads, Duration.ZERO, warmUp, operation(factory.apply(threads)));
+
+        ThreadSlots slots = factory.apply(threads);
+        ContentionHarness.Result result = ContentionHarness.run(threads, Duration.ZERO, duration, operation(slots));
+        if (slots.operations() != result.operations()) {
+            log.warn("{} con {} hilos: registradas {} operaciones de {}", name, threads, slots.operations(),
+                    result.operations());
+        }
+        return result.millionOpsPerSecond();
+    }
+
+    private static ContentionHarness.Operation operation(ThreadSlots slots) {
+        return (thread, iteration) -> {
+            slots.record(thread, iteration & 1023);
+            return 0;
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package dev.magadiflo.app.atomicclasses;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Como {@link AtomicLongArray}, pero cada posición ocupa su propia línea de caché.
+ * <p>
+ * En un {@code AtomicLongArray} (o un {@code long[]}) caben 8 posiciones por línea de 64 bytes. Si cada hilo escribe
+ * "su" posición, los hilos no comparten datos, pero sí la línea: cada escritura la invalida en los demás núcleos, que
+ * tienen que volver a pedirla (false sharing). El resultado escala peor que un único contador compartido.
+ * <p>
+ * Aquí entre dos posiciones hay {@value #STRIDE} {@code long} (128 bytes, porque algunos procesadores traen las líneas
+ * de dos en dos), y también antes de la primera y después de la última, para no compartir línea con la cabecera del
+ * arreglo ni con otros objetos. Ocupa unas 16 veces más memoria: es para pocas posiciones muy escritas, como una por
+ * hilo o por núcleo.
+ */
+public final class PaddedAtomicLongArray {
+
+    static final int STRIDE = 16;
+    private static final VarHandle ELEMENTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] array;
+    private final int length;
+
+    public PaddedAtomicLongArray(int length) {
+        if (length < 0 || length > Integer.MAX_VALUE / STRIDE - 2) {
+            throw new IllegalArgumentException("Longitud no válida: " + length);
+        }
+        this.length = length;
+        this.array = new long[(length + 2) * STRIDE];
+    }
+
+    private int offset(int index) {
+        if (index < 0 || index >= this.length) {
+            throw new IndexOutOfBoundsException("Índice " + index + " fuera de [0, " + this.length + ")");
+        }
+        return (index + 1) * STRIDE;
+    }
+
+    public int length() {
+        return this.length;
+    }
+
+    public long get(int index) {
+        return (long) ELEMENTS.getVolatile(this.array, this.offset(index));
+    }
+
+    public void set(int index, long value) {
+        ELEMENTS.setVolatile(this.array, this.offset(index), value);
+    }
+
+    /**
+     * Escritura con semántica release, equivalente a {@link AtomicLongArray#lazySet}: más barata que {@link #set}
+     * cuando solo importa que los lectores terminen viendo el valor.
+     */
+    public void setRelease(int index, long value) {
+        ELEMENTS.setRelease(this.array, this.offset(index), value);
+    }
+
+    public boolean compareAndSet(int index, long expected, long updated) {
+        return ELEMENTS.compareAndSet(this.array, this.offset(index), expected, updated);
+    }
+
+    public long getAndAdd(int index, long delta) {
+        return (long) ELEMENTS.getAndAdd(this.array, this.offset(index), delta);
+    }
+
+    public long addAndGet(int index, long delta) {
+        return this.getAndAdd(index, delta) + delta;
+    }
+
+    public long incrementAndGet(int index) {
+        return this.addAndGet(index, 1);
+    }
+
+    /**
+     * Suma de todas las posiciones. No es una foto atómica si hay escrituras concurrentes.
+     */
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < this.length; i++) {
+            sum += (long) ELEMENTS.getVolatile(this.array, (i + 1) * STRIDE);
+        }
+        return sum;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        for (int i = 0; i < this.length; i++) {
+            joiner.add(Long.toString(this.get(i)));
+        }
+        return joiner.toString();
+    }
+}
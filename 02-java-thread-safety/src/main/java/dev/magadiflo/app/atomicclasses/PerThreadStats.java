@@ -0,0 +1,126 @@
+package dev.magadiflo.app.atomicclasses;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Estadísticas por hilo que se suman al leerlas. {@code E} es un enum con las métricas (peticiones, errores, bytes...).
+ * <p>
+ * Cada hilo recibe su propio bloque con un contador por métrica, y solo él lo escribe. Por eso:
+ * <ul>
+ *     <li>Registrar una métrica es leer y escribir un {@code long} propio, sin CAS ni {@code lock}.</li>
+ *     <li>Las métricas de un mismo hilo van juntas (comparten línea de caché sin problema, las escribe el mismo
+ *     núcleo), y cada bloque lleva {@value PaddedAtomicLongArray#STRIDE} {@code long} de relleno a cada lado, para no
+ *     compartir línea con el bloque de otro hilo.</li>
+ *     <li>Leer recorre los bloques de todos los hilos; como en {@link StripedCounter#sum()}, no es una foto
+ *     atómica.</li>
+ * </ul>
+ * Cada llamada a {@link #add} busca el bloque del hilo en un {@link ThreadLocal}; en bucles muy calientes conviene
+ * obtener una vez un {@link Recorder} con {@link #recorder()} y registrar a través de él.
+ * <p>
+ * Los bloques de los hilos que terminan se conservan (sus cuentas siguen sumando), así que está pensado para pools de
+ * hilos fijos, no para crear un hilo por tarea.
+ */
+public final class PerThreadStats<E extends Enum<E>> {
+
+    private static final int PADDING = PaddedAtomicLongArray.STRIDE;
+    private static final VarHandle ELEMENTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final Class<E> metricType;
+    private final E[] metrics;
+    private final ThreadLocal<long[]> block = ThreadLocal.withInitial(this::register);
+    private final ReentrantLock registrationLock = new ReentrantLock();
+    // Copy-on-write: se reemplaza al registrar un hilo y los lectores recorren la versión que ven
+    private volatile long[][] blocks = new long[0][];
+
+    public PerThreadStats(Class<E> metricType) {
+        this.metricType = metricType;
+        this.metrics = metricType.getEnumConstants();
+    }
+
+    private long[] register() {
+        long[] newBlock = new long[PADDING + this.metrics.length + PADDING];
+        this.registrationLock.lock();
+        try {
+            long[][] current = this.blocks;
+            long[][] updated = new long[current.length + 1][];
+            System.arraycopy(current, 0, updated, 0, current.length);
+            updated[current.length] = newBlock;
+            this.blocks = updated;
+        } finally {
+            this.registrationLock.unlock();
+        }
+        return newBlock;
+    }
+
+    public void increment(E metric) {
+        this.add(metric, 1);
+    }
+
+    /**
+     * Suma {@code delta} al contador de {@code metric} del hilo actual. La escritura es opaca: atómica para el
+     * {@code long} completo y visible para los lectores sin imponer el costo de una escritura {@code volatile}.
+     */
+    public void add(E metric, long delta) {
+        add(this.block.get(), metric, delta);
+    }
+
+    private static void add(long[] own, Enum<?> metric, long delta) {
+        int index = PADDING + metric.ordinal();
+        ELEMENTS.setOpaque(own, index, own[index] + delta);
+    }
+
+    /**
+     * Devuelve el registrador del hilo actual. Solo debe usarlo ese hilo.
+     */
+    public Recorder<E> recorder() {
+        return new Recorder<>(this.block.get());
+    }
+
+    public long sum(E metric) {
+        int index = PADDING + metric.ordinal();
+        long sum = 0;
+        for (long[] threadBlock : this.blocks) {
+            sum += (long) ELEMENTS.getOpaque(threadBlock, index);
+        }
+        return sum;
+    }
+
+    public Map<E, Long> snapshot() {
+        Map<E, Long> snapshot = new EnumMap<>(this.metricType);
+        for (E metric : this.metrics) {
+            snapshot.put(metric, this.sum(metric));
+        }
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * Hilos que han registrado alguna métrica.
+     */
+    public int threads() {
+        return this.blocks.length;
+    }
+
+    /**
+     * Acceso directo al bloque de un hilo, sin pasar por el {@link ThreadLocal} en cada registro.
+     */
+    public static final class Recorder<E extends Enum<E>> {
+        private final long[] own;
+
+        private Recorder(long[] own) {
+            this.own = own;
+        }
+
+        public void increment(E metric) {
+            PerThreadStats.add(this.own, metric, 1);
+        }
+
+        public void add(E metric, long delta) {
+            PerThreadStats.add(this.own, metric, delta);
+        }
+    }
+}
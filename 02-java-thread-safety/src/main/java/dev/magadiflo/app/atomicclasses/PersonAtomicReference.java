@@ -13,29 +13,19 @@ public class PersonAtomicReference {
     public static void main(String[] args) throws InterruptedException {
         // Estado inicial del usuario
         AtomicReference<Person> userRef = new AtomicReference<>(new Person("Lesly", "lesly@gmail.com"));
+        // El bucle get/compareAndSet/reintentar lo hace AtomicUpdater, con espera entre reintentos y métricas
+        AtomicUpdater<Person> user = AtomicUpdater.of(userRef, Backoff.exponentialSpin(64));
 
         // Tarea 1: Actualizar el email
         Runnable taskEmail = () -> {
-            Person current;
-            Person updated;
-            do {
-                current = userRef.get();
-                updated = new Person(current.name(), "lesly.aguila@corporation.com");
-            } while (!userRef.compareAndSet(current, updated));
-
-            log.info("Email actualizado: {}, por el hilo: {}", userRef.get(), Thread.currentThread().getName());
+            Person updated = user.updateAndGet(current -> new Person(current.name(), "lesly.aguila@corporation.com"));
+            log.info("Email actualizado: {}, por el hilo: {}", updated, Thread.currentThread().getName());
         };
 
         // Tarea 2: Actualizar el nombre
         Runnable taskName = () -> {
-            Person current;
-            Person updated;
-            do {
-                current = userRef.get();
-                updated = new Person("Lesly Águila", current.email());
-            } while (!userRef.compareAndSet(current, updated));
-
-            log.info("Nombre actualizado: {}, por el hilo: {}", userRef.get(), Thread.currentThread().getName());
+            Person updated = user.updateAndGet(current -> new Person("Lesly Águila", current.email()));
+            log.info("Nombre actualizado: {}, por el hilo: {}", updated, Thread.currentThread().getName());
         };
 
         Thread t1 = new Thread(taskEmail);
@@ -48,5 +38,6 @@ public class PersonAtomicReference {
         t2.join();
 
         log.info("Estado final del usuario: {}", userRef.get());
+        user.logStats("Actualizaciones de Person");
     }
 }
@@ -0,0 +1,239 @@
+package dev.magadiflo.app.atomicclasses;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Contador repartido en celdas (striping), con la misma idea que {@link java.util.concurrent.atomic.LongAdder}.
+ * <p>
+ * Con un {@code AtomicInteger}, todos los hilos hacen CAS sobre la misma línea de caché, que viaja de núcleo en núcleo
+ * en cada incremento. Aquí:
+ * <ul>
+ *     <li>Mientras no hay contención, se hace CAS sobre un único valor {@code base}.</li>
+ *     <li>En cuanto un CAS falla, se crea un arreglo de celdas y cada hilo incrementa la celda que le toca según su
+ *     {@code probe} (un hash propio del hilo).</li>
+ *     <li>Si un hilo vuelve a chocar en su celda, cambia de {@code probe}; si sigue chocando, el arreglo se duplica,
+ *     hasta llegar a la potencia de 2 más cercana al número de núcleos.</li>
+ *     <li>Cada celda ocupa su propia línea de caché (relleno a ambos lados del valor), así que dos hilos en celdas
+ *     vecinas no se invalidan entre sí (false sharing).</li>
+ * </ul>
+ * El precio está en la lectura: {@link #sum()} recorre todas las celdas y no es una foto atómica si hay escrituras
+ * concurrentes. Sirve para métricas y contadores que se escriben mucho y se leen poco, no para generar IDs.
+ */
+public class StripedCounter {
+
+    private static final int MAX_CELLS = maxCells(Runtime.getRuntime().availableProcessors());
+    private static final VarHandle BASE;
+    private static final VarHandle CELLS_BUSY;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            BASE = lookup.findVarHandle(StripedCounter.class, "base", long.class);
+            CELLS_BUSY = lookup.findVarHandle(StripedCounter.class, "cellsBusy", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Probe de cada hilo; 0 significa "todavía sin asignar"
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(() -> new int[]{newProbe()});
+
+    private volatile long base;
+    private volatile Cell[] cells;
+    // Spinlock para crear celdas o expandir el arreglo; se toma muy pocas veces
+    private volatile int cellsBusy;
+
+    public void increment() {
+        this.add(1);
+    }
+
+    public void decrement() {
+        this.add(-1);
+    }
+
+    public void add(long delta) {
+        Cell[] cs = this.cells;
+        long current;
+        if (cs == null && BASE.compareAndSet(this, current = this.base, current + delta)) {
+            return;
+        }
+        int[] probe = PROBE.get();
+        if (cs != null) {
+            Cell cell = cs[probe[0] & (cs.length - 1)];
+            if (cell != null && cell.compareAndSet(current = cell.value, current + delta)) {
+                return;
+            }
+        }
+        this.addContended(delta, probe);
+    }
+
+    /**
+     * Suma {@code base} y todas las celdas. Con escrituras concurrentes el resultado puede no incluir las que ocurren
+     * durante el recorrido.
+     */
+    public long sum() {
+        long sum = this.base;
+        Cell[] cs = this.cells;
+        if (cs != null) {
+            for (Cell cell : cs) {
+                if (cell != null) {
+                    sum += cell.value;
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Pone el contador a cero. Solo es exacto si no hay escrituras concurrentes.
+     */
+    public void reset() {
+        this.base = 0;
+        Cell[] cs = this.cells;
+        if (cs != null) {
+            for (Cell cell : cs) {
+                if (cell != null) {
+                    cell.value = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Celdas creadas hasta ahora; 0 si nunca hubo contención.
+     */
+    public int cellCount() {
+        Cell[] cs = this.cells;
+        return cs == null ? 0 : (int) Arrays.stream(cs).filter(cell -> cell != null).count();
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(this.sum());
+    }
+
+    private void addContended(long delta, int[] probe) {
+        int hash = probe[0];
+        boolean collided = false;
+        while (true) {
+            Cell[] cs = this.cells;
+            long current;
+            if (cs != null) {
+                int n = cs.length;
+                int index = hash & (n - 1);
+                Cell cell = cs[index];
+                if (cell == null) {
+                    // Celda libre: se crea con el incremento ya aplicado
+                    if (this.cellsBusy == 0 && this.tryLockCells()) {
+                        try {
+                            if (this.cells == cs && cs[index] == null) {
+                                cs[index] = new Cell(delta);
+                                return;
+                            }
+                        } finally {
+                            this.cellsBusy = 0;
+                        }
+                        continue;
+                    }
+                    collided = false;
+                } else if (cell.compareAndSet(current = cell.value, current + delta)) {
+                    return;
+                } else if (n >= MAX_CELLS || this.cells != cs) {
+                    // Ya no se puede crecer (o alguien acaba de hacerlo): solo se cambia de celda
+                    collided = false;
+                } else if (!collided) {
+                    collided = true;
+                } else if (this.cellsBusy == 0 && this.tryLockCells()) {
+                    // Segundo choque seguido: se duplica el arreglo
+                    try {
+                        if (this.cells == cs) {
+                            this.cells = Arrays.copyOf(cs, n << 1);
+                        }
+                    } finally {
+                        this.cellsBusy = 0;
+                    }
+                    collided = false;
+                    continue;
+                }
+                hash = rehash(hash);
+                probe[0] = hash;
+            } else if (this.cellsBusy == 0 && this.cells == null && this.tryLockCells()) {
+                // Primer choque sobre base: se crean las dos primeras celdas
+                try {
+                    if (this.cells == null) {
+                        Cell[] initial = new Cell[2];
+                        initial[hash & 1] = new Cell(delta);
+                        this.cells = initial;
+                        return;
+                    }
+                } finally {
+                    this.cellsBusy = 0;
+                }
+            } else if (BASE.compareAndSet(this, current = this.base, current + delta)) {
+                return;
+            }
+        }
+    }
+
+    private boolean tryLockCells() {
+        return CELLS_BUSY.compareAndSet(this, 0, 1);
+    }
+
+    private static int newProbe() {
+        int probe = ThreadLocalRandom.current().nextInt();
+        return probe == 0 ? 1 : probe;
+    }
+
+    private static int rehash(int hash) {
+        // xorshift de Marsaglia
+        hash ^= hash << 13;
+        hash ^= hash >>> 17;
+        hash ^= hash << 5;
+        return hash;
+    }
+
+    private static int maxCells(int processors) {
+        int cells = 1;
+        while (cells < processors) {
+            cells <<= 1;
+        }
+        return Math.max(2, cells);
+    }
+
+    /*
+     * El relleno va en clases separadas porque la JVM puede reordenar los campos dentro de una clase, pero siempre
+     * coloca los campos de la superclase antes que los de la subclase. Así el valor queda con 64 bytes a cada lado.
+     */
+    static class LeftPadding {
+        long p01, p02, p03, p04, p05, p06, p07, p08;
+    }
+
+    static class CellValue extends LeftPadding {
+        volatile long value;
+    }
+
+    static final class Cell extends CellValue {
+        private static final VarHandle VALUE;
+
+        static {
+            try {
+                VALUE = MethodHandles.lookup().findVarHandle(CellValue.class, "value", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        long p11, p12, p13, p14, p15, p16, p17, p18;
+
+        Cell(long value) {
+            this.value = value;
+        }
+
+        boolean compareAndSet(long expected, long updated) {
+            return VALUE.compareAndSet(this, expected, updated);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package dev.magadiflo.app.benchmark;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Arnés mínimo para medir throughput bajo contención: N hilos de plataforma ejecutan la misma operación en bucle
+ * durante un tiempo fijo y se cuenta cuántas operaciones completó cada uno.
+ * <p>
+ * No pretende reemplazar a JMH (no hace fork por escenario ni controla la optimización del JIT), pero reproduce lo
+ * esencial: calentamiento previo, todos los hilos arrancan a la vez, los contadores son locales a cada hilo y el
+ * resultado de cada operación se consume para que el JIT no pueda eliminarla.
+ */
+public final class ContentionHarness {
+
+    private static final int STOP_CHECK_INTERVAL = 64;
+
+    /**
+     * Operación medida. Recibe el índice del hilo y el número de iteración (para decidir, por ejemplo, si toca leer o
+     * escribir) y devuelve un valor que el arnés consume.
+     */
+    @FunctionalInterface
+    public interface Operation {
+        long execute(int thread, long iteration);
+    }
+
+    public record Result(int threads, long operations, long[] perThread, double seconds) {
+
+        public double opsPerSecond() {
+            return this.operations / this.seconds;
+        }
+
+        public double millionOpsPerSecond() {
+            return this.opsPerSecond() / 1e6;
+        }
+    }
+
+    private static volatile long sink;
+
+    private ContentionHarness() {
+    }
+
+    /**
+     * Ejecuta la operación con {@code threads} hilos: primero durante {@code warmUp} (resultado descartado) y luego
+     * durante {@code duration}.
+     */
+    public static Result run(int threads, Duration warmUp, Duration duration, Operation operation) {
+        if (!warmUp.isZero()) {
+            measure(threads, warmUp, operation);
+        }
+        return measure(threads, duration, operation);
+    }
+
+    private static Result measure(int threads, Duration duration, Operation operation) {
+        long[] counts = new long[threads];
+        long[] consumedByThread = new long[threads];
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Flag running = new Flag();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            workers[t] = Thread.ofPlatform().name("contention-" + t).start(() -> {
+                ready.countDown();
+                awaitQuietly(start);
+                long iteration = 0;
+                long consumed = 0;
+                while (running.value) {
+                    for (int i = 0; i < STOP_CHECK_INTERVAL; i++) {
+                        consumed += operation.execute(thread, iteration++);
+                    }
+                }
+                counts[thread] = iteration;
+                consumedByThread[thread] = consumed;
+            });
+        }
+        awaitQuietly(ready);
+        long begin = System.nanoTime();
+        start.countDown();
+        sleepQuietly(duration);
+        running.value = false;
+        for (Thread worker : workers) {
+            joinQuietly(worker);
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        sink = Arrays.stream(consumedByThread).sum();
+        return new Result(threads, Arrays.stream(counts).sum(), counts, seconds);
+    }
+
+    /**
+     * Interpreta argumentos con formato {@code clave=valor}.
+     */
+    public static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] parts = arg.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Parámetro inválido, se esperaba clave=valor: " + arg);
+            }
+            options.put(parts[0], parts[1]);
+        }
+        return options;
+    }
+
+    public static int[] parseInts(String csv) {
+        return Arrays.stream(csv.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+
+    private static final class Flag {
+        volatile boolean value = true;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepQuietly(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void joinQuietly(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
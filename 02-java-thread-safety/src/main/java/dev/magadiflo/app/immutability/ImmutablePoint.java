@@ -8,6 +8,31 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public final class ImmutablePoint {
+    // Cabecera de 12 bytes + dos int, alineado a 8 (con compressed class pointers)
+    private static final long SHALLOW_SIZE = 24;
+    private static final Interner<ImmutablePoint> INTERNER = Interner.weak(point -> SHALLOW_SIZE);
+
+    /**
+     * Clave {@code long} de un punto para {@link Interner#intern(long, Interner.LongKeyFactory)}: {@code x} en los 32
+     * bits altos e {@code y} en los bajos.
+     */
+    static final Interner.LongKeyFactory<ImmutablePoint> KEY = new Interner.LongKeyFactory<>() {
+        @Override
+        public int hash(long key) {
+            return 31 * (int) (key >>> 32) + (int) key;
+        }
+
+        @Override
+        public boolean matches(ImmutablePoint point, long key) {
+            return point.x == (int) (key >>> 32) && point.y == (int) key;
+        }
+
+        @Override
+        public ImmutablePoint create(long key) {
+            return new ImmutablePoint((int) (key >>> 32), (int) key);
+        }
+    };
+
     private final int x;
     private final int y;
 
@@ -17,6 +42,22 @@ public final class ImmutablePoint {
         this.y = y;
     }
 
+    /**
+     * Devuelve la instancia compartida del punto {@code (x, y)}: como es inmutable, todos los que usan el mismo punto
+     * pueden compartir un único objeto (ver {@link Interner}). Si el punto ya existe no se crea ninguno nuevo.
+     */
+    public static ImmutablePoint of(int x, int y) {
+        return INTERNER.intern(key(x, y), KEY);
+    }
+
+    static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    public static Interner.Stats internStats() {
+        return INTERNER.stats();
+    }
+
     // Solo getters. No existe forma de cambiar el estado
     public int getX() {
         return x;
@@ -26,6 +67,21 @@ public final class ImmutablePoint {
         return y;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ImmutablePoint that = (ImmutablePoint) o;
+        return x == that.x && y == that.y;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = x;
+        result = 31 * result + y;
+        return result;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("ImmutablePoint{");
@@ -38,5 +94,10 @@ public final class ImmutablePoint {
     public static void main(String[] args) {
         ImmutablePoint point = new ImmutablePoint(5, 10);
         log.info("{}", point);
+
+        ImmutablePoint shared = ImmutablePoint.of(5, 10);
+        log.info("¿ImmutablePoint.of(5, 10) devuelve siempre la misma instancia? {}",
+                shared == ImmutablePoint.of(5, 10));
+        log.info("{}", internStats());
     }
 }
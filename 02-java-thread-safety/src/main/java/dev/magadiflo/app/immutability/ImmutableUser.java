@@ -3,34 +3,77 @@ package dev.magadiflo.app.immutability;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
- * Clase inmutable que protege su lista interna.
+ * Clase inmutable que protege sus colecciones internas.
+ * <p>
+ * Los roles y permisos se guardan en colecciones persistentes ({@link PersistentHashSet} y {@link PersistentHashMap}).
+ * La copia defensiva del constructor sigue aislando al objeto de las colecciones mutables que recibe, y los métodos
+ * {@code with...}/{@code without...} devuelven un usuario nuevo que comparte casi toda la estructura con el anterior,
+ * en lugar de copiar todos los roles o permisos en cada cambio: añadir, quitar o consultar un rol es O(log32 n). Los
+ * roles son un conjunto, así que no conservan el orden en que se añadieron.
  */
 @Slf4j
 public final class ImmutableUser {
     private final String name;
-    private final List<String> roles;
+    private final PersistentHashSet<String> roles;
+    private final PersistentHashMap<String, String> permissions;
 
-    public ImmutableUser(String name, List<String> roles) {
+    public ImmutableUser(String name, Collection<String> roles) {
+        this(name, roles, Map.of());
+    }
+
+    public ImmutableUser(String name, Collection<String> roles, Map<String, String> permissions) {
         this.name = name;
-        this.roles = List.copyOf(roles); // copia defensiva e inmodificable
+        this.roles = PersistentHashSet.copyOf(roles); // copia defensiva, salvo que ya sea persistente
+        this.permissions = PersistentHashMap.copyOf(permissions);
     }
 
     public String getName() {
         return name;
     }
 
-    public List<String> getRoles() {
+    public Set<String> getRoles() {
         return roles; // seguro, es inmutable
     }
 
+    /**
+     * Permisos por recurso, por ejemplo {@code "reports" -> "READ"}.
+     */
+    public Map<String, String> getPermissions() {
+        return permissions;
+    }
+
+    public ImmutableUser withRole(String role) {
+        PersistentHashSet<String> updated = roles.with(role);
+        return updated == roles ? this : new ImmutableUser(name, updated, permissions);
+    }
+
+    public ImmutableUser withoutRole(String role) {
+        PersistentHashSet<String> updated = roles.without(role);
+        return updated == roles ? this : new ImmutableUser(name, updated, permissions);
+    }
+
+    public ImmutableUser withPermission(String resource, String access) {
+        PersistentHashMap<String, String> updated = permissions.with(resource, access);
+        return updated == permissions ? this : new ImmutableUser(name, roles, updated);
+    }
+
+    public ImmutableUser withoutPermission(String resource) {
+        PersistentHashMap<String, String> updated = permissions.without(resource);
+        return updated == permissions ? this : new ImmutableUser(name, roles, updated);
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("ImmutableUser{");
         sb.append("name='").append(name).append('\'');
         sb.append(", roles=").append(roles);
+        sb.append(", permissions=").append(permissions);
         sb.append('}');
         return sb.toString();
     }
@@ -44,5 +87,10 @@ public final class ImmutableUser {
 
         externalRoles.add("ADMIN"); // cambiamos la lista original
         log.info("Objeto final: {}", user); // La lista interna NO se ve afectada
+
+        // "Modificar" devuelve un objeto nuevo; el original sigue igual
+        ImmutableUser admin = user.withRole("ADMIN").withPermission("reports", "READ");
+        log.info("Nuevo objeto: {}", admin);
+        log.info("Objeto original: {}", user);
     }
 }
@@ -0,0 +1,427 @@
+package dev.magadiflo.app.immutability;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * Devuelve siempre la misma instancia para valores inmutables iguales (patrón flyweight), como {@link String#intern()}
+ * pero para cualquier tipo con {@code equals}/{@code hashCode}, por ejemplo {@link ImmutablePoint}.
+ * <p>
+ * Si un servicio crea un millón de puntos o nombres de rol que en realidad son unos pocos miles distintos, guardar la
+ * instancia canónica en lugar de la recién creada deja en el heap una sola copia de cada valor. Las copias nuevas
+ * mueren jóvenes, que es barato para el GC, en vez de promocionarse y ocupar la generación vieja.
+ * <ul>
+ *     <li><b>Búsquedas sin lock</b>: cada franja (stripe) es una tabla hash propia que se lee sin bloquear; solo las
+ *     inserciones y las retiradas toman el lock de su franja. La búsqueda compara el hash guardado y luego el valor o
+ *     la clave {@code long} directamente contra cada entrada, sin crear ni reutilizar un objeto de búsqueda: no hay
+ *     estado por hilo, así que funciona igual con hilos virtuales.</li>
+ *     <li><b>Referencias débiles o blandas</b>: el interner no mantiene vivos los valores. Con {@link #weak()} un valor
+ *     se recoge en cuanto nadie más lo usa; con {@link #soft()} solo cuando falta memoria.</li>
+ *     <li><b>Limpieza por franjas</b>: cada franja tiene su propia {@link ReferenceQueue} y cada {@link #intern} retira
+ *     unas pocas entradas recogidas de su franja. No hay un hilo ni un lock global de limpieza.</li>
+ * </ul>
+ * Con {@link #intern(Object)} el llamador ya creó la copia candidata: se ahorra retenerla, no crearla. Si el valor se
+ * puede describir con un {@code long} (un punto {@code (x, y)}, un ID), {@link #intern(long, LongKeyFactory)} busca por
+ * esa clave y solo crea la instancia cuando no existe, así que un acierto no asigna memoria.
+ * <p>
+ * Cada valor distinto cuesta una referencia enlazada en su cubeta más su hueco en la tabla (unos 50 bytes): compensa
+ * cuando los valores se repiten mucho, no cuando casi todos son distintos.
+ */
+@Slf4j
+public final class Interner<T> {
+
+    // Entradas recogidas que se retiran como máximo en cada intern, para acotar su costo
+    private static final int MAX_EXPUNGE_PER_CALL = 16;
+
+    /**
+     * Describe un valor por una clave {@code long} para internarlo sin crear antes la copia candidata. Las
+     * implementaciones deben ser constantes sin estado, para que buscar tampoco asigne una lambda.
+     */
+    public interface LongKeyFactory<T> {
+        /**
+         * Debe coincidir con {@code hashCode()} del valor que {@link #create} devuelve para esta clave.
+         */
+        int hash(long key);
+
+        boolean matches(T value, long key);
+
+        T create(long key);
+    }
+
+    /**
+     * @param bytesNotAllocated bytes de las copias que no llegaron a crearse: aciertos de
+     *                          {@link #intern(long, LongKeyFactory)} multiplicados por el tamaño estimado
+     */
+    public record Stats(long hits, long misses, long entries, long collected, long bytesNotAllocated) {
+
+        public double hitRatio() {
+            long lookups = this.hits + this.misses;
+            return lookups == 0 ? 0 : this.hits / (double) lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("aciertos=%,d, fallos=%,d (%.1f%% de aciertos), entradas=%,d, recogidas=%,d, " +
+                            "bytesSinAsignar=%,d", this.hits, this.misses, 100 * this.hitRatio(),
+                    this.entries, this.collected, this.bytesNotAllocated);
+        }
+    }
+
+    private final Stripe<T>[] stripes;
+    // La franja sale de los bits altos del hash; los bajos eligen la cubeta dentro de la franja
+    private final int stripeShift;
+    private final boolean soft;
+    private final ToLongFunction<? super T> sizeEstimator;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder collected = new LongAdder();
+    private final LongAdder bytesNotAllocated = new LongAdder();
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Interner(boolean soft, ToLongFunction<? super T> sizeEstimator) {
+        this.soft = soft;
+        this.sizeEstimator = sizeEstimator;
+        int count = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4);
+        this.stripeShift = 32 - Integer.numberOfTrailingZeros(count);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe<>();
+        }
+    }
+
+    /**
+     * Interner con referencias débiles: un valor desaparece del interner en el siguiente GC después de que nadie lo
+     * use.
+     */
+    public static <T> Interner<T> weak() {
+        return new Interner<>(false, value -> 0);
+    }
+
+    /**
+     * Como {@link #weak()}, y además estima con el tamaño de cada instancia ({@code sizeEstimator}) los bytes que
+     * {@link #intern(long, LongKeyFactory)} no llegó a asignar.
+     */
+    public static <T> Interner<T> weak(ToLongFunction<? super T> sizeEstimator) {
+        return new Interner<>(false, sizeEstimator);
+    }
+
+    /**
+     * Interner con referencias blandas: los valores sin uso se conservan hasta que el GC necesita memoria. Sirve como
+     * caché de valores caros de construir, a costa de un heap más ocupado.
+     */
+    public static <T> Interner<T> soft() {
+        return new Interner<>(true, value -> 0);
+    }
+
+    public static <T> Interner<T> soft(ToLongFunction<? super T> sizeEstimator) {
+        return new Interner<>(true, sizeEstimator);
+    }
+
+    /**
+     * Devuelve la instancia canónica igual a {@code value}. Si no hay ninguna, {@code value} pasa a serlo.
+     */
+    public T intern(T value) {
+        Objects.requireNonNull(value);
+        int hash = spread(value.hashCode());
+        Stripe<T> stripe = this.stripes[hash >>> this.stripeShift];
+        stripe.expunge(this.collected);
+
+        T canonical = stripe.find(hash, value);
+        if (canonical != null) {
+            this.hits.increment();
+            return canonical;
+        }
+        return this.insert(stripe, value, hash);
+    }
+
+    /**
+     * Devuelve la instancia canónica para {@code key}, y la crea con {@code factory} solo si no existe. Un acierto no
+     * asigna memoria.
+     * <pre>{@code
+     * ImmutablePoint point = interner.intern(ImmutablePoint.key(x, y), ImmutablePoint.KEY);
+     * }</pre>
+     */
+    public T intern(long key, LongKeyFactory<T> factory) {
+        int hash = spread(factory.hash(key));
+        Stripe<T> stripe = this.stripes[hash >>> this.stripeShift];
+        stripe.expunge(this.collected);
+
+        T canonical = stripe.find(hash, key, factory);
+        if (canonical != null) {
+            this.hits.increment();
+            long size = this.sizeEstimator.applyAsLong(canonical);
+            if (size > 0) {
+                this.bytesNotAllocated.add(size);
+            }
+            return canonical;
+        }
+        return this.insert(stripe, factory.create(key), hash);
+    }
+
+    private T insert(Stripe<T> stripe, T value, int hash) {
+        T canonical = stripe.putIfAbsent(value, hash, this.soft);
+        if (canonical == null) {
+            this.misses.increment();
+            return value;
+        }
+        // Otro hilo internó un valor igual entre la búsqueda y el lock, o la búsqueda sin lock coincidió con un
+        // redimensionado y no lo vio
+        this.hits.increment();
+        return canonical;
+    }
+
+    /**
+     * Retira todas las entradas cuyos valores ya recogió el GC.
+     */
+    public void cleanUp() {
+        for (Stripe<T> stripe : this.stripes) {
+            while (stripe.expunge(this.collected)) {
+                // Sigue hasta vaciar la cola de la franja
+            }
+        }
+    }
+
+    /**
+     * Entradas en el interner, incluidas las ya recogidas que todavía no se retiraron.
+     */
+    public long size() {
+        long size = 0;
+        for (Stripe<T> stripe : this.stripes) {
+            size += stripe.count;
+        }
+        return size;
+    }
+
+    public Stats stats() {
+        return new Stats(this.hits.sum(), this.misses.sum(), this.size(), this.collected.sum(),
+                this.bytesNotAllocated.sum());
+    }
+
+    public void logStats(String name) {
+        log.info("{}: {}", name, this.stats());
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x45d9f3b;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Tabla hash de una franja. Cada cubeta es una lista enlazada de referencias, y la referencia es el propio nodo.
+     * Las búsquedas la recorren sin lock; insertar, retirar y redimensionar toman {@link #lock}. Una búsqueda que
+     * coincide con un redimensionado puede no ver un valor que sí está: eso solo lleva a {@link #putIfAbsent}, que
+     * vuelve a buscar con el lock tomado.
+     */
+    private static final class Stripe<T> {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+        private volatile AtomicReferenceArray<ValueReference<T>> table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+        // Entradas enlazadas, incluidas las recogidas que todavía no se retiraron. Se escribe con el lock tomado
+        private volatile int count;
+
+        private T find(int hash, T value) {
+            AtomicReferenceArray<ValueReference<T>> table = this.table;
+            for (ValueReference<T> ref = table.get(hash & (table.length() - 1)); ref != null; ref = ref.next()) {
+                if (ref.hash() == hash) {
+                    T candidate = ref.get();
+                    if (candidate != null && value.equals(candidate)) {
+                        return candidate;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private T find(int hash, long key, LongKeyFactory<T> factory) {
+            AtomicReferenceArray<ValueReference<T>> table = this.table;
+            for (ValueReference<T> ref = table.get(hash & (table.length() - 1)); ref != null; ref = ref.next()) {
+                if (ref.hash() == hash) {
+                    T candidate = ref.get();
+                    if (candidate != null && factory.matches(candidate, key)) {
+                        return candidate;
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Enlaza {@code value} si no hay otro igual vivo.
+         *
+         * @return la instancia canónica que ya estaba, o {@code null} si {@code value} pasó a serlo
+         */
+        private T putIfAbsent(T value, int hash, boolean soft) {
+            this.lock.lock();
+            try {
+                T canonical = this.find(hash, value);
+                if (canonical != null) {
+                    return canonical;
+                }
+                if (this.count >= this.table.length() - (this.table.length() >>> 2)) {
+                    this.resize();
+                }
+                AtomicReferenceArray<ValueReference<T>> table = this.table;
+                int index = hash & (table.length() - 1);
+                // Una entrada igual ya recogida puede seguir en la cubeta: la retira expunge() cuando llegue a la cola
+                ValueReference<T> created = soft
+                        ? new SoftValueReference<>(value, hash, this.queue)
+                        : new WeakValueReference<>(value, hash, this.queue);
+                created.setNext(table.get(index));
+                table.set(index, created);
+                this.count++;
+                return null;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        /**
+         * Duplica la tabla. Los nodos se reenlazan en sitio, así que una búsqueda concurrente puede saltar a otra
+         * cubeta y terminar sin encontrar el valor, pero nunca entra en un ciclo. Se llama con el lock tomado.
+         */
+        private void resize() {
+            AtomicReferenceArray<ValueReference<T>> old = this.table;
+            AtomicReferenceArray<ValueReference<T>> resized = new AtomicReferenceArray<>(old.length() * 2);
+            int mask = resized.length() - 1;
+            for (int i = 0; i < old.length(); i++) {
+                ValueReference<T> ref = old.get(i);
+                while (ref != null) {
+                    ValueReference<T> next = ref.next();
+                    int index = ref.hash() & mask;
+                    ref.setNext(resized.get(index));
+                    resized.set(index, ref);
+                    ref = next;
+                }
+            }
+            this.table = resized;
+        }
+
+        /**
+         * Retira hasta {@value Interner#MAX_EXPUNGE_PER_CALL} entradas recogidas. {@link ReferenceQueue#poll()} no
+         * toma ningún lock si la cola está vacía, que es lo habitual; el lock de la franja solo se toma si hay algo que
+         * retirar.
+         *
+         * @return {@code true} si pudo quedar alguna más en la cola
+         */
+        @SuppressWarnings("unchecked")
+        private boolean expunge(LongAdder collected) {
+            Reference<? extends T> reference = this.queue.poll();
+            if (reference == null) {
+                return false;
+            }
+            this.lock.lock();
+            try {
+                int expunged = 0;
+                do {
+                    if (this.unlink((ValueReference<T>) reference)) {
+                        collected.increment();
+                    }
+                    if (++expunged == MAX_EXPUNGE_PER_CALL) {
+                        return true;
+                    }
+                    reference = this.queue.poll();
+                } while (reference != null);
+                return false;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private boolean unlink(ValueReference<T> target) {
+            AtomicReferenceArray<ValueReference<T>> table = this.table;
+            int index = target.hash() & (table.length() - 1);
+            ValueReference<T> previous = null;
+            for (ValueReference<T> ref = table.get(index); ref != null; ref = ref.next()) {
+                if (ref == target) {
+                    // Una búsqueda que ya esté en este nodo sigue por su next, que no cambia
+                    if (previous == null) {
+                        table.set(index, ref.next());
+                    } else {
+                        previous.setNext(ref.next());
+                    }
+                    this.count--;
+                    return true;
+                }
+                previous = ref;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Referencia débil o blanda al valor, que hace a la vez de nodo de la lista de su cubeta. Guarda el hash para
+     * descartar entradas sin leer el valor, y para encontrar su cubeta cuando ya fue recogida.
+     */
+    private interface ValueReference<T> {
+        T get();
+
+        int hash();
+
+        ValueReference<T> next();
+
+        void setNext(ValueReference<T> next);
+    }
+
+    private static final class WeakValueReference<T> extends WeakReference<T> implements ValueReference<T> {
+        private final int hash;
+        private volatile ValueReference<T> next;
+
+        private WeakValueReference(T value, int hash, ReferenceQueue<T> queue) {
+            super(value, queue);
+            this.hash = hash;
+        }
+
+        @Override
+        public int hash() {
+            return this.hash;
+        }
+
+        @Override
+        public ValueReference<T> next() {
+            return this.next;
+        }
+
+        @Override
+        public void setNext(ValueReference<T> next) {
+            this.next = next;
+        }
+    }
+
+    private static final class SoftValueReference<T> extends SoftReference<T> implements ValueReference<T> {
+        private final int hash;
+        private volatile ValueReference<T> next;
+
+        private SoftValueReference(T value, int hash, ReferenceQueue<T> queue) {
+            super(value, queue);
+            this.hash = hash;
+        }
+
+        @Override
+        public int hash() {
+            return this.hash;
+        }
+
+        @Override
+        public ValueReference<T> next() {
+            return this.next;
+        }
+
+        @Override
+        public void setNext(ValueReference<T> next) {
+            this.next = next;
+        }
+    }
+}
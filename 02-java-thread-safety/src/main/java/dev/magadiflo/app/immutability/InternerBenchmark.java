@@ -0,0 +1,142 @@
+package dev.magadiflo.app.immutability;
+
+import dev.magadiflo.app.benchmark.ContentionHarness;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Mide lo que ahorra {@link Interner} cuando se guardan muchos valores inmutables que se repiten:
+ * <ol>
+ *     <li><b>Memoria</b>: se guardan {@code elements} puntos o nombres de rol elegidos entre {@code distinct} valores
+ *     distintos, creando cada uno de nuevo o interneándolo. Los puntos se internan de dos formas: creando la copia
+ *     candidata ({@link Interner#intern(Object)}) o buscando por su clave {@code (x, y)}, que solo crea el punto si
+ *     no existe. Se reportan los bytes retenidos por elemento (heap usado tras un GC, incluido el propio interner),
+ *     los bytes reservados y el tiempo por elemento.</li>
+ *     <li><b>Concurrencia</b>: varios hilos internan puntos a la vez, frente a solo crearlos.</li>
+ *     <li><b>Recolección</b>: al soltar los valores, el GC los recoge y el interner retira sus entradas.</li>
+ * </ol>
+ * Parámetros opcionales ({@code clave=valor}): {@code elements} (por defecto 1000000), {@code distinct} (por defecto
+ * 1000), {@code threads} (por defecto {@code 1,2,4,8}) y {@code millis} por medición (por defecto 1000).
+ */
+@Slf4j
+public class InternerBenchmark {
+
+    private static final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+    private static final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        Map<String, String> options = ContentionHarness.parse(args);
+        int elements = Integer.parseInt(options.getOrDefault("elements", "1000000"));
+        int distinct = Integer.parseInt(options.getOrDefault("distinct", "1000"));
+        int[] threadCounts = ContentionHarness.parseInts(options.getOrDefault("threads", "1,2,4,8"));
+        Duration duration = Duration.ofMillis(Long.parseLong(options.getOrDefault("millis", "1000")));
+
+        log.info("{} elementos elegidos entre {} valores distintos", elements, distinct);
+        Interner<ImmutablePoint> pointInterner = Interner.weak(point -> 24);
+        Interner<ImmutablePoint> pointKeyInterner = Interner.weak(point -> 24);
+        Interner<String> roleInterner = Interner.weak(role -> 40 + 2L * role.length());
+
+        Map<String, IntFunction<Object>> factories = new LinkedHashMap<>();
+        factories.put("new ImmutablePoint", id -> point(id));
+        factories.put("Interner<ImmutablePoint>", id -> pointInterner.intern(point(id)));
+        factories.put("Interner por clave (x, y)", id -> pointKeyInterner.intern(key(id), ImmutablePoint.KEY));
+        factories.put("\"ROLE_\" + id", InternerBenchmark::role);
+        factories.put("Interner<String>", id -> roleInterner.intern(role(id)));
+        factories.put("String.intern()", id -> role(id).intern());
+        // Una pasada de calentamiento y otra para reportar
+        for (int round = 0; round < 2; round++) {
+            for (Map.Entry<String, IntFunction<Object>> entry : factories.entrySet()) {
+                retain(round == 1, entry.getKey(), entry.getValue(), elements, distinct);
+            }
+        }
+        pointInterner.logStats("Interner<ImmutablePoint>");
+        pointKeyInterner.logStats("Interner por clave (x, y)");
+        roleInterner.logStats("Interner<String>");
+
+        Map<String, Supplier<IntFunction<Object>>> concurrent = new LinkedHashMap<>();
+        concurrent.put("new ImmutablePoint", () -> InternerBenchmark::point);
+        concurrent.put("Interner.weak()", () -> {
+            Interner<ImmutablePoint> interner = Interner.weak();
+            return id -> interner.intern(point(id));
+        });
+        concurrent.put("Interner por clave", () -> {
+            Interner<ImmutablePoint> interner = Interner.weak();
+            return id -> interner.intern(key(id), ImmutablePoint.KEY);
+        });
+        concurrent.put("Interner.soft()", () -> {
+            Interner<ImmutablePoint> interner = Interner.soft();
+            return id -> interner.intern(point(id));
+        });
+        for (int threads : threadCounts) {
+            for (Map.Entry<String, Supplier<IntFunction<Object>>> entry : concurrent.entrySet()) {
+                IntFunction<Object> factory = entry.getValue().get();
+                ContentionHarness.Result result = ContentionHarness.run(threads, Duration.ofMillis(300), duration,
+                        (thread, iteration) -> factory.apply(ThreadLocalRandom.current().nextInt(distinct))
+                                .hashCode());
+                log.info("{} hilos  {}: {} Mops/s", String.format("%2d", threads),
+                        String.format("%-18s", entry.getKey()), String.format("%6.2f", result.millionOpsPerSecond()));
+            }
+        }
+
+        // Nadie usa ya los valores internados: el siguiente GC los recoge y el interner retira sus entradas
+        usedHeap();
+        pointInterner.cleanUp();
+        pointKeyInterner.cleanUp();
+        roleInterner.cleanUp();
+        pointInterner.logStats("Interner<ImmutablePoint> tras soltar los valores");
+        pointKeyInterner.logStats("Interner por clave (x, y) tras soltar los valores");
+        roleInterner.logStats("Interner<String> tras soltar los valores");
+    }
+
+    private static void retain(boolean report, String name, IntFunction<Object> factory, int elements, int distinct) {
+        SplittableRandom random = new SplittableRandom(42);
+        long heapBefore = usedHeap();
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        Object[] retained = new Object[elements];
+        for (int i = 0; i < elements; i++) {
+            retained[i] = factory.apply(random.nextInt(distinct));
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        long heap = usedHeap() - heapBefore;
+        Reference.reachabilityFence(retained);
+        if (report) {
+            log.info("{}: {} bytes retenidos, {} bytes reservados y {} ns por elemento",
+                    String.format("%-25s", name), String.format("%6.1f", heap / (double) elements),
+                    String.format("%6.1f", allocated / (double) elements),
+                    String.format("%6.1f", elapsed / (double) elements));
+        }
+    }
+
+    private static ImmutablePoint point(int id) {
+        return new ImmutablePoint(id, id * 31);
+    }
+
+    private static long key(int id) {
+        return ImmutablePoint.key(id, id * 31);
+    }
+
+    private static String role(int id) {
+        return "ROLE_" + id;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memoryMXBean.getHeapMemoryUsage().getUsed();
+    }
+}
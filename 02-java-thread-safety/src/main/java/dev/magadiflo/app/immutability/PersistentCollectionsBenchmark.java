@@ -0,0 +1,91 @@
+package dev.magadiflo.app.immutability;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Mide cuánto cuesta "modificar" una colección inmutable de {@code n} elementos: la copia completa que obliga
+ * {@code List.copyOf}/{@code Map.copyOf} frente a las colecciones persistentes.
+ * <p>
+ * Para cada tamaño se parte siempre de la misma colección y se aplica una modificación (añadir un rol, o añadir un
+ * permiso), como hacen los métodos {@code with...} de {@code ImmutableUser}. Se reportan nanosegundos y bytes
+ * asignados por modificación, estos últimos medidos con {@code ThreadMXBean.getThreadAllocatedBytes}.
+ */
+@Slf4j
+public class PersistentCollectionsBenchmark {
+
+    private static final int[] SIZES = {10, 1_000, 100_000};
+    private static final int WARM_UP_ROUNDS = 3;
+
+    private static final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) {
+        for (int round = 0; round <= WARM_UP_ROUNDS; round++) {
+            boolean report = round == WARM_UP_ROUNDS;
+            for (int size : SIZES) {
+                int updates = Math.max(100, 2_000_000 / size);
+
+                List<String> copiedRoles = List.copyOf(roles(size));
+                measure(report, "List.copyOf + nuevo rol", size, updates, i -> {
+                    List<String> updated = new ArrayList<>(copiedRoles);
+                    updated.add("ROLE_NEW_" + (i & 7));
+                    return List.copyOf(updated);
+                });
+                PersistentVector<String> persistentRoles = PersistentVector.copyOf(roles(size));
+                measure(report, "PersistentVector.append", size, updates,
+                        i -> persistentRoles.append("ROLE_NEW_" + (i & 7)));
+
+                Map<String, String> copiedPermissions = Map.copyOf(permissions(size));
+                measure(report, "Map.copyOf + nuevo permiso", size, updates, i -> {
+                    Map<String, String> updated = new HashMap<>(copiedPermissions);
+                    updated.put("resource-new-" + (i & 7), "WRITE");
+                    return Map.copyOf(updated);
+                });
+                PersistentHashMap<String, String> persistentPermissions = PersistentHashMap.copyOf(permissions(size));
+                measure(report, "PersistentHashMap.with", size, updates,
+                        i -> persistentPermissions.with("resource-new-" + (i & 7), "WRITE"));
+            }
+        }
+    }
+
+    private static void measure(boolean report, String name, int size, int updates, IntFunction<Object> update) {
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < updates; i++) {
+            sink = update.apply(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        if (report) {
+            log.info("{} n={}: {} ns y {} bytes por modificación", String.format("%-26s", name),
+                    String.format("%-7d", size), String.format("%,10.0f", elapsed / (double) updates),
+                    String.format("%,12d", allocated / updates));
+        }
+    }
+
+    private static List<String> roles(int size) {
+        List<String> roles = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            roles.add("ROLE_" + i);
+        }
+        return roles;
+    }
+
+    private static Map<String, String> permissions(int size) {
+        Map<String, String> permissions = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            permissions.put("resource-" + i, i % 2 == 0 ? "READ" : "WRITE");
+        }
+        return permissions;
+    }
+}
@@ -0,0 +1,500 @@
+package dev.magadiflo.app.immutability;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Mapa inmutable persistente basado en un HAMT (Hash Array Mapped Trie): {@link #with} y {@link #without} devuelven un
+ * mapa nuevo que comparte todo con el anterior salvo el camino de la raíz a la entrada modificada.
+ * <p>
+ * Cada nivel del árbol consume 5 bits del hash de la clave. Un nodo guarda un {@code bitmap} de 32 bits que indica qué
+ * posiciones están ocupadas y un arreglo compacto solo con esas posiciones, así que un nodo con 3 hijos ocupa 3
+ * huecos y no 32. Cada posición guarda una entrada (clave y valor) o un subnodo. Las claves con el mismo hash completo
+ * comparten un nodo de colisiones.
+ * <ul>
+ *     <li>{@link #get}, {@link #with} y {@link #without}: O(log32 n); con un millón de entradas, unos 4 niveles.</li>
+ *     <li>Cada modificación copia como mucho un arreglo pequeño por nivel, en lugar de todo el mapa como
+ *     {@code Map.copyOf}.</li>
+ * </ul>
+ * Para muchas modificaciones seguidas está el {@link Builder}, que edita en sitio los nodos que creó. Igual que
+ * {@code Map.copyOf}, no admite claves ni valores {@code null}, y los métodos de modificación de {@link Map} lanzan
+ * {@link UnsupportedOperationException}.
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(0, null);
+
+    private final int size;
+    private final Node root;
+    private Set<Entry<K, V>> entrySet;
+
+    private PersistentHashMap(int size, Node root) {
+        this.size = size;
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Copia defensiva, como {@code Map.copyOf}: si el mapa ya es un {@code PersistentHashMap} se devuelve tal cual.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+        if (map instanceof PersistentHashMap<?, ?> persistent) {
+            return (PersistentHashMap<K, V>) persistent;
+        }
+        Builder<K, V> builder = new Builder<>(empty());
+        map.forEach(builder::put);
+        return builder.build();
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        return this.root == null || key == null ? null : (V) this.root.find(0, hash(key), key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return this.get(key) != null;
+    }
+
+    /**
+     * Devuelve un mapa con la clave asociada al valor.
+     */
+    public PersistentHashMap<K, V> with(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        Change change = new Change();
+        Node start = this.root == null ? BitmapNode.EMPTY : this.root;
+        Node newRoot = start.assoc(null, 0, hash(key), key, value, change);
+        if (newRoot == this.root) {
+            return this;
+        }
+        return new PersistentHashMap<>(change.added ? this.size + 1 : this.size, newRoot);
+    }
+
+    /**
+     * Devuelve un mapa sin la clave.
+     */
+    public PersistentHashMap<K, V> without(Object key) {
+        if (this.root == null || key == null) {
+            return this;
+        }
+        Change change = new Change();
+        Node newRoot = this.root.without(null, 0, hash(key), key, change);
+        if (!change.removed) {
+            return this;
+        }
+        return newRoot == null ? empty() : new PersistentHashMap<>(this.size - 1, newRoot);
+    }
+
+    /**
+     * Builder que parte de este mapa sin copiarlo.
+     */
+    public Builder<K, V> toBuilder() {
+        return new Builder<>(this);
+    }
+
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<>(empty());
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (this.entrySet == null) {
+            this.entrySet = new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    return new EntryIterator<>(PersistentHashMap.this.root);
+                }
+
+                @Override
+                public int size() {
+                    return PersistentHashMap.this.size;
+                }
+            };
+        }
+        return this.entrySet;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bitFor(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    /**
+     * Qué pasó en una operación: si se añadió o eliminó una entrada (para mantener {@code size}).
+     */
+    private static final class Change {
+        boolean added;
+        boolean removed;
+    }
+
+    /**
+     * Un nodo guarda pares en {@code array}: {@code [clave, valor]} para una entrada, o {@code [null, subnodo]}.
+     */
+    private sealed interface Node permits BitmapNode, CollisionNode {
+
+        Object find(int shift, int hash, Object key);
+
+        Node assoc(Object edit, int shift, int hash, Object key, Object value, Change change);
+
+        /**
+         * Devuelve el nodo sin la clave, o {@code null} si queda vacío.
+         */
+        Node without(Object edit, int shift, int hash, Object key, Change change);
+
+        Object[] array();
+    }
+
+    /**
+     * Nodo con hasta 32 posiciones. {@code edit} identifica al {@link Builder} que puede modificarlo en sitio; en los
+     * nodos creados por operaciones persistentes es {@code null}.
+     */
+    private static final class BitmapNode implements Node {
+        static final BitmapNode EMPTY = new BitmapNode(null, 0, new Object[0]);
+
+        final Object edit;
+        int bitmap;
+        Object[] array;
+
+        BitmapNode(Object edit, int bitmap, Object[] array) {
+            this.edit = edit;
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        @Override
+        public Object[] array() {
+            return this.array;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(this.bitmap & (bit - 1));
+        }
+
+        private boolean ownedBy(Object edit) {
+            return edit != null && this.edit == edit;
+        }
+
+        @Override
+        public Object find(int shift, int hash, Object key) {
+            int bit = bitFor(hash, shift);
+            if ((this.bitmap & bit) == 0) {
+                return null;
+            }
+            int index = this.index(bit);
+            Object storedKey = this.array[2 * index];
+            Object value = this.array[2 * index + 1];
+            if (storedKey == null) {
+                return ((Node) value).find(shift + BITS, hash, key);
+            }
+            return key.equals(storedKey) ? value : null;
+        }
+
+        @Override
+        public Node assoc(Object edit, int shift, int hash, Object key, Object value, Change change) {
+            int bit = bitFor(hash, shift);
+            int index = this.index(bit);
+            if ((this.bitmap & bit) != 0) {
+                Object storedKey = this.array[2 * index];
+                Object storedValue = this.array[2 * index + 1];
+                if (storedKey == null) {
+                    Node child = (Node) storedValue;
+                    Node newChild = child.assoc(edit, shift + BITS, hash, key, value, change);
+                    return newChild == child ? this : this.set(edit, 2 * index + 1, newChild);
+                }
+                if (key.equals(storedKey)) {
+                    return storedValue == value ? this : this.set(edit, 2 * index + 1, value);
+                }
+                // Otra clave en la misma posición: ambas bajan a un subnodo
+                change.added = true;
+                Node child = createNode(edit, shift + BITS, storedKey, storedValue, hash, key, value);
+                BitmapNode result = (BitmapNode) this.set(edit, 2 * index, null);
+                result.array[2 * index + 1] = child;
+                return result;
+            }
+            change.added = true;
+            int count = Integer.bitCount(this.bitmap);
+            Object[] newArray = new Object[2 * (count + 1)];
+            System.arraycopy(this.array, 0, newArray, 0, 2 * index);
+            newArray[2 * index] = key;
+            newArray[2 * index + 1] = value;
+            System.arraycopy(this.array, 2 * index, newArray, 2 * (index + 1), 2 * (count - index));
+            if (this.ownedBy(edit)) {
+                this.bitmap |= bit;
+                this.array = newArray;
+                return this;
+            }
+            return new BitmapNode(edit, this.bitmap | bit, newArray);
+        }
+
+        @Override
+        public Node without(Object edit, int shift, int hash, Object key, Change change) {
+            int bit = bitFor(hash, shift);
+            if ((this.bitmap & bit) == 0) {
+                return this;
+            }
+            int index = this.index(bit);
+            Object storedKey = this.array[2 * index];
+            Object storedValue = this.array[2 * index + 1];
+            if (storedKey == null) {
+                Node child = (Node) storedValue;
+                Node newChild = child.without(edit, shift + BITS, hash, key, change);
+                if (newChild == child) {
+                    return this;
+                }
+                if (newChild != null) {
+                    return this.set(edit, 2 * index + 1, newChild);
+                }
+                return this.removePair(edit, bit, index);
+            }
+            if (!key.equals(storedKey)) {
+                return this;
+            }
+            change.removed = true;
+            return this.removePair(edit, bit, index);
+        }
+
+        private Node set(Object edit, int position, Object element) {
+            if (this.ownedBy(edit)) {
+                this.array[position] = element;
+                return this;
+            }
+            Object[] newArray = this.array.clone();
+            newArray[position] = element;
+            return new BitmapNode(edit, this.bitmap, newArray);
+        }
+
+        private Node removePair(Object edit, int bit, int index) {
+            if (this.bitmap == bit) {
+                return null;
+            }
+            Object[] newArray = new Object[this.array.length - 2];
+            System.arraycopy(this.array, 0, newArray, 0, 2 * index);
+            System.arraycopy(this.array, 2 * (index + 1), newArray, 2 * index, newArray.length - 2 * index);
+            if (this.ownedBy(edit)) {
+                this.bitmap ^= bit;
+                this.array = newArray;
+                return this;
+            }
+            return new BitmapNode(edit, this.bitmap ^ bit, newArray);
+        }
+
+        private static Node createNode(Object edit, int shift, Object key1, Object value1, int hash2, Object key2,
+                                       Object value2) {
+            int hash1 = hash(key1);
+            if (hash1 == hash2) {
+                return new CollisionNode(hash1, new Object[]{key1, value1, key2, value2});
+            }
+            Change ignored = new Change();
+            return EMPTY.assoc(edit, shift, hash1, key1, value1, ignored)
+                    .assoc(edit, shift, hash2, key2, value2, ignored);
+        }
+    }
+
+    /**
+     * Claves distintas con el mismo hash completo. Es un caso raro, así que siempre se copia.
+     */
+    private record CollisionNode(int hash, Object[] array) implements Node {
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < this.array.length; i += 2) {
+                if (key.equals(this.array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public Object find(int shift, int hash, Object key) {
+            int index = this.indexOf(key);
+            return index < 0 ? null : this.array[index + 1];
+        }
+
+        @Override
+        public Node assoc(Object edit, int shift, int hash, Object key, Object value, Change change) {
+            if (hash != this.hash) {
+                // Hash distinto: este nodo pasa a ser hijo de un nodo normal
+                return new BitmapNode(edit, bitFor(this.hash, shift), new Object[]{null, this})
+                        .assoc(edit, shift, hash, key, value, change);
+            }
+            int index = this.indexOf(key);
+            if (index >= 0) {
+                if (this.array[index + 1] == value) {
+                    return this;
+                }
+                Object[] newArray = this.array.clone();
+                newArray[index + 1] = value;
+                return new CollisionNode(this.hash, newArray);
+            }
+            change.added = true;
+            Object[] newArray = new Object[this.array.length + 2];
+            System.arraycopy(this.array, 0, newArray, 0, this.array.length);
+            newArray[this.array.length] = key;
+            newArray[this.array.length + 1] = value;
+            return new CollisionNode(this.hash, newArray);
+        }
+
+        @Override
+        public Node without(Object edit, int shift, int hash, Object key, Change change) {
+            int index = this.indexOf(key);
+            if (index < 0) {
+                return this;
+            }
+            change.removed = true;
+            if (this.array.length == 2) {
+                return null;
+            }
+            Object[] newArray = new Object[this.array.length - 2];
+            System.arraycopy(this.array, 0, newArray, 0, index);
+            System.arraycopy(this.array, index + 2, newArray, index, newArray.length - index);
+            return new CollisionNode(this.hash, newArray);
+        }
+    }
+
+    /**
+     * Recorre el árbol en profundidad con una pila explícita (como mucho 7 niveles de 5 bits más las colisiones).
+     */
+    private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+        private final Object[][] arrays = new Object[8][];
+        private final int[] positions = new int[8];
+        private int depth = -1;
+        private Entry<K, V> next;
+
+        EntryIterator(Node root) {
+            if (root != null) {
+                this.push(root);
+                this.advance();
+            }
+        }
+
+        private void push(Node node) {
+            this.depth++;
+            this.arrays[this.depth] = node.array();
+            this.positions[this.depth] = 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            this.next = null;
+            while (this.depth >= 0) {
+                Object[] array = this.arrays[this.depth];
+                int position = this.positions[this.depth];
+                if (position >= array.length) {
+                    this.arrays[this.depth--] = null;
+                    continue;
+                }
+                this.positions[this.depth] = position + 2;
+                Object key = array[position];
+                Object value = array[position + 1];
+                if (key == null) {
+                    this.push((Node) value);
+                } else {
+                    this.next = new SimpleImmutableEntry<>((K) key, (V) value);
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (this.next == null) {
+                throw new NoSuchElementException();
+            }
+            Entry<K, V> current = this.next;
+            this.advance();
+            return current;
+        }
+    }
+
+    /**
+     * Versión editable y de un solo hilo de {@link PersistentHashMap} para construir o modificar un mapa en lote.
+     * Modifica en sitio los nodos que creó y copia la primera vez los heredados. {@link #build()} cierra el builder.
+     */
+    public static final class Builder<K, V> {
+        private final Object edit = new Object();
+        private final Change change = new Change();
+        private boolean built;
+        private int size;
+        private Node root;
+
+        private Builder(PersistentHashMap<K, V> map) {
+            this.size = map.size;
+            this.root = map.root;
+        }
+
+        public Builder<K, V> put(K key, V value) {
+            this.ensureOpen();
+            Objects.requireNonNull(key);
+            Objects.requireNonNull(value);
+            this.change.added = false;
+            Node start = this.root == null ? BitmapNode.EMPTY : this.root;
+            this.root = start.assoc(this.edit, 0, hash(key), key, value, this.change);
+            if (this.change.added) {
+                this.size++;
+            }
+            return this;
+        }
+
+        public Builder<K, V> putAll(Map<? extends K, ? extends V> map) {
+            map.forEach(this::put);
+            return this;
+        }
+
+        public Builder<K, V> remove(Object key) {
+            this.ensureOpen();
+            if (this.root == null || key == null) {
+                return this;
+            }
+            this.change.removed = false;
+            this.root = this.root.without(this.edit, 0, hash(key), key, this.change);
+            if (this.change.removed) {
+                this.size--;
+            }
+            return this;
+        }
+
+        public int size() {
+            return this.size;
+        }
+
+        public PersistentHashMap<K, V> build() {
+            this.ensureOpen();
+            this.built = true;
+            return this.root == null || this.size == 0 ? empty() : new PersistentHashMap<>(this.size, this.root);
+        }
+
+        private void ensureOpen() {
+            if (this.built) {
+                throw new IllegalStateException("El builder ya se usó para construir un mapa");
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package dev.magadiflo.app.immutability;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Conjunto inmutable persistente: las claves de un {@link PersistentHashMap}. {@link #with}, {@link #without} y
+ * {@link #contains} son O(log32 n) y cada versión nueva comparte estructura con la anterior.
+ * <p>
+ * No conserva el orden de inserción: se recorre en el orden del hash. Igual que {@code Set.copyOf}, no admite
+ * elementos {@code null}.
+ */
+public final class PersistentHashSet<E> extends AbstractSet<E> {
+
+    private static final PersistentHashSet<?> EMPTY = new PersistentHashSet<>(PersistentHashMap.empty());
+
+    private final PersistentHashMap<E, Boolean> map;
+
+    private PersistentHashSet(PersistentHashMap<E, Boolean> map) {
+        this.map = map;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentHashSet<E> empty() {
+        return (PersistentHashSet<E>) EMPTY;
+    }
+
+    /**
+     * Copia defensiva, como {@code Set.copyOf}: si la colección ya es un {@code PersistentHashSet} se devuelve tal
+     * cual. Los duplicados se descartan.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentHashSet<E> copyOf(Collection<? extends E> elements) {
+        if (elements instanceof PersistentHashSet<?> persistent) {
+            return (PersistentHashSet<E>) persistent;
+        }
+        PersistentHashMap.Builder<E, Boolean> builder = PersistentHashMap.builder();
+        for (E element : elements) {
+            builder.put(element, Boolean.TRUE);
+        }
+        return new PersistentHashSet<>(builder.build());
+    }
+
+    @Override
+    public int size() {
+        return this.map.size();
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        return this.map.containsKey(element);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return this.map.keySet().iterator();
+    }
+
+    /**
+     * Devuelve un conjunto con el elemento.
+     */
+    public PersistentHashSet<E> with(E element) {
+        PersistentHashMap<E, Boolean> updated = this.map.with(element, Boolean.TRUE);
+        return updated == this.map ? this : new PersistentHashSet<>(updated);
+    }
+
+    /**
+     * Devuelve un conjunto sin el elemento.
+     */
+    public PersistentHashSet<E> without(Object element) {
+        PersistentHashMap<E, Boolean> updated = this.map.without(element);
+        return updated == this.map ? this : new PersistentHashSet<>(updated);
+    }
+}
@@ -0,0 +1,374 @@
+package dev.magadiflo.app.immutability;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Lista inmutable persistente: cada "modificación" devuelve una lista nueva que comparte casi toda su estructura con
+ * la anterior, en lugar de copiarla entera como {@code List.copyOf}.
+ * <p>
+ * Los elementos viven en un árbol de ramificación 32 (un trie indexado por los bits del índice) más un {@code tail}
+ * con los últimos 32 elementos:
+ * <ul>
+ *     <li>{@link #get}: O(log32 n); con un millón de elementos son 4 saltos.</li>
+ *     <li>{@link #append} y {@link #pop}: casi siempre solo copian el {@code tail}; cada 32 operaciones copian además
+ *     un camino de la raíz a una hoja.</li>
+ *     <li>{@link #update}: copia un camino de la raíz a una hoja, O(log32 n) arreglos de 32 referencias.</li>
+ * </ul>
+ * Las dos versiones son inmutables y se pueden compartir entre hilos sin sincronización. Para muchas modificaciones
+ * seguidas está el {@link Builder}, que edita los nodos en sitio mientras le pertenecen y los congela al terminar.
+ * <p>
+ * Igual que {@code List.copyOf}, no admite elementos {@code null}, y los métodos de modificación de {@link List}
+ * lanzan {@link UnsupportedOperationException}.
+ */
+public final class PersistentVector<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    /**
+     * Nodo interno. {@code edit} identifica al {@link Builder} que lo creó: solo ese builder, y solo mientras está
+     * abierto, puede modificarlo en sitio. Los nodos creados por operaciones persistentes tienen {@code edit == null}.
+     */
+    private static final class Node {
+        final Object edit;
+        final Object[] array;
+
+        Node(Object edit, Object[] array) {
+            this.edit = edit;
+            this.array = array;
+        }
+
+        Node editable(Object edit) {
+            return edit != null && this.edit == edit ? this : new Node(edit, this.array.clone());
+        }
+    }
+
+    private static final Node EMPTY_NODE = new Node(null, new Object[WIDTH]);
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, EMPTY_NODE, new Object[0]);
+
+    private final int size;
+    private final int shift;
+    private final Node root;
+    private final Object[] tail;
+
+    private PersistentVector(int size, int shift, Node root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    @SafeVarargs
+    public static <E> PersistentVector<E> of(E... elements) {
+        // Se recorre el arreglo aquí mismo: si se pasa a otro método, -Xlint:varargs avisa de posible heap pollution
+        Builder<E> builder = new Builder<>(empty());
+        for (E element : elements) {
+            builder.add(element);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Copia defensiva, como {@code List.copyOf}: si la colección ya es un {@code PersistentVector} se devuelve tal
+     * cual (no puede cambiar), y si no se copian sus elementos.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> copyOf(Collection<? extends E> elements) {
+        if (elements instanceof PersistentVector<?> vector) {
+            return (PersistentVector<E>) vector;
+        }
+        Builder<E> builder = new Builder<>(empty());
+        for (E element : elements) {
+            builder.add(element);
+        }
+        return builder.build();
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, this.size);
+        return (E) this.arrayFor(index)[index & MASK];
+    }
+
+    /**
+     * Devuelve una lista con el elemento añadido al final.
+     */
+    public PersistentVector<E> append(E element) {
+        Objects.requireNonNull(element);
+        if (this.size - this.tailOffset() < WIDTH) {
+            Object[] newTail = Arrays.copyOf(this.tail, this.tail.length + 1);
+            newTail[this.tail.length] = element;
+            return new PersistentVector<>(this.size + 1, this.shift, this.root, newTail);
+        }
+        // El tail está lleno: pasa al árbol como una hoja nueva y se empieza otro
+        Node tailNode = new Node(null, this.tail);
+        int newShift = this.shift;
+        Node newRoot;
+        if ((this.size >>> BITS) > (1 << this.shift)) {
+            // La raíz está llena: el árbol crece un nivel
+            newRoot = new Node(null, new Object[WIDTH]);
+            newRoot.array[0] = this.root;
+            newRoot.array[1] = newPath(null, this.shift, tailNode);
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(null, this.size, this.shift, this.root, tailNode);
+        }
+        return new PersistentVector<>(this.size + 1, newShift, newRoot, new Object[]{element});
+    }
+
+    /**
+     * Devuelve una lista con el elemento de la posición {@code index} reemplazado.
+     */
+    public PersistentVector<E> update(int index, E element) {
+        Objects.checkIndex(index, this.size);
+        Objects.requireNonNull(element);
+        if (index >= this.tailOffset()) {
+            Object[] newTail = this.tail.clone();
+            newTail[index & MASK] = element;
+            return new PersistentVector<>(this.size, this.shift, this.root, newTail);
+        }
+        return new PersistentVector<>(this.size, this.shift, assoc(null, this.shift, this.root, index, element),
+                this.tail);
+    }
+
+    /**
+     * Devuelve una lista sin el último elemento.
+     */
+    public PersistentVector<E> pop() {
+        if (this.size == 0) {
+            throw new IllegalStateException("La lista está vacía");
+        }
+        if (this.size == 1) {
+            return empty();
+        }
+        if (this.size - this.tailOffset() > 1) {
+            return new PersistentVector<>(this.size - 1, this.shift, this.root,
+                    Arrays.copyOf(this.tail, this.tail.length - 1));
+        }
+        // El tail queda vacío: la última hoja del árbol pasa a ser el tail
+        Object[] newTail = this.arrayFor(this.size - 2);
+        Node newRoot = this.popTail(this.shift, this.root);
+        int newShift = this.shift;
+        if (newRoot == null) {
+            newRoot = EMPTY_NODE;
+        }
+        if (this.shift > BITS && newRoot.array[1] == null) {
+            newRoot = (Node) newRoot.array[0];
+            newShift -= BITS;
+        }
+        return new PersistentVector<>(this.size - 1, newShift, newRoot, newTail);
+    }
+
+    /**
+     * Devuelve una lista sin la primera aparición del elemento. Eliminar en medio obliga a desplazar los elementos
+     * siguientes, así que es O(n); quitar el último es O(1).
+     */
+    public PersistentVector<E> without(Object element) {
+        int index = this.indexOf(element);
+        if (index < 0) {
+            return this;
+        }
+        if (index == this.size - 1) {
+            return this.pop();
+        }
+        Builder<E> builder = new Builder<>(empty());
+        for (int i = 0; i < this.size; i++) {
+            if (i != index) {
+                builder.add(this.get(i));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builder que parte de esta lista sin copiarla.
+     */
+    public Builder<E> toBuilder() {
+        return new Builder<>(this);
+    }
+
+    public static <E> Builder<E> builder() {
+        return new Builder<>(empty());
+    }
+
+    private int tailOffset() {
+        return tailOffset(this.size);
+    }
+
+    private static int tailOffset(int size) {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    private Object[] arrayFor(int index) {
+        if (index >= this.tailOffset()) {
+            return this.tail;
+        }
+        Node node = this.root;
+        for (int level = this.shift; level > 0; level -= BITS) {
+            node = (Node) node.array[(index >>> level) & MASK];
+        }
+        return node.array;
+    }
+
+    private Node popTail(int level, Node node) {
+        int subIndex = ((this.size - 2) >>> level) & MASK;
+        if (level > BITS) {
+            Node newChild = this.popTail(level - BITS, (Node) node.array[subIndex]);
+            if (newChild == null && subIndex == 0) {
+                return null;
+            }
+            Node copy = new Node(null, node.array.clone());
+            copy.array[subIndex] = newChild;
+            return copy;
+        }
+        if (subIndex == 0) {
+            return null;
+        }
+        Node copy = new Node(null, node.array.clone());
+        copy.array[subIndex] = null;
+        return copy;
+    }
+
+    /**
+     * Cuelga {@code tailNode} como la hoja siguiente, copiando (o editando, si {@code edit} es dueño) el camino.
+     * {@code size} es el tamaño que ya incluye los elementos de {@code tailNode}.
+     */
+    private static Node pushTail(Object edit, int size, int level, Node parent, Node tailNode) {
+        int subIndex = ((size - 1) >>> level) & MASK;
+        Node result = parent.editable(edit);
+        Node toInsert;
+        if (level == BITS) {
+            toInsert = tailNode;
+        } else {
+            Node child = (Node) parent.array[subIndex];
+            toInsert = child != null
+                    ? pushTail(edit, size, level - BITS, child, tailNode)
+                    : newPath(edit, level - BITS, tailNode);
+        }
+        result.array[subIndex] = toInsert;
+        return result;
+    }
+
+    private static Node newPath(Object edit, int level, Node node) {
+        if (level == 0) {
+            return node;
+        }
+        Node path = new Node(edit, new Object[WIDTH]);
+        path.array[0] = newPath(edit, level - BITS, node);
+        return path;
+    }
+
+    private static Node assoc(Object edit, int level, Node node, int index, Object element) {
+        Node result = node.editable(edit);
+        if (level == 0) {
+            result.array[index & MASK] = element;
+        } else {
+            int subIndex = (index >>> level) & MASK;
+            result.array[subIndex] = assoc(edit, level - BITS, (Node) node.array[subIndex], index, element);
+        }
+        return result;
+    }
+
+    /**
+     * Versión editable y de un solo hilo de {@link PersistentVector} para construir o modificar una lista en lote.
+     * <p>
+     * Los nodos que crea le pertenecen y los modifica en sitio; los que hereda de la lista original se copian la
+     * primera vez que se tocan. {@link #build()} devuelve la lista en O(1) y cierra el builder: a partir de ahí ya no
+     * puede modificar nada, así que la lista resultante es realmente inmutable.
+     */
+    public static final class Builder<E> {
+        private final Object edit = new Object();
+        private boolean built;
+        private int size;
+        private int shift;
+        private Node root;
+        private Object[] tail;
+
+        private Builder(PersistentVector<E> vector) {
+            this.size = vector.size;
+            this.shift = vector.shift;
+            this.root = new Node(this.edit, vector.root.array.clone());
+            this.tail = Arrays.copyOf(vector.tail, WIDTH);
+        }
+
+        public Builder<E> add(E element) {
+            this.ensureOpen();
+            Objects.requireNonNull(element);
+            if (this.size - tailOffset(this.size) < WIDTH) {
+                this.tail[this.size & MASK] = element;
+                this.size++;
+                return this;
+            }
+            Node tailNode = new Node(this.edit, this.tail);
+            this.tail = new Object[WIDTH];
+            this.tail[0] = element;
+            if ((this.size >>> BITS) > (1 << this.shift)) {
+                Node newRoot = new Node(this.edit, new Object[WIDTH]);
+                newRoot.array[0] = this.root;
+                newRoot.array[1] = newPath(this.edit, this.shift, tailNode);
+                this.root = newRoot;
+                this.shift += BITS;
+            } else {
+                this.root = pushTail(this.edit, this.size, this.shift, this.root, tailNode);
+            }
+            this.size++;
+            return this;
+        }
+
+        public Builder<E> addAll(Iterable<? extends E> elements) {
+            for (E element : elements) {
+                this.add(element);
+            }
+            return this;
+        }
+
+        public Builder<E> set(int index, E element) {
+            this.ensureOpen();
+            Objects.checkIndex(index, this.size);
+            Objects.requireNonNull(element);
+            if (index >= tailOffset(this.size)) {
+                this.tail[index & MASK] = element;
+            } else {
+                this.root = assoc(this.edit, this.shift, this.root, index, element);
+            }
+            return this;
+        }
+
+        public int size() {
+            return this.size;
+        }
+
+        public PersistentVector<E> build() {
+            this.ensureOpen();
+            this.built = true;
+            if (this.size == 0) {
+                return empty();
+            }
+            Object[] trimmedTail = Arrays.copyOf(this.tail, this.size - tailOffset(this.size));
+            return new PersistentVector<>(this.size, this.shift, this.root, trimmedTail);
+        }
+
+        private void ensureOpen() {
+            if (this.built) {
+                throw new IllegalStateException("El builder ya se usó para construir una lista");
+            }
+        }
+    }
+}
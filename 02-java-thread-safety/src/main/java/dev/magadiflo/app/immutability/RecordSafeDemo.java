@@ -10,12 +10,17 @@ public class RecordSafeDemo {
 
     /**
      * Record realmente inmutable.
-     * Se hace copia defensiva de la lista.
+     * Se hace copia defensiva de la lista, a un {@link PersistentVector} para que {@link #withRole} no tenga que
+     * copiar todos los roles.
      */
     record UserRecord(String name, List<String> roles) {
         UserRecord(String name, List<String> roles) {
             this.name = name;
-            this.roles = List.copyOf(roles); // Copia defensiva + lista inmodificable
+            this.roles = PersistentVector.copyOf(roles); // Copia defensiva + lista inmodificable
+        }
+
+        UserRecord withRole(String role) {
+            return new UserRecord(name, ((PersistentVector<String>) roles).append(role));
         }
     }
 
@@ -29,5 +34,8 @@ public class RecordSafeDemo {
         externalRoles.add("ADMIN"); // intentamos afectar el record
 
         log.info("Objeto final: {}", userRecord); // Ahora sí, el record es verdaderamente inmutable.
+
+        UserRecord adminRecord = userRecord.withRole("ADMIN"); // nuevo record; comparte la estructura de los roles
+        log.info("Nuevo record: {}, original: {}", adminRecord, userRecord);
     }
 }
@@ -0,0 +1,193 @@
+package dev.magadiflo.app.optimisticread;
+
+import dev.magadiflo.app.benchmark.ContentionHarness;
+import dev.magadiflo.app.immutability.ImmutablePoint;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Estado de dos campos que se lee mucho y se escribe poco, protegido de cinco formas:
+ * <ul>
+ *     <li><b>synchronized</b>: un punto mutable con métodos {@code synchronized}.</li>
+ *     <li><b>AtomicReference</b>: un {@code AtomicReference<ImmutablePoint>} que se reemplaza en cada escritura.</li>
+ *     <li><b>RcuReference</b>: lo mismo, con los escritores en fila ({@link RcuReference}).</li>
+ *     <li><b>StampedPoint</b>: punto mutable con lectura optimista de {@code StampedLock}.</li>
+ *     <li><b>SeqLockPoint</b>: punto mutable con {@link SeqLock}.</li>
+ * </ul>
+ * Todos los hilos leen y, una de cada {@code readsPerWrite} operaciones, escriben. Cada escritura deja
+ * {@code y == -x}, así que toda lectura debe sumar 0; se cuentan las que no. Además de Mops/s se reportan los bytes
+ * reservados por operación ({@code ThreadMXBean.getTotalThreadAllocatedBytes}).
+ * <p>
+ * Parámetros opcionales ({@code clave=valor}): {@code threads} (por defecto {@code 1,2,4,8,16}), {@code readsPerWrite}
+ * (por defecto 1000), {@code millis} por medición (por defecto 1000), {@code warmUpMillis} (por defecto 300) y
+ * {@code holders}, los nombres a medir separados por comas (por defecto todos). Todas las variantes pasan por la misma
+ * llamada {@code holder.sum()}, y a partir de la tercera el JIT deja de poder inlinearla: para comparar sin ese sesgo
+ * conviene medir cada una en su propia JVM con {@code holders=<nombre>}.
+ */
+@Slf4j
+public class OptimisticReadBenchmark {
+
+    interface PointHolder {
+        void set(int x, int y);
+
+        int sum();
+    }
+
+    static final class SynchronizedPoint implements PointHolder {
+        private int x;
+        private int y;
+
+        @Override
+        public synchronized void set(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public synchronized int sum() {
+            return this.x + this.y;
+        }
+    }
+
+    static final class AtomicReferencePoint implements PointHolder {
+        private final AtomicReference<ImmutablePoint> point = new AtomicReference<>(new ImmutablePoint(0, 0));
+
+        @Override
+        public void set(int x, int y) {
+            this.point.set(new ImmutablePoint(x, y));
+        }
+
+        @Override
+        public int sum() {
+            ImmutablePoint current = this.point.get();
+            return current.getX() + current.getY();
+        }
+    }
+
+    static final class RcuPoint implements PointHolder {
+        private final RcuReference<ImmutablePoint> point = new RcuReference<>(new ImmutablePoint(0, 0));
+
+        @Override
+        public void set(int x, int y) {
+            this.point.set(new ImmutablePoint(x, y));
+        }
+
+        @Override
+        public int sum() {
+            ImmutablePoint current = this.point.get();
+            return current.getX() + current.getY();
+        }
+    }
+
+    static final class StampedHolder implements PointHolder {
+        private final StampedPoint point = new StampedPoint(0, 0);
+
+        @Override
+        public void set(int x, int y) {
+            this.point.set(x, y);
+        }
+
+        @Override
+        public int sum() {
+            return this.point.read(Integer::sum);
+        }
+    }
+
+    static final class SeqLockHolder implements PointHolder {
+        private final SeqLockPoint point = new SeqLockPoint(0, 0);
+
+        @Override
+        public void set(int x, int y) {
+            this.point.set(x, y);
+        }
+
+        @Override
+        public int sum() {
+            return this.point.read(Integer::sum);
+        }
+    }
+
+    private static final Map<String, Supplier<PointHolder>> HOLDERS = new LinkedHashMap<>();
+
+    static {
+        HOLDERS.put("synchronized", SynchronizedPoint::new);
+        HOLDERS.put("AtomicReference", AtomicReferencePoint::new);
+        HOLDERS.put("RcuReference", RcuPoint::new);
+        HOLDERS.put("StampedPoint", StampedHolder::new);
+        HOLDERS.put("SeqLockPoint", SeqLockHolder::new);
+    }
+
+    private static final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        Map<String, String> options = ContentionHarness.parse(args);
+        int[] threadCounts = ContentionHarness.parseInts(options.getOrDefault("threads", "1,2,4,8,16"));
+        int readsPerWrite = Integer.parseInt(options.getOrDefault("readsPerWrite", "1000"));
+        Duration duration = Duration.ofMillis(Long.parseLong(options.getOrDefault("millis", "1000")));
+        Duration warmUp = Duration.ofMillis(Long.parseLong(options.getOrDefault("warmUpMillis", "300")));
+        List<String> selected = List.of(options.getOrDefault("holders", String.join(",", HOLDERS.keySet())).split(","));
+        log.info("Núcleos disponibles: {}", Runtime.getRuntime().availableProcessors());
+
+        List<String> rows = new ArrayList<>();
+        for (Map.Entry<String, Supplier<PointHolder>> entry : HOLDERS.entrySet()) {
+            if (!selected.contains(entry.getKey())) {
+                continue;
+            }
+            StringBuilder row = new StringBuilder(String.format("%-16s", entry.getKey()));
+            long allocated = 0;
+            long operations = 0;
+            for (int threads : threadCounts) {
+                LongAdder inconsistent = new LongAdder();
+                ContentionHarness.run(threads, Duration.ZERO, warmUp,
+                        operation(entry.getValue().get(), readsPerWrite, inconsistent));
+
+                PointHolder holder = entry.getValue().get();
+                long allocatedBefore = threadMXBean.getTotalThreadAllocatedBytes();
+                ContentionHarness.Result result = ContentionHarness.run(threads, Duration.ZERO, duration,
+                        operation(holder, readsPerWrite, inconsistent));
+                allocated += threadMXBean.getTotalThreadAllocatedBytes() - allocatedBefore;
+                operations += result.operations();
+
+                if (inconsistent.sum() > 0) {
+                    log.warn("{} con {} hilos: {} lecturas inconsistentes", entry.getKey(), threads,
+                            inconsistent.sum());
+                }
+                row.append(String.format("%9.1f", result.millionOpsPerSecond()));
+            }
+            row.append(String.format("%12.2f", allocated / (double) operations));
+            rows.add(row.toString());
+        }
+        StringBuilder header = new StringBuilder(String.format("%-16s", "Mops/s \\ hilos"));
+        for (int threads : threadCounts) {
+            header.append(String.format("%9d", threads));
+        }
+        header.append(String.format("%12s", "bytes/op"));
+        log.info("1 escritura cada {} operaciones\n{}\n{}", readsPerWrite, header, String.join("\n", rows));
+    }
+
+    private static ContentionHarness.Operation operation(PointHolder holder, int readsPerWrite,
+                                                         LongAdder inconsistent) {
+        return (thread, iteration) -> {
+            if (iteration % readsPerWrite == 0) {
+                int value = (int) iteration + thread;
+                holder.set(value, -value);
+                return 0;
+            }
+            int sum = holder.sum();
+            if (sum != 0) {
+                inconsistent.increment();
+            }
+            return sum;
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package dev.magadiflo.app.optimisticread;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-copy-update: los lectores leen una instantánea inmutable (por ejemplo un
+ * {@link dev.magadiflo.app.immutability.ImmutablePoint} o una configuración completa) con una sola lectura
+ * {@code volatile}, y los escritores crean una copia modificada y la publican.
+ * <p>
+ * Frente a {@link AtomicReference#updateAndGet}, los escritores se ponen en fila con un {@link ReentrantLock} en vez de
+ * competir con CAS: cada actualización calcula la copia una sola vez, sin reintentos ni copias descartadas, y la
+ * función puede ser costosa o tener efectos secundarios. Las instantáneas viejas las recoge el GC cuando ningún lector
+ * las usa. Leer es tan barato como en {@code AtomicReference}; escribir sí reserva memoria (la copia), así que encaja
+ * con estados de varios campos que se leen mucho y se escriben poco.
+ */
+public final class RcuReference<T> {
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile T snapshot;
+
+    public RcuReference(T initial) {
+        this.snapshot = Objects.requireNonNull(initial);
+    }
+
+    /**
+     * La instantánea actual. Es inmutable, así que todos sus campos son consistentes entre sí.
+     */
+    public T get() {
+        return this.snapshot;
+    }
+
+    public void set(T value) {
+        Objects.requireNonNull(value);
+        this.writeLock.lock();
+        try {
+            this.snapshot = value;
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    /**
+     * Calcula la nueva instantánea a partir de la actual y la publica. La función se ejecuta exactamente una vez.
+     */
+    public T update(UnaryOperator<T> function) {
+        this.writeLock.lock();
+        try {
+            T updated = Objects.requireNonNull(function.apply(this.snapshot));
+            this.snapshot = updated;
+            return updated;
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package dev.magadiflo.app.optimisticread;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Lock de secuencia (seqlock): lecturas optimistas que no escriben nada compartido.
+ * <p>
+ * Un contador {@code sequence} es par cuando el estado está estable e impar mientras alguien escribe:
+ * <ul>
+ *     <li>El escritor lo pasa a impar, modifica los campos y lo deja en el siguiente par.</li>
+ *     <li>El lector anota la secuencia (esperando si es impar), lee los campos y comprueba que la secuencia no haya
+ *     cambiado; si cambió, lo leído puede mezclar valores viejos y nuevos y se vuelve a leer.</li>
+ * </ul>
+ * A diferencia de un {@code ReadWriteLock}, leer no modifica ninguna variable compartida, así que muchos lectores en
+ * núcleos distintos no se disputan ninguna línea de caché. Uso típico, como el modo optimista de
+ * {@link java.util.concurrent.locks.StampedLock}:
+ * <pre>{@code
+ * long stamp;
+ * do {
+ *     stamp = seqLock.beginRead();
+ *     x = this.x;
+ *     y = this.y;
+ * } while (!seqLock.validate(stamp));
+ * }</pre>
+ * Lo leído antes de {@link #validate} puede ser inconsistente: solo se debe copiar a variables locales, nunca usarlo
+ * para indexar, dividir o seguir referencias. Los campos protegidos deben ser primitivos de 32 bits o
+ * {@code volatile}/{@code VarHandle} si son {@code long} o {@code double}, para que una lectura no vea medio valor.
+ */
+public final class SeqLock {
+
+    private static final VarHandle SEQUENCE;
+    // Giros antes de ceder la CPU: si el escritor fue desalojado a mitad de escritura, girar no lo hace terminar antes
+    private static final int SPINS_BEFORE_YIELD = 64;
+
+    static {
+        try {
+            SEQUENCE = MethodHandles.lookup().findVarHandle(SeqLock.class, "sequence", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long sequence;
+
+    /**
+     * Devuelve una secuencia par para validar después con {@link #validate}. Si hay una escritura en curso, espera a
+     * que termine.
+     */
+    public long beginRead() {
+        long stamp;
+        int spins = 0;
+        while (((stamp = (long) SEQUENCE.getAcquire(this)) & 1) != 0) {
+            spins = pause(spins);
+        }
+        return stamp;
+    }
+
+    /**
+     * {@code true} si no hubo escrituras desde {@link #beginRead()}, es decir, si lo leído entre medias es
+     * consistente.
+     */
+    public boolean validate(long stamp) {
+        // Las lecturas de los campos no pueden moverse después de la segunda lectura de la secuencia
+        VarHandle.acquireFence();
+        return (long) SEQUENCE.getOpaque(this) == stamp;
+    }
+
+    /**
+     * Empieza una escritura. Entre escritores se excluyen mutuamente: si otro está escribiendo, se espera. Las
+     * escrituras deben ser cortas (asignar unos pocos campos), porque los lectores giran mientras duran.
+     *
+     * @return el valor que hay que pasar a {@link #endWrite}
+     */
+    public long beginWrite() {
+        int spins = 0;
+        while (true) {
+            long current = (long) SEQUENCE.getOpaque(this);
+            if ((current & 1) == 0 && SEQUENCE.weakCompareAndSetAcquire(this, current, current + 1)) {
+                // Las escrituras de los campos no pueden adelantarse a la secuencia impar
+                VarHandle.storeStoreFence();
+                return current + 1;
+            }
+            spins = pause(spins);
+        }
+    }
+
+    public void endWrite(long stamp) {
+        SEQUENCE.setRelease(this, stamp + 1);
+    }
+
+    /**
+     * Cantidad de escrituras terminadas.
+     */
+    public long writes() {
+        return this.sequence >>> 1;
+    }
+
+    private static int pause(int spins) {
+        if (spins < SPINS_BEFORE_YIELD) {
+            Thread.onSpinWait();
+            return spins + 1;
+        }
+        Thread.yield();
+        return spins;
+    }
+}
@@ -0,0 +1,95 @@
+package dev.magadiflo.app.optimisticread;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Punto 2D mutable protegido con un {@link SeqLock}: la contraparte de
+ * {@link dev.magadiflo.app.immutability.ImmutablePoint} para estado que se lee muchísimo más de lo que se escribe.
+ * <p>
+ * Mover el punto no crea objetos (a diferencia de reemplazar un {@code ImmutablePoint}), y leer {@code x} e {@code y}
+ * juntos tampoco: {@link #read} los copia a variables locales, comprueba que no hubo una escritura a la vez y solo
+ * entonces aplica la función.
+ */
+@Slf4j
+public final class SeqLockPoint {
+
+    private final SeqLock seqLock = new SeqLock();
+    private int x;
+    private int y;
+
+    public SeqLockPoint(int x, int y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    public void set(int x, int y) {
+        long stamp = this.seqLock.beginWrite();
+        try {
+            this.x = x;
+            this.y = y;
+        } finally {
+            this.seqLock.endWrite(stamp);
+        }
+    }
+
+    public void move(int dx, int dy) {
+        long stamp = this.seqLock.beginWrite();
+        try {
+            this.x += dx;
+            this.y += dy;
+        } finally {
+            this.seqLock.endWrite(stamp);
+        }
+    }
+
+    /**
+     * Aplica {@code function} a un par {@code (x, y)} consistente. Una lambda que no captura variables no reserva
+     * memoria, así que la lectura completa tampoco.
+     */
+    public int read(IntBinaryOperator function) {
+        int currentX;
+        int currentY;
+        long stamp;
+        do {
+            stamp = this.seqLock.beginRead();
+            currentX = this.x;
+            currentY = this.y;
+        } while (!this.seqLock.validate(stamp));
+        return function.applyAsInt(currentX, currentY);
+    }
+
+    @Override
+    public String toString() {
+        long stamp;
+        String text;
+        do {
+            stamp = this.seqLock.beginRead();
+            text = "SeqLockPoint{x=" + this.x + ", y=" + this.y + '}';
+        } while (!this.seqLock.validate(stamp));
+        return text;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        SeqLockPoint point = new SeqLockPoint(0, 0);
+        // El escritor mantiene siempre y == -x; un lector nunca debe ver otra cosa
+        Thread writer = new Thread(() -> {
+            for (int i = 1; i <= 1_000_000; i++) {
+                point.set(i, -i);
+            }
+        });
+        writer.start();
+        long reads = 0;
+        long inconsistent = 0;
+        while (writer.isAlive()) {
+            if (point.read(Integer::sum) != 0) {
+                inconsistent++;
+            }
+            reads++;
+        }
+        writer.join();
+        log.info("{} lecturas durante 1.000.000 de escrituras, inconsistentes: {}", reads, inconsistent);
+        log.info("{}", point);
+    }
+}
@@ -0,0 +1,70 @@
+package dev.magadiflo.app.optimisticread;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * El mismo punto mutable que {@link SeqLockPoint}, pero con la lectura optimista de {@link StampedLock}. Si la lectura
+ * optimista falla (hubo una escritura), en lugar de reintentar se toma el lock de lectura, así que un lector no gira
+ * indefinidamente aunque las escrituras sean frecuentes.
+ */
+public final class StampedPoint {
+
+    private final StampedLock lock = new StampedLock();
+    private int x;
+    private int y;
+
+    public StampedPoint(int x, int y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    public void set(int x, int y) {
+        long stamp = this.lock.writeLock();
+        try {
+            this.x = x;
+            this.y = y;
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    public void move(int dx, int dy) {
+        long stamp = this.lock.writeLock();
+        try {
+            this.x += dx;
+            this.y += dy;
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Aplica {@code function} a un par {@code (x, y)} consistente.
+     */
+    public int read(IntBinaryOperator function) {
+        long stamp = this.lock.tryOptimisticRead();
+        int currentX = this.x;
+        int currentY = this.y;
+        if (!this.lock.validate(stamp)) {
+            stamp = this.lock.readLock();
+            try {
+                currentX = this.x;
+                currentY = this.y;
+            } finally {
+                this.lock.unlockRead(stamp);
+            }
+        }
+        return function.applyAsInt(currentX, currentY);
+    }
+
+    @Override
+    public String toString() {
+        long stamp = this.lock.readLock();
+        try {
+            return "StampedPoint{x=" + this.x + ", y=" + this.y + '}';
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+}
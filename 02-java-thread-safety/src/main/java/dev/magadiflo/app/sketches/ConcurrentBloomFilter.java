@@ -0,0 +1,123 @@
+package dev.magadiflo.app.sketches;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Responde "¿ya vi este elemento?" con memoria fija: nunca da falsos negativos, y da falsos positivos con la
+ * probabilidad con la que se dimensionó ({@link #create}). Sirve para descartar rápido duplicados o claves
+ * inexistentes antes de ir a una estructura exacta y cara.
+ * <p>
+ * Cada elemento enciende {@code hashes} bits de un arreglo de {@code long}. Para encender un bit se lee primero la
+ * palabra y solo si el bit está apagado se hace un {@code getAndBitwiseOr} atómico: con el filtro ya poblado, la
+ * mayoría de las inserciones solo leen, y no invalidan líneas de caché en los demás núcleos. No hay locks. Dos filtros
+ * con las mismas dimensiones se combinan con un OR de sus bits ({@link #merge}).
+ */
+public final class ConcurrentBloomFilter {
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] words;
+    private final long bits;
+    private final int hashes;
+
+    public ConcurrentBloomFilter(long bits, int hashes) {
+        if (bits < 64 || hashes < 1 || bits > (long) Integer.MAX_VALUE * Long.SIZE) {
+            throw new IllegalArgumentException("Dimensiones no válidas: " + bits + " bits, " + hashes + " hashes");
+        }
+        this.words = new long[(int) ((bits + Long.SIZE - 1) / Long.SIZE)];
+        this.bits = (long) this.words.length * Long.SIZE;
+        this.hashes = hashes;
+    }
+
+    /**
+     * Dimensiona el filtro para {@code expectedInsertions} elementos con una probabilidad de falso positivo
+     * {@code falsePositiveRate}: {@code -n ln(p) / ln(2)^2} bits y {@code bits / n * ln(2)} hashes.
+     */
+    public static ConcurrentBloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+        return new ConcurrentBloomFilter(Math.max(64, bits), hashes);
+    }
+
+    /**
+     * @return {@code true} si encendió algún bit, es decir, si el elemento seguro no estaba
+     */
+    public boolean put(long item) {
+        return this.putHash(Hashing.hash(item));
+    }
+
+    public boolean put(CharSequence item) {
+        return this.putHash(Hashing.hash(item));
+    }
+
+    private boolean putHash(long hash) {
+        long h1 = (int) hash;
+        long h2 = (int) (hash >>> 32);
+        boolean changed = false;
+        for (int i = 1; i <= this.hashes; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % this.bits;
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if (((long) WORDS.getOpaque(this.words, word) & mask) == 0) {
+                long previous = (long) WORDS.getAndBitwiseOr(this.words, word, mask);
+                changed |= (previous & mask) == 0;
+            }
+        }
+        return changed;
+    }
+
+    public boolean mightContain(long item) {
+        return this.mightContainHash(Hashing.hash(item));
+    }
+
+    public boolean mightContain(CharSequence item) {
+        return this.mightContainHash(Hashing.hash(item));
+    }
+
+    private boolean mightContainHash(long hash) {
+        long h1 = (int) hash;
+        long h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= this.hashes; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % this.bits;
+            if (((long) WORDS.getOpaque(this.words, (int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Añade a este filtro los elementos de {@code other}.
+     */
+    public void merge(ConcurrentBloomFilter other) {
+        if (other.bits != this.bits || other.hashes != this.hashes) {
+            throw new IllegalArgumentException("Dimensiones distintas");
+        }
+        for (int i = 0; i < this.words.length; i++) {
+            long value = (long) WORDS.getOpaque(other.words, i);
+            if (value != 0) {
+                WORDS.getAndBitwiseOr(this.words, i, value);
+            }
+        }
+    }
+
+    /**
+     * Probabilidad de falso positivo actual, a partir de la fracción de bits encendidos.
+     */
+    public double expectedFalsePositiveRate() {
+        long set = 0;
+        for (int i = 0; i < this.words.length; i++) {
+            set += Long.bitCount((long) WORDS.getOpaque(this.words, i));
+        }
+        return Math.pow(set / (double) this.bits, this.hashes);
+    }
+
+    public int hashes() {
+        return this.hashes;
+    }
+
+    public long memoryBytes() {
+        return (long) this.words.length * Long.BYTES;
+    }
+}
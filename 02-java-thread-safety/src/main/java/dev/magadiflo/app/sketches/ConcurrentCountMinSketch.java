@@ -0,0 +1,137 @@
+package dev.magadiflo.app.sketches;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estima cuántas veces apareció cada elemento (pedidos por cliente, visitas por producto) con memoria fija, para
+ * encontrar los más frecuentes (heavy hitters) sin guardar un contador por clave.
+ * <p>
+ * Una tabla de {@code depth} filas por {@code width} contadores: cada elemento incrementa un contador por fila, elegido
+ * con un hash distinto en cada una, y la estimación es el mínimo de esos contadores. Nunca subestima; sobreestima como
+ * mucho {@code e / width * total} con probabilidad {@code 1 - e^-depth} (ver {@link #withErrorBounds}).
+ * <p>
+ * Concurrencia: los contadores se incrementan con {@code getAndAdd} atómico, sin locks. Los elementos muy frecuentes
+ * caen siempre en los mismos contadores, que serían una línea de caché en disputa entre todos los núcleos. Por eso la
+ * tabla se puede repartir en {@code stripes} copias: cada hilo escribe en la suya, y al estimar se suman las copias
+ * (la suma de un contador en todas las copias es justo el contador de una tabla única). Dos sketches con las mismas
+ * dimensiones se combinan sumando contadores ({@link #merge}).
+ */
+public final class ConcurrentCountMinSketch {
+
+    private static final VarHandle COUNTERS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int width;
+    private final int depth;
+    // Una tabla de depth * width contadores por franja
+    private final long[][] stripes;
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * @param width   contadores por fila; se redondea a potencia de 2
+     * @param depth   filas (funciones de hash)
+     * @param stripes copias de la tabla para repartir a los hilos escritores; se redondea a potencia de 2
+     */
+    public ConcurrentCountMinSketch(int width, int depth, int stripes) {
+        if (width < 1 || depth < 1 || stripes < 1) {
+            throw new IllegalArgumentException("Dimensiones no válidas: " + width + "x" + depth + ", " + stripes);
+        }
+        this.width = nextPowerOfTwo(width);
+        this.depth = depth;
+        this.stripes = new long[nextPowerOfTwo(stripes)][this.width * depth];
+    }
+
+    /**
+     * Dimensiona el sketch para que, con probabilidad {@code 1 - delta}, cada estimación sobreestime como mucho
+     * {@code epsilon * total}.
+     */
+    public static ConcurrentCountMinSketch withErrorBounds(double epsilon, double delta, int stripes) {
+        int width = (int) Math.ceil(Math.E / epsilon);
+        int depth = (int) Math.ceil(Math.log(1 / delta));
+        return new ConcurrentCountMinSketch(width, depth, stripes);
+    }
+
+    public void add(long item, long count) {
+        this.addHash(Hashing.hash(item), count);
+    }
+
+    public void add(CharSequence item, long count) {
+        this.addHash(Hashing.hash(item), count);
+    }
+
+    private void addHash(long hash, long count) {
+        long[] table = this.stripes[(int) Thread.currentThread().threadId() & (this.stripes.length - 1)];
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int row = 0; row < this.depth; row++) {
+            COUNTERS.getAndAdd(table, row * this.width + ((h1 + row * h2) & (this.width - 1)), count);
+        }
+        this.total.add(count);
+    }
+
+    public long estimate(long item) {
+        return this.estimateHash(Hashing.hash(item));
+    }
+
+    public long estimate(CharSequence item) {
+        return this.estimateHash(Hashing.hash(item));
+    }
+
+    private long estimateHash(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < this.depth; row++) {
+            int index = row * this.width + ((h1 + row * h2) & (this.width - 1));
+            long sum = 0;
+            for (long[] table : this.stripes) {
+                sum += (long) COUNTERS.getOpaque(table, index);
+            }
+            min = Math.min(min, sum);
+        }
+        return min;
+    }
+
+    /**
+     * Suma a este sketch los conteos de {@code other}.
+     */
+    public void merge(ConcurrentCountMinSketch other) {
+        if (other.width != this.width || other.depth != this.depth) {
+            throw new IllegalArgumentException("Dimensiones distintas: " + this.width + "x" + this.depth + " y " +
+                    other.width + "x" + other.depth);
+        }
+        long[] target = this.stripes[(int) Thread.currentThread().threadId() & (this.stripes.length - 1)];
+        for (long[] table : other.stripes) {
+            for (int i = 0; i < table.length; i++) {
+                long value = (long) COUNTERS.getOpaque(table, i);
+                if (value != 0) {
+                    COUNTERS.getAndAdd(target, i, value);
+                }
+            }
+        }
+        this.total.add(other.totalCount());
+    }
+
+    /**
+     * Suma de todos los conteos añadidos.
+     */
+    public long totalCount() {
+        return this.total.sum();
+    }
+
+    /**
+     * Sobreestimación máxima esperada de cada estimación: {@code e / width * total}.
+     */
+    public double errorBound() {
+        return Math.E / this.width * this.totalCount();
+    }
+
+    public long memoryBytes() {
+        return (long) this.stripes.length * this.width * this.depth * Long.BYTES;
+    }
+
+    private static int nextPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+}
@@ -0,0 +1,115 @@
+package dev.magadiflo.app.sketches;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Cuenta elementos distintos (clientes únicos, IPs, sesiones) con memoria fija, en lugar de guardarlos todos en un
+ * mapa y preguntar su {@code size()} como en {@code ConcurrentHashMapDemo}.
+ * <p>
+ * HyperLogLog reparte los hashes en {@code m = 2^precision} registros de un byte. Cada registro guarda el máximo de
+ * ceros a la izquierda visto entre los hashes que le tocan: ver un hash con 20 ceros seguidos es señal de haber visto
+ * del orden de un millón de hashes distintos. La media armónica de los registros da la estimación, con un error típico
+ * de {@code 1.04 / sqrt(m)} (0,8 % con 16 KB).
+ * <p>
+ * Concurrencia: un registro solo puede crecer, así que actualizarlo es un máximo atómico con CAS. Casi siempre el
+ * valor nuevo no supera al guardado, y entonces solo se lee: con muchos hilos los registros se quedan en la caché de
+ * todos los núcleos sin invalidarse. No hay locks. Dos sketches con la misma precisión se combinan con el máximo de
+ * cada registro ({@link #merge}), así que cada hilo puede llevar el suyo y juntarlos al final.
+ */
+public final class ConcurrentHyperLogLog {
+
+    private static final VarHandle REGISTERS = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private final int precision;
+    private final byte[] registers;
+
+    /**
+     * @param precision entre 4 y 16: {@code 2^precision} bytes de memoria y un error de {@code 1.04 / 2^(precision/2)}
+     */
+    public ConcurrentHyperLogLog(int precision) {
+        if (precision < 4 || precision > 16) {
+            throw new IllegalArgumentException("La precisión debe estar entre 4 y 16: " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public void offer(long item) {
+        this.offerHash(Hashing.hash(item));
+    }
+
+    public void offer(CharSequence item) {
+        this.offerHash(Hashing.hash(item));
+    }
+
+    private void offerHash(long hash) {
+        int index = (int) (hash >>> (64 - this.precision));
+        // Los bits que quedan tras el índice; el 1 al final acota el rango a 64 - precision + 1
+        long remaining = (hash << this.precision) | (1L << (this.precision - 1));
+        this.updateMax(index, (byte) (Long.numberOfLeadingZeros(remaining) + 1));
+    }
+
+    private void updateMax(int index, byte rank) {
+        byte current;
+        do {
+            current = (byte) REGISTERS.getOpaque(this.registers, index);
+            if (rank <= current) {
+                return;
+            }
+        } while (!REGISTERS.weakCompareAndSet(this.registers, index, current, rank));
+    }
+
+    /**
+     * Estimación de la cantidad de elementos distintos ofrecidos. Con escrituras concurrentes refleja una mezcla de
+     * registros de antes y después, que sigue siendo una estimación válida.
+     */
+    public long estimate() {
+        int m = this.registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < m; i++) {
+            byte register = (byte) REGISTERS.getOpaque(this.registers, i);
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        // Con pocos elementos hay registros vacíos y el conteo lineal es más preciso
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log(m / (double) zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+
+    /**
+     * Añade a este sketch los elementos de {@code other}: el resultado es el mismo que si se hubieran ofrecido todos
+     * aquí.
+     */
+    public void merge(ConcurrentHyperLogLog other) {
+        if (other.precision != this.precision) {
+            throw new IllegalArgumentException("Precisiones distintas: " + this.precision + " y " + other.precision);
+        }
+        for (int i = 0; i < this.registers.length; i++) {
+            this.updateMax(i, (byte) REGISTERS.getOpaque(other.registers, i));
+        }
+    }
+
+    public double standardError() {
+        return 1.04 / Math.sqrt(this.registers.length);
+    }
+
+    public long memoryBytes() {
+        return this.registers.length;
+    }
+}
@@ -0,0 +1,36 @@
+package dev.magadiflo.app.sketches;
+
+/**
+ * Hash de 64 bits común a todos los sketches: dos sketches del mismo tipo y tamaño ven los mismos bits para el mismo
+ * elemento, y por eso se pueden combinar con {@code merge}.
+ */
+final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * Mezcla de bits de MurmurHash3 (fmix64): IDs consecutivos terminan con hashes sin relación entre sí.
+     */
+    static long hash(long item) {
+        item ^= item >>> 33;
+        item *= 0xff51afd7ed558ccdL;
+        item ^= item >>> 33;
+        item *= 0xc4ceb9fe1a85ec53L;
+        item ^= item >>> 33;
+        return item;
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre los caracteres, terminado con {@link #hash(long)}. No usa {@link String#hashCode()}
+     * porque sus 32 bits chocan demasiado a partir de unos cientos de millones de elementos distintos.
+     */
+    static long hash(CharSequence item) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < item.length(); i++) {
+            hash ^= item.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash(hash);
+    }
+}
@@ -0,0 +1,212 @@
+package dev.magadiflo.app.sketches;
+
+import dev.magadiflo.app.benchmark.ContentionHarness;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Compara los sketches con el conteo exacto sobre un flujo de pedidos simulado: {@code orders} pedidos de
+ * {@code customers} clientes posibles, con una distribución sesgada (unos pocos clientes hacen muchos pedidos).
+ * <ol>
+ *     <li><b>Precisión y memoria</b>: clientes únicos ({@link ConcurrentHyperLogLog}), pedidos de los clientes más
+ *     frecuentes ({@link ConcurrentCountMinSketch}) y falsos positivos ({@link ConcurrentBloomFilter}), frente a un
+ *     {@code ConcurrentHashMap<Long, Long>} con el conteo exacto.</li>
+ *     <li><b>Merge</b>: se reparte el flujo entre cuatro sketches, se combinan y se comprueba que el resultado sea
+ *     igual al de un único sketch.</li>
+ *     <li><b>Throughput</b> de las actualizaciones con varios hilos escribiendo en la misma estructura.</li>
+ * </ol>
+ * Parámetros opcionales ({@code clave=valor}): {@code orders} (por defecto 5000000), {@code customers} (por defecto
+ * 1000000), {@code threads} (por defecto {@code 1,2,4,8}) y {@code millis} por medición (por defecto 1000).
+ */
+@Slf4j
+public class SketchBenchmark {
+
+    private static final int HLL_PRECISION = 14;
+    private static final double CMS_EPSILON = 0.0001;
+    private static final double CMS_DELTA = 0.01;
+    private static final double BLOOM_FPP = 0.01;
+    private static final int STRIPES = Runtime.getRuntime().availableProcessors();
+    // Los IDs consultados como "nunca vistos" se desplazan fuera del rango de clientes
+    private static final long UNSEEN_OFFSET = 1L << 40;
+
+    private static final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+
+    public static void main(String[] args) {
+        Map<String, String> options = ContentionHarness.parse(args);
+        int orders = Integer.parseInt(options.getOrDefault("orders", "5000000"));
+        int customers = Integer.parseInt(options.getOrDefault("customers", "1000000"));
+        int[] threadCounts = ContentionHarness.parseInts(options.getOrDefault("threads", "1,2,4,8"));
+        Duration duration = Duration.ofMillis(Long.parseLong(options.getOrDefault("millis", "1000")));
+
+        long[] stream = orderStream(orders, customers);
+        accuracy(stream, customers);
+        merge(stream, customers);
+        throughput(stream, customers, threadCounts, duration);
+    }
+
+    private static void accuracy(long[] stream, int customers) {
+        long heapBefore = usedHeap();
+        ConcurrentHashMap<Long, Long> exact = new ConcurrentHashMap<>();
+        for (long customer : stream) {
+            exact.merge(customer, 1L, Long::sum);
+        }
+        long exactBytes = usedHeap() - heapBefore;
+
+        ConcurrentHyperLogLog hyperLogLog = new ConcurrentHyperLogLog(HLL_PRECISION);
+        ConcurrentCountMinSketch countMin = ConcurrentCountMinSketch.withErrorBounds(CMS_EPSILON, CMS_DELTA, STRIPES);
+        ConcurrentBloomFilter bloom = ConcurrentBloomFilter.create(customers, BLOOM_FPP);
+        for (long customer : stream) {
+            hyperLogLog.offer(customer);
+            countMin.add(customer, 1);
+            bloom.put(customer);
+        }
+
+        log.info("{} pedidos, {} clientes distintos; conteo exacto (ConcurrentHashMap): {} KB", stream.length,
+                exact.size(), String.format("%,d", exactBytes / 1024));
+
+        long estimate = hyperLogLog.estimate();
+        log.info("HyperLogLog (p={}): {} clientes distintos, error {}% (esperado ±{}%), {} KB", HLL_PRECISION,
+                estimate, String.format("%+.2f", 100.0 * (estimate - exact.size()) / exact.size()),
+                String.format("%.2f", 100 * hyperLogLog.standardError()), hyperLogLog.memoryBytes() / 1024);
+
+        long overestimated = 0;
+        long withinBound = 0;
+        double bound = countMin.errorBound();
+        for (Map.Entry<Long, Long> entry : exact.entrySet()) {
+            long error = countMin.estimate(entry.getKey()) - entry.getValue();
+            if (error < 0) {
+                log.warn("Count-Min subestimó al cliente {}", entry.getKey());
+            }
+            overestimated += error;
+            if (error <= bound) {
+                withinBound++;
+            }
+        }
+        log.info("Count-Min ({} KB): sobreestimación media {} pedidos, {}% de los clientes dentro de ε·N = {}",
+                countMin.memoryBytes() / 1024, String.format("%.1f", overestimated / (double) exact.size()),
+                String.format("%.2f", 100.0 * withinBound / exact.size()), String.format("%.0f", bound));
+        List<Map.Entry<Long, Long>> top = exact.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(5)
+                .toList();
+        for (Map.Entry<Long, Long> entry : top) {
+            log.info("    cliente {}: {} pedidos, estimados {}", String.format("%7d", entry.getKey()),
+                    String.format("%,7d", entry.getValue()), String.format("%,7d", countMin.estimate(entry.getKey())));
+        }
+
+        long falseNegatives = exact.keySet().stream().filter(customer -> !bloom.mightContain(customer)).count();
+        long probes = 1_000_000;
+        long falsePositives = 0;
+        for (long i = 0; i < probes; i++) {
+            if (bloom.mightContain(UNSEEN_OFFSET + i)) {
+                falsePositives++;
+            }
+        }
+        log.info("Bloom ({} KB, {} hashes): {} falsos negativos, falsos positivos {}% (configurado {}%)",
+                bloom.memoryBytes() / 1024, bloom.hashes(), falseNegatives,
+                String.format("%.2f", 100.0 * falsePositives / probes), String.format("%.2f", 100 * BLOOM_FPP));
+        Reference.reachabilityFence(exact);
+    }
+
+    private static void merge(long[] stream, int customers) {
+        int parts = 4;
+        ConcurrentHyperLogLog singleHll = new ConcurrentHyperLogLog(HLL_PRECISION);
+        ConcurrentCountMinSketch singleCms = ConcurrentCountMinSketch.withErrorBounds(CMS_EPSILON, CMS_DELTA, 1);
+        ConcurrentBloomFilter singleBloom = ConcurrentBloomFilter.create(customers, BLOOM_FPP);
+        ConcurrentHyperLogLog mergedHll = new ConcurrentHyperLogLog(HLL_PRECISION);
+        ConcurrentCountMinSketch mergedCms = ConcurrentCountMinSketch.withErrorBounds(CMS_EPSILON, CMS_DELTA, 1);
+        ConcurrentBloomFilter mergedBloom = ConcurrentBloomFilter.create(customers, BLOOM_FPP);
+        for (int part = 0; part < parts; part++) {
+            ConcurrentHyperLogLog hll = new ConcurrentHyperLogLog(HLL_PRECISION);
+            ConcurrentCountMinSketch cms = ConcurrentCountMinSketch.withErrorBounds(CMS_EPSILON, CMS_DELTA, 1);
+            ConcurrentBloomFilter bloom = ConcurrentBloomFilter.create(customers, BLOOM_FPP);
+            for (int i = part; i < stream.length; i += parts) {
+                hll.offer(stream[i]);
+                cms.add(stream[i], 1);
+                bloom.put(stream[i]);
+                singleHll.offer(stream[i]);
+                singleCms.add(stream[i], 1);
+                singleBloom.put(stream[i]);
+            }
+            mergedHll.merge(hll);
+            mergedCms.merge(cms);
+            mergedBloom.merge(bloom);
+        }
+        boolean sameCms = true;
+        boolean sameBloom = true;
+        for (int i = 0; i < stream.length; i += 97) {
+            sameCms &= singleCms.estimate(stream[i]) == mergedCms.estimate(stream[i]);
+            sameBloom &= singleBloom.mightContain(UNSEEN_OFFSET + i) == mergedBloom.mightContain(UNSEEN_OFFSET + i);
+        }
+        sameCms &= singleCms.totalCount() == mergedCms.totalCount();
+        sameBloom &= singleBloom.expectedFalsePositiveRate() == mergedBloom.expectedFalsePositiveRate();
+        log.info("Merge de {} sketches igual a un sketch único: HyperLogLog {}, Count-Min {}, Bloom {}", parts,
+                singleHll.estimate() == mergedHll.estimate(), sameCms, sameBloom);
+    }
+
+    private static void throughput(long[] stream, int customers, int[] threadCounts, Duration duration) {
+        Map<String, Supplier<Updater>> updaters = new LinkedHashMap<>();
+        updaters.put("ConcurrentHashMap", () -> {
+            ConcurrentHashMap<Long, Long> exact = new ConcurrentHashMap<>();
+            return customer -> exact.merge(customer, 1L, Long::sum);
+        });
+        updaters.put("HyperLogLog", () -> new ConcurrentHyperLogLog(HLL_PRECISION)::offer);
+        updaters.put("Count-Min", () -> {
+            ConcurrentCountMinSketch countMin = ConcurrentCountMinSketch.withErrorBounds(CMS_EPSILON, CMS_DELTA,
+                    STRIPES);
+            return customer -> countMin.add(customer, 1);
+        });
+        updaters.put("Bloom", () -> ConcurrentBloomFilter.create(customers, BLOOM_FPP)::put);
+
+        log.info("Núcleos disponibles: {}", Runtime.getRuntime().availableProcessors());
+        for (int threads : threadCounts) {
+            for (Map.Entry<String, Supplier<Updater>> entry : updaters.entrySet()) {
+                Updater updater = entry.getValue().get();
+                ContentionHarness.Result result = ContentionHarness.run(threads, Duration.ofMillis(300), duration,
+                        (thread, iteration) -> {
+                            updater.update(stream[(int) ((thread * 7919L + iteration) % stream.length)]);
+                            return 0;
+                        });
+                log.info("{} hilos  {}: {} Mops/s", String.format("%2d", threads),
+                        String.format("%-17s", entry.getKey()), String.format("%6.2f", result.millionOpsPerSecond()));
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Updater {
+        void update(long customer);
+    }
+
+    /**
+     * IDs de cliente con {@code u^3 * customers}, {@code u} uniforme en [0, 1): los IDs bajos aparecen muchísimo más
+     * que los altos.
+     */
+    private static long[] orderStream(int orders, int customers) {
+        SplittableRandom random = new SplittableRandom(42);
+        long[] stream = new long[orders];
+        for (int i = 0; i < orders; i++) {
+            double u = random.nextDouble();
+            stream[i] = (long) (u * u * u * customers);
+        }
+        return stream;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memoryMXBean.getHeapMemoryUsage().getUsed();
+    }
+}
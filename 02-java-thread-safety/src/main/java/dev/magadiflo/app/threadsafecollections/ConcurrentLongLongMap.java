@@ -0,0 +1,522 @@
+package dev.magadiflo.app.threadsafecollections;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Mapa concurrente de {@code long} a {@code long} con direccionamiento abierto, pensado para reemplazar un
+ * {@code ConcurrentHashMap<Long, Long>} (o {@code <String, Integer>} con claves concatenadas) cuando hay cientos de
+ * millones de entradas.
+ * <p>
+ * En un {@code ConcurrentHashMap} cada entrada es un nodo con punteros a una clave y un valor en cajas ({@code Long}),
+ * unos 80 bytes repartidos por el heap. Aquí cada entrada son 16 bytes contiguos (clave y valor) dentro de un arreglo
+ * {@code long[]}, o fuera del heap en un {@link ByteBuffer} directo: sin objetos por entrada y con sondeo lineal
+ * sobre memoria contigua.
+ * <ul>
+ *     <li><b>Lecturas sin locks</b>: {@link #get} solo lee la tabla vigente con semántica acquire.</li>
+ *     <li><b>Inserciones con CAS</b>: un hueco libre se reclama con un CAS sobre la clave; el valor se publica
+ *     después. Actualizar un valor existente también es un CAS, sin locks.</li>
+ *     <li><b>Redimensionado por segmento</b>: el mapa se reparte en segmentos independientes según los bits altos
+ *     del hash. Cada uno tiene un {@link ReentrantReadWriteLock}: las escrituras toman el lock de lectura (compartido
+ *     entre ellas) y el redimensionado toma el de escritura, así que solo se detienen las escrituras del segmento que
+ *     crece, nunca las lecturas ni los demás segmentos.</li>
+ *     <li><b>Almacenamiento fuera del heap</b> opcional ({@link #offHeap}): el GC no copia ni recorre las tablas.</li>
+ * </ul>
+ * Centinelas: una clave {@code 0} en la tabla marca un hueco libre (la clave real {@code 0} se guarda aparte) y el
+ * valor {@link #NO_VALUE} marca una entrada sin valor (inserción en curso o eliminada). Por eso {@link #NO_VALUE} no
+ * se puede usar como valor. Las entradas eliminadas conservan su clave hasta el siguiente redimensionado.
+ */
+public class ConcurrentLongLongMap {
+
+    /**
+     * Valor reservado: no se puede guardar en el mapa.
+     */
+    public static final long NO_VALUE = Long.MIN_VALUE;
+
+    private static final long EMPTY_KEY = 0;
+    private static final float LOAD_FACTOR = 0.6f;
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+    // 2^26 entradas * 16 bytes = 1 GB por segmento: los desplazamientos en bytes caben en un int
+    private static final int MAX_SEGMENT_CAPACITY = 1 << 26;
+
+    private static final VarHandle ZERO_KEY_VALUE;
+
+    static {
+        try {
+            ZERO_KEY_VALUE = MethodHandles.lookup()
+                    .findVarHandle(ConcurrentLongLongMap.class, "zeroKeyValue", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final boolean offHeap;
+    private volatile long zeroKeyValue = NO_VALUE;
+
+    private ConcurrentLongLongMap(int expectedEntries, int segmentCount, boolean offHeap) {
+        if (segmentCount <= 0 || Integer.bitCount(segmentCount) != 1) {
+            throw new IllegalArgumentException("La cantidad de segmentos debe ser una potencia de 2: " + segmentCount);
+        }
+        this.offHeap = offHeap;
+        this.segments = new Segment[segmentCount];
+        this.segmentShift = 64 - Integer.numberOfTrailingZeros(segmentCount);
+        int capacity = capacityFor(Math.max(1, expectedEntries / segmentCount));
+        for (int i = 0; i < segmentCount; i++) {
+            this.segments[i] = new Segment(this.newSlots(capacity));
+        }
+    }
+
+    public static ConcurrentLongLongMap onHeap(int expectedEntries, int segmentCount) {
+        return new ConcurrentLongLongMap(expectedEntries, segmentCount, false);
+    }
+
+    public static ConcurrentLongLongMap offHeap(int expectedEntries, int segmentCount) {
+        return new ConcurrentLongLongMap(expectedEntries, segmentCount, true);
+    }
+
+    /**
+     * Devuelve el valor asociado a la clave, o {@code defaultValue} si no existe.
+     */
+    public long get(long key, long defaultValue) {
+        if (key == EMPTY_KEY) {
+            long value = (long) ZERO_KEY_VALUE.getAcquire(this);
+            return value == NO_VALUE ? defaultValue : value;
+        }
+        long hash = hash(key);
+        Slots slots = this.segmentFor(hash).slots;
+        int mask = slots.capacity() - 1;
+        int index = (int) hash & mask;
+        for (int probes = 0; probes <= mask; probes++) {
+            long current = slots.keyAcquire(index);
+            if (current == key) {
+                long value = slots.valueAcquire(index);
+                return value == NO_VALUE ? defaultValue : value;
+            }
+            if (current == EMPTY_KEY) {
+                return defaultValue;
+            }
+            index = (index + 1) & mask;
+        }
+        return defaultValue;
+    }
+
+    public boolean containsKey(long key) {
+        return this.get(key, NO_VALUE) != NO_VALUE;
+    }
+
+    /**
+     * Asocia el valor a la clave y devuelve el valor anterior, o {@link #NO_VALUE} si no había.
+     */
+    public long put(long key, long value) {
+        checkValue(value);
+        return this.update(key, value, Mode.PUT);
+    }
+
+    /**
+     * Asocia el valor solo si la clave no tiene valor. Devuelve el valor existente, o {@link #NO_VALUE} si se insertó.
+     */
+    public long putIfAbsent(long key, long value) {
+        checkValue(value);
+        return this.update(key, value, Mode.PUT_IF_ABSENT);
+    }
+
+    /**
+     * Suma {@code delta} al valor de la clave (0 si no existe) y devuelve el nuevo valor. Es el reemplazo de
+     * {@code map.merge(key, 1, Integer::sum)}.
+     */
+    public long addTo(long key, long delta) {
+        long previous = this.update(key, delta, Mode.ADD);
+        return previous == NO_VALUE ? delta : previous + delta;
+    }
+
+    /**
+     * Elimina la clave y devuelve su valor, o {@link #NO_VALUE} si no existía.
+     */
+    public long remove(long key) {
+        if (key == EMPTY_KEY) {
+            return (long) ZERO_KEY_VALUE.getAndSet(this, NO_VALUE);
+        }
+        long hash = hash(key);
+        Segment segment = this.segmentFor(hash);
+        segment.lock.readLock().lock();
+        try {
+            Slots slots = segment.slots;
+            int mask = slots.capacity() - 1;
+            int index = (int) hash & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                long current = slots.keyAcquire(index);
+                if (current == key) {
+                    long previous = slots.getAndSetValue(index, NO_VALUE);
+                    if (previous != NO_VALUE) {
+                        segment.size.decrement();
+                    }
+                    return previous;
+                }
+                if (current == EMPTY_KEY) {
+                    return NO_VALUE;
+                }
+                index = (index + 1) & mask;
+            }
+            return NO_VALUE;
+        } finally {
+            segment.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cantidad de entradas. Con escrituras concurrentes es una aproximación, como {@code ConcurrentHashMap.size()}.
+     */
+    public long size() {
+        long size = (long) ZERO_KEY_VALUE.getAcquire(this) == NO_VALUE ? 0 : 1;
+        for (Segment segment : this.segments) {
+            size += segment.size.sum();
+        }
+        return size;
+    }
+
+    /**
+     * Huecos reservados en todas las tablas.
+     */
+    public long capacity() {
+        long capacity = 0;
+        for (Segment segment : this.segments) {
+            capacity += segment.slots.capacity();
+        }
+        return capacity;
+    }
+
+    /**
+     * Bytes ocupados por las tablas (en el heap o fuera de él, según cómo se creó el mapa).
+     */
+    public long tableBytes() {
+        return this.capacity() * Slots.BYTES_PER_ENTRY;
+    }
+
+    public boolean isOffHeap() {
+        return this.offHeap;
+    }
+
+    private enum Mode {
+        PUT, PUT_IF_ABSENT, ADD
+    }
+
+    private long update(long key, long value, Mode mode) {
+        if (key == EMPTY_KEY) {
+            return this.updateZeroKey(value, mode);
+        }
+        long hash = hash(key);
+        Segment segment = this.segmentFor(hash);
+        while (true) {
+            Slots slots;
+            segment.lock.readLock().lock();
+            try {
+                slots = segment.slots;
+                int mask = slots.capacity() - 1;
+                int index = (int) hash & mask;
+                for (int probes = 0; probes <= mask; probes++) {
+                    long current = slots.keyAcquire(index);
+                    if (current == EMPTY_KEY) {
+                        if (slots.compareAndSetKey(index, EMPTY_KEY, key)) {
+                            segment.claimed.incrementAndGet();
+                            current = key;
+                        } else {
+                            current = slots.keyAcquire(index);
+                        }
+                    }
+                    if (current == key) {
+                        long previous = updateValue(slots, index, value, mode);
+                        if (previous == NO_VALUE) {
+                            segment.size.increment();
+                        }
+                        if (segment.claimed.get() > slots.capacity() * LOAD_FACTOR) {
+                            // Se redimensiona fuera del lock de lectura (no se puede promover a escritura)
+                            segment.resizeRequested = true;
+                        }
+                        return previous;
+                    }
+                    index = (index + 1) & mask;
+                }
+            } finally {
+                segment.lock.readLock().unlock();
+                if (segment.resizeRequested) {
+                    segment.resize(this);
+                }
+            }
+            // Tabla llena: se fuerza el redimensionado y se reintenta
+            segment.resizeRequested = true;
+            segment.resize(this);
+        }
+    }
+
+    private static long updateValue(Slots slots, int index, long value, Mode mode) {
+        return switch (mode) {
+            case PUT -> slots.getAndSetValue(index, value);
+            case PUT_IF_ABSENT -> slots.compareAndExchangeValue(index, NO_VALUE, value);
+            case ADD -> {
+                while (true) {
+                    long current = slots.valueAcquire(index);
+                    long updated = current == NO_VALUE ? value : current + value;
+                    checkValue(updated);
+                    if (slots.compareAndSetValue(index, current, updated)) {
+                        yield current;
+                    }
+                }
+            }
+        };
+    }
+
+    private long updateZeroKey(long value, Mode mode) {
+        while (true) {
+            long current = (long) ZERO_KEY_VALUE.getAcquire(this);
+            long updated = switch (mode) {
+                case PUT -> value;
+                case PUT_IF_ABSENT -> current == NO_VALUE ? value : current;
+                case ADD -> current == NO_VALUE ? value : current + value;
+            };
+            checkValue(updated);
+            if (ZERO_KEY_VALUE.compareAndSet(this, current, updated)) {
+                return current;
+            }
+        }
+    }
+
+    private Segment segmentFor(long hash) {
+        return this.segments[this.segments.length == 1 ? 0 : (int) (hash >>> this.segmentShift)];
+    }
+
+    private Slots newSlots(int capacity) {
+        return this.offHeap ? new OffHeapSlots(capacity) : new HeapSlots(capacity);
+    }
+
+    private static int capacityFor(long entries) {
+        long needed = (long) Math.ceil(entries / (double) LOAD_FACTOR);
+        long capacity = MIN_SEGMENT_CAPACITY;
+        while (capacity < needed) {
+            capacity <<= 1;
+        }
+        if (capacity > MAX_SEGMENT_CAPACITY) {
+            throw new IllegalStateException("Segmento demasiado grande; usar más segmentos");
+        }
+        return (int) capacity;
+    }
+
+    private static void checkValue(long value) {
+        if (value == NO_VALUE) {
+            throw new IllegalArgumentException("NO_VALUE está reservado y no se puede guardar");
+        }
+    }
+
+    /**
+     * Mezcla de bits de MurmurHash3 (fmix64): claves consecutivas terminan en huecos y segmentos dispersos.
+     */
+    private static long hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static final class Segment {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final AtomicInteger claimed = new AtomicInteger();
+        private final LongAdder size = new LongAdder();
+        private volatile Slots slots;
+        private volatile boolean resizeRequested;
+
+        Segment(Slots slots) {
+            this.slots = slots;
+        }
+
+        /**
+         * Copia las entradas con valor a una tabla nueva (descartando las eliminadas) y la publica. Las lecturas que
+         * ya estaban recorriendo la tabla anterior terminan sobre ella: no cambia mientras dura la copia porque las
+         * escrituras esperan el lock.
+         */
+        void resize(ConcurrentLongLongMap map) {
+            this.lock.writeLock().lock();
+            try {
+                if (!this.resizeRequested) {
+                    return; // Otro hilo ya lo hizo
+                }
+                Slots old = this.slots;
+                int live = 0;
+                for (int i = 0; i < old.capacity(); i++) {
+                    if (old.keyAcquire(i) != EMPTY_KEY && old.valueAcquire(i) != NO_VALUE) {
+                        live++;
+                    }
+                }
+                int capacity = Math.max(old.capacity(), capacityFor(live * 2L));
+                Slots resized = map.newSlots(capacity);
+                int mask = capacity - 1;
+                for (int i = 0; i < old.capacity(); i++) {
+                    long key = old.keyAcquire(i);
+                    long value = old.valueAcquire(i);
+                    if (key == EMPTY_KEY || value == NO_VALUE) {
+                        continue;
+                    }
+                    int index = (int) hash(key) & mask;
+                    while (resized.keyAcquire(index) != EMPTY_KEY) {
+                        index = (index + 1) & mask;
+                    }
+                    resized.init(index, key, value);
+                }
+                this.claimed.set(live);
+                this.slots = resized;
+                this.resizeRequested = false;
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Tabla de pares clave-valor. Cada hueco {@code i} ocupa dos {@code long} consecutivos.
+     */
+    private sealed interface Slots permits HeapSlots, OffHeapSlots {
+        int BYTES_PER_ENTRY = 2 * Long.BYTES;
+
+        int capacity();
+
+        long keyAcquire(int index);
+
+        long valueAcquire(int index);
+
+        boolean compareAndSetKey(int index, long expected, long key);
+
+        boolean compareAndSetValue(int index, long expected, long value);
+
+        long compareAndExchangeValue(int index, long expected, long value);
+
+        long getAndSetValue(int index, long value);
+
+        /**
+         * Escritura sin sincronización, solo para llenar una tabla que todavía no se ha publicado.
+         */
+        void init(int index, long key, long value);
+    }
+
+    private static final class HeapSlots implements Slots {
+        private static final VarHandle ARRAY = MethodHandles.arrayElementVarHandle(long[].class);
+
+        private final long[] entries;
+        private final int capacity;
+
+        HeapSlots(int capacity) {
+            this.capacity = capacity;
+            this.entries = new long[capacity * 2];
+            for (int i = 1; i < this.entries.length; i += 2) {
+                this.entries[i] = NO_VALUE;
+            }
+        }
+
+        @Override
+        public int capacity() {
+            return this.capacity;
+        }
+
+        @Override
+        public long keyAcquire(int index) {
+            return (long) ARRAY.getAcquire(this.entries, index << 1);
+        }
+
+        @Override
+        public long valueAcquire(int index) {
+            return (long) ARRAY.getAcquire(this.entries, (index << 1) + 1);
+        }
+
+        @Override
+        public boolean compareAndSetKey(int index, long expected, long key) {
+            return ARRAY.compareAndSet(this.entries, index << 1, expected, key);
+        }
+
+        @Override
+        public boolean compareAndSetValue(int index, long expected, long value) {
+            return ARRAY.compareAndSet(this.entries, (index << 1) + 1, expected, value);
+        }
+
+        @Override
+        public long compareAndExchangeValue(int index, long expected, long value) {
+            return (long) ARRAY.compareAndExchange(this.entries, (index << 1) + 1, expected, value);
+        }
+
+        @Override
+        public long getAndSetValue(int index, long value) {
+            return (long) ARRAY.getAndSet(this.entries, (index << 1) + 1, value);
+        }
+
+        @Override
+        public void init(int index, long key, long value) {
+            this.entries[index << 1] = key;
+            this.entries[(index << 1) + 1] = value;
+        }
+    }
+
+    private static final class OffHeapSlots implements Slots {
+        private static final VarHandle BUFFER = MethodHandles.byteBufferViewVarHandle(long[].class,
+                ByteOrder.nativeOrder());
+
+        private final ByteBuffer entries;
+        private final int capacity;
+
+        OffHeapSlots(int capacity) {
+            this.capacity = capacity;
+            // Las operaciones atómicas exigen direcciones alineadas a 8 bytes
+            this.entries = ByteBuffer.allocateDirect(capacity * BYTES_PER_ENTRY + Long.BYTES).alignedSlice(Long.BYTES)
+                    .order(ByteOrder.nativeOrder());
+            for (int i = 0; i < capacity; i++) {
+                this.entries.putLong(i * BYTES_PER_ENTRY + Long.BYTES, NO_VALUE);
+            }
+        }
+
+        @Override
+        public int capacity() {
+            return this.capacity;
+        }
+
+        @Override
+        public long keyAcquire(int index) {
+            return (long) BUFFER.getAcquire(this.entries, index * BYTES_PER_ENTRY);
+        }
+
+        @Override
+        public long valueAcquire(int index) {
+            return (long) BUFFER.getAcquire(this.entries, index * BYTES_PER_ENTRY + Long.BYTES);
+        }
+
+        @Override
+        public boolean compareAndSetKey(int index, long expected, long key) {
+            return BUFFER.compareAndSet(this.entries, index * BYTES_PER_ENTRY, expected, key);
+        }
+
+        @Override
+        public boolean compareAndSetValue(int index, long expected, long value) {
+            return BUFFER.compareAndSet(this.entries, index * BYTES_PER_ENTRY + Long.BYTES, expected, value);
+        }
+
+        @Override
+        public long compareAndExchangeValue(int index, long expected, long value) {
+            return (long) BUFFER.compareAndExchange(this.entries, index * BYTES_PER_ENTRY + Long.BYTES, expected,
+                    value);
+        }
+
+        @Override
+        public long getAndSetValue(int index, long value) {
+            return (long) BUFFER.getAndSet(this.entries, index * BYTES_PER_ENTRY + Long.BYTES, value);
+        }
+
+        @Override
+        public void init(int index, long key, long value) {
+            this.entries.putLong(index * BYTES_PER_ENTRY, key);
+            this.entries.putLong(index * BYTES_PER_ENTRY + Long.BYTES, value);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package dev.magadiflo.app.threadsafecollections;
+
+import dev.magadiflo.app.benchmark.ContentionHarness;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Compara {@link ConcurrentLongLongMap} con {@link ConcurrentHashMap} en dos aspectos:
+ * <ul>
+ *     <li><b>Memoria por entrada</b>: se insertan {@code entries} claves en cada mapa (sin indicar un tamaño inicial,
+ *     así que todos pasan por sus redimensionados) y se mide el heap, más la memoria directa en la variante fuera del
+ *     heap, antes y después. Incluye el patrón de {@link ConcurrentHashMapDemo}: claves {@code String} concatenadas
+ *     y valores {@code Integer}.</li>
+ *     <li><b>Operaciones por segundo</b>: sobre mapas ya llenos, 9 de cada 10 operaciones leen una clave al azar y 1
+ *     incrementa su valor ({@code merge(key, 1, Long::sum)} frente a {@code addTo(key, 1)}).</li>
+ * </ul>
+ * Parámetros opcionales ({@code clave=valor}): {@code entries} (por defecto 2 000 000), {@code threads} (por defecto
+ * {@code 1,2,4,8}), {@code segments} (por defecto 64) y {@code millis} por medición (por defecto 1000).
+ */
+@Slf4j
+public class PrimitiveMapBenchmark {
+
+    private static final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+
+    interface LongMap {
+        long get(long key);
+
+        void increment(long key);
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = ContentionHarness.parse(args);
+        int entries = Integer.parseInt(options.getOrDefault("entries", "2000000"));
+        int[] threadCounts = ContentionHarness.parseInts(options.getOrDefault("threads", "1,2,4,8"));
+        int segments = Integer.parseInt(options.getOrDefault("segments", "64"));
+        Duration duration = Duration.ofMillis(Long.parseLong(options.getOrDefault("millis", "1000")));
+
+        log.info("Memoria con {} entradas", String.format("%,d", entries));
+        measureMemory("ConcurrentHashMap<String, Integer>", entries, () -> {
+            Map<String, Integer> map = new ConcurrentHashMap<>();
+            for (int i = 1; i <= entries; i++) {
+                map.put("thread-0" + i, i);
+            }
+            return map;
+        });
+        measureMemory("ConcurrentHashMap<Long, Long>", entries, () -> {
+            Map<Long, Long> map = new ConcurrentHashMap<>();
+            for (long i = 1; i <= entries; i++) {
+                map.put(i, i);
+            }
+            return map;
+        });
+        measureMemory("ConcurrentLongLongMap (heap)", entries,
+                () -> fill(ConcurrentLongLongMap.onHeap(0, segments), entries));
+        measureMemory("ConcurrentLongLongMap (off-heap)", entries,
+                () -> fill(ConcurrentLongLongMap.offHeap(0, segments), entries));
+
+        log.info("Throughput: 90 % get, 10 % incremento, {} claves", String.format("%,d", entries));
+        measureThroughput("ConcurrentHashMap<Long, Long>", entries, threadCounts, duration, () -> {
+            Map<Long, Long> map = new ConcurrentHashMap<>();
+            for (long i = 1; i <= entries; i++) {
+                map.put(i, i);
+            }
+            return new LongMap() {
+                @Override
+                public long get(long key) {
+                    Long value = map.get(key);
+                    return value == null ? 0 : value;
+                }
+
+                @Override
+                public void increment(long key) {
+                    map.merge(key, 1L, Long::sum);
+                }
+            };
+        });
+        measureThroughput("ConcurrentLongLongMap (heap)", entries, threadCounts, duration,
+                () -> adapt(fill(ConcurrentLongLongMap.onHeap(0, segments), entries)));
+        measureThroughput("ConcurrentLongLongMap (off-heap)", entries, threadCounts, duration,
+                () -> adapt(fill(ConcurrentLongLongMap.offHeap(0, segments), entries)));
+    }
+
+    private static ConcurrentLongLongMap fill(ConcurrentLongLongMap map, int entries) {
+        for (long i = 1; i <= entries; i++) {
+            map.put(i, i);
+        }
+        return map;
+    }
+
+    private static LongMap adapt(ConcurrentLongLongMap map) {
+        return new LongMap() {
+            @Override
+            public long get(long key) {
+                return map.get(key, 0);
+            }
+
+            @Override
+            public void increment(long key) {
+                map.addTo(key, 1);
+            }
+        };
+    }
+
+    private static void measureMemory(String name, int entries, Supplier<Object> builder) {
+        long heapBefore = usedHeap();
+        long directBefore = usedDirect();
+        long start = System.nanoTime();
+        Object map = builder.get();
+        long elapsed = System.nanoTime() - start;
+        long heap = usedHeap() - heapBefore;
+        long direct = usedDirect() - directBefore;
+        log.info("{}: {} bytes/entrada (heap {} MB, directa {} MB), construido en {} ms",
+                String.format("%-34s", name), String.format("%6.1f", (heap + direct) / (double) entries),
+                String.format("%,d", heap >> 20), String.format("%,d", direct >> 20),
+                String.format("%,d", elapsed / 1_000_000));
+        // Mantiene el mapa vivo hasta después de medir
+        Reference.reachabilityFence(map);
+    }
+
+    private static void measureThroughput(String name, int entries, int[] threadCounts, Duration duration,
+                                          Supplier<LongMap> builder) {
+        LongMap map = builder.get();
+        StringBuilder line = new StringBuilder(String.format("%-34s", name));
+        for (int threads : threadCounts) {
+            ContentionHarness.Result result = ContentionHarness.run(threads, Duration.ofMillis(300), duration,
+                    (thread, iteration) -> {
+                        long key = randomKey(thread, iteration, entries);
+                        if (iteration % 10 == 0) {
+                            map.increment(key);
+                            return 0;
+                        }
+                        return map.get(key);
+                    });
+            line.append(String.format("  %d hilos: %6.1f Mops/s", threads, result.millionOpsPerSecond()));
+        }
+        log.info("{}", line);
+    }
+
+    private static long randomKey(int thread, long iteration, int entries) {
+        long x = (iteration * 0x9E3779B97F4A7C15L) ^ ((long) thread << 48);
+        x ^= x >>> 31;
+        return Math.floorMod(x, entries) + 1;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memoryMXBean.getHeapMemoryUsage().getUsed();
+    }
+
+    private static long usedDirect() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> pool.getName().equals("direct"))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+    }
+}
@@ -0,0 +1,37 @@
+package dev.magadiflo.app.volatilekeyword;
+
+/**
+ * Un flag {@code volatile} (como {@code running} en {@link WithVolatileExample}) con el que un hilo puede esperar a
+ * que cambie sin quedarse en un {@code while (running) {}}: cómo espera lo decide el {@link WaitStrategy}.
+ */
+public final class WaitFlag {
+
+    private final WaitStrategy strategy;
+    private volatile boolean value;
+
+    public WaitFlag(boolean initialValue, WaitStrategy strategy) {
+        this.value = initialValue;
+        this.strategy = strategy;
+    }
+
+    public boolean get() {
+        return this.value;
+    }
+
+    /**
+     * Cambia el valor y despierta a quienes esperan.
+     */
+    public void set(boolean value) {
+        this.value = value;
+        this.strategy.signalAll();
+    }
+
+    /**
+     * Espera hasta que el flag valga {@code expected}.
+     */
+    public void await(boolean expected) throws InterruptedException {
+        if (this.value != expected) {
+            this.strategy.await(() -> this.value == expected);
+        }
+    }
+}
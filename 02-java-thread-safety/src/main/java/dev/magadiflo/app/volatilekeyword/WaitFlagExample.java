@@ -0,0 +1,44 @@
+package dev.magadiflo.app.volatilekeyword;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * El mismo escenario que {@link WithVolatileExample}, pero el hilo espera el cambio del flag con un
+ * {@link WaitStrategy} en lugar de girar en {@code while (running) {}}. Al final se muestra cuánta CPU consumió el
+ * hilo mientras esperaba.
+ */
+@Slf4j
+public class WaitFlagExample {
+
+    private static final WaitFlag running = new WaitFlag(true,
+            WaitStrategy.spinThenPark(1_000, TimeUnit.MICROSECONDS.toNanos(50), TimeUnit.MILLISECONDS.toNanos(1)));
+
+    public static void main(String[] args) throws InterruptedException {
+        Runnable task = () -> {
+            log.info("Hilo de trabajo iniciado...");
+            try {
+                running.await(false);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            log.info("El hilo de trabajo se ha detenido");
+        };
+        Thread thread = new Thread(task);
+        thread.start();
+
+        Thread.sleep(Duration.ofSeconds(2));
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        long cpuNanos = threadMXBean.getThreadCpuTime(thread.threadId());
+        log.info("Cambiando el valor de \"running\" a false...");
+        running.set(false);
+        thread.join();
+        log.info("CPU consumida por el hilo en 2 s de espera: {} ms",
+                String.format("%.1f", cpuNanos / 1_000_000.0));
+    }
+}
@@ -0,0 +1,42 @@
+package dev.magadiflo.app.volatilekeyword;
+
+/**
+ * Un contador que solo crece, publicado por un hilo productor, y por el que los consumidores esperan a que llegue
+ * a cierto valor: "ya hay datos hasta el elemento {@code n}". Es el mismo patrón del flag, pero sin perder avisos,
+ * porque quien espera pide un valor mínimo y no un cambio.
+ */
+public final class WaitSequence {
+
+    private final WaitStrategy strategy;
+    private volatile long value;
+
+    public WaitSequence(long initialValue, WaitStrategy strategy) {
+        this.value = initialValue;
+        this.strategy = strategy;
+    }
+
+    public long get() {
+        return this.value;
+    }
+
+    /**
+     * Publica un valor nuevo y despierta a quienes esperan. Debe llamarlo un único hilo, con valores crecientes.
+     */
+    public void publish(long value) {
+        this.value = value;
+        this.strategy.signalAll();
+    }
+
+    /**
+     * Espera hasta que la secuencia llegue al menos a {@code minimum} y devuelve el valor observado, que puede ser
+     * mayor si el productor va por delante.
+     */
+    public long awaitAtLeast(long minimum) throws InterruptedException {
+        long current = this.value;
+        if (current >= minimum) {
+            return current;
+        }
+        this.strategy.await(() -> this.value >= minimum);
+        return this.value;
+    }
+}
@@ -0,0 +1,170 @@
+package dev.magadiflo.app.volatilekeyword;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Cómo espera un hilo a que se cumpla una condición sobre variables {@code volatile} (un flag, una secuencia), como el
+ * {@code while (running) {}} de {@link WithVolatileExample}.
+ * <p>
+ * Cada estrategia cambia latencia por CPU:
+ * <ul>
+ *     <li>{@link #busySpin()}: despierta en nanosegundos, pero ocupa un núcleo entero mientras espera.</li>
+ *     <li>{@link #spinThenYield(int)}: gira un poco y luego cede la CPU con {@link Thread#yield()}; sigue despierto,
+ *     pero deja correr a otros hilos.</li>
+ *     <li>{@link #spinThenPark(int, long, long)}: gira, y luego aparca el hilo períodos crecientes; casi no consume
+ *     CPU, y la latencia está acotada por el período máximo.</li>
+ *     <li>{@link #blocking()}: duerme en una {@link Condition} hasta que alguien llama a {@link #signalAll()}; CPU
+ *     cero y la latencia de despertar un hilo del sistema operativo.</li>
+ * </ul>
+ * Quien cambia la condición debe llamar a {@link #signalAll()} después; solo la estrategia bloqueante lo necesita,
+ * pero así el código no depende de la estrategia elegida.
+ */
+public interface WaitStrategy {
+
+    /**
+     * Espera hasta que {@code condition} sea verdadera.
+     */
+    void await(BooleanSupplier condition) throws InterruptedException;
+
+    /**
+     * Avisa a los hilos que esperan de que la condición pudo cambiar.
+     */
+    default void signalAll() {
+    }
+
+    String name();
+
+    static WaitStrategy busySpin() {
+        return new WaitStrategy() {
+            @Override
+            public void await(BooleanSupplier condition) throws InterruptedException {
+                while (!condition.getAsBoolean()) {
+                    checkInterrupted();
+                    Thread.onSpinWait();
+                }
+            }
+
+            @Override
+            public String name() {
+                return "busySpin";
+            }
+        };
+    }
+
+    static WaitStrategy spinThenYield(int spins) {
+        return new WaitStrategy() {
+            @Override
+            public void await(BooleanSupplier condition) throws InterruptedException {
+                int counter = spins;
+                while (!condition.getAsBoolean()) {
+                    checkInterrupted();
+                    if (counter > 0) {
+                        counter--;
+                        Thread.onSpinWait();
+                    } else {
+                        Thread.yield();
+                    }
+                }
+            }
+
+            @Override
+            public String name() {
+                return "spinThenYield(" + spins + ")";
+            }
+        };
+    }
+
+    /**
+     * Gira {@code spins} veces y después aparca el hilo con {@link LockSupport#parkNanos}, empezando en
+     * {@code minParkNanos} y duplicando hasta {@code maxParkNanos}.
+     */
+    static WaitStrategy spinThenPark(int spins, long minParkNanos, long maxParkNanos) {
+        return new WaitStrategy() {
+            @Override
+            public void await(BooleanSupplier condition) throws InterruptedException {
+                int counter = spins;
+                long park = minParkNanos;
+                while (!condition.getAsBoolean()) {
+                    checkInterrupted();
+                    if (counter > 0) {
+                        counter--;
+                        Thread.onSpinWait();
+                    } else {
+                        LockSupport.parkNanos(park);
+                        park = Math.min(maxParkNanos, park << 1);
+                    }
+                }
+            }
+
+            @Override
+            public String name() {
+                return String.format("spinThenPark(%d, %dµs..%dµs)", spins, TimeUnit.NANOSECONDS.toMicros(minParkNanos),
+                        TimeUnit.NANOSECONDS.toMicros(maxParkNanos));
+            }
+        };
+    }
+
+    static WaitStrategy blocking() {
+        return new BlockingWaitStrategy();
+    }
+
+    private static void checkInterrupted() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    /**
+     * Espera en una {@link Condition}. Para no tomar el lock en cada señal, solo se señaliza si hay hilos esperando:
+     * quien espera incrementa {@code waiters} antes de volver a comprobar la condición, y quien señaliza cambia la
+     * condición antes de leer {@code waiters}, así que al menos uno de los dos ve lo que hizo el otro.
+     */
+    final class BlockingWaitStrategy implements WaitStrategy {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = this.lock.newCondition();
+        private final AtomicInteger waiters = new AtomicInteger();
+
+        private BlockingWaitStrategy() {
+        }
+
+        @Override
+        public void await(BooleanSupplier condition) throws InterruptedException {
+            if (condition.getAsBoolean()) {
+                return;
+            }
+            this.waiters.incrementAndGet();
+            this.lock.lock();
+            try {
+                while (!condition.getAsBoolean()) {
+                    this.changed.await();
+                }
+            } finally {
+                this.lock.unlock();
+                this.waiters.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void signalAll() {
+            if (this.waiters.get() == 0) {
+                return;
+            }
+            this.lock.lock();
+            try {
+                this.changed.signalAll();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        @Override
+        public String name() {
+            return "blocking";
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package dev.magadiflo.app.volatilekeyword;
+
+import dev.magadiflo.app.benchmark.ContentionHarness;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Compara las estrategias de {@link WaitStrategy} en las dos cosas que intercambian:
+ * <ul>
+ *     <li><b>CPU en reposo</b>: un hilo espera una {@link WaitSequence} que nadie publica durante {@code idleMillis} y
+ *     se mide su tiempo de CPU con {@link ThreadMXBean#getThreadCpuTime(long)}. Se reporta como porcentaje de un
+ *     núcleo.</li>
+ *     <li><b>Latencia de despertar</b>: un productor publica {@code samples} valores separados por pausas aleatorias de
+ *     hasta {@code gapMicros}. Se mide el tiempo entre la publicación y el momento en que el consumidor sale de la
+ *     espera. El productor no publica el siguiente valor hasta que el consumidor confirma el anterior.</li>
+ * </ul>
+ * Parámetros opcionales ({@code clave=valor}): {@code samples} (por defecto 2000), {@code gapMicros} (por defecto 200)
+ * e {@code idleMillis} (por defecto 1000).
+ */
+@Slf4j
+public class WaitStrategyBenchmark {
+
+    private static final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = ContentionHarness.parse(args);
+        int samples = Integer.parseInt(options.getOrDefault("samples", "2000"));
+        long gapNanos = TimeUnit.MICROSECONDS.toNanos(Long.parseLong(options.getOrDefault("gapMicros", "200")));
+        long idleMillis = Long.parseLong(options.getOrDefault("idleMillis", "1000"));
+
+        List<WaitStrategy> strategies = List.of(
+                WaitStrategy.busySpin(),
+                WaitStrategy.spinThenYield(100),
+                WaitStrategy.spinThenPark(100, TimeUnit.MICROSECONDS.toNanos(1), TimeUnit.MICROSECONDS.toNanos(100)),
+                WaitStrategy.spinThenPark(100, TimeUnit.MICROSECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(1)),
+                WaitStrategy.blocking());
+
+        log.info("Núcleos disponibles: {}", Runtime.getRuntime().availableProcessors());
+        for (WaitStrategy strategy : strategies) {
+            double cpuPercent = idleCpu(strategy, idleMillis);
+            // Primera pasada de calentamiento, la segunda es la que se reporta
+            latencies(strategy, samples, gapNanos);
+            long[] latencies = latencies(strategy, samples, gapNanos);
+            log.info("{}  CPU en reposo {}%  latencia µs p50 {}  p99 {}  p99.9 {}  máx {}",
+                    String.format("%-32s", strategy.name()), String.format("%5.1f", cpuPercent),
+                    micros(percentile(latencies, 0.50)), micros(percentile(latencies, 0.99)),
+                    micros(percentile(latencies, 0.999)), micros(latencies[latencies.length - 1]));
+        }
+    }
+
+    private static double idleCpu(WaitStrategy strategy, long idleMillis) throws InterruptedException {
+        WaitSequence sequence = new WaitSequence(0, strategy);
+        Thread waiter = new Thread(() -> {
+            try {
+                sequence.awaitAtLeast(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "waiter-idle");
+        waiter.start();
+        // Se deja pasar la fase de giro inicial: interesa el consumo sostenido
+        Thread.sleep(100);
+        long cpuBefore = threadMXBean.getThreadCpuTime(waiter.threadId());
+        long start = System.nanoTime();
+        Thread.sleep(idleMillis);
+        long cpu = threadMXBean.getThreadCpuTime(waiter.threadId()) - cpuBefore;
+        long elapsed = System.nanoTime() - start;
+        sequence.publish(1);
+        waiter.join();
+        return 100.0 * cpu / elapsed;
+    }
+
+    /**
+     * Devuelve las latencias de despertar ordenadas, en nanosegundos.
+     */
+    private static long[] latencies(WaitStrategy strategy, int samples, long gapNanos) throws InterruptedException {
+        WaitSequence sequence = new WaitSequence(0, strategy);
+        WaitSequence acknowledged = new WaitSequence(0, WaitStrategy.blocking());
+        // Cada posición se escribe antes de publicar su número, así que el consumidor la ve al salir de la espera
+        long[] publishedAt = new long[samples + 1];
+        long[] latencies = new long[samples];
+
+        Thread waiter = new Thread(() -> {
+            try {
+                for (int i = 1; i <= samples; i++) {
+                    sequence.awaitAtLeast(i);
+                    latencies[i - 1] = System.nanoTime() - publishedAt[i];
+                    acknowledged.publish(i);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "waiter-latency");
+        waiter.start();
+
+        for (int i = 1; i <= samples; i++) {
+            acknowledged.awaitAtLeast(i - 1);
+            LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(gapNanos / 2, gapNanos + 1));
+            publishedAt[i] = System.nanoTime();
+            sequence.publish(i);
+        }
+        waiter.join();
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) (percentile * sorted.length))];
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%,9.1f", nanos / 1_000.0);
+    }
+}
@@ -1,5 +1,6 @@
 package dev.magadiflo.app;
 
+import dev.magadiflo.app.context.ContextPropagation;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.Duration;
@@ -8,7 +9,12 @@ import java.time.Duration;
 public class UserContext {
 
     // ThreadLocal para almacenar información del usuario actual
-    private static ThreadLocal<String> currentUser = new ThreadLocal<>();
+    private static final ThreadLocal<String> currentUser = new ThreadLocal<>();
+
+    static {
+        // El usuario viaja a las tareas de los executors envueltos con ContextPropagation.wrap(...)
+        ContextPropagation.register(currentUser);
+    }
 
     public static void setUser(String user) {
         currentUser.set(user);
@@ -0,0 +1,52 @@
+package dev.magadiflo.app.context;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Compara qué ve un hilo hijo con cada implementación de {@link RequestContext}: un hilo nuevo y una subtarea de
+ * {@code StructuredTaskScope}.
+ * <p>
+ * Usa {@code StructuredTaskScope}, que es preview en Java 21: esta clase solo se carga con {@code --enable-preview}.
+ * Por eso vive aparte de {@link RequestContextExample}, que sin esa opción sigue funcionando con {@code ThreadLocal}.
+ */
+@Slf4j
+final class ChildThreadVisibility {
+
+    private ChildThreadVisibility() {
+    }
+
+    static void logComparison() throws InterruptedException {
+        for (RequestContext candidate : List.of(RequestContext.scopedValue(), RequestContext.threadLocal(),
+                RequestContext.inheritableThreadLocal())) {
+            String[] seen = candidate.getAs("ana", () -> {
+                try {
+                    return new String[]{inNewThread(candidate), inStructuredScope(candidate)};
+                } catch (InterruptedException | ExecutionException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            log.info("{}: un hilo nuevo ve {}, una subtarea de StructuredTaskScope ve {}",
+                    String.format("%-22s", candidate.name()), seen[0], seen[1]);
+        }
+    }
+
+    private static String inNewThread(RequestContext context) throws InterruptedException {
+        AtomicReference<String> seen = new AtomicReference<>();
+        Thread.ofVirtual().start(() -> seen.set(RequestContextExample.user(context))).join();
+        return seen.get();
+    }
+
+    private static String inStructuredScope(RequestContext context) throws InterruptedException,
+            ExecutionException {
+        try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+            StructuredTaskScope.Subtask<String> subtask = scope.fork(() -> RequestContextExample.user(context));
+            scope.join().throwIfFailed();
+            return subtask.get();
+        }
+    }
+}
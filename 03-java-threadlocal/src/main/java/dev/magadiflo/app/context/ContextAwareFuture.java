@@ -0,0 +1,60 @@
+package dev.magadiflo.app.context;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * {@link CompletableFuture} cuyas etapas {@code *Async} sin executor explícito usan un executor con propagación de
+ * contexto en lugar del {@code ForkJoinPool.commonPool()}. Las etapas que derivan de él ({@code thenApply},
+ * {@code thenCompose}, ...) también son {@code ContextAwareFuture}.
+ * <pre>{@code
+ * ContextAwareFuture.supplyAsync(() -> validate(order), executor)
+ *         .thenApplyAsync(this::checkStock)      // mismo executor, mismo usuario
+ *         .thenApplyAsync(this::processPayment);
+ * }</pre>
+ * El contexto de cada etapa asíncrona se captura cuando se programa, es decir, cuando termina la anterior. Como la
+ * anterior también se ejecutó con el contexto restaurado, el usuario pasa de etapa en etapa. Si alguna etapa la
+ * completa un hilo sin contexto (un {@code complete()} desde fuera), las siguientes no lo tendrán.
+ */
+public class ContextAwareFuture<T> extends CompletableFuture<T> {
+
+    private final Executor defaultExecutor;
+
+    public ContextAwareFuture(Executor defaultExecutor) {
+        this.defaultExecutor = Objects.requireNonNull(defaultExecutor, "defaultExecutor");
+    }
+
+    /**
+     * @param executor executor de esta tarea y, por defecto, de las etapas siguientes; se envuelve con
+     *                 {@link ContextPropagation#wrap(Executor)}
+     */
+    public static <U> ContextAwareFuture<U> supplyAsync(Supplier<U> supplier, Executor executor) {
+        Executor propagating = ContextPropagation.wrap(executor);
+        ContextAwareFuture<U> future = new ContextAwareFuture<>(propagating);
+        propagating.execute(() -> {
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    public static <U> ContextAwareFuture<U> supplyAsync(Supplier<U> supplier) {
+        return supplyAsync(supplier, ForkJoinPool.commonPool());
+    }
+
+    @Override
+    public Executor defaultExecutor() {
+        return this.defaultExecutor;
+    }
+
+    @Override
+    public <U> CompletableFuture<U> newIncompleteFuture() {
+        return new ContextAwareFuture<>(this.defaultExecutor);
+    }
+}
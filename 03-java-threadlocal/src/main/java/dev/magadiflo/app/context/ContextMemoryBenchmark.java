@@ -0,0 +1,189 @@
+package dev.magadiflo.app.context;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Memoria por hilo y costo de lectura del contexto con {@code ThreadLocal}, {@code InheritableThreadLocal} y
+ * {@code ScopedValue}, con un millón de hilos virtuales vivos a la vez.
+ * <p>
+ * En cada escenario se lanzan {@code threads} hilos virtuales que leen el usuario actual y se quedan esperando; con
+ * todos vivos se mide el heap usado tras un GC y se divide por la cantidad de hilos. Escenarios:
+ * <ul>
+ *     <li>{@code none}: sin contexto, la línea base.</li>
+ *     <li>{@code threadlocal} / {@code scoped}: cada hilo enlaza su propio usuario con {@code runAs}.</li>
+ *     <li>{@code inheritable}: el hilo que los lanza tiene un usuario en un {@code InheritableThreadLocal}, y cada hijo
+ *     lo copia al crearse.</li>
+ *     <li>{@code none-scope} / {@code scoped-inherited}: los hilos son subtareas de un {@code StructuredTaskScope}
+ *     abierto sin contexto, y dentro de un {@code ScopedValue} enlazado (los hijos lo heredan sin copias).</li>
+ * </ul>
+ * Después mide el costo de {@code currentUser()} en un bucle dentro de una acción.
+ * <p>
+ * Parámetros opcionales ({@code clave=valor}): {@code threads} (por defecto 1000000), {@code warmUp} (hilos del
+ * calentamiento de cada escenario, por defecto 100000), {@code lookups} (por defecto 50000000) y {@code variants}. Se
+ * ejecuta con {@code java --enable-preview -Xmx4g}.
+ */
+@Slf4j
+public class ContextMemoryBenchmark {
+
+    private static final String USER = "ana";
+    private static final List<String> VARIANTS = List.of("none", "threadlocal", "inheritable", "scoped", "none-scope",
+            "scoped-inherited");
+
+    private static final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+    // Evita que el JIT elimine las lecturas del bucle
+    private static volatile long sink;
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = parse(args);
+        int threads = Integer.parseInt(options.getOrDefault("threads", "1000000"));
+        int warmUp = Integer.parseInt(options.getOrDefault("warmUp", "100000"));
+        int lookups = Integer.parseInt(options.getOrDefault("lookups", "50000000"));
+        List<String> variants = Arrays.asList(options.getOrDefault("variants", String.join(",", VARIANTS)).split(","));
+
+        RequestContext threadLocal = RequestContext.threadLocal();
+        RequestContext inheritable = RequestContext.inheritableThreadLocal();
+        RequestContext scoped = RequestContext.scopedValue();
+
+        Map<String, Double> bytesPerThread = new HashMap<>();
+        for (String variant : variants) {
+            // Calentamiento: con el código aún interpretado, los frames de cada hilo ocupan más en su stack
+            measureMemory(variant, warmUp, null, threadLocal, inheritable, scoped);
+            double bytes = measureMemory(variant, threads, bytesPerThread, threadLocal, inheritable, scoped);
+            bytesPerThread.put(variant, bytes);
+        }
+
+        for (RequestContext context : List.of(threadLocal, inheritable, scoped)) {
+            lookupNanos(context, lookups);
+            log.info("Lectura con {}: {} ns", String.format("%-22s", context.name()),
+                    String.format("%.2f", lookupNanos(context, lookups)));
+        }
+    }
+
+    private static double measureMemory(String variant, int threads, Map<String, Double> previous,
+                                        RequestContext threadLocal, RequestContext inheritable,
+                                        RequestContext scoped) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch release = new CountDownLatch(1);
+        LongAdder withUser = new LongAdder();
+        RequestContext context = switch (variant) {
+            case "threadlocal" -> threadLocal;
+            case "inheritable" -> inheritable;
+            default -> scoped;
+        };
+        Runnable body = () -> {
+            if (context.currentUser().isPresent()) {
+                withUser.increment();
+            }
+            ready.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        Runnable launcher = switch (variant) {
+            case "none" -> () -> startAll(threads, body);
+            case "threadlocal", "scoped" -> () -> startAll(threads, () -> context.runAs(USER, body));
+            case "inheritable" -> () -> context.runAs(USER, () -> startAll(threads, body));
+            case "none-scope" -> () -> forkAll(threads, body);
+            case "scoped-inherited" -> () -> context.runAs(USER, () -> forkAll(threads, body));
+            default -> throw new IllegalArgumentException("Escenario desconocido: " + variant);
+        };
+
+        long heapBefore = usedHeap();
+        // El lanzador va en su propio hilo: con StructuredTaskScope, el scope sigue abierto hasta que acaben los hijos
+        Thread launcherThread = Thread.ofPlatform().name("lanzador").start(launcher);
+        ready.await();
+        long bytes = usedHeap() - heapBefore;
+        release.countDown();
+        launcherThread.join();
+
+        double perThread = bytes / (double) threads;
+        if (previous != null) {
+            String baseline = variant.equals("none") || variant.equals("none-scope") ? null :
+                    variant.equals("scoped-inherited") ? "none-scope" : "none";
+            String overhead = baseline == null || !previous.containsKey(baseline) ? "" :
+                    String.format(", %+.0f bytes por hilo sobre %s", perThread - previous.get(baseline), baseline);
+            log.info("{}: {} hilos, {} con usuario, {} MB de heap, {} bytes por hilo{}",
+                    String.format("%-16s", variant), String.format("%,d", threads),
+                    String.format("%,d", withUser.sum()), String.format("%,d", bytes / (1024 * 1024)),
+                    String.format("%.0f", perThread), overhead);
+        }
+        return perThread;
+    }
+
+    private static void startAll(int threads, Runnable task) {
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread.ofVirtual().start(() -> {
+                try {
+                    task.run();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void forkAll(int threads, Runnable task) {
+        try (var scope = new StructuredTaskScope<Void>()) {
+            for (int i = 0; i < threads; i++) {
+                scope.fork(() -> {
+                    task.run();
+                    return null;
+                });
+            }
+            scope.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static double lookupNanos(RequestContext context, int lookups) {
+        return context.getAs(USER, () -> {
+            long found = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                if (context.currentUser().isPresent()) {
+                    found++;
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            sink = found;
+            return elapsed / (double) lookups;
+        });
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memoryMXBean.getHeapMemoryUsage().getUsed();
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] parts = arg.split("=", 2);
+            if (parts.length == 2) {
+                options.put(parts[0].trim(), parts[1].trim());
+            }
+        }
+        return options;
+    }
+}
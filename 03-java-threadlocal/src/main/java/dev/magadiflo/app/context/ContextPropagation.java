@@ -0,0 +1,111 @@
+package dev.magadiflo.app.context;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lleva el contexto guardado en {@code ThreadLocal} (como el usuario de {@code UserContext}) a las tareas que se
+ * ejecutan en otros hilos: pools, tareas programadas y etapas asíncronas de {@code CompletableFuture}.
+ * <p>
+ * Un {@code ThreadLocal} es del hilo que lo escribió: en cuanto una tarea salta a un hilo de un executor,
+ * {@code UserContext.getUser()} devuelve {@code null}. Aquí cada {@code ThreadLocal} que deba viajar se
+ * {@link #register registra} una vez; al enviar una tarea, un executor envuelto con {@link #wrap} {@link #capture()
+ * captura} sus valores y el hilo que la ejecuta los restaura mientras dura la tarea y los limpia después.
+ * <p>
+ * El registro es un arreglo que se reemplaza entero al registrar (copy-on-write): capturar es leerlo una vez y hacer un
+ * {@code get()} por {@code ThreadLocal}, sin locks. Los {@code ThreadLocal} registrados no deben tener valor inicial
+ * ({@code ThreadLocal.withInitial}): capturar los inicializaría en cada hilo.
+ * <p>
+ * Junto con el arreglo se guarda su instantánea vacía: sin contexto, capturar no asigna nada, y la tarea envuelta
+ * limpia igual lo que haya dejado en el hilo.
+ */
+public final class ContextPropagation {
+
+    /**
+     * Instantánea vacía del registro actual: sus {@code locals} son los {@code ThreadLocal} registrados.
+     */
+    private static final AtomicReference<ContextSnapshot> registered = new AtomicReference<>(ContextSnapshot.EMPTY);
+    private static final Executor COMMON_POOL = wrap((Executor) ForkJoinPool.commonPool());
+
+    private ContextPropagation() {
+    }
+
+    public static void register(ThreadLocal<?> local) {
+        Objects.requireNonNull(local, "local");
+        registered.updateAndGet(snapshot -> {
+            ThreadLocal<?>[] locals = snapshot.locals();
+            for (ThreadLocal<?> existing : locals) {
+                if (existing == local) {
+                    return snapshot;
+                }
+            }
+            ThreadLocal<?>[] updated = Arrays.copyOf(locals, locals.length + 1);
+            updated[locals.length] = local;
+            return ContextSnapshot.empty(updated);
+        });
+    }
+
+    public static void unregister(ThreadLocal<?> local) {
+        registered.updateAndGet(snapshot -> ContextSnapshot.empty(Arrays.stream(snapshot.locals())
+                .filter(existing -> existing != local)
+                .toArray(ThreadLocal<?>[]::new)));
+    }
+
+    /**
+     * Valores actuales de los {@code ThreadLocal} registrados, o la instantánea vacía del registro si no hay ninguno.
+     */
+    public static ContextSnapshot capture() {
+        ContextSnapshot empty = registered.get();
+        ThreadLocal<?>[] locals = empty.locals();
+        Object[] values = null;
+        for (int i = 0; i < locals.length; i++) {
+            Object value = locals[i].get();
+            if (value != null) {
+                if (values == null) {
+                    values = new Object[locals.length];
+                }
+                values[i] = value;
+            }
+        }
+        return values == null ? empty : new ContextSnapshot(locals, values);
+    }
+
+    /**
+     * Envuelve {@code task} con el contexto actual. Tiene la forma de un {@code TaskDecorator} de Spring:
+     * {@code executor.setTaskDecorator(ContextPropagation::wrap)} propaga el contexto a los métodos {@code @Async}.
+     */
+    public static Runnable wrap(Runnable task) {
+        return capture().wrap(task);
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        return capture().wrap(task);
+    }
+
+    public static Executor wrap(Executor executor) {
+        Objects.requireNonNull(executor, "executor");
+        return task -> executor.execute(wrap(task));
+    }
+
+    public static ExecutorService wrap(ExecutorService executor) {
+        return new ContextPropagatingExecutorService(executor);
+    }
+
+    public static ScheduledExecutorService wrap(ScheduledExecutorService executor) {
+        return new ContextPropagatingScheduledExecutorService(executor);
+    }
+
+    /**
+     * {@link ForkJoinPool#commonPool()} con propagación: el executor que usan por defecto las etapas {@code *Async} de
+     * {@code CompletableFuture} cuando no se les pasa uno.
+     */
+    public static Executor commonPool() {
+        return COMMON_POOL;
+    }
+}
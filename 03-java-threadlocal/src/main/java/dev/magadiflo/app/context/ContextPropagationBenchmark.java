@@ -0,0 +1,153 @@
+package dev.magadiflo.app.context;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Costo por tarea de {@link ContextPropagation}, para decidir si se puede dejar activado en todos los executors.
+ * <p>
+ * Para 0 (hay {@code ThreadLocal} registrados pero sin valor), 1 y 4 {@code ThreadLocal} con valor mide:
+ * <ul>
+ *     <li><b>Captura</b>: {@link ContextPropagation#capture()} en el hilo que envía la tarea.</li>
+ *     <li><b>Restaurar y limpiar</b>: ejecutar una tarea envuelta en un hilo sin contexto, como los de un
+ *     pool.</li>
+ *     <li><b>Extremo a extremo</b>: {@code tasks} tareas vacías por un executor de un hilo, sin envolver y envueltas
+ *     con {@link ContextPropagation#wrap(ExecutorService)}.</li>
+ * </ul>
+ * Los dos primeros informan también los bytes asignados por operación. Parámetros opcionales ({@code clave=valor}):
+ * {@code tasks} (por defecto 1000000) y {@code operations} (por defecto 20000000).
+ */
+@Slf4j
+public class ContextPropagationBenchmark {
+
+    private static final int MAX_LOCALS = 4;
+
+    private static final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    // Evita que el JIT elimine las capturas
+    private static volatile Object sink;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int tasks = Integer.parseInt(options.getOrDefault("tasks", "1000000"));
+        int operations = Integer.parseInt(options.getOrDefault("operations", "20000000"));
+
+        List<ThreadLocal<String>> locals = new ArrayList<>();
+        for (int i = 0; i < MAX_LOCALS; i++) {
+            ThreadLocal<String> local = new ThreadLocal<>();
+            ContextPropagation.register(local);
+            locals.add(local);
+        }
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            ExecutorService propagating = ContextPropagation.wrap(executor);
+            for (int withValue : new int[]{0, 1, MAX_LOCALS}) {
+                for (int i = 0; i < MAX_LOCALS; i++) {
+                    if (i < withValue) {
+                        locals.get(i).set("valor-" + i);
+                    } else {
+                        locals.get(i).remove();
+                    }
+                }
+                String name = withValue + " ThreadLocal con valor";
+
+                capture(operations);
+                double[] capture = capture(operations);
+                ContextSnapshot snapshot = ContextPropagation.capture();
+                restore(snapshot, operations);
+                double[] restore = restore(snapshot, operations);
+                log.info("{}: captura {} ns ({} bytes), restaurar y limpiar {} ns ({} bytes)", name,
+                        String.format("%5.1f", capture[0]), String.format("%.0f", capture[1]),
+                        String.format("%5.1f", restore[0]), String.format("%.0f", restore[1]));
+
+                endToEnd(executor, tasks);
+                endToEnd(propagating, tasks);
+                double raw = endToEnd(executor, tasks);
+                double wrapped = endToEnd(propagating, tasks);
+                log.info("{}: executor {} ns/tarea, con propagación {} ns/tarea ({} ns)", name,
+                        String.format("%6.1f", raw), String.format("%6.1f", wrapped),
+                        String.format("%+.1f", wrapped - raw));
+            }
+        } finally {
+            for (ThreadLocal<String> local : locals) {
+                local.remove();
+                ContextPropagation.unregister(local);
+            }
+        }
+    }
+
+    /**
+     * @return nanosegundos y bytes asignados por captura
+     */
+    private static double[] capture(int operations) {
+        long bytesBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            sink = ContextPropagation.capture();
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = threadMXBean.getCurrentThreadAllocatedBytes() - bytesBefore;
+        return new double[]{elapsed / (double) operations, bytes / (double) operations};
+    }
+
+    /**
+     * Ejecuta la tarea envuelta en un hilo nuevo, que no tiene contexto propio.
+     *
+     * @return nanosegundos y bytes asignados por ejecución
+     */
+    private static double[] restore(ContextSnapshot snapshot, int operations) throws InterruptedException {
+        AtomicLong counter = new AtomicLong();
+        Runnable increment = counter::incrementAndGet;
+        Runnable task = snapshot.wrap(increment);
+        double[] result = new double[2];
+        Thread worker = Thread.ofPlatform().start(() -> {
+            long bytesBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < operations; i++) {
+                task.run();
+            }
+            long elapsed = System.nanoTime() - start;
+            long bytes = threadMXBean.getCurrentThreadAllocatedBytes() - bytesBefore;
+            result[0] = elapsed / (double) operations;
+            result[1] = bytes / (double) operations;
+        });
+        worker.join();
+        return result;
+    }
+
+    /**
+     * @return nanosegundos por tarea, desde el primer envío hasta que termina la última
+     */
+    private static double endToEnd(ExecutorService executor, int tasks) throws ExecutionException,
+            InterruptedException {
+        AtomicLong counter = new AtomicLong();
+        Runnable task = counter::incrementAndGet;
+        long start = System.nanoTime();
+        for (int i = 0; i < tasks - 1; i++) {
+            executor.execute(task);
+        }
+        // El executor tiene un solo hilo: cuando termina la última tarea ya terminaron todas
+        executor.submit(task).get();
+        return (System.nanoTime() - start) / (double) tasks;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] parts = arg.split("=", 2);
+            if (parts.length == 2) {
+                options.put(parts[0].trim(), parts[1].trim());
+            }
+        }
+        return options;
+    }
+}
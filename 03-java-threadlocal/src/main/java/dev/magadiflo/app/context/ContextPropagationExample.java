@@ -0,0 +1,88 @@
+package dev.magadiflo.app.context;
+
+import dev.magadiflo.app.UserContext;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * El usuario de {@link UserContext} en las etapas de un pedido como el de {@code OrderProcessor}: sin propagación se
+ * pierde al saltar al pool, con {@link ContextPropagation#wrap(ExecutorService)} llega a todas las etapas, y los
+ * hilos del pool quedan limpios después, también cuando una tarea enviada sin contexto escribe su propio usuario.
+ */
+@Slf4j
+public class ContextPropagationExample {
+
+    public static void main(String[] args) throws InterruptedException {
+        UserContext.setUser("ana");
+        try (ExecutorService pool = Executors.newFixedThreadPool(2);
+             ScheduledExecutorService scheduler = ContextPropagation.wrap(
+                     Executors.newSingleThreadScheduledExecutor())) {
+
+            String withoutPropagation = CompletableFuture.supplyAsync(UserContext::getUser, pool).join();
+            log.info("Pool sin propagación: {}", withoutPropagation);
+
+            ExecutorService propagating = ContextPropagation.wrap(pool);
+            String result = CompletableFuture
+                    .supplyAsync(() -> step("Validar pedido"), propagating)
+                    .thenCompose(previous -> CompletableFuture.supplyAsync(() -> step("Verificar stock"), propagating))
+                    .thenCompose(previous -> CompletableFuture.supplyAsync(() -> step("Procesar pago"), propagating))
+                    .join();
+            log.info("Pool con propagación, resultado: {}", result);
+
+            String chained = ContextAwareFuture.supplyAsync(() -> step("Validar pedido"), pool)
+                    .thenApplyAsync(previous -> step("Verificar stock"))
+                    .thenApplyAsync(previous -> step("Procesar pago"))
+                    .join();
+            log.info("ContextAwareFuture (thenApplyAsync sin executor), resultado: {}", chained);
+
+            CountDownLatch runs = new CountDownLatch(3);
+            scheduler.scheduleAtFixedRate(() -> {
+                if (runs.getCount() > 0) {
+                    log.info("Tarea periódica #{} como {}", 4 - runs.getCount(), UserContext.getUser());
+                    runs.countDown();
+                }
+            }, 0, 100, TimeUnit.MILLISECONDS);
+            runs.await();
+
+            // Una tarea sin envolver en los mismos hilos del pool: no debe quedar rastro del usuario
+            for (int i = 0; i < 2; i++) {
+                log.info("Hilo del pool después: {}", pool.submit(UserContext::getUser).get());
+            }
+        } catch (Exception e) {
+            log.error("Error en el ejemplo", e);
+        } finally {
+            log.info("Hilo main al terminar: {}", UserContext.getUser());
+            UserContext.clear();
+        }
+        checkTaskWithoutContext();
+    }
+
+    /**
+     * Una tarea enviada sin contexto que deja un usuario en el hilo, y después otra en el mismo hilo: la segunda no
+     * debe verlo.
+     */
+    private static void checkTaskWithoutContext() throws InterruptedException {
+        try (ExecutorService propagating = ContextPropagation.wrap(Executors.newSingleThreadExecutor())) {
+            propagating.submit(() -> UserContext.setUser("mallory")).get();
+            String next = propagating.submit(UserContext::getUser).get();
+            log.info("Tarea sin contexto después de otra que dejó \"mallory\": {}", next);
+            if (next != null) {
+                throw new IllegalStateException("El hilo del pool arrastró el usuario " + next);
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static String step(String name) {
+        log.info("{} como {}", name, UserContext.getUser());
+        return name + " (" + UserContext.getUser() + ")";
+    }
+}
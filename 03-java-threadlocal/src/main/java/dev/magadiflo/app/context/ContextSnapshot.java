@@ -0,0 +1,128 @@
+package dev.magadiflo.app.context;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Valores de los {@code ThreadLocal} registrados en {@link ContextPropagation}, capturados en un hilo para
+ * restaurarlos en otro.
+ * <p>
+ * La captura es un único {@code Object[]} con un valor por {@code ThreadLocal}, en el mismo orden que el arreglo del
+ * registro en ese momento. Si ningún {@code ThreadLocal} tiene valor, la captura es la instantánea vacía del registro
+ * (ver {@link #empty}), que se comparte y no asigna nada; las tareas se envuelven igual.
+ * <p>
+ * Al ejecutar la tarea se guardan los valores que el hilo ya tenía, se ponen los capturados y, al terminar, se
+ * restauran los anteriores en <b>todos</b> los {@code ThreadLocal} registrados, también en los que escribió la propia
+ * tarea. En un hilo de un pool, que no tenía nada, eso significa que queda limpio para la siguiente tarea aunque la
+ * tarea se haya enviado sin contexto. Si la tarea se ejecuta en el mismo hilo que la envió (un
+ * {@code CallerRunsPolicy}, una etapa de {@code CompletableFuture} ya completada) su contexto no se pierde.
+ * <p>
+ * Para limpiar se usa {@code set(null)} y no {@code remove()}: {@code remove()} borra la entrada del
+ * {@code ThreadLocalMap} del hilo, y el siguiente {@code set()} crea otra (una {@code WeakReference}, que el GC trata
+ * aparte). Con {@code set(null)} cada hilo del pool conserva una entrada vacía por {@code ThreadLocal} registrado, y
+ * el valor, que es lo que importa liberar, no queda retenido.
+ */
+public final class ContextSnapshot {
+
+    static final ContextSnapshot EMPTY = empty(new ThreadLocal<?>[0]);
+
+    private final ThreadLocal<?>[] locals;
+    private final Object[] values;
+    private final boolean empty;
+
+    ContextSnapshot(ThreadLocal<?>[] locals, Object[] values) {
+        this(locals, values, false);
+    }
+
+    private ContextSnapshot(ThreadLocal<?>[] locals, Object[] values, boolean empty) {
+        this.locals = locals;
+        this.values = values;
+        this.empty = empty;
+    }
+
+    /**
+     * Instantánea sin valores para el registro {@code locals}. {@link ContextPropagation} guarda una por registro y la
+     * devuelve cuando ningún {@code ThreadLocal} tiene valor.
+     */
+    static ContextSnapshot empty(ThreadLocal<?>[] locals) {
+        return new ContextSnapshot(locals, new Object[locals.length], true);
+    }
+
+    ThreadLocal<?>[] locals() {
+        return this.locals;
+    }
+
+    public boolean isEmpty() {
+        return this.empty;
+    }
+
+    public Runnable wrap(Runnable task) {
+        // Sin ThreadLocal registrados no hay nada que poner ni que limpiar
+        if (this.locals.length == 0) {
+            return task;
+        }
+        return () -> {
+            Object[] previous = this.attach();
+            try {
+                task.run();
+            } finally {
+                this.detach(previous);
+            }
+        };
+    }
+
+    public <T> Callable<T> wrap(Callable<T> task) {
+        if (this.locals.length == 0) {
+            return task;
+        }
+        return () -> {
+            Object[] previous = this.attach();
+            try {
+                return task.call();
+            } finally {
+                this.detach(previous);
+            }
+        };
+    }
+
+    /**
+     * Pone los valores capturados en el hilo actual.
+     *
+     * @return los valores que tenía el hilo, o {@code null} si no tenía ninguno (lo normal en un hilo de un pool, que
+     * así no asigna un segundo arreglo)
+     */
+    @SuppressWarnings("unchecked")
+    private Object[] attach() {
+        Object[] previous = null;
+        for (int i = 0; i < this.locals.length; i++) {
+            ThreadLocal<Object> local = (ThreadLocal<Object>) this.locals[i];
+            Object current = local.get();
+            if (current != null) {
+                if (previous == null) {
+                    previous = new Object[this.locals.length];
+                }
+                previous[i] = current;
+            }
+            if (this.values[i] != null || current != null) {
+                local.set(this.values[i]);
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * Deja cada {@code ThreadLocal} registrado como estaba antes de {@link #attach()}. Se compara con el valor actual
+     * y no con el capturado: la tarea pudo escribir en un {@code ThreadLocal} que no venía en la captura.
+     */
+    @SuppressWarnings("unchecked")
+    private void detach(Object[] previous) {
+        for (int i = 0; i < this.locals.length; i++) {
+            ThreadLocal<Object> local = (ThreadLocal<Object>) this.locals[i];
+            Object value = previous == null ? null : previous[i];
+            // Solo se escribe lo que cambió: lo normal es un get() por ThreadLocal y ningún set()
+            if (local.get() != value) {
+                // ⚠️ El hilo del pool no debe arrastrar el contexto a la siguiente tarea
+                local.set(value);
+            }
+        }
+    }
+}
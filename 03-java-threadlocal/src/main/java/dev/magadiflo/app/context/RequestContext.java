@@ -0,0 +1,70 @@
+package dev.magadiflo.app.context;
+
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Contexto de la petición en curso (el usuario autenticado) con un tiempo de vida acotado: el valor existe solo
+ * mientras se ejecuta la acción de {@link #runAs} o {@link #getAs}, y después desaparece solo.
+ * <p>
+ * Con {@code UserContext} el valor vive hasta que alguien llame a {@code clear()}: si se olvida, el siguiente uso del
+ * hilo (en un pool) ve el usuario anterior y el valor nunca se libera. Aquí no hay {@code clear()} que olvidar.
+ * <p>
+ * Implementaciones:
+ * <ul>
+ *     <li>{@link #scopedValue()}: un {@code ScopedValue}, inmutable durante la acción y heredado sin copias por las
+ *     subtareas de un {@code StructuredTaskScope}. Es preview en Java 21 y necesita {@code --enable-preview}.</li>
+ *     <li>{@link #threadLocal()}: un {@code ThreadLocal} que se restaura al terminar la acción.</li>
+ *     <li>{@link #inheritableThreadLocal()}: un {@code InheritableThreadLocal}, que cada hilo hijo copia al
+ *     crearse.</li>
+ * </ul>
+ * {@link #preferred()} elige {@code ScopedValue} si la JVM lo permite y si no cae a {@code ThreadLocal}.
+ */
+public interface RequestContext {
+
+    /**
+     * Ejecuta {@code action} con {@code user} como usuario actual. Las llamadas se pueden anidar: al terminar la
+     * interna vuelve a verse el usuario de la externa.
+     */
+    void runAs(String user, Runnable action);
+
+    <T> T getAs(String user, Supplier<T> action);
+
+    /**
+     * Usuario de la acción en curso, o vacío fuera de {@link #runAs} / {@link #getAs}.
+     */
+    Optional<String> currentUser();
+
+    String name();
+
+    static RequestContext scopedValue() {
+        return new ScopedValueRequestContext();
+    }
+
+    static RequestContext threadLocal() {
+        return new ThreadLocalRequestContext(false);
+    }
+
+    static RequestContext inheritableThreadLocal() {
+        return new ThreadLocalRequestContext(true);
+    }
+
+    /**
+     * {@code ScopedValue} si la JVM se inició con {@code --enable-preview}; si no, {@code ThreadLocal}.
+     * <p>
+     * Las clases que usan APIs preview se compilan con una marca en su versión, y la JVM se niega a cargarlas sin
+     * {@code --enable-preview} (tampoco en otra versión de Java). Solo {@code ScopedValueRequestContext} lleva esa
+     * marca, así que basta con intentar cargarla.
+     */
+    static RequestContext preferred() {
+        try {
+            return scopedValue();
+        } catch (UnsupportedClassVersionError e) {
+            LoggerFactory.getLogger(RequestContext.class)
+                    .warn("ScopedValue no disponible ({}); se usa ThreadLocal", e.getMessage());
+            return threadLocal();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package dev.magadiflo.app.context;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Muestra el tiempo de vida acotado de {@link RequestContext} y qué ve un hilo hijo con cada implementación.
+ * <p>
+ * Esta clase no usa APIs preview, así que también arranca sin {@code --enable-preview}: en ese caso
+ * {@link RequestContext#preferred()} cae a {@code ThreadLocal} y se omite la comparación de
+ * {@link ChildThreadVisibility}, que necesita {@code StructuredTaskScope} y {@code ScopedValue}.
+ */
+@Slf4j
+public class RequestContextExample {
+
+    private static final String NO_USER = "(sin usuario)";
+
+    public static void main(String[] args) throws InterruptedException {
+        RequestContext context = RequestContext.preferred();
+        log.info("Implementación elegida: {}", context.name());
+
+        context.runAs("ana", () -> {
+            log.info("Dentro de runAs(ana): {}", user(context));
+            context.runAs("admin", () -> log.info("    Anidado runAs(admin): {}", user(context)));
+            log.info("De vuelta en runAs(ana): {}", user(context));
+        });
+        log.info("Fuera de runAs: {}", user(context));
+
+        try {
+            ChildThreadVisibility.logComparison();
+        } catch (UnsupportedClassVersionError e) {
+            log.warn("Sin --enable-preview no se puede comparar con ScopedValue y StructuredTaskScope ({})",
+                    e.getMessage());
+        }
+    }
+
+    static String user(RequestContext context) {
+        return context.currentUser().orElse(NO_USER);
+    }
+}
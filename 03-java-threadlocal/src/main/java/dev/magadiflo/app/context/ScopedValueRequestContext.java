@@ -0,0 +1,41 @@
+package dev.magadiflo.app.context;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * {@link RequestContext} con un {@link ScopedValue} (preview en Java 21).
+ * <p>
+ * {@code ScopedValue.where(USER, user).run(action)} enlaza el valor solo durante {@code action}: no hay
+ * {@code set()} ni {@code remove()}, y el enlace no se puede cambiar desde dentro (sí anidar otro que lo tape). El hilo
+ * no guarda un mapa propio como con {@code ThreadLocal}: guarda una referencia a un snapshot inmutable de los enlaces,
+ * y las subtareas de un {@code StructuredTaskScope} abierto dentro de la acción reciben esa misma referencia, sin
+ * copiar nada.
+ */
+public final class ScopedValueRequestContext implements RequestContext {
+
+    private static final ScopedValue<String> USER = ScopedValue.newInstance();
+
+    ScopedValueRequestContext() {
+    }
+
+    @Override
+    public void runAs(String user, Runnable action) {
+        ScopedValue.where(USER, user).run(action);
+    }
+
+    @Override
+    public <T> T getAs(String user, Supplier<T> action) {
+        return ScopedValue.where(USER, user).get(action);
+    }
+
+    @Override
+    public Optional<String> currentUser() {
+        return USER.isBound() ? Optional.of(USER.get()) : Optional.empty();
+    }
+
+    @Override
+    public String name() {
+        return "ScopedValue";
+    }
+}
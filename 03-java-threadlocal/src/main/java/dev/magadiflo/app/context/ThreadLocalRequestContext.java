@@ -0,0 +1,56 @@
+package dev.magadiflo.app.context;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * {@link RequestContext} con un {@link ThreadLocal}, para cuando no se puede usar {@code ScopedValue}.
+ * <p>
+ * Hace lo mismo que {@code UserContext}, pero la limpieza va en un {@code finally}: al terminar la acción se restaura
+ * el valor anterior, o se hace {@code remove()} si no había, así que un hilo de un pool nunca arrastra el usuario de la
+ * tarea anterior. Con {@code inheritable}, los hilos creados durante la acción copian el valor del padre al crearse
+ * ({@link InheritableThreadLocal}); la copia es de cada hijo y no cambia si el padre cambia de usuario después.
+ */
+public final class ThreadLocalRequestContext implements RequestContext {
+
+    private final ThreadLocal<String> user;
+    private final boolean inheritable;
+
+    ThreadLocalRequestContext(boolean inheritable) {
+        this.user = inheritable ? new InheritableThreadLocal<>() : new ThreadLocal<>();
+        this.inheritable = inheritable;
+    }
+
+    @Override
+    public void runAs(String user, Runnable action) {
+        this.getAs(user, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    @Override
+    public <T> T getAs(String user, Supplier<T> action) {
+        String previous = this.user.get();
+        this.user.set(user);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                this.user.remove(); // ⚠️ Sin esto el valor quedaría en el hilo, como con UserContext sin clear()
+            } else {
+                this.user.set(previous);
+            }
+        }
+    }
+
+    @Override
+    public Optional<String> currentUser() {
+        return Optional.ofNullable(this.user.get());
+    }
+
+    @Override
+    public String name() {
+        return this.inheritable ? "InheritableThreadLocal" : "ThreadLocal";
+    }
+}
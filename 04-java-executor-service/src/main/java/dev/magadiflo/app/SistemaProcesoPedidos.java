@@ -54,7 +54,7 @@ public class SistemaProcesoPedidos {
     private static void shutdownExecutor(ExecutorService executor, String name) {
         executor.shutdown();
         try {
-            if (executor.awaitTermination(60, TimeUnit.SECONDS)) {
+            if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
                 log.info("Timeout en executor {}", name);
                 executor.shutdownNow();
             }
@@ -0,0 +1,238 @@
+package dev.magadiflo.app.batching;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Executor para tareas diminutas que agrupa los envíos en lotes.
+ * <p>
+ * Cada hilo productor acumula sus tareas en un buffer propio. Cuando el buffer llega a {@code maxBatchSize}, o cuando
+ * su primera tarea lleva esperando {@code maxLinger}, el buffer completo se entrega a un worker que lo ejecuta en un
+ * bucle. Así el costo de la entrega (cola, lock, despertar un hilo) se paga una vez por lote y no una vez por tarea.
+ * <p>
+ * Los lotes se entregan a la cola con el lock del buffer tomado, y {@link #close()} cierra cada buffer con ese mismo
+ * lock antes de encolar la marca de fin. Así una tarea se acepta en un buffer que luego se vacía, o se rechaza: nunca
+ * queda en un buffer que nadie vacía ni en un lote detrás de la marca de fin.
+ */
+@Slf4j
+public class BatchingExecutor implements Executor, AutoCloseable {
+
+    private record Batch(Runnable[] tasks, int size) {
+    }
+
+    private static final Batch POISON = new Batch(new Runnable[0], 0);
+
+    private final int maxBatchSize;
+    private final long maxLingerNanos;
+    private final BlockingQueue<Batch> batches = new LinkedBlockingQueue<>();
+    private final Queue<Buffer> buffers = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Buffer> localBuffer = ThreadLocal.withInitial(this::newBuffer);
+    private final Thread[] workers;
+    private final Thread flusher;
+    private volatile boolean shutdown = false;
+
+    public BatchingExecutor(int workerCount, int maxBatchSize, Duration maxLinger, String name) {
+        if (workerCount <= 0 || maxBatchSize <= 0) {
+            throw new IllegalArgumentException("El número de workers y el tamaño de lote deben ser mayores a 0");
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.maxLingerNanos = maxLinger.toNanos();
+        this.workers = new Thread[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            this.workers[i] = Thread.ofPlatform().name(name + "-" + i).start(this::work);
+        }
+        this.flusher = Thread.ofPlatform().name(name + "-flusher").daemon().start(this::flushLingering);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (this.shutdown) {
+            throw new RejectedExecutionException("El executor está cerrado");
+        }
+        if (!this.localBuffer.get().add(task)) {
+            throw new RejectedExecutionException("El executor está cerrado");
+        }
+    }
+
+    /**
+     * Entrega inmediatamente las tareas acumuladas por el hilo actual, sin esperar a completar el lote.
+     */
+    public void flush() {
+        this.localBuffer.get().drainOlderThan(System.nanoTime(), 0);
+    }
+
+    /**
+     * Entrega los buffers de todos los productores y espera a que los workers ejecuten todo lo pendiente. Si el hilo se
+     * interrumpe mientras espera, sigue esperando y restaura el flag al salir, como {@code ExecutorService.close()}.
+     */
+    @Override
+    public void close() {
+        this.shutdown = true;
+        this.flusher.interrupt();
+        boolean interrupted = joinUninterruptibly(this.flusher);
+        // Con el lock de cada buffer: cualquier lote que un productor entregue antes queda delante de la marca de fin
+        for (Buffer buffer : this.buffers) {
+            buffer.close();
+        }
+        for (int i = 0; i < this.workers.length; i++) {
+            this.batches.add(POISON);
+        }
+        for (Thread worker : this.workers) {
+            interrupted |= joinUninterruptibly(worker);
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return si el hilo actual fue interrumpido mientras esperaba
+     */
+    private static boolean joinUninterruptibly(Thread thread) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                return interrupted;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+    }
+
+    private Buffer newBuffer() {
+        Buffer buffer = new Buffer(Thread.currentThread());
+        this.buffers.add(buffer);
+        // Si close() ya recorrió los buffers puede no haber visto este: se cierra aquí
+        if (this.shutdown) {
+            buffer.close();
+        }
+        return buffer;
+    }
+
+    private void work() {
+        try {
+            while (true) {
+                Batch batch = this.batches.take();
+                if (batch == POISON) {
+                    return;
+                }
+                Runnable[] tasks = batch.tasks();
+                for (int i = 0; i < batch.size(); i++) {
+                    try {
+                        tasks[i].run();
+                    } catch (RuntimeException e) {
+                        log.error("Error ejecutando tarea del lote: {}", e.getMessage());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flushLingering() {
+        long tick = Math.max(this.maxLingerNanos / 2, 50_000);
+        while (!Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(tick);
+            this.flushAll(this.maxLingerNanos);
+        }
+    }
+
+    private void flushAll(long minAgeNanos) {
+        long now = System.nanoTime();
+        for (Buffer buffer : this.buffers) {
+            buffer.drainOlderThan(now, minAgeNanos);
+            // Los buffers de hilos que ya terminaron se descartan una vez vacíos
+            if (!buffer.owner.isAlive() && buffer.isEmpty()) {
+                this.buffers.remove(buffer);
+            }
+        }
+    }
+
+    /**
+     * Buffer de un productor. El lock casi nunca está disputado: solo lo comparten su dueño, el hilo flusher y
+     * {@code close()}.
+     */
+    private final class Buffer {
+        private final Thread owner;
+        private final ReentrantLock lock = new ReentrantLock();
+        private Runnable[] tasks = new Runnable[maxBatchSize];
+        private int size = 0;
+        private long firstTaskAt;
+        private boolean closed = false;
+
+        private Buffer(Thread owner) {
+            this.owner = owner;
+        }
+
+        /**
+         * @return {@code false} si el buffer ya se cerró y la tarea no se aceptó
+         */
+        private boolean add(Runnable task) {
+            this.lock.lock();
+            try {
+                if (this.closed) {
+                    return false;
+                }
+                if (this.size == 0) {
+                    this.firstTaskAt = System.nanoTime();
+                }
+                this.tasks[this.size++] = task;
+                if (this.size == maxBatchSize) {
+                    this.handOff();
+                }
+                return true;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private void drainOlderThan(long now, long minAgeNanos) {
+            this.lock.lock();
+            try {
+                if (this.size > 0 && now - this.firstTaskAt >= minAgeNanos) {
+                    this.handOff();
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private void close() {
+            this.lock.lock();
+            try {
+                if (this.size > 0) {
+                    this.handOff();
+                }
+                this.closed = true;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private boolean isEmpty() {
+            this.lock.lock();
+            try {
+                return this.size == 0;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private void handOff() {
+            batches.add(new Batch(this.tasks, this.size));
+            this.tasks = new Runnable[maxBatchSize];
+            this.size = 0;
+        }
+    }
+}
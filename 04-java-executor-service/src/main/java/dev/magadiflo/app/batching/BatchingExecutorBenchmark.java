@@ -0,0 +1,76 @@
+package dev.magadiflo.app.batching;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Envía millones de tareas diminutas (sumar un número) y compara tareas por segundo y tiempo de CPU por tarea entre
+ * {@code newCachedThreadPool}, {@code newFixedThreadPool} y {@link BatchingExecutor}.
+ */
+@Slf4j
+public class BatchingExecutorBenchmark {
+
+    private static final int TASKS = 5_000_000;
+    private static final int THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final int ROUNDS = 4;
+
+    private static final com.sun.management.OperatingSystemMXBean osMXBean =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+    public static void main(String[] args) throws InterruptedException {
+        for (int round = 1; round <= ROUNDS; round++) {
+            log.info("Ronda {} (la primera sirve de calentamiento)", round);
+            runExecutorService("newCachedThreadPool", Executors.newCachedThreadPool());
+            runExecutorService("newFixedThreadPool", Executors.newFixedThreadPool(THREADS));
+            runBatching(64);
+            runBatching(1024);
+        }
+    }
+
+    private static void runExecutorService(String name, ExecutorService executor) throws InterruptedException {
+        LongAdder done = new LongAdder();
+        long cpuStart = osMXBean.getProcessCpuTime();
+        long start = System.nanoTime();
+        for (int i = 0; i < TASKS; i++) {
+            executor.execute(done::increment);
+        }
+        awaitCompletion(done);
+        report(name, System.nanoTime() - start, osMXBean.getProcessCpuTime() - cpuStart);
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    private static void runBatching(int maxBatchSize) throws InterruptedException {
+        LongAdder done = new LongAdder();
+        BatchingExecutor executor = new BatchingExecutor(THREADS, maxBatchSize, Duration.ofMillis(1), "batching");
+        long cpuStart = osMXBean.getProcessCpuTime();
+        long start = System.nanoTime();
+        for (int i = 0; i < TASKS; i++) {
+            executor.execute(done::increment);
+        }
+        executor.flush();
+        awaitCompletion(done);
+        report("BatchingExecutor(" + maxBatchSize + ")", System.nanoTime() - start, osMXBean.getProcessCpuTime() - cpuStart);
+        executor.close();
+    }
+
+    private static void awaitCompletion(LongAdder done) {
+        while (done.sum() < TASKS) {
+            LockSupport.parkNanos(100_000);
+        }
+    }
+
+    private static void report(String name, long elapsedNanos, long cpuNanos) {
+        log.info("{}: {} tareas/s, {} ns de CPU por tarea",
+                String.format("%-22s", name),
+                String.format("%,.0f", TASKS / (elapsedNanos / 1_000_000_000.0)),
+                String.format("%.1f", (double) cpuNanos / TASKS));
+    }
+}
@@ -0,0 +1,116 @@
+package dev.magadiflo.app.keyed;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Executor que serializa las tareas por clave sin usar locks.
+ * <p>
+ * Cada clave se asigna siempre al mismo carril (un hilo con su propia cola FIFO), de modo que las tareas de una
+ * misma clave se ejecutan en el orden en que se enviaron, mientras que claves distintas se reparten entre los
+ * demás carriles y avanzan en paralelo.
+ */
+@Slf4j
+public class KeyedExecutor<K> implements AutoCloseable {
+
+    public record LaneStats(int lane, long submitted, long completed, int queued, int maxQueued) {
+    }
+
+    private final ThreadPoolExecutor[] lanes;
+    private final AtomicLongArray submitted;
+    private final AtomicLongArray completed;
+    private final AtomicIntegerArray maxQueued;
+
+    public KeyedExecutor(int laneCount, String name) {
+        if (laneCount <= 0) {
+            throw new IllegalArgumentException("El número de carriles debe ser mayor a 0");
+        }
+        this.lanes = new ThreadPoolExecutor[laneCount];
+        this.submitted = new AtomicLongArray(laneCount);
+        this.completed = new AtomicLongArray(laneCount);
+        this.maxQueued = new AtomicIntegerArray(laneCount);
+
+        for (int i = 0; i < laneCount; i++) {
+            String threadName = name + "-lane-" + i;
+            this.lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    runnable -> new Thread(runnable, threadName));
+        }
+    }
+
+    public void execute(K key, Runnable task) {
+        int lane = this.laneOf(key);
+        ThreadPoolExecutor executor = this.lanes[lane];
+        this.submitted.incrementAndGet(lane);
+        executor.execute(() -> {
+            try {
+                task.run();
+            } finally {
+                this.completed.incrementAndGet(lane);
+            }
+        });
+        this.maxQueued.accumulateAndGet(lane, executor.getQueue().size(), Math::max);
+    }
+
+    public int laneOf(K key) {
+        // Mezclamos los bits altos para que hashCodes secuenciales no terminen en los mismos carriles
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return Math.floorMod(h, this.lanes.length);
+    }
+
+    public List<LaneStats> stats() {
+        List<LaneStats> stats = new ArrayList<>(this.lanes.length);
+        for (int i = 0; i < this.lanes.length; i++) {
+            stats.add(new LaneStats(i, this.submitted.get(i), this.completed.get(i),
+                    this.lanes[i].getQueue().size(), this.maxQueued.get(i)));
+        }
+        return stats;
+    }
+
+    /**
+     * Carriles ordenados de mayor a menor carga. Un carril con mucho más trabajo que la media indica una clave
+     * "caliente" o un mal reparto de claves.
+     */
+    public List<LaneStats> hotSpots(int limit) {
+        return this.stats().stream()
+                .sorted(Comparator.comparingLong(LaneStats::submitted).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void logHotSpots(int limit) {
+        long total = this.stats().stream().mapToLong(LaneStats::submitted).sum();
+        double mean = (double) total / this.lanes.length;
+        this.hotSpots(limit).forEach(s -> log.info("Carril {}: {} tareas ({}x la media), cola máxima {}",
+                s.lane(), s.submitted(), String.format("%.2f", mean == 0 ? 0 : s.submitted() / mean), s.maxQueued()));
+    }
+
+    @Override
+    public void close() {
+        for (ThreadPoolExecutor lane : this.lanes) {
+            lane.shutdown();
+        }
+        boolean interrupted = false;
+        for (ThreadPoolExecutor lane : this.lanes) {
+            while (!lane.isTerminated()) {
+                try {
+                    lane.awaitTermination(1, TimeUnit.DAYS);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    lane.shutdownNow();
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package dev.magadiflo.app.keyed;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Compara el {@link KeyedExecutor} contra el enfoque habitual: un {@code newFixedThreadPool} compartido donde cada
+ * tarea toma un {@link ReentrantLock} por clave antes de modificar el estado del cliente.
+ * <p>
+ * Además del throughput se cuentan las violaciones de orden: con un lock por clave la exclusión mutua está
+ * garantizada, pero dos tareas del mismo cliente pueden ejecutarse en distinto orden al de envío.
+ */
+@Slf4j
+public class KeyedExecutorBenchmark {
+
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int CUSTOMERS = 1_000;
+    private static final int TASKS = 1_000_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws InterruptedException {
+        for (int round = 1; round <= ROUNDS; round++) {
+            log.info("Ronda {} (la primera sirve de calentamiento)", round);
+            runKeyedExecutor(false);
+            runLockPerKey(false);
+        }
+
+        log.info("Escenario con cliente caliente (20% de los pedidos al cliente 0)");
+        runKeyedExecutor(true);
+        runLockPerKey(true);
+    }
+
+    private static void runKeyedExecutor(boolean hotKey) throws InterruptedException {
+        long[] lastSequence = new long[CUSTOMERS];
+        LongAdder violations = new LongAdder();
+        CountDownLatch done = new CountDownLatch(TASKS);
+
+        KeyedExecutor<Integer> executor = new KeyedExecutor<>(THREADS, "keyed");
+        long start = System.nanoTime();
+        for (int seq = 1; seq <= TASKS; seq++) {
+            int customer = nextCustomer(hotKey);
+            long sequence = seq;
+            executor.execute(customer, () -> {
+                // Solo el hilo del carril toca el estado de este cliente: no hace falta lock
+                applyOrder(lastSequence, customer, sequence, violations);
+                done.countDown();
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        report("KeyedExecutor", elapsed, violations.sum());
+        if (hotKey) {
+            executor.logHotSpots(3);
+        }
+        executor.close();
+    }
+
+    private static void runLockPerKey(boolean hotKey) throws InterruptedException {
+        long[] lastSequence = new long[CUSTOMERS];
+        LongAdder violations = new LongAdder();
+        CountDownLatch done = new CountDownLatch(TASKS);
+        Map<Integer, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        for (int seq = 1; seq <= TASKS; seq++) {
+            int customer = nextCustomer(hotKey);
+            long sequence = seq;
+            executor.execute(() -> {
+                ReentrantLock lock = locks.computeIfAbsent(customer, key -> new ReentrantLock());
+                lock.lock();
+                try {
+                    applyOrder(lastSequence, customer, sequence, violations);
+                } finally {
+                    lock.unlock();
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        report("Lock por clave", elapsed, violations.sum());
+        executor.shutdown();
+    }
+
+    private static int nextCustomer(boolean hotKey) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (hotKey && random.nextInt(5) == 0) {
+            return 0;
+        }
+        return random.nextInt(CUSTOMERS);
+    }
+
+    private static void applyOrder(long[] lastSequence, int customer, long sequence, LongAdder violations) {
+        if (sequence < lastSequence[customer]) {
+            violations.increment();
+        }
+        lastSequence[customer] = sequence;
+
+        // Pequeño trabajo de CPU para simular la actualización del pedido
+        long acc = sequence;
+        for (int i = 0; i < 200; i++) {
+            acc = acc * 31 + i;
+        }
+        if (acc == 42) {
+            log.info("Valor improbable");
+        }
+    }
+
+    private static void report(String name, long elapsedNanos, long violations) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        log.info("{}: {} tareas/s, violaciones de orden por cliente: {}",
+                String.format("%-15s", name), String.format("%,.0f", TASKS / seconds), violations);
+    }
+}
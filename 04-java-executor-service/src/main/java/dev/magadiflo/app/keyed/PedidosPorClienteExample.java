@@ -0,0 +1,36 @@
+package dev.magadiflo.app.keyed;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+@Slf4j
+public class PedidosPorClienteExample {
+
+    record Order(int orderId, String customerId) {
+    }
+
+    public static void main(String[] args) {
+        List<Order> orders = List.of(
+                new Order(101, "cliente-A"), new Order(102, "cliente-B"), new Order(103, "cliente-A"),
+                new Order(104, "cliente-C"), new Order(105, "cliente-B"), new Order(106, "cliente-A"));
+
+        try (KeyedExecutor<String> executor = new KeyedExecutor<>(3, "pedidos")) {
+            // Los pedidos de un mismo cliente siempre caen en el mismo carril y respetan el orden de envío
+            orders.forEach(order -> executor.execute(order.customerId(), () -> {
+                log.info("Aplicando pedido #{} del {}", order.orderId(), order.customerId());
+                simulateWork();
+            }));
+
+            executor.logHotSpots(3);
+        }
+    }
+
+    private static void simulateWork() {
+        try {
+            Thread.sleep(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
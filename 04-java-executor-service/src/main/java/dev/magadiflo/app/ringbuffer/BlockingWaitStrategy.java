@@ -0,0 +1,38 @@
+package dev.magadiflo.app.ringbuffer;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+final class BlockingWaitStrategy implements WaitStrategy {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = this.lock.newCondition();
+
+    @Override
+    public long waitFor(long sequence, Sequence cursor, BooleanSupplier halted) throws InterruptedException {
+        long available = cursor.get();
+        if (available >= sequence) {
+            return available;
+        }
+        this.lock.lock();
+        try {
+            while ((available = cursor.get()) < sequence && !halted.getAsBoolean()) {
+                this.published.await();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        return available;
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+        this.lock.lock();
+        try {
+            this.published.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package dev.magadiflo.app.ringbuffer;
+
+import java.util.function.BooleanSupplier;
+
+final class BusySpinWaitStrategy implements WaitStrategy {
+
+    @Override
+    public long waitFor(long sequence, Sequence cursor, BooleanSupplier halted) {
+        long available;
+        while ((available = cursor.get()) < sequence) {
+            if (halted.getAsBoolean()) {
+                return available;
+            }
+            Thread.onSpinWait();
+        }
+        return available;
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+    }
+}
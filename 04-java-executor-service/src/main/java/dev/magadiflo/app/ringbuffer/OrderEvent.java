@@ -0,0 +1,17 @@
+package dev.magadiflo.app.ringbuffer;
+
+/**
+ * Slot mutable del anillo. Se crea una vez al construir el dispatcher y se reescribe en cada publicación.
+ */
+public class OrderEvent {
+
+    private long orderId;
+
+    public long getOrderId() {
+        return this.orderId;
+    }
+
+    public void setOrderId(long orderId) {
+        this.orderId = orderId;
+    }
+}
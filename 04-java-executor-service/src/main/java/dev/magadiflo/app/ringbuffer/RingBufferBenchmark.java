@@ -0,0 +1,130 @@
+package dev.magadiflo.app.ringbuffer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Compara el {@link RingBufferDispatcher} con un {@link ThreadPoolExecutor} de tamaño fijo (el mismo que crea
+ * {@code Executors.newFixedThreadPool}) enviando pedidos desde varios productores.
+ * <p>
+ * Además del throughput mide los bytes asignados por evento en los hilos productores, usando
+ * {@code com.sun.management.ThreadMXBean}. Con el pool cada envío crea la lambda y un nodo de
+ * {@code LinkedBlockingQueue} ({@code submit()} añadiría además un {@code FutureTask}); con el anillo debe ser ~0.
+ * <p>
+ * Antes de medir comprueba que {@code close()} termina y procesa todo cuando hay menos eventos que workers (algunas
+ * particiones no reciben ninguno).
+ */
+@Slf4j
+public class RingBufferBenchmark {
+
+    private static final int PRODUCERS = 2;
+    private static final int WORKERS = 2;
+    private static final int EVENTS_PER_PRODUCER = 2_000_000;
+    private static final int ROUNDS = 5;
+
+    // Traductor sin estado: no captura nada, así que no se crea un objeto por publicación
+    private static final ObjLongConsumer<OrderEvent> TRANSLATOR = OrderEvent::setOrderId;
+
+    private static final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws InterruptedException {
+        checkFewerEventsThanWorkers();
+        for (int round = 1; round <= ROUNDS; round++) {
+            log.info("Ronda {} (la primera sirve de calentamiento)", round);
+            runThreadPool();
+            runRingBuffer("RingBuffer (yielding)", WaitStrategy.yielding());
+            runRingBuffer("RingBuffer (blocking)", WaitStrategy.blocking());
+        }
+    }
+
+    private static void runThreadPool() throws InterruptedException {
+        LongAdder sum = new LongAdder();
+        LongAdder allocated = new LongAdder();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(WORKERS, WORKERS, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>());
+        executor.prestartAllCoreThreads();
+
+        long begin = runProducers(allocated, orderId -> executor.execute(() -> sum.add(orderId)));
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        report("ThreadPoolExecutor", System.nanoTime() - begin, allocated.sum(), sum.sum());
+    }
+
+    private static void runRingBuffer(String name, WaitStrategy waitStrategy) throws InterruptedException {
+        LongAdder sum = new LongAdder();
+        LongAdder allocated = new LongAdder();
+        RingBufferDispatcher<OrderEvent> dispatcher = new RingBufferDispatcher<>(1 << 14, OrderEvent::new, WORKERS,
+                (event, sequence, endOfBatch) -> sum.add(event.getOrderId()), waitStrategy, "ring");
+
+        long begin = runProducers(allocated, orderId -> dispatcher.publish(TRANSLATOR, orderId));
+        dispatcher.close();
+        report(name, System.nanoTime() - begin, allocated.sum(), sum.sum());
+    }
+
+    private static void checkFewerEventsThanWorkers() throws InterruptedException {
+        int workers = 4;
+        for (int events = 0; events < workers; events++) {
+            LongAdder processed = new LongAdder();
+            RingBufferDispatcher<OrderEvent> dispatcher = new RingBufferDispatcher<>(16, OrderEvent::new, workers,
+                    (event, sequence, endOfBatch) -> processed.increment(), WaitStrategy.blocking(), "check");
+            for (long orderId = 1; orderId <= events; orderId++) {
+                dispatcher.publish(TRANSLATOR, orderId);
+            }
+            Thread closer = Thread.ofPlatform().name("check-close").start(dispatcher::close);
+            closer.join(TimeUnit.SECONDS.toMillis(5));
+            if (closer.isAlive() || processed.sum() != events) {
+                throw new IllegalStateException(String.format("close() con %d eventos y %d workers: %s, %d procesados",
+                        events, workers, closer.isAlive() ? "no terminó" : "terminó", processed.sum()));
+            }
+        }
+        log.info("close() con menos eventos que workers: OK");
+    }
+
+    /**
+     * Lanza los productores, espera a que terminen de publicar y devuelve el instante de inicio.
+     */
+    private static long runProducers(LongAdder allocated, LongConsumer publisher) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(PRODUCERS);
+        for (int p = 0; p < PRODUCERS; p++) {
+            Thread.ofPlatform().name("producer-" + p).start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long threadId = Thread.currentThread().threadId();
+                long before = threadMXBean.getThreadAllocatedBytes(threadId);
+                for (long orderId = 1; orderId <= EVENTS_PER_PRODUCER; orderId++) {
+                    publisher.accept(orderId);
+                }
+                allocated.add(threadMXBean.getThreadAllocatedBytes(threadId) - before);
+                done.countDown();
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return begin;
+    }
+
+    private static void report(String name, long elapsedNanos, long allocatedBytes, long checksum) {
+        long events = (long) PRODUCERS * EVENTS_PER_PRODUCER;
+        long expected = PRODUCERS * ((long) EVENTS_PER_PRODUCER * (EVENTS_PER_PRODUCER + 1) / 2);
+        log.info("{}: {} eventos/s, {} bytes asignados por evento en productores{}",
+                String.format("%-22s", name),
+                String.format("%,.0f", events / (elapsedNanos / 1_000_000_000.0)),
+                String.format("%.2f", (double) allocatedBytes / events),
+                checksum == expected ? "" : " ⚠️ checksum incorrecto");
+    }
+}
@@ -0,0 +1,258 @@
+package dev.magadiflo.app.ringbuffer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Dispatcher de eventos al estilo Disruptor.
+ * <p>
+ * Los eventos viven en un anillo de tamaño potencia de dos que se crea una sola vez: publicar no crea un
+ * {@code FutureTask} ni un nodo de cola, solo se reescriben los campos del slot. Varios productores reclaman
+ * secuencias con un incremento atómico y las marcan como publicadas en un arreglo de disponibilidad. Cada
+ * consumidor procesa las secuencias de su partición ({@code secuencia % workers}) en lotes, tantas como ya estén
+ * publicadas, y solo actualiza su progreso al final del lote.
+ * <p>
+ * {@link #close()} deja de aceptar eventos antes de leer el cursor: un productor que reclama una secuencia cuando el
+ * cierre ya empezó la publica como cancelada (los workers la saltan) y recibe una {@link IllegalStateException}, de
+ * modo que ningún evento aceptado queda sin procesar.
+ */
+@Slf4j
+public class RingBufferDispatcher<E> implements AutoCloseable {
+
+    /**
+     * Manejador de eventos. {@code endOfBatch} indica el último evento disponible del lote actual, útil para hacer
+     * flush de escrituras agrupadas.
+     */
+    @FunctionalInterface
+    public interface EventHandler<E> {
+        void onEvent(E event, long sequence, boolean endOfBatch);
+    }
+
+    private static final VarHandle AVAILABLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final Object[] entries;
+    private final int mask;
+    private final int indexShift;
+    private final int[] availableBuffer;
+    // Se escribe antes de marcar el slot como publicado, así que el worker lo lee después de isAvailable()
+    private final boolean[] cancelled;
+    private final Sequence cursor = new Sequence(-1);
+    private final Sequence gatingCache = new Sequence(-1);
+    private final WaitStrategy waitStrategy;
+    private final Sequence[] workerSequences;
+    private final Thread[] workerThreads;
+    private volatile boolean closing = false;
+    private volatile boolean halted = false;
+
+    public RingBufferDispatcher(int bufferSize, Supplier<E> eventFactory, int workerCount,
+                                EventHandler<E> handler, WaitStrategy waitStrategy, String name) {
+        if (Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("El tamaño del anillo debe ser potencia de dos: " + bufferSize);
+        }
+        if (workerCount <= 0 || workerCount > bufferSize) {
+            throw new IllegalArgumentException("Número de workers inválido: " + workerCount);
+        }
+        this.entries = new Object[bufferSize];
+        for (int i = 0; i < bufferSize; i++) {
+            this.entries[i] = eventFactory.get();
+        }
+        this.mask = bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+        this.availableBuffer = new int[bufferSize];
+        Arrays.fill(this.availableBuffer, -1);
+        this.cancelled = new boolean[bufferSize];
+        this.waitStrategy = waitStrategy;
+
+        this.workerSequences = new Sequence[workerCount];
+        this.workerThreads = new Thread[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            // Un worker cuya partición aún no recibe eventos ya "procesó" todo lo anterior a su primera secuencia
+            this.workerSequences[i] = new Sequence(i - 1);
+        }
+        for (int i = 0; i < workerCount; i++) {
+            Worker worker = new Worker(i, workerCount, this.workerSequences[i], handler);
+            this.workerThreads[i] = Thread.ofPlatform().name(name + "-" + i).start(worker);
+        }
+    }
+
+    /**
+     * Publica un evento escribiendo {@code value} en el slot. Con un traductor sin estado (por ejemplo, una
+     * constante estática) no hay ninguna asignación de memoria por evento.
+     */
+    public void publish(ObjLongConsumer<E> translator, long value) {
+        long sequence = this.claim();
+        try {
+            translator.accept(this.get(sequence), value);
+        } finally {
+            this.publish(sequence, false);
+        }
+    }
+
+    public <A> void publish(BiConsumer<E, A> translator, A arg) {
+        long sequence = this.claim();
+        try {
+            translator.accept(this.get(sequence), arg);
+        } finally {
+            this.publish(sequence, false);
+        }
+    }
+
+    public int bufferSize() {
+        return this.entries.length;
+    }
+
+    /**
+     * Deja de aceptar eventos, espera a que se procesen todos los publicados y detiene los workers. Si el hilo se
+     * interrumpe mientras espera, sigue esperando y restaura el flag al salir, como {@code ExecutorService.close()}.
+     */
+    @Override
+    public void close() {
+        // Primero se cierra y luego se lee el cursor: un productor que reclame después de esta lectura verá closing.
+        // La lectura tiene que ser volatile: con getAcquire() podría adelantarse a la escritura de closing y perder
+        // una secuencia cuyo productor todavía vio closing == false
+        this.closing = true;
+        long last = this.cursor.getVolatile();
+        // parkNanos() no bloquea con el flag activo: se limpia y se restaura al final
+        boolean interrupted = Thread.interrupted();
+        while (this.minimumWorkerSequence() < last) {
+            LockSupport.parkNanos(100_000);
+            interrupted |= Thread.interrupted();
+        }
+        this.halted = true;
+        this.waitStrategy.signalAllWhenBlocking();
+        for (Thread thread : this.workerThreads) {
+            while (true) {
+                try {
+                    thread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private E get(long sequence) {
+        return (E) this.entries[(int) sequence & this.mask];
+    }
+
+    private long claim() {
+        if (this.closing) {
+            throw new IllegalStateException("El dispatcher está cerrado");
+        }
+        long next = this.cursor.getAndIncrement() + 1;
+        // Si el cierre empezó antes de este incremento, close() puede haber leído el cursor sin ver esta secuencia
+        boolean rejected = this.closing;
+        long wrapPoint = next - this.entries.length;
+
+        // El slot solo se reutiliza cuando todos los workers han procesado la vuelta anterior del anillo
+        if (wrapPoint > this.gatingCache.get()) {
+            long minimum;
+            while (wrapPoint > (minimum = this.minimumWorkerSequence())) {
+                if (rejected && this.halted) {
+                    // Ya no hay workers que esperen esta secuencia
+                    throw new IllegalStateException("El dispatcher está cerrado");
+                }
+                LockSupport.parkNanos(1);
+            }
+            this.gatingCache.set(minimum);
+        }
+        if (rejected) {
+            // Se publica igual para que los workers no se queden esperándola si close() sí la vio
+            this.publish(next, true);
+            throw new IllegalStateException("El dispatcher está cerrado");
+        }
+        return next;
+    }
+
+    private void publish(long sequence, boolean cancel) {
+        int index = (int) sequence & this.mask;
+        this.cancelled[index] = cancel;
+        // La "vuelta" en la que está el anillo distingue una publicación nueva de una de la vuelta anterior
+        AVAILABLE.setRelease(this.availableBuffer, index, (int) (sequence >>> this.indexShift));
+        this.waitStrategy.signalAllWhenBlocking();
+    }
+
+    private boolean isAvailable(long sequence) {
+        int index = (int) sequence & this.mask;
+        return (int) AVAILABLE.getAcquire(this.availableBuffer, index) == (int) (sequence >>> this.indexShift);
+    }
+
+    private long minimumWorkerSequence() {
+        long minimum = Long.MAX_VALUE;
+        for (Sequence sequence : this.workerSequences) {
+            minimum = Math.min(minimum, sequence.get());
+        }
+        return minimum;
+    }
+
+    private final class Worker implements Runnable {
+        private final int partition;
+        private final int stride;
+        private final EventHandler<E> handler;
+        // Todas las secuencias de esta partición menores o iguales a este valor ya se procesaron
+        private final Sequence sequence;
+
+        private Worker(int partition, int stride, Sequence sequence, EventHandler<E> handler) {
+            this.partition = partition;
+            this.stride = stride;
+            this.sequence = sequence;
+            this.handler = handler;
+        }
+
+        @Override
+        public void run() {
+            long next = this.partition;
+            BooleanSupplier isHalted = () -> halted;
+            try {
+                while (true) {
+                    long available = waitStrategy.waitFor(next, cursor, isHalted);
+                    if (available < next) {
+                        break;
+                    }
+                    if (!isAvailable(next)) {
+                        // Reclamada pero aún no publicada por su productor
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    // Procesamos en lote todas las secuencias consecutivas ya publicadas de nuestra partición
+                    while (true) {
+                        long following = next + this.stride;
+                        boolean endOfBatch = following > available || !isAvailable(following);
+                        this.process(next, endOfBatch);
+                        next = following;
+                        if (endOfBatch) {
+                            break;
+                        }
+                    }
+                    this.sequence.set(next - 1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void process(long seq, boolean endOfBatch) {
+            if (cancelled[(int) seq & mask]) {
+                return;
+            }
+            try {
+                this.handler.onEvent(get(seq), seq, endOfBatch);
+            } catch (RuntimeException e) {
+                log.error("Error procesando el evento {}: {}", seq, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package dev.magadiflo.app.ringbuffer;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Contador de secuencia con relleno a ambos lados para que cada instancia ocupe su propia línea de caché y los
+ * productores y consumidores no sufran false sharing al actualizar secuencias vecinas.
+ */
+public final class Sequence extends RhsPadding {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(Value.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public Sequence(long initialValue) {
+        VALUE.setRelease(this, initialValue);
+    }
+
+    public long get() {
+        return (long) VALUE.getAcquire(this);
+    }
+
+    /**
+     * Lectura volatile. A diferencia de {@link #get()}, no puede adelantarse a una escritura volatile anterior del mismo
+     * hilo: hace falta cuando la lectura forma parte de un handshake con otro hilo (escribo un flag y luego leo la
+     * secuencia, mientras el otro incrementa la secuencia y luego lee el flag).
+     */
+    public long getVolatile() {
+        return (long) VALUE.getVolatile(this);
+    }
+
+    public void set(long value) {
+        VALUE.setRelease(this, value);
+    }
+
+    public long getAndIncrement() {
+        return (long) VALUE.getAndAdd(this, 1L);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(this.get());
+    }
+}
+
+// El layout de campos de una misma clase no está garantizado, pero la JVM sí respeta el orden de la jerarquía
+abstract class LhsPadding {
+    protected long p1, p2, p3, p4, p5, p6, p7;
+}
+
+abstract class Value extends LhsPadding {
+    protected volatile long value;
+}
+
+abstract class RhsPadding extends Value {
+    protected long p9, p10, p11, p12, p13, p14, p15;
+}
@@ -0,0 +1,44 @@
+package dev.magadiflo.app.ringbuffer;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Define cómo espera un consumidor a que el productor publique la secuencia que necesita. Permite elegir entre
+ * latencia mínima (consumiendo CPU) o menor consumo de CPU (a costa de latencia).
+ */
+public interface WaitStrategy {
+
+    /**
+     * Espera hasta que {@code cursor} alcance {@code sequence}.
+     *
+     * @return el valor observado del cursor; si es menor que {@code sequence} significa que se detuvo la espera
+     * porque {@code halted} pasó a ser verdadero
+     */
+    long waitFor(long sequence, Sequence cursor, BooleanSupplier halted) throws InterruptedException;
+
+    /**
+     * La llaman los productores tras publicar; solo las estrategias bloqueantes necesitan hacer algo.
+     */
+    void signalAllWhenBlocking();
+
+    /**
+     * Espera activa con {@link Thread#onSpinWait()}: la menor latencia, pero un núcleo al 100% por consumidor.
+     */
+    static WaitStrategy busySpin() {
+        return new BusySpinWaitStrategy();
+    }
+
+    /**
+     * Gira un número de veces y luego cede el procesador con {@link Thread#yield()}.
+     */
+    static WaitStrategy yielding() {
+        return new YieldingWaitStrategy();
+    }
+
+    /**
+     * Bloquea al consumidor con un lock y una condición: no consume CPU en reposo, pero añade la latencia de despertar.
+     */
+    static WaitStrategy blocking() {
+        return new BlockingWaitStrategy();
+    }
+}
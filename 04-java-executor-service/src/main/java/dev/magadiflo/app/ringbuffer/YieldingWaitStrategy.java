@@ -0,0 +1,30 @@
+package dev.magadiflo.app.ringbuffer;
+
+import java.util.function.BooleanSupplier;
+
+final class YieldingWaitStrategy implements WaitStrategy {
+
+    private static final int SPIN_TRIES = 100;
+
+    @Override
+    public long waitFor(long sequence, Sequence cursor, BooleanSupplier halted) {
+        int counter = SPIN_TRIES;
+        long available;
+        while ((available = cursor.get()) < sequence) {
+            if (halted.getAsBoolean()) {
+                return available;
+            }
+            if (counter > 0) {
+                counter--;
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+        return available;
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+    }
+}
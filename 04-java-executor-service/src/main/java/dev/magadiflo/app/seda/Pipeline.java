@@ -0,0 +1,134 @@
+package dev.magadiflo.app.seda;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Pipeline por etapas (SEDA: Staged Event-Driven Architecture).
+ * <p>
+ * Cada paso del proceso es una {@link Stage} con su propio número de hilos y una cola acotada de entrada, de modo que
+ * cada paso se dimensiona según su propio costo en lugar de que el paso más lento dicte el tamaño de un único pool.
+ *
+ * <pre>{@code
+ * Pipeline<Integer> pipeline = Pipeline.<Integer>builder()
+ *         .stage("inventario", 2, 10, orderId -> validate(orderId))
+ *         .stage("pago", 3, 10, orderId -> pay(orderId))
+ *         .build();
+ * }</pre>
+ * <p>
+ * {@link #submit} envía con el lock de lectura de {@code closeLock} tomado y {@link #close()} marca el cierre con el
+ * de escritura: cuando {@code close()} envía las marcas de fin ya no queda ningún envío en curso, y los siguientes se
+ * rechazan. Sin eso, un elemento enviado después del cierre quedaría detrás de las marcas de fin sin nadie que lo
+ * procese, y con la cola llena {@code submit} se bloquearía para siempre.
+ */
+public final class Pipeline<I> implements AutoCloseable {
+
+    private final List<Stage> stages;
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private boolean closed = false;
+
+    private Pipeline(List<Stage> stages) {
+        this.stages = stages;
+        this.stages.forEach(Stage::start);
+    }
+
+    public static <I> Builder<I, I> builder() {
+        return new Builder<>(new ArrayList<>());
+    }
+
+    /**
+     * Envía un elemento a la primera etapa. Se bloquea si su cola está llena (backpressure).
+     *
+     * @throws IllegalStateException si el pipeline ya está cerrado
+     */
+    public void submit(I item) throws InterruptedException {
+        this.closeLock.readLock().lockInterruptibly();
+        try {
+            if (this.closed) {
+                throw new IllegalStateException("El pipeline está cerrado");
+            }
+            this.stages.get(0).put(item);
+        } finally {
+            this.closeLock.readLock().unlock();
+        }
+    }
+
+    public List<StageStats> stats() {
+        return this.stages.stream().map(Stage::stats).toList();
+    }
+
+    /**
+     * Deja de aceptar elementos y espera a que todas las etapas procesen lo que tienen en cola. Si el hilo se
+     * interrumpe mientras espera, sigue esperando y restaura el flag al salir, como {@code ExecutorService.close()}.
+     */
+    @Override
+    public void close() {
+        boolean first;
+        this.closeLock.writeLock().lock();
+        try {
+            first = !this.closed;
+            this.closed = true;
+        } finally {
+            this.closeLock.writeLock().unlock();
+        }
+        if (first) {
+            this.stages.get(0).stop();
+        }
+        boolean interrupted = false;
+        for (Stage stage : this.stages) {
+            while (true) {
+                try {
+                    stage.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static final class Builder<I, O> {
+        private final List<Stage> stages;
+
+        private Builder(List<Stage> stages) {
+            this.stages = stages;
+        }
+
+        /**
+         * Agrega una etapa. Si la función devuelve {@code null} el elemento se descarta y no pasa a la siguiente etapa.
+         */
+        @SuppressWarnings("unchecked")
+        public <N> Builder<I, N> stage(String name, int threads, int queueCapacity, Function<? super O, ? extends N> handler) {
+            Stage stage = new Stage(name, threads, queueCapacity, item -> handler.apply((O) item));
+            if (!this.stages.isEmpty()) {
+                this.stages.get(this.stages.size() - 1).linkTo(stage);
+            }
+            this.stages.add(stage);
+            return (Builder<I, N>) this;
+        }
+
+        /**
+         * Agrega una etapa final que consume los elementos sin producir resultado.
+         */
+        public Pipeline<I> sink(String name, int threads, int queueCapacity, Consumer<? super O> consumer) {
+            return this.stage(name, threads, queueCapacity, item -> {
+                consumer.accept(item);
+                return null;
+            }).build();
+        }
+
+        public Pipeline<I> build() {
+            if (this.stages.isEmpty()) {
+                throw new IllegalStateException("El pipeline necesita al menos una etapa");
+            }
+            return new Pipeline<>(List.copyOf(this.stages));
+        }
+    }
+}
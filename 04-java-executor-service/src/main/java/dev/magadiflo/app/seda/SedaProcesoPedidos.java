@@ -0,0 +1,47 @@
+package dev.magadiflo.app.seda;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mismo flujo que {@code SistemaProcesoPedidos}, pero cada paso es una etapa con su propio número de hilos.
+ * El pago (1.5 s) es el paso más caro, así que recibe más hilos que la validación (1 s) y la factura (0.8 s).
+ */
+@Slf4j
+public class SedaProcesoPedidos {
+    public static void main(String[] args) throws InterruptedException {
+        Pipeline<Integer> pipeline = Pipeline.<Integer>builder()
+                .stage("inventario", 2, 4, orderId -> step("Validando inventario para pedido #{}", orderId, 1000))
+                .stage("pago", 3, 4, orderId -> step("Procesando pago para pedido #{}", orderId, 1500))
+                .stage("factura", 2, 4, orderId -> step("Generando factura para pedido #{}", orderId, 800))
+                .sink("notificacion", 1, 16, orderId -> log.info("Notificación enviada al cliente - Pedido #{}", orderId));
+
+        // Métricas por etapa cada 2 segundos: profundidad de cola, tiempo de servicio y tiempo bloqueado
+        ScheduledExecutorService monitor = Executors.newSingleThreadScheduledExecutor();
+        monitor.scheduleAtFixedRate(() -> pipeline.stats().forEach(stats -> log.info("{}", stats)), 2, 2, TimeUnit.SECONDS);
+
+        long start = System.nanoTime();
+        for (int orderId = 101; orderId <= 120; orderId++) {
+            pipeline.submit(orderId); // Se bloquea si la etapa de inventario está saturada
+        }
+        pipeline.close();
+        monitor.shutdown();
+
+        log.info("20 pedidos procesados en {} ms con 8 hilos", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        pipeline.stats().forEach(stats -> log.info("{}", stats));
+    }
+
+    private static Integer step(String message, Integer orderId, long millis) {
+        log.info(message, orderId);
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Pedido #" + orderId + " interrumpido", e);
+        }
+        return orderId;
+    }
+}
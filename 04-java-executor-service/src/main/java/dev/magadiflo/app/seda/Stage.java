@@ -0,0 +1,144 @@
+package dev.magadiflo.app.seda;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Etapa de un {@link Pipeline}: una cola acotada de entrada y un número fijo de hilos que la consumen.
+ * <p>
+ * Cuando la cola de la siguiente etapa está llena, los hilos de esta etapa se bloquean en {@code put()}, dejan de
+ * consumir su propia cola y esta también se llena: así la presión se propaga hasta quien envía al pipeline.
+ */
+@Slf4j
+final class Stage {
+
+    // Marca de fin: cada hilo que la recibe termina y el último la reenvía a la siguiente etapa
+    static final Object POISON = new Object();
+
+    private final String name;
+    private final int threads;
+    private final int capacity;
+    private final BlockingQueue<Object> queue;
+    private final Function<Object, Object> handler;
+    private final AtomicInteger alive;
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder serviceNanos = new LongAdder();
+    private final LongAdder backpressureNanos = new LongAdder();
+    private final Thread[] workers;
+    private Stage next;
+
+    Stage(String name, int threads, int capacity, Function<Object, Object> handler) {
+        if (threads <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("La etapa " + name + " necesita al menos un hilo y una cola de tamaño > 0");
+        }
+        this.name = name;
+        this.threads = threads;
+        this.capacity = capacity;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.handler = handler;
+        this.alive = new AtomicInteger(threads);
+        this.workers = new Thread[threads];
+    }
+
+    void linkTo(Stage next) {
+        this.next = next;
+    }
+
+    void start() {
+        for (int i = 0; i < this.threads; i++) {
+            this.workers[i] = Thread.ofPlatform().name(this.name + "-" + i).start(this::work);
+        }
+    }
+
+    void put(Object item) throws InterruptedException {
+        this.queue.put(item);
+    }
+
+    /**
+     * Envía una marca de fin por hilo aunque el hilo que llama esté interrumpido: si no llegan todas, la etapa no
+     * termina y {@code Pipeline.close()} se queda esperando para siempre. El flag de interrupción se restaura al salir.
+     */
+    void stop() {
+        boolean interrupted = Thread.interrupted();
+        try {
+            for (int i = 0; i < this.threads; i++) {
+                while (true) {
+                    try {
+                        this.queue.put(POISON);
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    void join() throws InterruptedException {
+        for (Thread worker : this.workers) {
+            worker.join();
+        }
+    }
+
+    StageStats stats() {
+        long count = this.processed.sum();
+        return new StageStats(this.name, this.threads, this.queue.size(), this.capacity, count, this.failed.sum(),
+                count == 0 ? 0 : this.serviceNanos.sum() / 1_000_000.0 / count,
+                this.backpressureNanos.sum() / 1_000_000.0);
+    }
+
+    private void work() {
+        try {
+            while (true) {
+                Object item = this.queue.take();
+                if (item == POISON) {
+                    break;
+                }
+                Object result = this.process(item);
+                if (Thread.interrupted()) {
+                    // Un handler que restablece el flag (p. ej. tras capturar InterruptedException) no debe hacer
+                    // que el siguiente take() termine el hilo
+                    log.warn("El handler de la etapa {} dejó el hilo interrumpido procesando {}", this.name, item);
+                }
+                if (result != null && this.next != null) {
+                    long start = System.nanoTime();
+                    this.next.put(result);
+                    this.backpressureNanos.add(System.nanoTime() - start);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Etapa {} interrumpida", this.name);
+        } finally {
+            // El último hilo en salir garantiza que todos los elementos ya se enviaron a la siguiente etapa. Va en el
+            // finally para que la siguiente etapa termine aunque este hilo salga por una interrupción o un Error
+            if (this.alive.decrementAndGet() == 0 && this.next != null) {
+                this.next.stop();
+            }
+        }
+    }
+
+    private Object process(Object item) {
+        long start = System.nanoTime();
+        try {
+            return this.handler.apply(item);
+        } catch (RuntimeException e) {
+            this.failed.increment();
+            log.error("Error en la etapa {} procesando {}: {}", this.name, item, e.getMessage());
+            return null;
+        } finally {
+            this.serviceNanos.add(System.nanoTime() - start);
+            this.processed.increment();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package dev.magadiflo.app.seda;
+
+/**
+ * Foto de las métricas de una etapa.
+ *
+ * @param queued             elementos esperando en la cola de entrada
+ * @param avgServiceMillis   tiempo medio que tarda la etapa en procesar un elemento
+ * @param backpressureMillis tiempo total que los hilos de la etapa estuvieron bloqueados esperando espacio en la
+ *                           cola de la siguiente etapa
+ */
+public record StageStats(String name,
+                         int threads,
+                         int queued,
+                         int capacity,
+                         long processed,
+                         long failed,
+                         double avgServiceMillis,
+                         double backpressureMillis) {
+}
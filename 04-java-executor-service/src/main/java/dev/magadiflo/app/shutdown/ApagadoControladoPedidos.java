@@ -0,0 +1,67 @@
+package dev.magadiflo.app.shutdown;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * Versión de {@code SistemaProcesoPedidos} que se apaga con un deadline global sin perder pedidos.
+ * Al ejecutarla por segunda vez, los pedidos que quedaron en cola se recuperan y se procesan primero.
+ */
+@Slf4j
+public class ApagadoControladoPedidos {
+
+    private static final String ORDERS = "Orders";
+    private static final String NOTIFICATIONS = "Notifications";
+
+    private static final ShutdownCoordinator coordinator =
+            new ShutdownCoordinator(new PendingTaskStore(Path.of("pending-orders.bin")));
+
+    record OrderTask(int orderId) implements PersistentTask {
+        @Override
+        public void run() {
+            try {
+                log.info("Validando inventario para pedido #{}", this.orderId);
+                Thread.sleep(1000);
+
+                log.info("Procesando pago para pedido #{}", this.orderId);
+                Thread.sleep(1500);
+
+                log.info("Generando factura para pedido #{}", this.orderId);
+                Thread.sleep(800);
+
+                coordinator.execute(NOTIFICATIONS, new NotificationTask(this.orderId));
+                log.info("Pedido #{} completado", this.orderId);
+            } catch (InterruptedException e) {
+                // Se restablece el flag para que el coordinador sepa que el pedido no terminó
+                Thread.currentThread().interrupt();
+                log.warn("Pedido #{} interrumpido, se reintentará en el próximo arranque", this.orderId);
+            }
+        }
+    }
+
+    record NotificationTask(int orderId) implements PersistentTask {
+        @Override
+        public void run() {
+            log.info("Notificación enviada al cliente - Pedido #{}", this.orderId);
+        }
+    }
+
+    public static void main(String[] args) {
+        // Primero el productor (pedidos) y luego el consumidor (notificaciones)
+        coordinator.register(ORDERS, Executors.newFixedThreadPool(2));
+        coordinator.register(NOTIFICATIONS, Executors.newCachedThreadPool());
+
+        // Pedidos que quedaron pendientes en la ejecución anterior
+        coordinator.recover();
+
+        for (int orderId = 101; orderId <= 110; orderId++) {
+            coordinator.execute(ORDERS, new OrderTask(orderId));
+        }
+
+        ShutdownCoordinator.ShutdownReport report = coordinator.shutdown(Duration.ofSeconds(5));
+        log.info("Resultado del apagado: {}", report);
+    }
+}
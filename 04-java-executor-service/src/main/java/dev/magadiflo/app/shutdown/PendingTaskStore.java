@@ -0,0 +1,104 @@
+package dev.magadiflo.app.shutdown;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Guarda en disco las tareas que quedaron en cola al apagar y las devuelve en el siguiente arranque.
+ */
+@Slf4j
+public class PendingTaskStore {
+
+    /**
+     * Tarea pendiente junto con el nombre del executor en el que estaba encolada.
+     */
+    public record PendingTask(String executorName, PersistentTask task) implements Serializable {
+    }
+
+    private final Path file;
+
+    public PendingTaskStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Agrega las tareas a las que ya estaban guardadas.
+     */
+    public void save(List<PendingTask> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        List<PendingTask> all = new ArrayList<>(this.read());
+        all.addAll(tasks);
+        this.write(all);
+        log.info("{} tareas pendientes guardadas en {}", tasks.size(), this.file);
+    }
+
+    /**
+     * Reemplaza las tareas guardadas por {@code tasks}. Lo usa el apagado cuando el archivo contiene tareas recuperadas
+     * en este arranque: las que no terminaron ya están en {@code tasks}, y las que terminaron no deben repetirse.
+     */
+    public void replace(List<PendingTask> tasks) {
+        if (tasks.isEmpty()) {
+            this.clear();
+            return;
+        }
+        this.write(tasks);
+        log.info("{} tareas pendientes guardadas en {}", tasks.size(), this.file);
+    }
+
+    /**
+     * Devuelve las tareas guardadas sin eliminar el archivo: si el proceso cae mientras se ejecutan, se recuperan de
+     * nuevo en el siguiente arranque. Hay que llamar a {@link #clear()} cuando hayan terminado todas.
+     */
+    public List<PendingTask> load() {
+        return this.read();
+    }
+
+    public void clear() {
+        try {
+            Files.deleteIfExists(this.file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo eliminar " + this.file, e);
+        }
+    }
+
+    private void write(List<PendingTask> tasks) {
+        // Escribimos en un archivo temporal y lo movemos: un apagado abrupto nunca deja un archivo a medias
+        Path tmp = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+        try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(tmp))) {
+            out.writeObject(new ArrayList<>(tasks));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudieron guardar las tareas pendientes en " + this.file, e);
+        }
+        try {
+            Files.move(tmp, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo publicar el archivo " + this.file, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<PendingTask> read() {
+        if (!Files.exists(this.file)) {
+            return List.of();
+        }
+        try (ObjectInputStream in = new ObjectInputStream(Files.newInputStream(this.file))) {
+            return (List<PendingTask>) in.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudieron leer las tareas pendientes de " + this.file, e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Tipo de tarea desconocido en " + this.file, e);
+        }
+    }
+}
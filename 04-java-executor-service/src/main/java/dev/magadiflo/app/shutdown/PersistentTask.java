@@ -0,0 +1,11 @@
+package dev.magadiflo.app.shutdown;
+
+import java.io.Serializable;
+
+/**
+ * Tarea que puede guardarse en disco si el apagado alcanza el deadline antes de ejecutarla.
+ * Debe enviarse con {@code execute()} y no con {@code submit()}, ya que {@code submit()} la envuelve
+ * en un {@code FutureTask} que no puede recuperarse al apagar.
+ */
+public interface PersistentTask extends Runnable, Serializable {
+}
@@ -0,0 +1,216 @@
+package dev.magadiflo.app.shutdown;
+
+import dev.magadiflo.app.shutdown.PendingTaskStore.PendingTask;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coordina el apagado de varios executors bajo un único deadline global.
+ * <p>
+ * Los executors se drenan en el orden en que se registran, por lo que primero deben registrarse los
+ * productores (por ejemplo, pedidos) y luego los consumidores a los que estos envían trabajo (por ejemplo,
+ * notificaciones). Las tareas que siguen en cola al vencer el deadline, o que fueron interrumpidas por él,
+ * se guardan en disco y se vuelven a encolar con {@link #recover()} en el siguiente arranque. También se guardan las
+ * que siguen en ejecución cuando se toma la foto final: no se sabe si van a terminar. Como una tarea interrumpida o
+ * guardada mientras se ejecutaba puede volver a ejecutarse, las tareas deben ser idempotentes.
+ * <p>
+ * Tras el deadline, los executors forzados comparten un único margen de {@code INTERRUPT_GRACE} para que salgan sus
+ * tareas interrumpidas: {@link #shutdown} no se pasa del deadline más ese margen, sea cual sea el número de executors.
+ */
+@Slf4j
+public class ShutdownCoordinator {
+
+    // Tiempo extra para que las tareas interrumpidas terminen de salir tras shutdownNow(), uno solo para todo el apagado
+    private static final Duration INTERRUPT_GRACE = Duration.ofMillis(500);
+
+    public record ShutdownReport(List<String> terminated, List<String> forced, int persisted, int lost) {
+    }
+
+    private final Map<String, ExecutorService> executors = new ConcurrentHashMap<>();
+    private final List<String> drainOrder = new CopyOnWriteArrayList<>();
+    private final PendingTaskStore store;
+    private volatile boolean deadlineReached = false;
+
+    // Protege el estado de las tareas frente a la foto final del apagado
+    private final Object trackingLock = new Object();
+    private final Set<TrackedTask> running = new HashSet<>();
+    private final List<PendingTask> interruptedTasks = new ArrayList<>();
+    private boolean sealed = false;
+    private boolean recovered = false;
+    private int recoveredRemaining = 0;
+
+    public ShutdownCoordinator(PendingTaskStore store) {
+        this.store = store;
+    }
+
+    public synchronized ExecutorService register(String name, ExecutorService executor) {
+        if (this.executors.putIfAbsent(name, executor) != null) {
+            throw new IllegalArgumentException("Ya existe un executor registrado con el nombre: " + name);
+        }
+        this.drainOrder.add(name);
+        return executor;
+    }
+
+    public void execute(String name, PersistentTask task) {
+        this.execute(name, task, false);
+    }
+
+    private void execute(String name, PersistentTask task, boolean recoveredTask) {
+        ExecutorService executor = this.executors.get(name);
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor no registrado: " + name);
+        }
+        executor.execute(new TrackedTask(name, task, recoveredTask));
+    }
+
+    /**
+     * Vuelve a encolar las tareas guardadas en el apagado anterior. Debe llamarse después de registrar los executors.
+     * <p>
+     * El archivo se elimina recién cuando terminan todas las tareas recuperadas; si el proceso cae antes, se recuperan
+     * otra vez en el siguiente arranque.
+     */
+    public int recover() {
+        List<PendingTask> pending = this.store.load();
+        synchronized (this.trackingLock) {
+            this.recovered = true;
+            this.recoveredRemaining = pending.size();
+        }
+        pending.forEach(p -> this.execute(p.executorName(), p.task(), true));
+        if (!pending.isEmpty()) {
+            log.info("Se recuperaron {} tareas pendientes del apagado anterior", pending.size());
+        }
+        return pending.size();
+    }
+
+    public synchronized ShutdownReport shutdown(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long graceDeadline = deadline + INTERRUPT_GRACE.toNanos();
+        List<String> terminated = new ArrayList<>();
+        List<String> forced = new ArrayList<>();
+        List<PendingTask> pending = new ArrayList<>();
+        int lost = 0;
+
+        for (String name : this.drainOrder) {
+            ExecutorService executor = this.executors.get(name);
+            executor.shutdown();
+
+            if (this.awaitUntil(executor, deadline)) {
+                log.info("Executor {} terminado correctamente", name);
+                terminated.add(name);
+                continue;
+            }
+
+            log.warn("Deadline alcanzado en executor {}, se guardan las tareas en cola", name);
+            this.deadlineReached = true;
+            forced.add(name);
+            for (Runnable runnable : executor.shutdownNow()) {
+                if (runnable instanceof TrackedTask tracked) {
+                    pending.add(tracked.pending());
+                } else {
+                    lost++;
+                }
+            }
+            this.awaitUntil(executor, graceDeadline);
+        }
+
+        // La foto se toma con las tareas que siguen ejecutándose dentro: las que terminen después ya están guardadas
+        boolean replace;
+        synchronized (this.trackingLock) {
+            this.sealed = true;
+            pending.addAll(this.interruptedTasks);
+            if (!this.running.isEmpty()) {
+                log.warn("{} tareas siguen en ejecución tras el deadline, se guardan para reintentarlas",
+                        this.running.size());
+                this.running.forEach(tracked -> pending.add(tracked.pending()));
+            }
+            replace = this.recovered;
+        }
+        if (replace) {
+            // El archivo aún contiene las tareas recuperadas: las que no terminaron ya están en pending
+            this.store.replace(pending);
+        } else {
+            this.store.save(pending);
+        }
+        if (lost > 0) {
+            log.warn("{} tareas no se pudieron guardar porque no eran PersistentTask", lost);
+        }
+        return new ShutdownReport(terminated, forced, pending.size(), lost);
+    }
+
+    private boolean awaitUntil(ExecutorService executor, long deadline) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0 || Thread.currentThread().isInterrupted()) {
+            return executor.isTerminated();
+        }
+        try {
+            return executor.awaitTermination(remaining, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            // Si nos interrumpen mientras esperamos, tratamos el resto como deadline vencido
+            Thread.currentThread().interrupt();
+            return executor.isTerminated();
+        }
+    }
+
+    /**
+     * Envoltorio que permite recuperar la tarea original desde shutdownNow() y detectar si fue
+     * interrumpida por el deadline.
+     */
+    private final class TrackedTask implements Runnable {
+        private final String executorName;
+        private final PersistentTask task;
+        private final boolean recoveredTask;
+
+        private TrackedTask(String executorName, PersistentTask task, boolean recoveredTask) {
+            this.executorName = executorName;
+            this.task = task;
+            this.recoveredTask = recoveredTask;
+        }
+
+        private PendingTask pending() {
+            return new PendingTask(this.executorName, this.task);
+        }
+
+        @Override
+        public void run() {
+            boolean tracked;
+            synchronized (trackingLock) {
+                tracked = !sealed && running.add(this);
+            }
+            if (!tracked) {
+                // Un hilo que tomó la tarea justo antes de shutdownNow() y arrancó después de la foto final
+                log.error("Tarea {} iniciada después de guardar las pendientes, no se guardará si no termina",
+                        this.task);
+            }
+            try {
+                this.task.run();
+            } finally {
+                this.finish(Thread.currentThread().isInterrupted());
+            }
+        }
+
+        private void finish(boolean interrupted) {
+            synchronized (trackingLock) {
+                running.remove(this);
+                if (sealed) {
+                    // Si estaba en ejecución al tomar la foto ya quedó guardada
+                    return;
+                }
+                if (deadlineReached && interrupted) {
+                    interruptedTasks.add(this.pending());
+                } else if (this.recoveredTask && --recoveredRemaining == 0) {
+                    store.clear();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package dev.magadiflo.app.benchmark;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Muestrea periódicamente el heap usado, la memoria residente (RSS) del proceso y el número de hilos de plataforma
+ * vivos, y conserva el valor máximo de cada uno mientras está abierto.
+ * <p>
+ * El RSS se lee de {@code /proc/self/status}, por lo que solo está disponible en Linux; en otros sistemas se informa -1.
+ */
+public final class ResourceSampler implements AutoCloseable {
+
+    private static final Path PROC_STATUS = Path.of("/proc/self/status");
+
+    private final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+    private final AtomicLong peakHeap = new AtomicLong();
+    private final AtomicLong peakRss = new AtomicLong(-1);
+    private final AtomicLong peakPlatformThreads = new AtomicLong();
+    private final Thread sampler;
+
+    private ResourceSampler(long intervalMillis) {
+        this.sample();
+        this.sampler = Thread.ofPlatform().name("resource-sampler").daemon().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                this.sample();
+                try {
+                    Thread.sleep(intervalMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+    }
+
+    /**
+     * Fuerza un GC para partir de un heap limpio y empieza a muestrear cada {@code intervalMillis}.
+     */
+    public static ResourceSampler start(long intervalMillis) {
+        System.gc();
+        return new ResourceSampler(intervalMillis);
+    }
+
+    public long peakHeapBytes() {
+        return this.peakHeap.get();
+    }
+
+    public long peakRssBytes() {
+        return this.peakRss.get();
+    }
+
+    public long peakPlatformThreads() {
+        return this.peakPlatformThreads.get();
+    }
+
+    /**
+     * Detiene el muestreo y toma una última muestra. Si el hilo se interrumpe mientras espera al muestreador, sigue
+     * esperando y restaura el flag al salir.
+     */
+    @Override
+    public void close() {
+        this.sampler.interrupt();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                this.sampler.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        this.sample();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sample() {
+        this.peakHeap.accumulateAndGet(this.memoryMXBean.getHeapMemoryUsage().getUsed(), Math::max);
+        this.peakPlatformThreads.accumulateAndGet(ManagementFactory.getThreadMXBean().getThreadCount(), Math::max);
+        long rss = currentRssBytes();
+        if (rss >= 0) {
+            this.peakRss.accumulateAndGet(rss, Math::max);
+        }
+    }
+
+    public static long currentRssBytes() {
+        try {
+            List<String> lines = Files.readAllLines(PROC_STATUS);
+            for (String line : lines) {
+                if (line.startsWith("VmRSS:")) {
+                    // Formato: "VmRSS:     123456 kB"
+                    String kb = line.substring("VmRSS:".length()).replace("kB", "").trim();
+                    return Long.parseLong(kb) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,164 @@
+package dev.magadiflo.app.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mide de forma cuantitativa lo que {@code PlatformThreadExample} y {@code VirtualThreadExample} solo muestran con
+ * logs: ejecuta la misma carga con un hilo virtual por tarea, un hilo de plataforma por tarea y un pool fijo de hilos
+ * de plataforma, y emite un resultado JSON por línea en la salida estándar.
+ * <p>
+ * Parámetros (todos opcionales, formato {@code clave=valor}):
+ * <ul>
+ *     <li>{@code tasks}: lista de cantidades de tareas, por defecto {@code 10000,100000,1000000}</li>
+ *     <li>{@code models}: {@code virtual,platform,pool}</li>
+ *     <li>{@code blockMs}: tiempo de bloqueo por tarea en milisegundos, por defecto {@code 10}</li>
+ *     <li>{@code cpuIterations}: trabajo de CPU por tarea, por defecto {@code 0}</li>
+ *     <li>{@code poolSize}: hilos del pool fijo, por defecto {@code 200}</li>
+ * </ul>
+ * Ejemplo: {@code java ThreadScalabilityBenchmark tasks=10000,100000 blockMs=100 models=virtual,pool}
+ */
+@Slf4j
+public class ThreadScalabilityBenchmark {
+
+    enum Model {
+        VIRTUAL, PLATFORM, POOL
+    }
+
+    record Result(Model model, int tasks, long blockMs, int cpuIterations, int poolSize,
+                  double wallMillis, double throughputPerSec, double timeToFirstTaskMicros,
+                  double submitNanosPerTask, double threadStartNanos,
+                  long peakHeapBytes, long peakRssBytes, long peakPlatformThreads) {
+
+        String toJson() {
+            return String.format(Locale.ROOT, "{\"model\":\"%s\",\"tasks\":%d,\"blockMs\":%d,\"cpuIterations\":%d," +
+                            "\"poolSize\":%d,\"wallMillis\":%.1f,\"throughputPerSec\":%.1f,\"timeToFirstTaskMicros\":%.1f," +
+                            "\"submitNanosPerTask\":%.1f,\"threadStartNanos\":%.1f,\"peakHeapBytes\":%d," +
+                            "\"peakRssBytes\":%d,\"peakPlatformThreads\":%d}",
+                    this.model.name().toLowerCase(), this.tasks, this.blockMs, this.cpuIterations, this.poolSize,
+                    this.wallMillis, this.throughputPerSec, this.timeToFirstTaskMicros, this.submitNanosPerTask,
+                    this.threadStartNanos, this.peakHeapBytes, this.peakRssBytes, this.peakPlatformThreads);
+        }
+    }
+
+    // Evita que el JIT elimine el trabajo de CPU simulado
+    private static volatile long sink;
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = parse(args);
+        int[] taskCounts = Arrays.stream(options.getOrDefault("tasks", "10000,100000,1000000").split(","))
+                .mapToInt(value -> Integer.parseInt(value.trim())).toArray();
+        List<Model> models = Arrays.stream(options.getOrDefault("models", "virtual,platform,pool").split(","))
+                .map(value -> Model.valueOf(value.trim().toUpperCase())).toList();
+        long blockMs = Long.parseLong(options.getOrDefault("blockMs", "10"));
+        int cpuIterations = Integer.parseInt(options.getOrDefault("cpuIterations", "0"));
+        int poolSize = Integer.parseInt(options.getOrDefault("poolSize", "200"));
+
+        double virtualStart = measureThreadStart(Thread.ofVirtual());
+        double platformStart = measureThreadStart(Thread.ofPlatform());
+        log.info("Costo de crear, iniciar y esperar un hilo vacío: virtual {} ns, plataforma {} ns",
+                String.format("%.0f", virtualStart), String.format("%.0f", platformStart));
+
+        // Calentamiento del JIT con una carga pequeña para cada modelo
+        for (Model model : models) {
+            run(model, 1_000, 0, cpuIterations, poolSize, 0);
+        }
+
+        for (int tasks : taskCounts) {
+            for (Model model : models) {
+                Result result = run(model, tasks, blockMs, cpuIterations, poolSize,
+                        model == Model.VIRTUAL ? virtualStart : platformStart);
+                System.out.println(result.toJson());
+            }
+        }
+    }
+
+    static Result run(Model model, int tasks, long blockMs, int cpuIterations, int poolSize, double threadStartNanos)
+            throws InterruptedException {
+        AtomicLong firstTaskAt = new AtomicLong();
+        Duration block = Duration.ofMillis(blockMs);
+        Runnable task = () -> {
+            firstTaskAt.compareAndSet(0, System.nanoTime());
+            if (cpuIterations > 0) {
+                burnCpu(cpuIterations);
+            }
+            if (blockMs > 0) {
+                simulateIO(block);
+            }
+        };
+
+        long start;
+        long submitted;
+        ResourceSampler sampler = ResourceSampler.start(10);
+        try (ExecutorService executor = newExecutor(model, poolSize)) {
+            start = System.nanoTime();
+            for (int i = 0; i < tasks; i++) {
+                executor.execute(task);
+            }
+            submitted = System.nanoTime();
+        }
+        long end = System.nanoTime();
+        sampler.close();
+
+        double wallMillis = (end - start) / 1_000_000.0;
+        return new Result(model, tasks, blockMs, cpuIterations, model == Model.POOL ? poolSize : 0,
+                wallMillis, tasks / (wallMillis / 1000.0), (firstTaskAt.get() - start) / 1000.0,
+                (double) (submitted - start) / tasks, threadStartNanos,
+                sampler.peakHeapBytes(), sampler.peakRssBytes(), sampler.peakPlatformThreads());
+    }
+
+    private static ExecutorService newExecutor(Model model, int poolSize) {
+        return switch (model) {
+            case VIRTUAL -> Executors.newVirtualThreadPerTaskExecutor();
+            case PLATFORM -> Executors.newThreadPerTaskExecutor(Thread.ofPlatform().factory());
+            case POOL -> Executors.newFixedThreadPool(poolSize);
+        };
+    }
+
+    private static double measureThreadStart(Thread.Builder builder) throws InterruptedException {
+        int samples = 2_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < samples; i++) {
+            builder.start(() -> {
+            }).join();
+        }
+        return (double) (System.nanoTime() - start) / samples;
+    }
+
+    private static void burnCpu(int iterations) {
+        long acc = 0;
+        for (int i = 0; i < iterations; i++) {
+            acc = acc * 31 + i;
+        }
+        sink = acc;
+    }
+
+    private static void simulateIO(Duration block) {
+        try {
+            Thread.sleep(block);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] parts = arg.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Parámetro inválido, se esperaba clave=valor: " + arg);
+            }
+            options.put(parts[0], parts[1]);
+        }
+        return options;
+    }
+}
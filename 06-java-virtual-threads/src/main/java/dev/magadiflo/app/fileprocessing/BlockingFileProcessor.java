@@ -0,0 +1,73 @@
+package dev.magadiflo.app.fileprocessing;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Procesa cada archivo en una tarea propia con I/O bloqueante clásica: {@code Files.newInputStream} y lecturas a un
+ * buffer de 64 KB. Lo único que cambia entre las dos variantes es el executor:
+ * <ul>
+ *     <li>{@link #virtualThreadPerFile()}: un hilo virtual por archivo</li>
+ *     <li>{@link #platformPool(int)}: un pool fijo de hilos de plataforma</li>
+ * </ul>
+ */
+public final class BlockingFileProcessor implements FileProcessor {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String name;
+    private final Supplier<ExecutorService> executorFactory;
+
+    private BlockingFileProcessor(String name, Supplier<ExecutorService> executorFactory) {
+        this.name = name;
+        this.executorFactory = executorFactory;
+    }
+
+    public static BlockingFileProcessor virtualThreadPerFile() {
+        return new BlockingFileProcessor("virtual", Executors::newVirtualThreadPerTaskExecutor);
+    }
+
+    public static BlockingFileProcessor platformPool(int poolSize) {
+        return new BlockingFileProcessor("pool", () -> Executors.newFixedThreadPool(poolSize));
+    }
+
+    @Override
+    public String name() {
+        return this.name;
+    }
+
+    @Override
+    public OrderTotals process(List<Path> files) throws Exception {
+        List<Future<OrderTotals>> results = new ArrayList<>(files.size());
+        try (ExecutorService executor = this.executorFactory.get()) {
+            for (Path file : files) {
+                results.add(executor.submit(() -> processFile(file)));
+            }
+        }
+        OrderTotals totals = OrderTotals.EMPTY;
+        for (Future<OrderTotals> result : results) {
+            totals = totals.merge(result.get());
+        }
+        return totals;
+    }
+
+    private static OrderTotals processFile(Path file) throws IOException {
+        OrderParser parser = new OrderParser();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                parser.feed(buffer, 0, read);
+            }
+        }
+        return parser.finish(1);
+    }
+}
@@ -0,0 +1,68 @@
+package dev.magadiflo.app.fileprocessing;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Genera archivos de pedidos ({@code id,cliente,monto} por línea) de un tamaño dado. Cada conjunto se guarda en su
+ * propio subdirectorio y se reutiliza si ya está completo, porque generar varios GB tarda más que procesarlos.
+ */
+@Slf4j
+public final class DatasetGenerator {
+
+    private static final String COMPLETE_MARKER = ".complete";
+
+    private DatasetGenerator() {
+    }
+
+    /**
+     * Devuelve {@code count} archivos de aproximadamente {@code fileSize} bytes (siempre líneas completas) dentro de
+     * {@code root}, generándolos si hace falta.
+     */
+    public static List<Path> ensure(Path root, long fileSize, int count) throws IOException {
+        Path directory = root.resolve(fileSize + "-bytes-x" + count);
+        Path marker = directory.resolve(COMPLETE_MARKER);
+        if (!Files.exists(marker)) {
+            log.info("Generando {} archivos de {} bytes en {}", count, fileSize, directory);
+            Files.createDirectories(directory);
+            for (int i = 0; i < count; i++) {
+                write(directory.resolve(String.format("orders-%06d.csv", i)), fileSize, i);
+            }
+            Files.createFile(marker);
+        }
+        List<Path> files = new ArrayList<>(count);
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.filter(path -> path.getFileName().toString().endsWith(".csv")).sorted().forEach(files::add);
+        }
+        return files;
+    }
+
+    private static void write(Path file, long fileSize, long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder line = new StringBuilder(40);
+        long written = 0;
+        long id = seed * 1_000_000_000L;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+            while (written < fileSize) {
+                long cents = random.nextLong(100, 1_000_000);
+                line.setLength(0);
+                line.append(id++).append(",cliente-").append(random.nextInt(1000)).append(',')
+                        .append(cents / 100).append('.').append(cents % 100 < 10 ? "0" : "").append(cents % 100)
+                        .append('\n');
+                byte[] bytes = line.toString().getBytes(StandardCharsets.US_ASCII);
+                out.write(bytes);
+                written += bytes.length;
+            }
+        }
+    }
+}
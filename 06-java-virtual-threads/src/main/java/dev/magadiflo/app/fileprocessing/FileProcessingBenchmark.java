@@ -0,0 +1,138 @@
+package dev.magadiflo.app.fileprocessing;
+
+import dev.magadiflo.app.benchmark.ResourceSampler;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compara las tres formas de procesar archivos ({@link BlockingFileProcessor} con hilos virtuales o con un pool de
+ * plataforma, y {@link MappedFileProcessor}) sobre conjuntos de archivos de distintos tamaños, y emite un resultado
+ * JSON por línea con throughput, tiempo de CPU y memoria.
+ * <p>
+ * Parámetros (todos opcionales, formato {@code clave=valor}):
+ * <ul>
+ *     <li>{@code dir}: dónde generar o reutilizar el dataset, por defecto {@code <tmpdir>/file-processing-dataset}</li>
+ *     <li>{@code sizes}: tamaños de archivo, por defecto {@code 4k,256k,16m,1g}</li>
+ *     <li>{@code totalBytes}: bytes por conjunto, por defecto {@code 1g}; la cantidad de archivos es
+ *     {@code totalBytes / tamaño}, con un mínimo de 1 y un máximo de {@code maxFiles} (por defecto {@code 20000})</li>
+ *     <li>{@code models}: {@code virtual,pool,mmap}</li>
+ *     <li>{@code poolSize}: hilos del pool de plataforma, por defecto el doble de núcleos (mínimo 4)</li>
+ *     <li>{@code chunkSize}: tamaño de trozo para {@code mmap}, por defecto {@code 16m}</li>
+ * </ul>
+ * Los archivos recién generados o leídos quedan en la caché de páginas del sistema operativo, así que se mide el
+ * procesamiento con datos en caché, no la velocidad del disco.
+ */
+@Slf4j
+public class FileProcessingBenchmark {
+
+    record Result(String model, long fileSize, long files, long totalBytes, double wallMillis, double megabytesPerSec,
+                  double filesPerSec, double cpuMillis, long peakHeapBytes, long peakRssBytes,
+                  long peakPlatformThreads, boolean consistent, OrderTotals totals) {
+
+        String toJson() {
+            return String.format(Locale.ROOT, "{\"model\":\"%s\",\"fileSize\":%d,\"files\":%d,\"totalBytes\":%d," +
+                            "\"wallMillis\":%.1f,\"megabytesPerSec\":%.1f,\"filesPerSec\":%.1f,\"cpuMillis\":%.1f," +
+                            "\"peakHeapBytes\":%d,\"peakRssBytes\":%d,\"peakPlatformThreads\":%d,\"consistent\":%b}",
+                    this.model, this.fileSize, this.files, this.totalBytes, this.wallMillis, this.megabytesPerSec,
+                    this.filesPerSec, this.cpuMillis, this.peakHeapBytes, this.peakRssBytes, this.peakPlatformThreads,
+                    this.consistent);
+        }
+    }
+
+    private static final com.sun.management.OperatingSystemMXBean osMXBean =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        Path root = Path.of(options.getOrDefault("dir",
+                Path.of(System.getProperty("java.io.tmpdir"), "file-processing-dataset").toString()));
+        long[] sizes = Arrays.stream(options.getOrDefault("sizes", "4k,256k,16m,1g").split(","))
+                .mapToLong(value -> parseBytes(value.trim())).toArray();
+        long totalBytes = parseBytes(options.getOrDefault("totalBytes", "1g"));
+        int maxFiles = Integer.parseInt(options.getOrDefault("maxFiles", "20000"));
+        int poolSize = Integer.parseInt(options.getOrDefault("poolSize",
+                String.valueOf(Math.max(4, Runtime.getRuntime().availableProcessors() * 2))));
+        long chunkSize = parseBytes(options.getOrDefault("chunkSize", "16m"));
+        int parallelism = Runtime.getRuntime().availableProcessors();
+
+        List<FileProcessor> processors = Arrays.stream(options.getOrDefault("models", "virtual,pool,mmap").split(","))
+                .map(String::trim)
+                .map(model -> switch (model) {
+                    case "virtual" -> BlockingFileProcessor.virtualThreadPerFile();
+                    case "pool" -> BlockingFileProcessor.platformPool(poolSize);
+                    case "mmap" -> (FileProcessor) new MappedFileProcessor(chunkSize, parallelism);
+                    default -> throw new IllegalArgumentException("Modelo desconocido: " + model);
+                })
+                .toList();
+
+        // Calentamiento del JIT con un conjunto pequeño
+        List<Path> warmUp = DatasetGenerator.ensure(root, 64 * 1024, 200);
+        for (FileProcessor processor : processors) {
+            processor.process(warmUp);
+        }
+
+        for (long size : sizes) {
+            int count = (int) Math.max(1, Math.min(maxFiles, totalBytes / size));
+            List<Path> files = DatasetGenerator.ensure(root, size, count);
+            OrderTotals expected = null;
+            for (FileProcessor processor : processors) {
+                Result result = run(processor, size, files, expected);
+                if (expected == null) {
+                    expected = result.totals();
+                }
+                System.out.println(result.toJson());
+            }
+        }
+    }
+
+    private static Result run(FileProcessor processor, long fileSize, List<Path> files, OrderTotals expected)
+            throws Exception {
+        ResourceSampler sampler = ResourceSampler.start(10);
+        long cpuStart = osMXBean.getProcessCpuTime();
+        long start = System.nanoTime();
+        OrderTotals totals = processor.process(files);
+        long elapsed = System.nanoTime() - start;
+        long cpu = osMXBean.getProcessCpuTime() - cpuStart;
+        sampler.close();
+
+        if (expected != null && !expected.equals(totals)) {
+            log.warn("{} produjo totales distintos: {} vs {}", processor.name(), totals, expected);
+        }
+        double seconds = elapsed / 1e9;
+        return new Result(processor.name(), fileSize, totals.files(), totals.bytes(), elapsed / 1e6,
+                totals.bytes() / (1024.0 * 1024.0) / seconds, totals.files() / seconds, cpu / 1e6,
+                sampler.peakHeapBytes(), sampler.peakRssBytes(), sampler.peakPlatformThreads(),
+                expected == null || expected.equals(totals), totals);
+    }
+
+    static long parseBytes(String value) {
+        String lower = value.toLowerCase(Locale.ROOT);
+        long multiplier = switch (lower.charAt(lower.length() - 1)) {
+            case 'k' -> 1024L;
+            case 'm' -> 1024L * 1024;
+            case 'g' -> 1024L * 1024 * 1024;
+            default -> 1;
+        };
+        String digits = multiplier == 1 ? lower : lower.substring(0, lower.length() - 1);
+        return Long.parseLong(digits) * multiplier;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] parts = arg.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Parámetro inválido, se esperaba clave=valor: " + arg);
+            }
+            options.put(parts[0], parts[1]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,14 @@
+package dev.magadiflo.app.fileprocessing;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Procesa un conjunto de archivos de pedidos y devuelve los totales agregados.
+ */
+public interface FileProcessor {
+
+    String name();
+
+    OrderTotals process(List<Path> files) throws Exception;
+}
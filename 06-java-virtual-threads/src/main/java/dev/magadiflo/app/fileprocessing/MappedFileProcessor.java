@@ -0,0 +1,110 @@
+package dev.magadiflo.app.fileprocessing;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Mapea los archivos en memoria con {@link FileChannel#map} y reparte el trabajo en trozos de hasta {@code chunkSize}
+ * bytes entre un pool de {@code parallelism} hilos de plataforma. Un archivo grande se procesa en paralelo, cosa que
+ * las variantes de un hilo por archivo no pueden hacer.
+ * <p>
+ * Los límites de cada trozo se ajustan al siguiente salto de línea, para que ninguna línea quede partida entre dos
+ * trozos.
+ */
+public final class MappedFileProcessor implements FileProcessor {
+
+    private record Chunk(Path file, long start, long end, boolean first) {
+    }
+
+    private final long chunkSize;
+    private final int parallelism;
+
+    public MappedFileProcessor(long chunkSize, int parallelism) {
+        if (chunkSize <= 0 || chunkSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("El tamaño de trozo debe estar entre 1 byte y 2 GB: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public String name() {
+        return "mmap";
+    }
+
+    @Override
+    public OrderTotals process(List<Path> files) throws Exception {
+        List<Future<OrderTotals>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(this.parallelism)) {
+            for (Path file : files) {
+                for (Chunk chunk : this.split(file)) {
+                    results.add(executor.submit(() -> processChunk(chunk)));
+                }
+            }
+        }
+        OrderTotals totals = OrderTotals.EMPTY;
+        for (Future<OrderTotals> result : results) {
+            totals = totals.merge(result.get());
+        }
+        return totals;
+    }
+
+    private List<Chunk> split(Path file) throws IOException {
+        List<Chunk> chunks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = 0;
+            ByteBuffer probe = ByteBuffer.allocate(256);
+            do {
+                long end = start + this.chunkSize >= size ? size : nextLineStart(channel, start + this.chunkSize, probe);
+                chunks.add(new Chunk(file, start, end, start == 0));
+                start = end;
+            } while (start < size);
+        }
+        return chunks;
+    }
+
+    /**
+     * Devuelve la posición siguiente al primer {@code \n} a partir de {@code position}, o el final del archivo.
+     */
+    private static long nextLineStart(FileChannel channel, long position, ByteBuffer probe) throws IOException {
+        while (true) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    private static OrderTotals processChunk(Chunk chunk) {
+        OrderParser parser = new OrderParser();
+        try (FileChannel channel = FileChannel.open(chunk.file(), StandardOpenOption.READ)) {
+            if (chunk.end() > chunk.start()) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk.start(),
+                        chunk.end() - chunk.start());
+                parser.feed(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // El archivo se cuenta una sola vez, en su primer trozo
+        return parser.finish(chunk.first() ? 1 : 0);
+    }
+}
@@ -0,0 +1,75 @@
+package dev.magadiflo.app.fileprocessing;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Interpreta líneas {@code id,cliente,monto} (monto con dos decimales, por ejemplo {@code 125.40}) directamente
+ * sobre bytes, sin crear {@code String}. Conserva el estado entre llamadas, así que una línea puede llegar partida
+ * entre dos buffers. Las tres implementaciones usan este mismo parser, de modo que solo cambia cómo se leen los bytes.
+ */
+final class OrderParser {
+
+    private long orders;
+    private long amountCents;
+    private long maxAmountCents;
+    private long bytes;
+
+    private int field = 0;
+    private long currentCents = 0;
+    private boolean lineHasData = false;
+
+    void feed(byte[] buffer, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            this.accept(buffer[i]);
+        }
+        this.bytes += length;
+    }
+
+    void feed(ByteBuffer buffer) {
+        int length = buffer.remaining();
+        for (int i = buffer.position(); i < buffer.limit(); i++) {
+            this.accept(buffer.get(i));
+        }
+        this.bytes += length;
+    }
+
+    /**
+     * Cierra una última línea sin salto de línea final y devuelve los totales de lo procesado.
+     */
+    OrderTotals finish(long files) {
+        if (this.lineHasData) {
+            this.endLine();
+        }
+        return new OrderTotals(files, this.bytes, this.orders, this.amountCents, this.maxAmountCents);
+    }
+
+    private void accept(byte b) {
+        switch (b) {
+            case '\n' -> this.endLine();
+            case ',' -> {
+                this.field++;
+                this.lineHasData = true;
+            }
+            case '.', '\r' -> {
+                // El monto siempre tiene dos decimales: basta con ignorar el punto
+            }
+            default -> {
+                this.lineHasData = true;
+                if (this.field == 2 && b >= '0' && b <= '9') {
+                    this.currentCents = this.currentCents * 10 + (b - '0');
+                }
+            }
+        }
+    }
+
+    private void endLine() {
+        if (this.field == 2) {
+            this.orders++;
+            this.amountCents += this.currentCents;
+            this.maxAmountCents = Math.max(this.maxAmountCents, this.currentCents);
+        }
+        this.field = 0;
+        this.currentCents = 0;
+        this.lineHasData = false;
+    }
+}
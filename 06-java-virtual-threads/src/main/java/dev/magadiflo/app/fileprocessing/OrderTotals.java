@@ -0,0 +1,15 @@
+package dev.magadiflo.app.fileprocessing;
+
+/**
+ * Resultado agregado de procesar archivos de pedidos. Todas las implementaciones deben producir el mismo valor para el
+ * mismo dataset.
+ */
+public record OrderTotals(long files, long bytes, long orders, long amountCents, long maxAmountCents) {
+
+    public static final OrderTotals EMPTY = new OrderTotals(0, 0, 0, 0, 0);
+
+    public OrderTotals merge(OrderTotals other) {
+        return new OrderTotals(this.files + other.files, this.bytes + other.bytes, this.orders + other.orders,
+                this.amountCents + other.amountCents, Math.max(this.maxAmountCents, other.maxAmountCents));
+    }
+}
@@ -0,0 +1,160 @@
+package dev.magadiflo.app.limiter;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Pool genérico de objetos costosos (conexiones, clientes, buffers) con un máximo de {@code maxSize} instancias.
+ * <p>
+ * La concurrencia se limita con un {@link PermitPool}: quien no consigue un permiso espera aparcado y sin fijar su
+ * carrier. Con el permiso tomado siempre hay un objeto disponible, ya sea uno inactivo o uno nuevo creado con el
+ * {@code factory}, así que los objetos nunca superan {@code maxSize}. Los objetos se crean de forma perezosa.
+ * <p>
+ * Al cerrar el pool se destruyen los objetos inactivos y, a medida que se devuelven, los prestados. Después de cerrarlo
+ * {@link #borrow} lanza {@link IllegalStateException}.
+ */
+public class BlockingObjectPool<T> implements AutoCloseable {
+
+    private final Supplier<? extends T> factory;
+    private final Predicate<? super T> validator;
+    private final Consumer<? super T> destroyer;
+    private final PermitPool permits;
+    private final ConcurrentLinkedDeque<T> idle = new ConcurrentLinkedDeque<>();
+    private volatile boolean closed = false;
+
+    /**
+     * @param validator se evalúa al prestar un objeto inactivo; si devuelve {@code false} el objeto se destruye y se
+     *                  crea otro
+     * @param destroyer libera un objeto descartado o, al cerrar el pool, cada objeto inactivo
+     */
+    public BlockingObjectPool(String name, int maxSize, Supplier<? extends T> factory,
+                              Predicate<? super T> validator, Consumer<? super T> destroyer) {
+        this.factory = Objects.requireNonNull(factory);
+        this.validator = Objects.requireNonNull(validator);
+        this.destroyer = Objects.requireNonNull(destroyer);
+        this.permits = new PermitPool(name, maxSize);
+    }
+
+    public BlockingObjectPool(String name, int maxSize, Supplier<? extends T> factory) {
+        this(name, maxSize, factory, object -> true, object -> {
+        });
+    }
+
+    /**
+     * Presta un objeto esperando como máximo {@code timeout}. Se devuelve al pool cerrando el {@link Lease}.
+     *
+     * @throws TimeoutException     si todos los objetos siguen prestados al vencer el plazo
+     * @throws IllegalStateException si el pool está cerrado
+     */
+    public Lease borrow(Duration timeout) throws InterruptedException, TimeoutException {
+        this.ensureOpen();
+        PermitPool.Permit permit = this.permits.acquire(timeout);
+        try {
+            // Pudo cerrarse mientras se esperaba el permiso
+            this.ensureOpen();
+            return new Lease(this.takeIdleOrCreate(), permit);
+        } catch (RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+    }
+
+    public PermitPool.Stats stats() {
+        return this.permits.stats();
+    }
+
+    public void logStats() {
+        this.permits.logStats();
+    }
+
+    /**
+     * Destruye los objetos inactivos. Los objetos prestados se destruyen cuando se devuelven.
+     */
+    @Override
+    public void close() {
+        // Se marca antes de vaciar: un objeto devuelto después de este vaciado lo destruye su Lease
+        this.closed = true;
+        T object;
+        while ((object = this.idle.pollFirst()) != null) {
+            this.destroyer.accept(object);
+        }
+    }
+
+    private void ensureOpen() {
+        if (this.closed) {
+            throw new IllegalStateException("El pool está cerrado");
+        }
+    }
+
+    private T takeIdleOrCreate() {
+        T object;
+        // LIFO: el objeto usado más recientemente es el que con más probabilidad sigue "caliente"
+        while ((object = this.idle.pollFirst()) != null) {
+            if (this.validator.test(object)) {
+                return object;
+            }
+            this.destroyer.accept(object);
+        }
+        return this.factory.get();
+    }
+
+    /**
+     * Préstamo de un objeto del pool. Si el objeto quedó inservible (por ejemplo, una conexión rota), se descarta con
+     * {@link #invalidate()} en lugar de devolverlo.
+     */
+    public final class Lease implements AutoCloseable {
+        private final T object;
+        private final PermitPool.Permit permit;
+        private final AtomicBoolean returned = new AtomicBoolean(false);
+
+        private Lease(T object, PermitPool.Permit permit) {
+            this.object = object;
+            this.permit = permit;
+        }
+
+        public T get() {
+            if (this.returned.get()) {
+                throw new IllegalStateException("El objeto ya fue devuelto al pool");
+            }
+            return this.object;
+        }
+
+        public void invalidate() {
+            if (this.returned.compareAndSet(false, true)) {
+                try {
+                    destroyer.accept(this.object);
+                } finally {
+                    this.permit.close();
+                }
+            }
+        }
+
+        /**
+         * Devuelve el objeto al pool, o lo destruye si el pool ya está cerrado.
+         */
+        @Override
+        public void close() {
+            if (this.returned.compareAndSet(false, true)) {
+                try {
+                    if (closed) {
+                        destroyer.accept(this.object);
+                    } else {
+                        idle.offerFirst(this.object);
+                        // Si el pool se cerró entre la comprobación y offerFirst(), su vaciado pudo no verlo
+                        if (closed && idle.removeFirstOccurrence(this.object)) {
+                            destroyer.accept(this.object);
+                        }
+                    }
+                } finally {
+                    this.permit.close();
+                }
+            }
+        }
+    }
+}
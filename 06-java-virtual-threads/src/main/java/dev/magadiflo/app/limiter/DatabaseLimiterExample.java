@@ -0,0 +1,87 @@
+package dev.magadiflo.app.limiter;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * El mismo patrón de {@code VirtualThreadExample} (10 000 tareas concurrentes), pero contra una base de datos simulada
+ * que solo acepta 50 conexiones. Las tareas toman una conexión de un {@link BlockingObjectPool}; la base de datos
+ * registra cuántas conexiones abiertas llegó a tener a la vez.
+ * <p>
+ * Al final, un {@link TokenBucketRateLimiter} limita 200 llamadas a una API externa a 100 por segundo.
+ */
+@Slf4j
+public class DatabaseLimiterExample {
+
+    private static final int TASKS = 10_000;
+    private static final int MAX_CONNECTIONS = 50;
+
+    /**
+     * Conexión simulada: cada consulta bloquea el hilo 20 ms.
+     */
+    static final class FakeConnection {
+        private static final AtomicInteger created = new AtomicInteger();
+        private static final AtomicInteger active = new AtomicInteger();
+        private static final AtomicInteger peakActive = new AtomicInteger();
+
+        private final int id = created.incrementAndGet();
+
+        String query(int taskId) throws InterruptedException {
+            peakActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(Duration.ofMillis(20));
+                return "fila-" + taskId + "@conexion-" + this.id;
+            } finally {
+                active.decrementAndGet();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LongAdder completed = new LongAdder();
+        LongAdder timedOut = new LongAdder();
+
+        long start = System.nanoTime();
+        try (BlockingObjectPool<FakeConnection> pool = new BlockingObjectPool<>("db-pool", MAX_CONNECTIONS, FakeConnection::new)) {
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < TASKS; i++) {
+                    int taskId = i;
+                    executor.submit(() -> {
+                        try (BlockingObjectPool<FakeConnection>.Lease lease = pool.borrow(Duration.ofSeconds(10))) {
+                            lease.get().query(taskId);
+                            completed.increment();
+                        } catch (TimeoutException e) {
+                            timedOut.increment();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+                }
+            }
+            // Al cerrarse, el executor ya esperó a que terminaran todas las tareas
+            pool.logStats();
+        }
+        log.info("{} tareas completadas y {} timeouts en {} ms; conexiones creadas: {}, máximo abiertas a la vez: {}",
+                completed.sum(), timedOut.sum(), (System.nanoTime() - start) / 1_000_000,
+                FakeConnection.created.get(), FakeConnection.peakActive.get());
+
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("api-externa", 100, 10);
+        start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                executor.submit(() -> {
+                    limiter.acquire();
+                    return null;
+                });
+            }
+        }
+        limiter.logStats();
+        log.info("200 llamadas a 100 ops/s (ráfaga de 10) en {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,117 @@
+package dev.magadiflo.app.limiter;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limita cuántas tareas acceden a la vez a un recurso escaso (por ejemplo, 50 conexiones a una base de datos).
+ * <p>
+ * Usa un {@link Semaphore} justo (FIFO): con miles de hilos virtuales esperando, ninguno se queda sin turno
+ * indefinidamente. La espera de {@code Semaphore} aparca el hilo con {@code LockSupport}, así que un hilo virtual en
+ * espera libera su carrier. Limitar la concurrencia, y no la cantidad de hilos, es la forma de proteger un backend
+ * cuando se usan hilos virtuales.
+ */
+@Slf4j
+public class PermitPool {
+
+    /**
+     * @param utilisation fracción del tiempo, desde que se creó el pool, en que los permisos estuvieron tomados
+     */
+    public record Stats(String name, int permits, int inUse, int peakInUse, long acquired, long timeouts,
+                        Duration averageWait, Duration maxWait, double utilisation) {
+    }
+
+    private final String name;
+    private final int permits;
+    private final Semaphore semaphore;
+    private final WaitStats waitStats = new WaitStats();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger peakInUse = new AtomicInteger();
+    private final LongAdder busyNanos = new LongAdder();
+    private final long createdAt = System.nanoTime();
+
+    public PermitPool(String name, int permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("La cantidad de permisos debe ser mayor a 0: " + permits);
+        }
+        this.name = name;
+        this.permits = permits;
+        this.semaphore = new Semaphore(permits, true);
+    }
+
+    /**
+     * Espera como máximo {@code timeout} por un permiso. El permiso se devuelve cerrándolo, idealmente con
+     * try-with-resources.
+     *
+     * @throws TimeoutException si no se obtuvo un permiso a tiempo
+     */
+    public Permit acquire(Duration timeout) throws InterruptedException, TimeoutException {
+        long start = System.nanoTime();
+        boolean acquired = this.semaphore.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        long now = System.nanoTime();
+        if (!acquired) {
+            this.waitStats.rejected(now - start);
+            throw new TimeoutException(String.format("%s: sin permiso disponible tras %d ms", this.name,
+                    timeout.toMillis()));
+        }
+        this.waitStats.granted(now - start);
+        this.peakInUse.accumulateAndGet(this.inUse.incrementAndGet(), Math::max);
+        return new Permit(now);
+    }
+
+    /**
+     * Ejecuta {@code action} con un permiso tomado y lo devuelve al terminar, incluso si la acción falla.
+     */
+    // El permiso no se usa en el cuerpo: solo importa que el try lo devuelva
+    @SuppressWarnings("try")
+    public <T> T call(Duration timeout, Callable<T> action) throws Exception {
+        try (Permit ignored = this.acquire(timeout)) {
+            return action.call();
+        }
+    }
+
+    public Stats stats() {
+        long elapsed = Math.max(1, System.nanoTime() - this.createdAt);
+        return new Stats(this.name, this.permits, this.inUse.get(), this.peakInUse.get(), this.waitStats.granted(),
+                this.waitStats.rejected(), this.waitStats.averageWait(), this.waitStats.maxWait(),
+                (double) this.busyNanos.sum() / ((double) this.permits * elapsed));
+    }
+
+    public void logStats() {
+        Stats stats = this.stats();
+        log.info("{}: {} permisos, en uso {} (máx. {}), {} concedidos, {} timeouts, espera prom. {} ms / máx. {} ms, utilización {}%",
+                stats.name(), stats.permits(), stats.inUse(), stats.peakInUse(), stats.acquired(), stats.timeouts(),
+                String.format("%.2f", stats.averageWait().toNanos() / 1_000_000.0),
+                String.format("%.2f", stats.maxWait().toNanos() / 1_000_000.0),
+                String.format("%.1f", stats.utilisation() * 100));
+    }
+
+    /**
+     * Permiso tomado. Cerrarlo más de una vez no tiene efecto, para no liberar permisos ajenos por error.
+     */
+    public final class Permit implements AutoCloseable {
+        private final long acquiredAt;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Permit(long acquiredAt) {
+            this.acquiredAt = acquiredAt;
+        }
+
+        @Override
+        public void close() {
+            if (this.released.compareAndSet(false, true)) {
+                busyNanos.add(System.nanoTime() - this.acquiredAt);
+                inUse.decrementAndGet();
+                semaphore.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package dev.magadiflo.app.limiter;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limita la tasa de operaciones por segundo con un token bucket: el bucket se rellena a {@code permitsPerSecond} y
+ * admite ráfagas de hasta {@code burst} operaciones.
+ * <p>
+ * Cada llamada reserva su token dentro de un {@link ReentrantLock} (el saldo puede quedar negativo, lo que ordena a
+ * los que esperan) y luego duerme fuera del lock hasta que su token esté disponible. Un hilo virtual que duerme se
+ * desmonta de su carrier, y como el lock solo se toma para hacer cuentas, nunca hay bloqueo dentro de la sección
+ * crítica.
+ */
+@Slf4j
+public class TokenBucketRateLimiter {
+
+    public record Stats(String name, double permitsPerSecond, long granted, long rejected, Duration averageWait,
+                        Duration maxWait) {
+    }
+
+    private final String name;
+    private final double permitsPerSecond;
+    private final double burst;
+    private final double nanosPerToken;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final WaitStats waitStats = new WaitStats();
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucketRateLimiter(String name, double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("La tasa y la ráfaga deben ser mayores a 0");
+        }
+        this.name = name;
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.nanosPerToken = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+        this.tokens = burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Obtiene un token esperando como máximo {@code timeout}. Si ya se sabe que el token no estará disponible a
+     * tiempo, retorna {@code false} de inmediato sin consumir nada.
+     */
+    public boolean tryAcquire(Duration timeout) throws InterruptedException {
+        long start = System.nanoTime();
+        long waitNanos;
+        this.lock.lock();
+        try {
+            this.refill(start);
+            waitNanos = this.tokens >= 1 ? 0 : (long) Math.ceil((1 - this.tokens) * this.nanosPerToken);
+            if (waitNanos > timeout.toNanos()) {
+                this.waitStats.rejected(0);
+                return false;
+            }
+            this.tokens -= 1;
+        } finally {
+            this.lock.unlock();
+        }
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                this.giveBack();
+                throw e;
+            }
+        }
+        this.waitStats.granted(System.nanoTime() - start);
+        return true;
+    }
+
+    /**
+     * Espera sin límite hasta obtener un token.
+     */
+    public void acquire() throws InterruptedException {
+        this.tryAcquire(Duration.ofNanos(Long.MAX_VALUE));
+    }
+
+    public Stats stats() {
+        return new Stats(this.name, this.permitsPerSecond, this.waitStats.granted(), this.waitStats.rejected(),
+                this.waitStats.averageWait(), this.waitStats.maxWait());
+    }
+
+    public void logStats() {
+        Stats stats = this.stats();
+        log.info("{}: {} ops/s, {} concedidos, {} rechazados, espera prom. {} ms / máx. {} ms", stats.name(),
+                String.format("%.1f", stats.permitsPerSecond()), stats.granted(), stats.rejected(),
+                String.format("%.2f", stats.averageWait().toNanos() / 1_000_000.0),
+                String.format("%.2f", stats.maxWait().toNanos() / 1_000_000.0));
+    }
+
+    // Devuelve el token reservado por un hilo que fue interrumpido antes de usarlo
+    private void giveBack() {
+        this.lock.lock();
+        try {
+            this.tokens += 1;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void refill(long now) {
+        this.tokens = Math.min(this.burst, this.tokens + (now - this.lastRefill) / this.nanosPerToken);
+        this.lastRefill = now;
+    }
+}
@@ -0,0 +1,48 @@
+package dev.magadiflo.app.limiter;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Acumula los tiempos de espera de un limitador. Es seguro para uso concurrente y no bloquea.
+ */
+final class WaitStats {
+
+    private final LongAdder granted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    void granted(long waitNanos) {
+        this.granted.increment();
+        this.recordWait(waitNanos);
+    }
+
+    void rejected(long waitNanos) {
+        this.rejected.increment();
+        this.recordWait(waitNanos);
+    }
+
+    long granted() {
+        return this.granted.sum();
+    }
+
+    long rejected() {
+        return this.rejected.sum();
+    }
+
+    Duration averageWait() {
+        long count = this.granted.sum() + this.rejected.sum();
+        return Duration.ofNanos(count == 0 ? 0 : this.totalWaitNanos.sum() / count);
+    }
+
+    Duration maxWait() {
+        return Duration.ofNanos(this.maxWaitNanos.get());
+    }
+
+    private void recordWait(long waitNanos) {
+        this.totalWaitNanos.add(waitNanos);
+        this.maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+}
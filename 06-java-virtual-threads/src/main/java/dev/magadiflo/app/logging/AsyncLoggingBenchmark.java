@@ -0,0 +1,120 @@
+package dev.magadiflo.app.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.ConsoleAppender;
+import ch.qos.logback.core.FileAppender;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Mide tareas por segundo con el mismo patrón de {@code VirtualThreadExample} y {@code PlatformThreadExample}: cada
+ * tarea registra un {@code log.info} con su número y el nombre del hilo. Compara el logging desactivado con los
+ * appenders síncronos de logback y con {@link AsyncRingBufferAppender}, tanto en consola como en archivo.
+ * <p>
+ * Como el propio logging es lo que se mide, los resultados se imprimen en la salida de error. Conviene redirigir la
+ * salida estándar: {@code java AsyncLoggingBenchmark > /dev/null}.
+ */
+@Slf4j
+public class AsyncLoggingBenchmark {
+
+    private static final int TASKS = 100_000;
+    private static final int POOL_SIZE = 200;
+    private static final int ROUNDS = 3;
+    private static final String PATTERN = "%d{HH:mm:ss.SSS} [%thread] %level %logger -- %msg%n";
+
+    enum Mode {
+        OFF, SYNC_CONSOLE, ASYNC_CONSOLE, SYNC_FILE, ASYNC_MAPPED_FILE
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Files.createTempDirectory("async-logging");
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+
+        for (int round = 0; round <= ROUNDS; round++) {
+            System.err.println(round == 0 ? "Calentamiento" : "Ronda " + round);
+            for (boolean virtual : List.of(true, false)) {
+                for (Mode mode : Mode.values()) {
+                    Appender<ILoggingEvent> appender = configure(context, root, mode, directory);
+                    long start = System.nanoTime();
+                    runTasks(virtual);
+                    long elapsed = System.nanoTime() - start;
+                    // Detener el appender vacía su buffer; ese tiempo también cuenta
+                    if (appender != null) {
+                        appender.stop();
+                    }
+                    long total = System.nanoTime() - start;
+                    System.err.printf("  %-8s %-18s %,12.0f tareas/s  (con vaciado final: %,12.0f tareas/s)%n",
+                            virtual ? "virtual" : "pool", mode, TASKS / (elapsed / 1e9), TASKS / (total / 1e9));
+                }
+            }
+        }
+        root.detachAndStopAllAppenders();
+    }
+
+    private static void runTasks(boolean virtual) {
+        try (ExecutorService executor = virtual ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(POOL_SIZE)) {
+            for (int i = 0; i < TASKS; i++) {
+                int taskId = i;
+                executor.submit(() -> log.info("Task {} en {}", taskId, Thread.currentThread().getName()));
+            }
+        }
+    }
+
+    private static Appender<ILoggingEvent> configure(LoggerContext context, Logger root, Mode mode, Path directory) {
+        root.detachAndStopAllAppenders();
+        if (mode == Mode.OFF) {
+            root.setLevel(Level.WARN);
+            return null;
+        }
+        root.setLevel(Level.INFO);
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        Appender<ILoggingEvent> appender = switch (mode) {
+            case SYNC_CONSOLE -> {
+                ConsoleAppender<ILoggingEvent> console = new ConsoleAppender<>();
+                console.setEncoder(encoder);
+                yield console;
+            }
+            case SYNC_FILE -> {
+                FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+                fileAppender.setFile(directory.resolve("sync.log").toString());
+                fileAppender.setAppend(false);
+                fileAppender.setEncoder(encoder);
+                yield fileAppender;
+            }
+            case ASYNC_CONSOLE, ASYNC_MAPPED_FILE -> {
+                AsyncRingBufferAppender async = new AsyncRingBufferAppender();
+                async.setBufferSize(16_384);
+                async.setEncoder(encoder);
+                if (mode == Mode.ASYNC_MAPPED_FILE) {
+                    async.setFile(directory.resolve("async.log").toString());
+                }
+                yield async;
+            }
+            case OFF -> throw new IllegalStateException();
+        };
+        appender.setContext(context);
+        appender.setName(mode.name());
+        appender.start();
+        root.addAppender(appender);
+        return appender;
+    }
+}
@@ -0,0 +1,280 @@
+package dev.magadiflo.app.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.encoder.Encoder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Appender de logback asíncrono y sin locks en el camino del productor.
+ * <p>
+ * El hilo que registra el log solo prepara el evento y lo encola en un {@link MpscRingBuffer}. Un único hilo escritor
+ * saca los eventos por lotes, los codifica con el {@code encoder} en un buffer reutilizable y escribe cada lote con una
+ * sola operación en la consola o en un archivo mapeado en memoria. Como extiende {@link UnsynchronizedAppenderBase},
+ * logback no toma ningún lock por evento, así que las tareas no compiten entre sí por el appender y los hilos virtuales
+ * no quedan fijados (pinned) mientras se escribe.
+ * <p>
+ * Configuración (propiedades del appender en {@code logback.xml}):
+ * <ul>
+ *     <li>{@code bufferSize}: capacidad del buffer, potencia de 2 (por defecto 8192)</li>
+ *     <li>{@code batchSize}: máximo de eventos por lote (por defecto 512)</li>
+ *     <li>{@code overflowPolicy}: {@code BLOCK}, {@code DROP} o {@code DROP_BELOW_WARN} (ver {@link OverflowPolicy})</li>
+ *     <li>{@code file}: si se define, escribe en ese archivo mapeado en memoria en lugar de la consola</li>
+ *     <li>{@code regionSize}: bytes mapeados de una vez en modo archivo (por defecto 64 MB)</li>
+ * </ul>
+ * <p>
+ * Al detenerse, el escritor lee la última secuencia reservada y vacía el buffer hasta ella, esperando a los productores
+ * que reservaron su posición pero aún no publicaron el evento. Un productor que pasó la comprobación de
+ * {@code isStarted()} antes de {@link #stop()} y reserva después de esa lectura cuenta su evento como descartado.
+ */
+public class AsyncRingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    private static final long IDLE_PARK_NANOS = 100_000;
+    private static final long FULL_WAIT_NANOS = 1_000_000;
+
+    private Encoder<ILoggingEvent> encoder;
+    private int bufferSize = 8192;
+    private int batchSize = 512;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    private String file;
+    private long regionSize = 64L * 1024 * 1024;
+
+    private MpscRingBuffer<ILoggingEvent> ring;
+    private LogSink sink;
+    private Thread writer;
+    private volatile boolean running = false;
+    // Secuencia hasta la que el escritor vació el buffer al detenerse; Long.MAX_VALUE mientras no se detiene
+    private volatile long closedAt = Long.MAX_VALUE;
+    private byte[] batchBytes = new byte[64 * 1024];
+    private int batchLength = 0;
+
+    // Solo se usan cuando el buffer se llena: los productores esperan aquí y el escritor los despierta tras cada lote
+    private final ReentrantLock fullLock = new ReentrantLock();
+    private final Condition notFull = this.fullLock.newCondition();
+    private final AtomicInteger waitingProducers = new AtomicInteger();
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder blocked = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    @Override
+    public void start() {
+        if (this.encoder == null) {
+            this.addError("No se configuró un encoder para el appender " + this.name);
+            return;
+        }
+        try {
+            this.ring = new MpscRingBuffer<>(this.bufferSize);
+            this.sink = this.file == null ? new ConsoleSink() : new MappedFileSink(Path.of(this.file), this.regionSize);
+            byte[] header = this.encoder.headerBytes();
+            if (header != null) {
+                this.sink.write(header, 0, header.length);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            this.addError("No se pudo iniciar el appender " + this.name, e);
+            return;
+        }
+        this.running = true;
+        this.writer = Thread.ofPlatform().name("async-log-writer-" + this.name).daemon().start(this::writeLoop);
+        super.start();
+    }
+
+    /**
+     * Deja de aceptar eventos, espera a que el escritor vacíe el buffer y cierra el destino.
+     */
+    @Override
+    public void stop() {
+        if (!this.isStarted()) {
+            return;
+        }
+        super.stop();
+        this.running = false;
+        LockSupport.unpark(this.writer);
+        try {
+            this.writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.addInfo(String.format("%s: %d eventos encolados, %d descartados, %d esperas por buffer lleno, %d lotes",
+                this.name, this.enqueued.sum(), this.dropped.sum(), this.blocked.sum(), this.batches.sum()));
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // Fija en el evento todo lo que depende del hilo actual (mensaje formateado, MDC, nombre del hilo)
+        event.prepareForDeferredProcessing();
+        long sequence = this.ring.offer(event);
+        if (sequence >= 0) {
+            this.count(sequence);
+            return;
+        }
+        if (this.overflowPolicy == OverflowPolicy.DROP ||
+                (this.overflowPolicy == OverflowPolicy.DROP_BELOW_WARN && !event.getLevel().isGreaterOrEqual(Level.WARN))) {
+            this.dropped.increment();
+            return;
+        }
+        this.blocked.increment();
+        sequence = this.awaitSpace(event);
+        if (sequence >= 0) {
+            this.count(sequence);
+        } else {
+            this.dropped.increment();
+        }
+    }
+
+    /**
+     * Cuenta como encolado un evento que obtuvo la secuencia {@code sequence}, salvo que el escritor ya se haya detenido
+     * sin llegar a ella. La reserva es una escritura volatile de {@code tail} seguida de la lectura de {@code running},
+     * y el escritor escribe {@code running} y luego lee {@code tail}: si aquí se ve {@code running}, el escritor verá
+     * esta secuencia y la escribirá.
+     */
+    private void count(long sequence) {
+        if (!this.running) {
+            // El escritor publica closedAt en cuanto lee la última secuencia reservada
+            while (this.closedAt == Long.MAX_VALUE && this.writer.isAlive()) {
+                Thread.onSpinWait();
+            }
+            if (sequence >= this.closedAt) {
+                this.dropped.increment();
+                return;
+            }
+        }
+        this.enqueued.increment();
+    }
+
+    /**
+     * Espera a que el escritor libere espacio. No se hace spin: con cientos de productores esperando, el spin le
+     * quitaría la CPU justamente al escritor. La espera con timeout cubre una señal perdida entre el último intento y
+     * el {@code await}.
+     */
+    private long awaitSpace(ILoggingEvent event) {
+        this.waitingProducers.incrementAndGet();
+        this.fullLock.lock();
+        try {
+            long sequence;
+            while ((sequence = this.ring.offer(event)) < 0) {
+                if (!this.running) {
+                    return -1;
+                }
+                this.notFull.awaitNanos(FULL_WAIT_NANOS);
+            }
+            return sequence;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } finally {
+            this.fullLock.unlock();
+            this.waitingProducers.decrementAndGet();
+        }
+    }
+
+    private void signalWaitingProducers() {
+        if (this.waitingProducers.get() > 0) {
+            this.fullLock.lock();
+            try {
+                this.notFull.signalAll();
+            } finally {
+                this.fullLock.unlock();
+            }
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            int drained = this.ring.drain(this::encode, this.batchSize);
+            if (drained > 0) {
+                this.signalWaitingProducers();
+                this.flushBatch();
+            } else if (!this.running) {
+                // Los productores que reservaron antes de esta lectura vieron running == true: sus eventos se esperan
+                // aunque todavía no estén publicados. Los que reserven después se cuentan como descartados
+                long end = this.ring.claimed();
+                if (this.ring.drainUntil(this::encode, end) > 0) {
+                    this.flushBatch();
+                }
+                this.closedAt = end;
+                this.signalWaitingProducers();
+                break;
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        try {
+            byte[] footer = this.encoder.footerBytes();
+            if (footer != null) {
+                this.sink.write(footer, 0, footer.length);
+            }
+            this.sink.close();
+        } catch (IOException e) {
+            this.addError("Error cerrando el destino del appender " + this.name, e);
+        }
+    }
+
+    private void encode(ILoggingEvent event) {
+        byte[] bytes = this.encoder.encode(event);
+        if (this.batchLength + bytes.length > this.batchBytes.length) {
+            byte[] larger = new byte[Math.max(this.batchBytes.length * 2, this.batchLength + bytes.length)];
+            System.arraycopy(this.batchBytes, 0, larger, 0, this.batchLength);
+            this.batchBytes = larger;
+        }
+        System.arraycopy(bytes, 0, this.batchBytes, this.batchLength, bytes.length);
+        this.batchLength += bytes.length;
+    }
+
+    private void flushBatch() {
+        try {
+            this.sink.write(this.batchBytes, 0, this.batchLength);
+            this.sink.flush();
+            this.batches.increment();
+        } catch (IOException e) {
+            this.addError("Error escribiendo un lote de logs", e);
+        } finally {
+            this.batchLength = 0;
+        }
+    }
+
+    public long getEnqueuedCount() {
+        return this.enqueued.sum();
+    }
+
+    public long getDroppedCount() {
+        return this.dropped.sum();
+    }
+
+    public long getBlockedCount() {
+        return this.blocked.sum();
+    }
+
+    public void setEncoder(Encoder<ILoggingEvent> encoder) {
+        this.encoder = encoder;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public void setRegionSize(long regionSize) {
+        this.regionSize = regionSize;
+    }
+}
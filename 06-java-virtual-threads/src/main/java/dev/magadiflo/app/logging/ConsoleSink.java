@@ -0,0 +1,29 @@
+package dev.magadiflo.app.logging;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Escribe directamente en el descriptor de la salida estándar, sin pasar por {@code System.out} (que es un
+ * {@code PrintStream} sincronizado). Cada lote se escribe con una sola llamada al sistema.
+ */
+final class ConsoleSink implements LogSink {
+
+    private final FileOutputStream out = new FileOutputStream(FileDescriptor.out);
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        this.out.write(bytes, offset, length);
+    }
+
+    @Override
+    public void flush() {
+        // FileOutputStream no tiene buffer propio
+    }
+
+    @Override
+    public void close() {
+        // No se cierra la salida estándar
+    }
+}
@@ -0,0 +1,20 @@
+package dev.magadiflo.app.logging;
+
+import java.io.IOException;
+
+/**
+ * Destino de los bytes ya codificados. Solo lo usa el hilo escritor de {@link AsyncRingBufferAppender}, así que las
+ * implementaciones no necesitan ser thread-safe.
+ */
+interface LogSink extends AutoCloseable {
+
+    void write(byte[] bytes, int offset, int length) throws IOException;
+
+    /**
+     * Se llama al final de cada lote.
+     */
+    void flush() throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,56 @@
+package dev.magadiflo.app.logging;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Escribe en un archivo mapeado en memoria: cada escritura es una copia a memoria y el sistema operativo vuelca las
+ * páginas al disco. El archivo se mapea por regiones de {@code regionSize} bytes; al llenarse una región se mapea la
+ * siguiente. Al cerrar, el archivo se trunca al tamaño realmente escrito.
+ */
+final class MappedFileSink implements LogSink {
+
+    private final FileChannel channel;
+    private final long regionSize;
+    private MappedByteBuffer region;
+    private long regionStart;
+
+    MappedFileSink(Path file, long regionSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.regionSize = regionSize;
+        this.regionStart = 0;
+        this.region = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, regionSize);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (!this.region.hasRemaining()) {
+                this.regionStart += this.region.position();
+                this.region = this.channel.map(FileChannel.MapMode.READ_WRITE, this.regionStart, this.regionSize);
+            }
+            int chunk = Math.min(length, this.region.remaining());
+            this.region.put(bytes, offset, chunk);
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    @Override
+    public void flush() {
+        // Las páginas las vuelca el sistema operativo; force() en cada lote anularía la ventaja del mapeo
+    }
+
+    @Override
+    public void close() throws IOException {
+        long written = this.regionStart + this.region.position();
+        this.region.force();
+        this.region = null;
+        this.channel.truncate(written);
+        this.channel.close();
+    }
+}
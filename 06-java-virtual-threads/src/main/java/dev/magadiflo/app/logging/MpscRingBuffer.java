@@ -0,0 +1,112 @@
+package dev.magadiflo.app.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Buffer circular acotado, sin locks, para muchos productores y un único consumidor.
+ * <p>
+ * Cada productor reserva una posición con un CAS sobre {@code tail} y luego publica el elemento en su slot. El
+ * consumidor avanza {@code head} leyendo slots hasta encontrar uno vacío, que puede ser el final del buffer o una
+ * posición reservada cuyo elemento todavía no se publicó. Un slot vuelve a quedar en {@code null} al consumirse, y eso
+ * lo libera para la siguiente vuelta.
+ */
+final class MpscRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head = 0;
+
+    MpscRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("La capacidad debe ser una potencia de 2: " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Intenta encolar sin bloquear.
+     *
+     * @return la secuencia reservada para el elemento, o {@code -1} si el buffer está lleno
+     */
+    long offer(E element) {
+        while (true) {
+            long current = this.tail.get();
+            if (current - this.head > this.mask) {
+                return -1;
+            }
+            if (this.tail.compareAndSet(current, current + 1)) {
+                this.slots.lazySet((int) current & this.mask, element);
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Siguiente secuencia a reservar: todas las anteriores ya tienen dueño, aunque quizá aún no estén publicadas.
+     */
+    long claimed() {
+        return this.tail.get();
+    }
+
+    /**
+     * Entrega al consumidor hasta {@code limit} elementos. Solo debe llamarlo un único hilo.
+     *
+     * @return cantidad de elementos consumidos
+     */
+    int drain(Consumer<? super E> consumer, int limit) {
+        long current = this.head;
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) current & this.mask;
+            E element = this.slots.get(index);
+            if (element == null) {
+                break;
+            }
+            this.slots.lazySet(index, null);
+            consumer.accept(element);
+            current++;
+            drained++;
+        }
+        this.head = current;
+        return drained;
+    }
+
+    /**
+     * Entrega todos los elementos anteriores a la secuencia {@code end}, esperando a los que ya tienen posición
+     * reservada pero su productor aún no publicó. Solo debe llamarlo el consumidor, y solo al cerrar: mientras espera no
+     * libera espacio.
+     *
+     * @return cantidad de elementos consumidos
+     */
+    int drainUntil(Consumer<? super E> consumer, long end) {
+        long current = this.head;
+        int drained = 0;
+        while (current < end) {
+            int index = (int) current & this.mask;
+            E element = this.slots.get(index);
+            if (element == null) {
+                // Reservado y todavía sin publicar: el productor está entre el CAS y el lazySet
+                Thread.onSpinWait();
+                continue;
+            }
+            this.slots.lazySet(index, null);
+            consumer.accept(element);
+            current++;
+            drained++;
+        }
+        this.head = current;
+        return drained;
+    }
+
+    int size() {
+        return (int) Math.max(0, this.tail.get() - this.head);
+    }
+
+    int capacity() {
+        return this.mask + 1;
+    }
+}
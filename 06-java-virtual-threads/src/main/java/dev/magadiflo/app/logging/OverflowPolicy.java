@@ -0,0 +1,25 @@
+package dev.magadiflo.app.logging;
+
+/**
+ * Qué hace {@link AsyncRingBufferAppender} cuando el buffer está lleno, es decir, cuando las tareas producen logs más
+ * rápido de lo que el escritor puede volcarlos.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * El hilo que registra el log espera hasta que haya espacio. No se pierde nada, pero el ritmo de las tareas queda
+     * limitado por el del escritor. La espera aparca el hilo, así que no fija (pin) hilos virtuales.
+     */
+    BLOCK,
+
+    /**
+     * Se descarta el evento nuevo y se cuenta como perdido. Las tareas nunca esperan por el logging.
+     */
+    DROP,
+
+    /**
+     * Se descartan los eventos {@code TRACE}, {@code DEBUG} e {@code INFO}; los {@code WARN} y {@code ERROR} esperan
+     * como en {@link #BLOCK}.
+     */
+    DROP_BELOW_WARN
+}
@@ -0,0 +1,182 @@
+package dev.magadiflo.app.observability;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Muestrea periódicamente el {@link ForkJoinPool} que hace de scheduler de los hilos virtuales (sus hilos son los
+ * carriers) y conserva las últimas muestras.
+ * <p>
+ * El pool es el campo privado {@code java.lang.VirtualThread.DEFAULT_SCHEDULER}, así que leerlo requiere arrancar la
+ * JVM con {@code --add-opens java.base/java.lang=ALL-UNNAMED}. Sin esa opción el sampler sigue funcionando en modo
+ * degradado: solo informa la cantidad de hilos carrier vivos y el paralelismo configurado. Esa cantidad se cuenta
+ * recorriendo los grupos de hilos, sin pedir sus stacks, y como mucho una vez por segundo.
+ */
+@Slf4j
+public class CarrierPoolSampler implements AutoCloseable {
+
+    /**
+     * Una muestra del scheduler. Los campos que no se pueden leer en modo degradado valen -1.
+     *
+     * @param queuedTasks       continuaciones de hilos virtuales listas para ejecutarse, esperando un carrier
+     * @param queuedSubmissions tareas enviadas desde fuera del pool (por ejemplo, al iniciar hilos virtuales)
+     */
+    public record Sample(Instant time, boolean detailed, int parallelism, int poolSize, int activeCount,
+                         int runningCount, long queuedTasks, long queuedSubmissions, long stealCount) {
+
+        String toJson() {
+            return String.format(Locale.ROOT, "{\"time\":\"%s\",\"detailed\":%b,\"parallelism\":%d,\"poolSize\":%d," +
+                            "\"activeCount\":%d,\"runningCount\":%d,\"queuedTasks\":%d,\"queuedSubmissions\":%d," +
+                            "\"stealCount\":%d}", this.time, this.detailed, this.parallelism, this.poolSize,
+                    this.activeCount, this.runningCount, this.queuedTasks, this.queuedSubmissions, this.stealCount);
+        }
+    }
+
+    private static final String CARRIER_THREAD_CLASS = "jdk.internal.misc.CarrierThread";
+    private static final long CARRIER_COUNT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ForkJoinPool scheduler;
+    private final int capacity;
+    private final ArrayDeque<Sample> samples;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ScheduledExecutorService timer;
+    private final ScheduledFuture<?> task;
+    // Último conteo de carriers en modo degradado; dos muestras simultáneas pueden contar las dos, sin consecuencias
+    private volatile int carrierCount = -1;
+    private volatile long carrierCountedAt;
+
+    private CarrierPoolSampler(Duration interval, int capacity) {
+        this.scheduler = findScheduler();
+        this.capacity = capacity;
+        this.samples = new ArrayDeque<>(capacity);
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable ->
+                Thread.ofPlatform().name("carrier-sampler").daemon().unstarted(runnable));
+        this.timer = executor;
+        this.task = executor.scheduleAtFixedRate(this::record, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Toma una muestra cada {@code interval} y conserva las últimas {@code capacity}.
+     */
+    public static CarrierPoolSampler start(Duration interval, int capacity) {
+        return new CarrierPoolSampler(interval, capacity);
+    }
+
+    public boolean detailed() {
+        return this.scheduler != null;
+    }
+
+    /**
+     * Toma una muestra en este momento sin guardarla.
+     */
+    public Sample sample() {
+        ForkJoinPool pool = this.scheduler;
+        if (pool != null) {
+            return new Sample(Instant.now(), true, pool.getParallelism(), pool.getPoolSize(),
+                    pool.getActiveThreadCount(), pool.getRunningThreadCount(), pool.getQueuedTaskCount(),
+                    pool.getQueuedSubmissionCount(), pool.getStealCount());
+        }
+        return new Sample(Instant.now(), false, configuredParallelism(), this.carrierCount(), -1, -1, -1, -1, -1);
+    }
+
+    private int carrierCount() {
+        long now = System.nanoTime();
+        if (this.carrierCount < 0 || now - this.carrierCountedAt >= CARRIER_COUNT_INTERVAL_NANOS) {
+            this.carrierCount = countCarrierThreads();
+            this.carrierCountedAt = now;
+        }
+        return this.carrierCount;
+    }
+
+    /**
+     * Muestras guardadas, de la más antigua a la más reciente.
+     */
+    public List<Sample> history() {
+        this.lock.lock();
+        try {
+            return new ArrayList<>(this.samples);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public String historyJson() {
+        return this.history().stream().map(Sample::toJson).collect(Collectors.joining(",", "[", "]"));
+    }
+
+    @Override
+    public void close() {
+        this.task.cancel(false);
+        this.timer.shutdown();
+    }
+
+    private void record() {
+        Sample sample = this.sample();
+        this.lock.lock();
+        try {
+            if (this.samples.size() == this.capacity) {
+                this.samples.removeFirst();
+            }
+            this.samples.addLast(sample);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private static ForkJoinPool findScheduler() {
+        try {
+            Field field = Class.forName("java.lang.VirtualThread").getDeclaredField("DEFAULT_SCHEDULER");
+            field.setAccessible(true);
+            return (ForkJoinPool) field.get(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // InaccessibleObjectException si falta --add-opens, o el campo cambió de nombre en otra versión del JDK
+            log.warn("Scheduler de hilos virtuales no accesible ({}); se usará el modo degradado. " +
+                    "Arranca la JVM con --add-opens java.base/java.lang=ALL-UNNAMED para ver colas y robos.", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Cuenta los carriers vivos enumerando los grupos de hilos desde la raíz. A diferencia de
+     * {@code Thread.getAllStackTraces()}, no recorre el stack de cada hilo en un safepoint.
+     */
+    private static int countCarrierThreads() {
+        ThreadGroup root = Thread.currentThread().getThreadGroup();
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+        Thread[] threads;
+        int count;
+        do {
+            // activeCount() es una estimación: si el arreglo se llena se repite con uno más grande
+            threads = new Thread[root.activeCount() * 2 + 16];
+            count = root.enumerate(threads, true);
+        } while (count == threads.length);
+        int carriers = 0;
+        for (int i = 0; i < count; i++) {
+            if (threads[i].getClass().getName().equals(CARRIER_THREAD_CLASS)) {
+                carriers++;
+            }
+        }
+        return carriers;
+    }
+
+    private static int configuredParallelism() {
+        String parallelism = System.getProperty("jdk.virtualThreadScheduler.parallelism");
+        return parallelism != null ? Integer.parseInt(parallelism) : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,88 @@
+package dev.magadiflo.app.observability;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Expone los diagnósticos por HTTP (solo en loopback) para consultarlos con la aplicación en marcha:
+ * <ul>
+ *     <li>{@code GET /threads?limit=20}: volcado de hilos agrupado por stack ({@link ThreadDumpAnalyzer})</li>
+ *     <li>{@code GET /carriers}: historial de muestras del scheduler ({@link CarrierPoolSampler})</li>
+ *     <li>{@code GET /carriers/now}: una muestra tomada en el momento</li>
+ * </ul>
+ * Usa el {@code HttpServer} incluido en el JDK, atendiendo cada petición en un hilo virtual.
+ */
+@Slf4j
+public final class DiagnosticsServer implements AutoCloseable {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public DiagnosticsServer(int port, CarrierPoolSampler sampler) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.setExecutor(this.executor);
+        this.server.createContext("/threads", exchange -> respond(exchange,
+                query -> ThreadDumpAnalyzer.dump().toJson(limit(query))));
+        this.server.createContext("/carriers/now", exchange -> respond(exchange, query -> sampler.sample().toJson()));
+        this.server.createContext("/carriers", exchange -> respond(exchange, query -> sampler.historyJson()));
+        this.server.start();
+        log.info("Diagnósticos disponibles en http://localhost:{}/threads y /carriers", this.port());
+    }
+
+    public int port() {
+        return this.server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.executor.close();
+    }
+
+    private static void respond(HttpExchange exchange, Function<String, String> handler) throws IOException {
+        try (exchange) {
+            int status = 200;
+            String body;
+            if (!exchange.getRequestMethod().equals("GET")) {
+                status = 405;
+                body = "{\"error\":\"Solo se admite GET\"}";
+            } else {
+                try {
+                    body = handler.apply(exchange.getRequestURI().getQuery());
+                } catch (RuntimeException e) {
+                    status = 500;
+                    body = "{\"error\":" + Json.quote(String.valueOf(e.getMessage())) + "}";
+                }
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static int limit(String query) {
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                if (parameter.startsWith("limit=")) {
+                    return Integer.parseInt(parameter.substring("limit=".length()));
+                }
+            }
+        }
+        return DEFAULT_LIMIT;
+    }
+}
@@ -0,0 +1,89 @@
+package dev.magadiflo.app.observability;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Deja decenas de miles de hilos virtuales detenidos en tres lugares distintos (como en {@code VirtualThreadExample},
+ * pero sin saber de antemano dónde) y los localiza consultando el {@link DiagnosticsServer}.
+ * <p>
+ * Parámetros opcionales: cantidad de hilos (por defecto 100 000) y {@code --keep-running} para dejar el servidor
+ * abierto y consultarlo con {@code curl}. Para ver las colas del scheduler, ejecutar con
+ * {@code --add-opens java.base/java.lang=ALL-UNNAMED}.
+ */
+@Slf4j
+public class ObservabilityExample {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        boolean keepRunning = args.length > 1 && args[1].equals("--keep-running");
+
+        LinkedBlockingQueue<String> inbox = new LinkedBlockingQueue<>();
+        ReentrantLock lock = new ReentrantLock();
+        lock.lock(); // El hilo main retiene el lock: todos los que lo pidan quedan aparcados
+
+        try (CarrierPoolSampler sampler = CarrierPoolSampler.start(Duration.ofMillis(100), 600);
+             DiagnosticsServer server = new DiagnosticsServer(0, sampler)) {
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+            for (int i = 0; i < threads; i++) {
+                switch (i % 10) {
+                    case 0, 1, 2, 3, 4, 5 -> executor.submit(() -> Workload.callSlowBackend());
+                    case 6, 7, 8 -> executor.submit(() -> Workload.waitForMessage(inbox));
+                    default -> executor.submit(() -> Workload.updateSharedState(lock));
+                }
+            }
+            Thread.sleep(1000); // Dar tiempo a que todos los hilos lleguen a su punto de bloqueo
+
+            HttpClient client = HttpClient.newHttpClient();
+            String base = "http://localhost:" + server.port();
+            log.info("GET /threads?limit=3 -> {}", get(client, base + "/threads?limit=3"));
+            log.info("GET /carriers/now -> {}", get(client, base + "/carriers/now"));
+
+            if (keepRunning) {
+                log.info("Servidor abierto; Ctrl+C para terminar");
+                Thread.currentThread().join();
+            }
+            executor.shutdownNow(); // Interrumpe a los hilos bloqueados
+            lock.unlock();
+            executor.close();
+        }
+    }
+
+    private static String get(HttpClient client, String url) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    /**
+     * Puntos de bloqueo con nombres propios, para que el frame de la aplicación en el volcado sea reconocible.
+     */
+    static final class Workload {
+
+        static Void callSlowBackend() throws InterruptedException {
+            Thread.sleep(Duration.ofMinutes(10));
+            return null;
+        }
+
+        static String waitForMessage(LinkedBlockingQueue<String> inbox) throws InterruptedException {
+            return inbox.take();
+        }
+
+        static Void updateSharedState(ReentrantLock lock) throws InterruptedException {
+            lock.lockInterruptibly();
+            try {
+                return null;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
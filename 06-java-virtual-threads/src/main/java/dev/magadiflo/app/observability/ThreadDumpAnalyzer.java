@@ -0,0 +1,222 @@
+package dev.magadiflo.app.observability;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Genera un volcado de hilos que incluye los hilos virtuales y lo resume agrupando los hilos con el mismo stack.
+ * <p>
+ * {@code jstack} y {@code Thread.getAllStackTraces()} no muestran los hilos virtuales. La única vía oficial es
+ * {@link HotSpotDiagnosticMXBean#dumpThreads}, que escribe el volcado en un archivo. Se usa el formato de texto porque
+ * se puede leer línea a línea sin un parser JSON: con un millón de hilos el archivo ocupa cientos de MB, pero en
+ * memoria solo se guarda un grupo por stack distinto. El archivo se borra al terminar.
+ * <p>
+ * El volcado no incluye el estado de los hilos, así que se deduce de los frames superiores (ver {@link State}).
+ */
+public final class ThreadDumpAnalyzer {
+
+    /**
+     * Estado deducido del stack de un hilo.
+     */
+    public enum State {
+        SLEEPING, PARKED, TIMED_PARKED, OBJECT_WAIT, SOCKET_IO, RUNNABLE, NO_STACK
+    }
+
+    /**
+     * Hilos con el mismo stack y estado.
+     *
+     * @param applicationFrame el primer frame que no pertenece al JDK: dónde está detenido el código propio
+     */
+    public record StackGroup(int count, boolean virtual, State state, String applicationFrame,
+                             List<String> sampleNames, List<String> stack) {
+
+        String toJson() {
+            return String.format(Locale.ROOT, "{\"count\":%d,\"virtual\":%b,\"state\":\"%s\",\"applicationFrame\":%s," +
+                            "\"sampleNames\":%s,\"stack\":%s}", this.count, this.virtual, this.state,
+                    Json.quote(this.applicationFrame), Json.array(this.sampleNames), Json.array(this.stack));
+        }
+    }
+
+    public record Summary(Instant time, int totalThreads, int virtualThreads, Duration elapsed, List<StackGroup> groups) {
+
+        /**
+         * @param limit cantidad máxima de grupos a incluir, de mayor a menor número de hilos
+         */
+        public String toJson(int limit) {
+            return String.format(Locale.ROOT, "{\"time\":\"%s\",\"totalThreads\":%d,\"virtualThreads\":%d," +
+                            "\"dumpMillis\":%d,\"distinctStacks\":%d,\"groups\":%s}", this.time, this.totalThreads,
+                    this.virtualThreads, this.elapsed.toMillis(), this.groups.size(),
+                    this.groups.stream().limit(limit).map(StackGroup::toJson).collect(Collectors.joining(",", "[", "]")));
+        }
+    }
+
+    private static final int SAMPLE_NAMES = 3;
+    private static final List<String> JDK_MODULE_PREFIXES = List.of("java.", "jdk.", "sun.");
+
+    private ThreadDumpAnalyzer() {
+    }
+
+    /**
+     * Vuelca los hilos de la JVM actual y devuelve los grupos ordenados de mayor a menor cantidad de hilos.
+     */
+    public static Summary dump() {
+        long start = System.nanoTime();
+        Path file = null;
+        try {
+            file = Files.createTempFile("thread-dump-", ".txt");
+            // dumpThreads exige una ruta absoluta a un archivo que no exista
+            Files.delete(file);
+            ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class)
+                    .dumpThreads(file.toAbsolutePath().toString(), HotSpotDiagnosticMXBean.ThreadDumpFormat.TEXT_PLAIN);
+            try (BufferedReader reader = Files.newBufferedReader(file)) {
+                return parse(reader, System.nanoTime() - start);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo generar el volcado de hilos", e);
+        } finally {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ignored) {
+                    // Es un archivo temporal
+                }
+            }
+        }
+    }
+
+    /**
+     * Interpreta un volcado en formato {@code TEXT_PLAIN}: una cabecera {@code #tid "nombre" [virtual]} por hilo,
+     * seguida de sus frames indentados y una línea en blanco.
+     */
+    static Summary parse(BufferedReader reader, long elapsedNanos) throws IOException {
+        Map<String, GroupBuilder> groups = new HashMap<>();
+        int total = 0;
+        int virtual = 0;
+        String header = null;
+        List<String> frames = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith("#")) {
+                header = line;
+                frames = new ArrayList<>();
+            } else if (header != null && line.isBlank()) {
+                total++;
+                if (header.endsWith(" virtual")) {
+                    virtual++;
+                }
+                addThread(groups, header, frames);
+                header = null;
+            } else if (header != null) {
+                frames.add(line.trim());
+            }
+        }
+        if (header != null) {
+            total++;
+            if (header.endsWith(" virtual")) {
+                virtual++;
+            }
+            addThread(groups, header, frames);
+        }
+        List<StackGroup> sorted = groups.values().stream()
+                .map(GroupBuilder::build)
+                .sorted(Comparator.comparingInt(StackGroup::count).reversed())
+                .toList();
+        return new Summary(Instant.now(), total, virtual, Duration.ofNanos(elapsedNanos), sorted);
+    }
+
+    private static void addThread(Map<String, GroupBuilder> groups, String header, List<String> frames) {
+        boolean virtual = header.endsWith(" virtual");
+        State state = inferState(frames);
+        String key = virtual + "|" + state + "|" + String.join("\n", frames);
+        groups.computeIfAbsent(key, k -> new GroupBuilder(virtual, state, frames)).add(threadName(header));
+    }
+
+    static State inferState(List<String> frames) {
+        if (frames.isEmpty()) {
+            return State.NO_STACK;
+        }
+        // Basta con los frames superiores: ahí está la llamada bloqueante
+        for (String frame : frames.subList(0, Math.min(frames.size(), 12))) {
+            if (frame.contains("java.lang.Thread.sleep") || frame.contains("VirtualThread.sleepNanos")) {
+                return State.SLEEPING;
+            }
+            if (frame.contains("java.lang.Object.wait")) {
+                return State.OBJECT_WAIT;
+            }
+            if (frame.contains("sun.nio.ch.") && (frame.contains("park") || frame.contains("read") ||
+                    frame.contains("accept") || frame.contains("poll"))) {
+                return State.SOCKET_IO;
+            }
+            if (frame.contains("LockSupport.parkNanos") || frame.contains("LockSupport.parkUntil")) {
+                return State.TIMED_PARKED;
+            }
+            if (frame.contains("LockSupport.park")) {
+                return State.PARKED;
+            }
+        }
+        return State.RUNNABLE;
+    }
+
+    // Los hilos virtuales no suelen tener nombre; en ese caso se usa su id ("#123")
+    private static String threadName(String header) {
+        int open = header.indexOf('"');
+        int close = header.lastIndexOf('"');
+        if (open < 0 || close <= open) {
+            return header;
+        }
+        return close > open + 1 ? header.substring(open + 1, close) : header.substring(0, open).trim();
+    }
+
+    private static String applicationFrame(List<String> frames) {
+        for (String frame : frames) {
+            int slash = frame.indexOf('/');
+            // Los frames del JDK llevan el módulo delante: "java.base/java.lang.Thread.sleep(...)"
+            String module = slash > 0 ? frame.substring(0, slash) : "";
+            if (JDK_MODULE_PREFIXES.stream().noneMatch(module::startsWith)) {
+                return frame;
+            }
+        }
+        return frames.isEmpty() ? null : frames.getFirst();
+    }
+
+    private static final class GroupBuilder {
+        private final boolean virtual;
+        private final State state;
+        private final List<String> frames;
+        private final List<String> sampleNames = new ArrayList<>(SAMPLE_NAMES);
+        private int count;
+
+        private GroupBuilder(boolean virtual, State state, List<String> frames) {
+            this.virtual = virtual;
+            this.state = state;
+            this.frames = frames;
+        }
+
+        private void add(String name) {
+            this.count++;
+            if (this.sampleNames.size() < SAMPLE_NAMES) {
+                this.sampleNames.add(name);
+            }
+        }
+
+        private StackGroup build() {
+            return new StackGroup(this.count, this.virtual, this.state, applicationFrame(this.frames),
+                    List.copyOf(this.sampleNames), List.copyOf(this.frames));
+        }
+    }
+}
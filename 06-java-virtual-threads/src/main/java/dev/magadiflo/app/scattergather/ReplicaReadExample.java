@@ -0,0 +1,82 @@
+package dev.magadiflo.app.scattergather;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lee un mismo registro de tres réplicas con latencias distintas y compara las políticas de {@link ScatterGather}.
+ * Con {@code firstSuccess} la latencia es la de la réplica más rápida; con {@code allSuccess}, la de la más lenta.
+ */
+@Slf4j
+public class ReplicaReadExample {
+
+    // Réplicas en curso: al retornar cada lectura debe volver a 0, es decir, no quedan hilos trabajando
+    private static final AtomicInteger inFlight = new AtomicInteger();
+
+    public static void main(String[] args) throws InterruptedException {
+        List<Callable<String>> replicas = List.of(
+                replica("replica-lima", Duration.ofMillis(40), false),
+                replica("replica-bogota", Duration.ofMillis(120), false),
+                replica("replica-madrid", Duration.ofMillis(300), false));
+
+        read("allSuccess", () -> ScatterGather.allSuccess("lectura", replicas, Duration.ofSeconds(1)));
+        read("firstSuccess", () -> ScatterGather.firstSuccess("lectura", replicas, Duration.ofSeconds(1)));
+        read("quorum(2)", () -> ScatterGather.quorum("lectura", replicas, 2, Duration.ofSeconds(1)));
+
+        // La réplica más rápida falla: firstSuccess se queda con la siguiente, allSuccess falla de inmediato
+        List<Callable<String>> withFailure = List.of(
+                replica("replica-lima", Duration.ofMillis(40), true),
+                replica("replica-bogota", Duration.ofMillis(120), false),
+                replica("replica-madrid", Duration.ofMillis(300), false));
+        read("firstSuccess con falla", () -> ScatterGather.firstSuccess("lectura", withFailure, Duration.ofSeconds(1)));
+        read("allSuccess con falla", () -> ScatterGather.allSuccess("lectura", withFailure, Duration.ofSeconds(1)));
+
+        // Plazo compartido más corto que la réplica más lenta
+        read("quorum(3) con plazo", () -> ScatterGather.quorum("lectura", replicas, 3, Duration.ofMillis(200)));
+    }
+
+    private static Callable<String> replica(String name, Duration latency, boolean fails) {
+        return () -> {
+            inFlight.incrementAndGet();
+            try {
+                Thread.sleep(latency); // Simula la consulta bloqueante a la réplica
+                if (fails) {
+                    throw new IllegalStateException(name + " no disponible");
+                }
+                return name + ":usuario-42";
+            } catch (InterruptedException e) {
+                log.info("{} cancelada", name);
+                throw e;
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        };
+    }
+
+    private static void read(String policy, Callable<?> operation) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            Object result = operation.call();
+            log.info("{}: {} en {} ms (réplicas en curso: {})", policy, result, elapsedMillis(start), inFlight.get());
+        } catch (ExecutionException e) {
+            log.info("{}: falló en {} ms por '{}' (réplicas en curso: {})", policy, elapsedMillis(start),
+                    e.getCause().getMessage(), inFlight.get());
+        } catch (TimeoutException e) {
+            log.info("{}: {} (réplicas en curso: {})", policy, e.getMessage(), inFlight.get());
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
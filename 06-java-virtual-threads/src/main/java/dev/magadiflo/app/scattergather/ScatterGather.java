@@ -0,0 +1,209 @@
+package dev.magadiflo.app.scattergather;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reparte (scatter) una petición entre varios backends bloqueantes, cada uno en su propio hilo virtual, y combina
+ * (gather) las respuestas según una política:
+ * <ul>
+ *     <li>{@link #allSuccess}: todas las tareas deben terminar bien; la primera falla cancela al resto.</li>
+ *     <li>{@link #firstSuccess}: gana la primera respuesta correcta y las demás se cancelan.</li>
+ *     <li>{@link #quorum}: basta con {@code required} respuestas correctas.</li>
+ * </ul>
+ * Sigue la semántica de {@code StructuredTaskScope}: todas las tareas comparten un mismo plazo, cancelar significa
+ * interrumpir el hilo, y ningún método retorna (ni con resultado ni con excepción) hasta que todos los hilos que lanzó
+ * han terminado. Así no quedan hilos huérfanos trabajando para una petición que ya respondió.
+ * <p>
+ * Si una tarea ignora la interrupción, el método espera a que termine por sí sola.
+ */
+@Slf4j
+public final class ScatterGather {
+
+    private ScatterGather() {
+    }
+
+    /**
+     * Ejecuta todas las tareas y devuelve sus resultados en el mismo orden en que se recibieron.
+     *
+     * @throws ExecutionException si alguna tarea falla; la causa es la primera falla
+     * @throws TimeoutException   si no terminan todas antes de {@code timeout}
+     */
+    public static <T> List<T> allSuccess(String name, List<? extends Callable<? extends T>> tasks, Duration timeout)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        return new Scope<T>(name, tasks, tasks.size()).gather(timeout, true);
+    }
+
+    /**
+     * Devuelve el resultado de la primera tarea que termine bien y cancela las demás.
+     *
+     * @throws ExecutionException si todas fallan; la causa es la primera falla y el resto van como suprimidas
+     * @throws TimeoutException   si ninguna termina bien antes de {@code timeout}
+     */
+    public static <T> T firstSuccess(String name, List<? extends Callable<? extends T>> tasks, Duration timeout)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        return new Scope<T>(name, tasks, 1).gather(timeout, false).getFirst();
+    }
+
+    /**
+     * Devuelve las primeras {@code required} respuestas correctas, en orden de llegada, y cancela las demás tareas.
+     *
+     * @throws ExecutionException si fallan tantas tareas que el quórum ya no es alcanzable
+     * @throws TimeoutException   si no se alcanza el quórum antes de {@code timeout}
+     */
+    public static <T> List<T> quorum(String name, List<? extends Callable<? extends T>> tasks, int required,
+                                     Duration timeout)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        return new Scope<T>(name, tasks, required).gather(timeout, false);
+    }
+
+    /**
+     * Estado de una única ejecución: hilos lanzados, resultados y fallas. Todo se protege con un {@link ReentrantLock}
+     * para no fijar (pin) los hilos virtuales que reportan su resultado.
+     */
+    private static final class Scope<T> {
+        private final String name;
+        private final List<? extends Callable<? extends T>> tasks;
+        private final int required;
+        private final Thread[] threads;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = this.lock.newCondition();
+        private final Object[] resultsByTask;
+        private final boolean[] succeeded;
+        private final List<T> resultsByArrival = new ArrayList<>();
+        private final List<Throwable> failures = new ArrayList<>();
+        private boolean closed = false;
+
+        private Scope(String name, List<? extends Callable<? extends T>> tasks, int required) {
+            if (tasks.isEmpty()) {
+                throw new IllegalArgumentException("Se necesita al menos una tarea");
+            }
+            if (required < 1 || required > tasks.size()) {
+                throw new IllegalArgumentException(String.format("El quórum debe estar entre 1 y %d: %d",
+                        tasks.size(), required));
+            }
+            this.name = name;
+            this.tasks = List.copyOf(tasks);
+            this.required = required;
+            this.threads = new Thread[tasks.size()];
+            this.resultsByTask = new Object[tasks.size()];
+            this.succeeded = new boolean[tasks.size()];
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<T> gather(Duration timeout, boolean keepTaskOrder)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            for (int i = 0; i < this.threads.length; i++) {
+                int index = i;
+                this.threads[i] = Thread.ofVirtual().name(this.name + "-" + i).unstarted(() -> this.run(index));
+            }
+            for (Thread thread : this.threads) {
+                thread.start();
+            }
+
+            boolean timedOut = false;
+            this.lock.lock();
+            try {
+                while (this.resultsByArrival.size() < this.required && this.quorumReachable()) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        timedOut = true;
+                        break;
+                    }
+                    this.changed.awaitNanos(remaining);
+                }
+                // A partir de aquí los resultados que lleguen (de tareas ya canceladas) se descartan
+                this.closed = true;
+            } finally {
+                this.lock.unlock();
+                this.cancelAndJoin();
+            }
+
+            if (timedOut) {
+                throw new TimeoutException(String.format("%s: %d de %d respuestas correctas en %d ms", this.name,
+                        this.resultsByArrival.size(), this.required, timeout.toMillis()));
+            }
+            if (this.resultsByArrival.size() < this.required) {
+                ExecutionException exception = new ExecutionException(
+                        String.format("%s: %d de %d tareas fallaron", this.name, this.failures.size(), this.tasks.size()),
+                        this.failures.getFirst());
+                this.failures.stream().skip(1).forEach(exception::addSuppressed);
+                throw exception;
+            }
+            if (!keepTaskOrder) {
+                // List.copyOf() no admite null, y una tarea puede devolverlo legítimamente
+                return Collections.unmodifiableList(new ArrayList<>(this.resultsByArrival.subList(0, this.required)));
+            }
+            return Arrays.stream(this.resultsByTask).map(result -> (T) result).toList();
+        }
+
+        private void run(int index) {
+            try {
+                T result = this.tasks.get(index).call();
+                this.complete(index, result, null);
+            } catch (Throwable e) {
+                this.complete(index, null, e);
+            }
+        }
+
+        private void complete(int index, T result, Throwable failure) {
+            this.lock.lock();
+            try {
+                if (this.closed) {
+                    return;
+                }
+                if (failure == null) {
+                    this.resultsByTask[index] = result;
+                    this.succeeded[index] = true;
+                    this.resultsByArrival.add(result);
+                } else {
+                    this.failures.add(failure);
+                }
+                this.changed.signal();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private boolean quorumReachable() {
+            return this.failures.size() <= this.tasks.size() - this.required;
+        }
+
+        /**
+         * Interrumpe las tareas que sigan en curso y espera a que terminen todas. Si el hilo que llama es interrumpido
+         * mientras espera, se sigue esperando y se restaura el flag al final.
+         */
+        private void cancelAndJoin() {
+            for (int i = 0; i < this.threads.length; i++) {
+                if (this.threads[i] != null && !this.succeeded[i]) {
+                    this.threads[i].interrupt();
+                }
+            }
+            boolean interrupted = false;
+            for (Thread thread : this.threads) {
+                while (thread != null) {
+                    try {
+                        thread.join();
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
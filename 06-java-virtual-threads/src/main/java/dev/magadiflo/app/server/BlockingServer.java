@@ -0,0 +1,284 @@
+package dev.magadiflo.app.server;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serial;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Servidor TCP bloqueante de un hilo por conexión, escuchando solo en loopback.
+ * <p>
+ * Un hilo de plataforma acepta conexiones y entrega cada socket a un {@link ExecutorService}: un hilo virtual por
+ * conexión ({@link ThreadingModel#VIRTUAL}) o un pool fijo de hilos de plataforma ({@link ThreadingModel#POOL}).
+ * El código de cada conexión es el mismo en ambos casos: lecturas y escrituras bloqueantes sobre el socket.
+ * <p>
+ * Protocolos:
+ * <ul>
+ *     <li>{@link Protocol#ECHO}: devuelve cada línea recibida.</li>
+ *     <li>{@link Protocol#HTTP}: HTTP/1.1 mínimo con keep-alive; responde {@code 200 OK} a cualquier petición.</li>
+ * </ul>
+ * Una línea de más de {@value #MAX_LINE_BYTES} bytes cierra la conexión (en HTTP, tras responder {@code 400}): sin ese
+ * límite, un cliente que nunca envía {@code \n} haría crecer el buffer de la línea hasta agotar el heap.
+ * Con {@code main} se ejecuta como proceso independiente e imprime {@code PORT <puerto>} en la salida estándar, lo que
+ * permite a {@link LoadGenerator} medir la memoria del servidor por separado.
+ * Ejemplo: {@code java BlockingServer model=virtual protocol=http port=8080}
+ */
+@Slf4j
+public final class BlockingServer implements AutoCloseable {
+
+    public enum ThreadingModel {
+        VIRTUAL, POOL
+    }
+
+    public enum Protocol {
+        ECHO, HTTP
+    }
+
+    private static final int BACKLOG = 4096;
+    static final int MAX_LINE_BYTES = 8192;
+    private static final byte[] HTTP_BODY = "hola desde un hilo virtual\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HTTP_BAD_REQUEST = ("HTTP/1.1 400 Bad Request\r\n" +
+            "Content-Length: 0\r\n" +
+            "Connection: close\r\n" +
+            "\r\n").getBytes(StandardCharsets.US_ASCII);
+
+    private final Protocol protocol;
+    private final ExecutorService executor;
+    private final ServerSocket serverSocket;
+    private final Thread acceptor;
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private final LongAdder acceptedConnections = new LongAdder();
+    private final LongAdder handledRequests = new LongAdder();
+
+    public BlockingServer(Protocol protocol, ThreadingModel model, int poolSize, int port) throws IOException {
+        this.protocol = protocol;
+        this.executor = switch (model) {
+            case VIRTUAL -> Executors.newVirtualThreadPerTaskExecutor();
+            case POOL -> Executors.newFixedThreadPool(poolSize);
+        };
+        this.serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        this.acceptor = Thread.ofPlatform().name("acceptor").start(this::acceptLoop);
+        log.info("Servidor {} con modelo {} escuchando en el puerto {}", protocol, model, this.port());
+    }
+
+    public int port() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    public int activeConnections() {
+        return this.activeConnections.get();
+    }
+
+    public long acceptedConnections() {
+        return this.acceptedConnections.sum();
+    }
+
+    public long handledRequests() {
+        return this.handledRequests.sum();
+    }
+
+    /**
+     * Deja de aceptar conexiones y cierra el executor. En el modelo virtual espera a que terminen las conexiones en
+     * curso; los clientes deben cerrar las suyas. Si el hilo se interrumpe mientras espera, sigue esperando y restaura
+     * el flag al salir, como {@code ExecutorService.close()}.
+     */
+    @Override
+    public void close() throws IOException {
+        this.serverSocket.close();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                this.acceptor.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        this.executor.close();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!this.serverSocket.isClosed()) {
+            try {
+                Socket socket = this.serverSocket.accept();
+                this.acceptedConnections.increment();
+                this.executor.execute(() -> this.handle(socket));
+            } catch (SocketException e) {
+                return; // El server socket se cerró
+            } catch (IOException e) {
+                log.warn("Error aceptando conexión: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        this.activeConnections.incrementAndGet();
+        try (socket;
+             InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            socket.setTcpNoDelay(true);
+            switch (this.protocol) {
+                case ECHO -> this.echo(in, out);
+                case HTTP -> this.http(in, out);
+            }
+        } catch (IOException e) {
+            log.debug("Conexión cerrada con error: {}", e.getMessage());
+        } finally {
+            this.activeConnections.decrementAndGet();
+        }
+    }
+
+    private void echo(InputStream in, OutputStream out) throws IOException {
+        String line;
+        // Se decodifica y se codifica con el mismo charset para no alterar el texto que no es ASCII
+        while ((line = readLine(in, StandardCharsets.UTF_8)) != null) {
+            out.write(line.getBytes(StandardCharsets.UTF_8));
+            out.write('\n');
+            out.flush();
+            this.handledRequests.increment();
+        }
+    }
+
+    private void http(InputStream in, OutputStream out) throws IOException {
+        try {
+            this.serveHttp(in, out);
+        } catch (LineTooLongException e) {
+            out.write(HTTP_BAD_REQUEST);
+            out.flush();
+        }
+    }
+
+    private void serveHttp(InputStream in, OutputStream out) throws IOException {
+        while (true) {
+            // Las cabeceras HTTP son octetos: ISO-8859-1 los conserva tal cual
+            String requestLine = readLine(in, StandardCharsets.ISO_8859_1);
+            if (requestLine == null || requestLine.isEmpty()) {
+                return;
+            }
+            Map<String, String> headers = new HashMap<>();
+            String line;
+            while ((line = readLine(in, StandardCharsets.ISO_8859_1)) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                if (colon > 0) {
+                    headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+                }
+            }
+            long contentLength = parseContentLength(headers.getOrDefault("content-length", "0"));
+            if (contentLength < 0) {
+                // Sin un Content-Length válido no se sabe dónde empieza la siguiente petición: se cierra la conexión
+                out.write(HTTP_BAD_REQUEST);
+                out.flush();
+                return;
+            }
+            in.skipNBytes(contentLength);
+
+            // HTTP/1.1 mantiene la conexión abierta salvo "Connection: close"; HTTP/1.0 la cierra salvo "keep-alive"
+            String connection = headers.getOrDefault("connection", "").toLowerCase(Locale.ROOT);
+            boolean keepAlive = requestLine.endsWith("HTTP/1.1") ? !connection.equals("close")
+                    : connection.equals("keep-alive");
+            out.write(("HTTP/1.1 200 OK\r\n" +
+                    "Content-Type: text/plain\r\n" +
+                    "Content-Length: " + HTTP_BODY.length + "\r\n" +
+                    (keepAlive ? "" : "Connection: close\r\n") +
+                    "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.write(HTTP_BODY);
+            out.flush();
+            this.handledRequests.increment();
+            if (!keepAlive) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return la longitud, o {@code -1} si el valor no es un número no negativo
+     */
+    private static long parseContentLength(String value) {
+        try {
+            return Math.max(Long.parseLong(value), -1);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Lee una línea terminada en {@code \n} (descartando un {@code \r} final) y decodifica sus bytes con
+     * {@code charset}. Devuelve {@code null} si la conexión se cerró antes de leer algo.
+     *
+     * @throws LineTooLongException si la línea supera {@value #MAX_LINE_BYTES} bytes
+     */
+    static String readLine(InputStream in, Charset charset) throws IOException {
+        byte[] line = new byte[64];
+        int length = 0;
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                if (length > 0 && line[length - 1] == '\r') {
+                    length--;
+                }
+                return new String(line, 0, length, charset);
+            }
+            if (length == line.length) {
+                if (length >= MAX_LINE_BYTES) {
+                    throw new LineTooLongException();
+                }
+                line = Arrays.copyOf(line, Math.min(length * 2, MAX_LINE_BYTES));
+            }
+            line[length++] = (byte) b;
+        }
+        return length == 0 ? null : new String(line, 0, length, charset);
+    }
+
+    static final class LineTooLongException extends IOException {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private LineTooLongException() {
+            super("Línea de más de " + MAX_LINE_BYTES + " bytes");
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] parts = arg.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Parámetro inválido, se esperaba clave=valor: " + arg);
+            }
+            options.put(parts[0], parts[1]);
+        }
+        BlockingServer server = new BlockingServer(
+                Protocol.valueOf(options.getOrDefault("protocol", "http").toUpperCase()),
+                ThreadingModel.valueOf(options.getOrDefault("model", "virtual").toUpperCase()),
+                Integer.parseInt(options.getOrDefault("poolSize", "200")),
+                Integer.parseInt(options.getOrDefault("port", "0")));
+        System.out.println("PORT " + server.port());
+        System.out.flush();
+        // Se detiene al cerrar la entrada estándar (o con Ctrl+D si se ejecuta a mano)
+        while (System.in.read() != -1) {
+            // Ignorar la entrada
+        }
+        server.close();
+    }
+}
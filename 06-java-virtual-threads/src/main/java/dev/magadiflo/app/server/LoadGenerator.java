@@ -0,0 +1,276 @@
+package dev.magadiflo.app.server;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generador de carga para {@link BlockingServer}. Por cada modelo de hilos arranca el servidor en un proceso aparte
+ * (para medir solo su memoria) y abre miles de conexiones loopback, cada una en su propio hilo virtual:
+ * <ol>
+ *     <li>Todas las conexiones se abren y esperan a que las demás estén abiertas.</li>
+ *     <li>Cada conexión envía {@code requests} peticiones seguidas (keep-alive) midiendo la latencia de cada una.</li>
+ *     <li>Cada conexión se cierra al terminar.</li>
+ * </ol>
+ * Emite una línea JSON por ejecución con conexiones/s, peticiones/s, percentiles de latencia y memoria residente del
+ * servidor por conexión (pico de RSS menos el RSS en reposo, dividido por las conexiones).
+ * <p>
+ * Parámetros ({@code clave=valor}): {@code connections} (por defecto {@code 1000,10000}), {@code requests} (por
+ * defecto {@code 10}), {@code models} ({@code virtual,pool}), {@code protocol} ({@code http} o {@code echo}) y
+ * {@code poolSize} (por defecto {@code 200}). Cada conexión usa un descriptor de archivo en cada proceso, así que el
+ * límite práctico lo marca {@code ulimit -n}.
+ */
+@Slf4j
+public class LoadGenerator {
+
+    private static final Path PROC = Path.of("/proc");
+    private static final int CONNECT_TIMEOUT_MILLIS = 10_000;
+    private static final int READ_TIMEOUT_MILLIS = 60_000;
+
+    record Result(BlockingServer.ThreadingModel model, BlockingServer.Protocol protocol, int connections,
+                  int requestsPerConnection, long errors, double connectMillis, double connectionsPerSec,
+                  double wallMillis, double requestsPerSec, double p50Micros, double p90Micros, double p99Micros,
+                  double maxMicros, long serverPeakThreads, long serverRssDeltaBytes, long serverBytesPerConnection) {
+
+        String toJson() {
+            return String.format(Locale.ROOT, "{\"model\":\"%s\",\"protocol\":\"%s\",\"connections\":%d," +
+                            "\"requestsPerConnection\":%d,\"errors\":%d,\"connectMillis\":%.1f,\"connectionsPerSec\":%.1f," +
+                            "\"wallMillis\":%.1f,\"requestsPerSec\":%.1f,\"p50Micros\":%.1f,\"p90Micros\":%.1f," +
+                            "\"p99Micros\":%.1f,\"maxMicros\":%.1f,\"serverPeakThreads\":%d,\"serverRssDeltaBytes\":%d," +
+                            "\"serverBytesPerConnection\":%d}",
+                    this.model.name().toLowerCase(), this.protocol.name().toLowerCase(), this.connections,
+                    this.requestsPerConnection, this.errors, this.connectMillis, this.connectionsPerSec,
+                    this.wallMillis, this.requestsPerSec, this.p50Micros, this.p90Micros, this.p99Micros,
+                    this.maxMicros, this.serverPeakThreads, this.serverRssDeltaBytes, this.serverBytesPerConnection);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int[] connectionCounts = Arrays.stream(options.getOrDefault("connections", "1000,10000").split(","))
+                .mapToInt(value -> Integer.parseInt(value.trim())).toArray();
+        int requests = Integer.parseInt(options.getOrDefault("requests", "10"));
+        List<BlockingServer.ThreadingModel> models = Arrays.stream(options.getOrDefault("models", "virtual,pool").split(","))
+                .map(value -> BlockingServer.ThreadingModel.valueOf(value.trim().toUpperCase())).toList();
+        BlockingServer.Protocol protocol = BlockingServer.Protocol.valueOf(options.getOrDefault("protocol", "http").toUpperCase());
+        int poolSize = Integer.parseInt(options.getOrDefault("poolSize", "200"));
+
+        for (int connections : connectionCounts) {
+            for (BlockingServer.ThreadingModel model : models) {
+                System.out.println(run(model, protocol, poolSize, connections, requests).toJson());
+            }
+        }
+    }
+
+    static Result run(BlockingServer.ThreadingModel model, BlockingServer.Protocol protocol, int poolSize,
+                      int connections, int requests) throws Exception {
+        Process server = startServer(model, protocol, poolSize);
+        try {
+            int port = awaitPort(server);
+            // Calentamiento del JIT en ambos procesos; después se toma el RSS en reposo del servidor
+            load(port, protocol, 200, requests, new long[200 * requests]);
+            Thread.sleep(500);
+            long baselineRss = readStatus(server.pid(), "VmRSS:") * 1024;
+
+            AtomicLong peakRss = new AtomicLong(baselineRss);
+            AtomicLong peakThreads = new AtomicLong();
+            Thread sampler = Thread.ofPlatform().daemon().name("server-sampler").start(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    peakRss.accumulateAndGet(readStatus(server.pid(), "VmRSS:") * 1024, Math::max);
+                    peakThreads.accumulateAndGet(readStatus(server.pid(), "Threads:"), Math::max);
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+
+            long[] latencies = new long[connections * requests];
+            long start = System.nanoTime();
+            LoadStats stats = load(port, protocol, connections, requests, latencies);
+            long end = System.nanoTime();
+            sampler.interrupt();
+            sampler.join();
+
+            long[] measured = Arrays.stream(latencies).filter(latency -> latency > 0).sorted().toArray();
+            long allConnectedAt = stats.allConnectedAt() == 0 ? end : stats.allConnectedAt();
+            double connectMillis = (allConnectedAt - start) / 1_000_000.0;
+            double wallMillis = (end - start) / 1_000_000.0;
+            long rssDelta = Math.max(0, peakRss.get() - baselineRss);
+            return new Result(model, protocol, connections, requests, stats.errors(), connectMillis,
+                    connections / (connectMillis / 1000.0), wallMillis, measured.length / (wallMillis / 1000.0),
+                    percentile(measured, 0.50), percentile(measured, 0.90), percentile(measured, 0.99),
+                    percentile(measured, 1.0), peakThreads.get(), rssDelta, rssDelta / connections);
+        } finally {
+            server.getOutputStream().close(); // El servidor se detiene al cerrarse su entrada estándar
+            if (!server.waitFor(30, TimeUnit.SECONDS)) {
+                server.destroyForcibly();
+            }
+        }
+    }
+
+    private record LoadStats(long allConnectedAt, long errors) {
+    }
+
+    private static LoadStats load(int port, BlockingServer.Protocol protocol, int connections, int requests,
+                                  long[] latencies) throws InterruptedException {
+        CountDownLatch connected = new CountDownLatch(connections);
+        AtomicLong allConnectedAt = new AtomicLong();
+        LongAdder errors = new LongAdder();
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        byte[] request = switch (protocol) {
+            case HTTP -> "GET / HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+            case ECHO -> "ping\n".getBytes(StandardCharsets.US_ASCII);
+        };
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                int offset = i * requests;
+                clients.execute(() -> {
+                    boolean countedDown = false;
+                    try (Socket socket = new Socket()) {
+                        socket.setTcpNoDelay(true);
+                        socket.connect(address, CONNECT_TIMEOUT_MILLIS);
+                        socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+                        connected.countDown();
+                        countedDown = true;
+                        connected.await();
+                        allConnectedAt.compareAndSet(0, System.nanoTime());
+
+                        InputStream in = new BufferedInputStream(socket.getInputStream());
+                        OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+                        for (int r = 0; r < requests; r++) {
+                            long start = System.nanoTime();
+                            out.write(request);
+                            out.flush();
+                            readResponse(protocol, in);
+                            latencies[offset + r] = System.nanoTime() - start;
+                        }
+                    } catch (IOException e) {
+                        errors.increment();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        if (!countedDown) {
+                            connected.countDown();
+                        }
+                    }
+                });
+            }
+        }
+        return new LoadStats(allConnectedAt.get(), errors.sum());
+    }
+
+    private static void readResponse(BlockingServer.Protocol protocol, InputStream in) throws IOException {
+        if (protocol == BlockingServer.Protocol.ECHO) {
+            if (BlockingServer.readLine(in, StandardCharsets.UTF_8) == null) {
+                throw new IOException("Conexión cerrada por el servidor");
+            }
+            return;
+        }
+        String statusLine = BlockingServer.readLine(in, StandardCharsets.ISO_8859_1);
+        if (statusLine == null || !statusLine.startsWith("HTTP/1.1 200")) {
+            throw new IOException("Respuesta inesperada: " + statusLine);
+        }
+        long contentLength = 0;
+        String line;
+        while ((line = BlockingServer.readLine(in, StandardCharsets.ISO_8859_1)) != null && !line.isEmpty()) {
+            if (line.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+                contentLength = Long.parseLong(line.substring(15).trim());
+            }
+        }
+        in.skipNBytes(contentLength);
+    }
+
+    private static Process startServer(BlockingServer.ThreadingModel model, BlockingServer.Protocol protocol,
+                                       int poolSize) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(BlockingServer.class.getName());
+        command.add("model=" + model.name().toLowerCase());
+        command.add("protocol=" + protocol.name().toLowerCase());
+        command.add("poolSize=" + poolSize);
+        return new ProcessBuilder(command).redirectErrorStream(true).start();
+    }
+
+    /**
+     * Espera la línea {@code PORT <puerto>} del servidor y sigue reenviando su salida al log en segundo plano.
+     */
+    private static int awaitPort(Process server) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(server.getInputStream(), StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith("PORT ")) {
+                Thread.ofPlatform().daemon().name("server-output").start(() -> reader.lines()
+                        .forEach(output -> log.info("[servidor] {}", output)));
+                return Integer.parseInt(line.substring(5).trim());
+            }
+            log.info("[servidor] {}", line);
+        }
+        throw new IOException("El servidor terminó sin informar su puerto");
+    }
+
+    /**
+     * Lee un campo numérico de {@code /proc/<pid>/status}. Devuelve 0 si no está disponible (por ejemplo, fuera de
+     * Linux).
+     */
+    private static long readStatus(long pid, String field) {
+        try {
+            for (String line : Files.readAllLines(PROC.resolve(String.valueOf(pid)).resolve("status"))) {
+                if (line.startsWith(field)) {
+                    return Long.parseLong(line.substring(field.length()).trim().split("\\s+")[0]);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // El proceso terminó o /proc no existe
+        }
+        return 0;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1000.0;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] parts = arg.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Parámetro inválido, se esperaba clave=valor: " + arg);
+            }
+            options.put(parts[0], parts[1]);
+        }
+        return options;
+    }
+}